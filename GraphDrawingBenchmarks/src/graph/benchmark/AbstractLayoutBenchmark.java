@@ -0,0 +1,79 @@
+package graph.benchmark;
+
+import graph.drawing.Drawing;
+import graph.elements.Graph;
+import graph.elements.impl.GraphEdge;
+import graph.elements.impl.GraphVertex;
+import graph.exception.CannotBeAppliedException;
+import graph.layout.DefaultGraphLayoutProperties;
+import graph.layout.LayoutAlgorithms;
+import graph.layout.Layouter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures throughput of {@link Layouter#layout()} for every layout algorithm
+ * on graphs of different sizes. Subclasses choose the families of the graphs and their densities.
+ * Combinations for which the algorithm cannot be applied (for example tree layouts of graphs
+ * which contain cycles) fail during setup and are reported as such by JMH
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public abstract class AbstractLayoutBenchmark {
+
+	@Param({"100", "1000"})
+	public int size;
+
+	/**
+	 * All layout algorithms are used
+	 */
+	@Param
+	public LayoutAlgorithms algorithm;
+
+	private Layouter<GraphVertex, GraphEdge> layouter;
+
+	@Setup(Level.Trial)
+	public void setUp() throws CannotBeAppliedException{
+		GeneratedGraph generated = generate(size);
+		List<GraphVertex> vertices = generated.getVertices();
+		List<GraphEdge> edges = generated.getEdges();
+
+		layouter = new Layouter<GraphVertex, GraphEdge>(vertices, edges, algorithm);
+		layouter.setLayoutProperties(DefaultGraphLayoutProperties.getDefaultLayoutProperties(algorithm,
+				new Graph<GraphVertex, GraphEdge>(vertices, edges)));
+
+		//fail early if the algorithm cannot be applied to this graph
+		layouter.layout();
+	}
+
+	/**
+	 * Generates the laid out graph
+	 * @param numberOfVertices Number of vertices
+	 * @return Generated vertices and edges
+	 */
+	protected abstract GeneratedGraph generate(int numberOfVertices);
+
+	@Benchmark
+	public Drawing<GraphVertex, GraphEdge> layout() throws CannotBeAppliedException{
+		return layouter.layout();
+	}
+
+}
@@ -0,0 +1,34 @@
+package graph.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the layout benchmarks with the GC profiler, so that the allocation rate is reported
+ * alongside throughput. Accepts the usual JMH command line options, which can be used to
+ * select benchmarks or parameters, for example {@code -p size=1000 -p algorithm=BALLOON}.
+ * If no benchmarks are selected on the command line, all layout benchmarks are run.
+ * Results are also written to {@code layout-benchmarks.json}
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException{
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		ChainedOptionsBuilder builder = new OptionsBuilder()
+				.parent(commandLineOptions)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result("layout-benchmarks.json");
+		if (commandLineOptions.getIncludes().isEmpty())
+			builder.include(LayoutBenchmark.class.getSimpleName())
+				.include(TreeAndGridLayoutBenchmark.class.getSimpleName());
+		new Runner(builder.build()).run();
+	}
+
+}
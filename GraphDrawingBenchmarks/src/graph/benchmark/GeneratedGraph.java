@@ -0,0 +1,39 @@
+package graph.benchmark;
+
+import graph.elements.impl.GraphEdge;
+import graph.elements.impl.GraphVertex;
+
+import java.util.List;
+
+/**
+ * Vertices and edges of a graph generated by a {@link GraphFamily}
+ */
+public class GeneratedGraph {
+
+	private final List<GraphVertex> vertices;
+	private final List<GraphEdge> edges;
+
+	/**
+	 * @param vertices Generated vertices
+	 * @param edges Generated edges
+	 */
+	public GeneratedGraph(List<GraphVertex> vertices, List<GraphEdge> edges) {
+		this.vertices = vertices;
+		this.edges = edges;
+	}
+
+	/**
+	 * @return Generated vertices
+	 */
+	public List<GraphVertex> getVertices() {
+		return vertices;
+	}
+
+	/**
+	 * @return Generated edges
+	 */
+	public List<GraphEdge> getEdges() {
+		return edges;
+	}
+
+}
@@ -0,0 +1,113 @@
+package graph.benchmark;
+
+import graph.elements.impl.GraphEdge;
+import graph.elements.impl.GraphVertex;
+
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Families of graphs used as benchmark inputs. Graphs are generated from a fixed seed,
+ * so every run of a benchmark lays out the same graph
+ */
+public enum GraphFamily {
+
+	/**
+	 * Random tree, every vertex is connected to one of the previously created vertices
+	 */
+	TREE{
+		@Override
+		protected void generateEdges(List<GraphVertex> vertices, double density, Random random, List<GraphEdge> edges) {
+			for (int i = 1; i < vertices.size(); i++)
+				edges.add(new GraphEdge(vertices.get(random.nextInt(i)), vertices.get(i)));
+		}
+	},
+	/**
+	 * Subgraph of a random stacked triangulation. Every new vertex is placed inside a random
+	 * triangular face and connected to between one and three of its vertices, depending on the density
+	 */
+	PLANAR{
+		@Override
+		protected void generateEdges(List<GraphVertex> vertices, double density, Random random, List<GraphEdge> edges) {
+			int n = vertices.size();
+			if (n < 3){
+				TREE.generateEdges(vertices, density, random, edges);
+				return;
+			}
+			int connections = (int) Math.max(1, Math.min(3, Math.round(density)));
+			List<int[]> faces = new ArrayList<int[]>();
+			edges.add(new GraphEdge(vertices.get(0), vertices.get(1)));
+			edges.add(new GraphEdge(vertices.get(1), vertices.get(2)));
+			edges.add(new GraphEdge(vertices.get(2), vertices.get(0)));
+			faces.add(new int[]{0, 1, 2});
+			faces.add(new int[]{0, 1, 2});
+			for (int i = 3; i < n; i++){
+				int index = random.nextInt(faces.size());
+				int[] face = faces.get(index);
+				for (int j = 0; j < connections; j++)
+					edges.add(new GraphEdge(vertices.get(face[j]), vertices.get(i)));
+				faces.set(index, new int[]{face[0], face[1], i});
+				faces.add(new int[]{face[1], face[2], i});
+				faces.add(new int[]{face[2], face[0], i});
+			}
+		}
+	},
+	/**
+	 * Random graph with {@code density * n} edges between uniformly chosen pairs of distinct vertices
+	 */
+	RANDOM{
+		@Override
+		protected void generateEdges(List<GraphVertex> vertices, double density, Random random, List<GraphEdge> edges) {
+			int n = vertices.size();
+			if (n < 2)
+				return;
+			int numberOfEdges = (int) Math.round(density * n);
+			for (int i = 0; i < numberOfEdges; i++){
+				int origin = random.nextInt(n);
+				int destination = random.nextInt(n - 1);
+				if (destination >= origin)
+					destination++;
+				edges.add(new GraphEdge(vertices.get(origin), vertices.get(destination)));
+			}
+		}
+	},
+	/**
+	 * Square grid, with the last row possibly incomplete
+	 */
+	GRID{
+		@Override
+		protected void generateEdges(List<GraphVertex> vertices, double density, Random random, List<GraphEdge> edges) {
+			int n = vertices.size();
+			int width = (int) Math.ceil(Math.sqrt(n));
+			for (int i = 0; i < n; i++){
+				if ((i + 1) % width != 0 && i + 1 < n)
+					edges.add(new GraphEdge(vertices.get(i), vertices.get(i + 1)));
+				if (i + width < n)
+					edges.add(new GraphEdge(vertices.get(i), vertices.get(i + width)));
+			}
+		}
+	};
+
+	private static final long SEED = 42;
+
+	/**
+	 * Generates a graph of this family
+	 * @param numberOfVertices Number of vertices
+	 * @param density Average number of edges per vertex. Not used by trees and grids
+	 * @return Generated vertices and edges
+	 */
+	public GeneratedGraph generate(int numberOfVertices, double density){
+		Random random = new Random(SEED);
+		List<GraphVertex> vertices = new ArrayList<GraphVertex>();
+		for (int i = 0; i < numberOfVertices; i++)
+			vertices.add(new GraphVertex(new Dimension(10, 10), String.valueOf(i)));
+		List<GraphEdge> edges = new ArrayList<GraphEdge>();
+		generateEdges(vertices, density, random, edges);
+		return new GeneratedGraph(vertices, edges);
+	}
+
+	protected abstract void generateEdges(List<GraphVertex> vertices, double density, Random random, List<GraphEdge> edges);
+
+}
@@ -0,0 +1,24 @@
+package graph.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Layout benchmarks on families of graphs whose number of edges depends on the density
+ */
+public class LayoutBenchmark extends AbstractLayoutBenchmark {
+
+	/**
+	 * Average number of edges per vertex
+	 */
+	@Param({"1.5", "3"})
+	public double density;
+
+	@Param({"PLANAR", "RANDOM"})
+	public GraphFamily family;
+
+	@Override
+	protected GeneratedGraph generate(int numberOfVertices) {
+		return family.generate(numberOfVertices, density);
+	}
+
+}
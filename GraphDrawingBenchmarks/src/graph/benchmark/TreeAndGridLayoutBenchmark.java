@@ -0,0 +1,19 @@
+package graph.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Layout benchmarks on trees and grids, whose number of edges is determined by the number of vertices,
+ * so they are not run for different densities
+ */
+public class TreeAndGridLayoutBenchmark extends AbstractLayoutBenchmark {
+
+	@Param({"TREE", "GRID"})
+	public GraphFamily family;
+
+	@Override
+	protected GeneratedGraph generate(int numberOfVertices) {
+		return family.generate(numberOfVertices, 0);
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * JMH benchmarks of the layout algorithms.
+ */
+package graph.benchmark;
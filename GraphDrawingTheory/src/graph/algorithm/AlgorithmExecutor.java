@@ -1,7 +1,10 @@
 package graph.algorithm;
 
-import java.lang.reflect.InvocationTargetException;
+import graph.instrumentation.Instrumentation;
+import graph.instrumentation.Stopwatch;
+
 import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
 
 /**
  * Class used to generically execute any algorithm and measure how much time
@@ -11,60 +14,74 @@ import java.lang.reflect.Method;
 public class AlgorithmExecutor {
 	
 	/**
-	 * Executes a given algorithm and returns its result and the time the execution took 
+	 * Executes the given algorithm and returns its result, the time the execution took
+	 * and the CPU time used by the current thread during the execution.
+	 * If instrumentation is enabled, the execution is also recorded in the metrics sink.
+	 * Exceptions thrown by the algorithm are propagated to the caller
+	 * @param name Name under which the execution is recorded
+	 * @param algorithm Algorithm to execute
+	 * @return Object consisting of the result of the execution of the algorithm,
+	 * its duration and CPU time
+	 * @throws Exception If the algorithm throws it
+	 */
+	public static <T> ExecuteResult execute(String name, Callable<T> algorithm) throws Exception{
+		Stopwatch stopwatch = Instrumentation.start(name);
+		try{
+			long startCpu = Instrumentation.cpuTime();
+			long start = System.nanoTime();
+			T result = algorithm.call();
+			long durationNanos = System.nanoTime() - start;
+			long endCpu = Instrumentation.cpuTime();
+			long cpu = startCpu < 0 || endCpu < 0 ? -1 : endCpu - startCpu;
+			return new ExecuteResult(durationNanos / 1000000L, durationNanos, cpu, result);
+		}
+		finally{
+			stopwatch.stop();
+		}
+	}
+
+	/**
+	 * Executes a given algorithm and returns its result and the time the execution took.
+	 * The method is found by the exact runtime classes of the parameters and exceptions
+	 * are printed instead of being propagated
 	 * @param algorithm Instance of an algorithm class whose method should be executed
 	 * @param methodName Method that should be called
 	 * @param params Parameters of the algorithms
 	 * @return Object consisting of the result of the execution of the algorithm and
 	 * length of the execution in milliseconds 
+	 * @deprecated Use {@link #execute(String, Callable)}, which doesn't rely on reflection
+	 * and doesn't swallow exceptions
 	 */
-	public static ExecuteResult execute(Object algorithm, String methodName, Object...params){
-
-		Long duration = 0L;
-		Object result = null;
+	@Deprecated
+	public static ExecuteResult execute(final Object algorithm, String methodName, final Object...params){
 
 		Class<?> clazz = algorithm.getClass();
-		Method method;
 
 		try {
-			long start;
+			final Method method;
 			if (params.length > 0){
 				Class<?>[] paramsArray = new Class<?>[params.length];
 				for (int i = 0; i < params.length; i++)
 					paramsArray[i] = params[i].getClass();
-
 				method = clazz.getDeclaredMethod(methodName, paramsArray);
-				start = System.currentTimeMillis();
-				if (method.getReturnType().equals(Void.TYPE))
-					method.invoke(algorithm, params);
-				else
-					result = method.invoke(algorithm, params);
 			}
-			else{
+			else
 				method = clazz.getDeclaredMethod(methodName);
-				start = System.currentTimeMillis();
-				if (method.getReturnType().equals(Void.TYPE))
-					method.invoke(algorithm, params);
-				else
-					result = method.invoke(algorithm);
-			}
 
-			long end = System.currentTimeMillis();
-			duration = end - start;
-		} catch (NoSuchMethodException e) {
-			e.printStackTrace();
-		} catch (SecurityException e) {
-			e.printStackTrace();
-		} catch (IllegalAccessException e) {
-			e.printStackTrace();
-		} catch (IllegalArgumentException e) {
-			e.printStackTrace();
-		} catch (InvocationTargetException e) {
+			ExecuteResult executeResult = execute(clazz.getSimpleName() + " " + methodName, new Callable<Object>() {
+				@Override
+				public Object call() throws Exception {
+					return method.invoke(algorithm, params);
+				}
+			});
+			if (method.getReturnType().equals(Void.TYPE))
+				executeResult.setValue(null);
+			return executeResult;
+		} catch (Exception e) {
 			e.printStackTrace();
 		}
 
-		ExecuteResult executeResult = new ExecuteResult(duration, result);
-		return executeResult;
+		return new ExecuteResult(0L, null);
 
 	}
 
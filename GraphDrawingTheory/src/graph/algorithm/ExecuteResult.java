@@ -11,6 +11,14 @@ public class ExecuteResult{
 		 * Time in millisecond measuring how long did it take to execute an algorithm
 		 */
 		private long duration;
+		/**
+		 * Time in nanoseconds measuring how long did it take to execute an algorithm
+		 */
+		private long durationNanos;
+		/**
+		 * CPU time of the execution in nanoseconds, -1 if unknown
+		 */
+		private long cpuNanos;
 		/**
 		 * Result of the execution of an algorithm
 		 */
@@ -22,8 +30,20 @@ public class ExecuteResult{
 		 * @param value Result
 		 */
 		public ExecuteResult(long duration, Object value) {
+			this(duration, duration * 1000000L, -1, value);
+		}
+
+		/**
+		 * @param duration Duration of the execution in milliseconds
+		 * @param durationNanos Duration of the execution in nanoseconds
+		 * @param cpuNanos CPU time of the execution in nanoseconds, -1 if unknown
+		 * @param value Result
+		 */
+		public ExecuteResult(long duration, long durationNanos, long cpuNanos, Object value) {
 			super();
 			this.duration = duration;
+			this.durationNanos = durationNanos;
+			this.cpuNanos = cpuNanos;
 			this.value = value;
 		}
 
@@ -41,6 +61,34 @@ public class ExecuteResult{
 			this.duration = duration;
 		}
 		
+		/**
+		 * @return Duration of the execution in nanoseconds
+		 */
+		public long getDurationNanos() {
+			return durationNanos;
+		}
+
+		/**
+		 * @param durationNanos Duration in nanoseconds to set
+		 */
+		public void setDurationNanos(long durationNanos) {
+			this.durationNanos = durationNanos;
+		}
+
+		/**
+		 * @return CPU time of the execution in nanoseconds, -1 if unknown
+		 */
+		public long getCpuNanos() {
+			return cpuNanos;
+		}
+
+		/**
+		 * @param cpuNanos CPU time in nanoseconds to set
+		 */
+		public void setCpuNanos(long cpuNanos) {
+			this.cpuNanos = cpuNanos;
+		}
+
 		/**
 		 * @return Result of the execution
 		 */
@@ -55,4 +103,4 @@ public class ExecuteResult{
 			this.value = value;
 		}
 		
-	}
\ No newline at end of file
+	}
@@ -0,0 +1,83 @@
+package graph.algorithm.cycles;
+
+import graph.elements.Vertex;
+
+import java.util.List;
+
+/**
+ * State of one cycle search: passes cycles to the visitor and checks the limits
+ * @param <V> The vertex type
+ */
+class CycleSearch<V extends Vertex> {
+
+	/**
+	 * Number of steps between two checks of the clock and of the cancellation flag
+	 */
+	private static final int CHECK_INTERVAL = 256;
+
+	private CycleVisitor<V> visitor;
+	private CycleSearchLimits limits;
+	private long deadline;
+	private long reported = 0;
+	private int steps = 0;
+	private boolean stopped = false;
+
+	CycleSearch(CycleVisitor<V> visitor, CycleSearchLimits limits){
+		this.visitor = visitor;
+		this.limits = limits;
+		long timeout = limits.getTimeout();
+		deadline = timeout >= Long.MAX_VALUE / 1000000L ? Long.MAX_VALUE : System.nanoTime() + timeout * 1000000L;
+	}
+
+	/**
+	 * @param length Number of vertices of a cycle
+	 * @return {@code true} if a cycle of the given length should be reported
+	 */
+	boolean accepts(int length){
+		return length <= limits.getMaxLength();
+	}
+
+	/**
+	 * Passes the cycle to the visitor
+	 * @return {@code true} if the search should continue
+	 */
+	boolean report(List<V> cycle){
+		if (stopped || reported >= limits.getMaxCycles()){
+			stopped = true;
+			return false;
+		}
+		reported++;
+		if (!visitor.visit(cycle) || reported >= limits.getMaxCycles())
+			stopped = true;
+		return !stopped;
+	}
+
+	/**
+	 * Should be called on every step of the search
+	 * @return {@code true} if the search should stop because it was cancelled or took too long
+	 */
+	boolean shouldStop(){
+		if (stopped)
+			return true;
+		if (++steps < CHECK_INTERVAL)
+			return false;
+		steps = 0;
+		if (limits.isCancelled() || (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0))
+			stopped = true;
+		return stopped;
+	}
+
+	/**
+	 * @return {@code true} if the search was stopped before all cycles were reported
+	 */
+	boolean isStopped(){
+		return stopped;
+	}
+
+	/**
+	 * @return Number of reported cycles
+	 */
+	long getReported(){
+		return reported;
+	}
+}
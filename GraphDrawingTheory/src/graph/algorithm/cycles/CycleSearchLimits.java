@@ -0,0 +1,98 @@
+package graph.algorithm.cycles;
+
+/**
+ * Limits of a cycle search: the maximal length of reported cycles, the maximal number
+ * of reported cycles and the maximal duration of the search.
+ * The search can also be cancelled from another thread by calling {@link #cancel()}.
+ * It checks the limits periodically and stops as soon as one of them is reached
+ */
+public class CycleSearchLimits {
+
+	/**
+	 * Maximal number of vertices of a reported cycle
+	 */
+	private int maxLength = Integer.MAX_VALUE;
+	/**
+	 * Maximal number of reported cycles
+	 */
+	private long maxCycles = Long.MAX_VALUE;
+	/**
+	 * Maximal duration of the search in milliseconds
+	 */
+	private long timeout = Long.MAX_VALUE;
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Creates limits which don't restrict the search
+	 */
+	public CycleSearchLimits(){
+	}
+
+	/**
+	 * @param maxLength Maximal number of vertices of a reported cycle
+	 * @param maxCycles Maximal number of reported cycles
+	 * @param timeout Maximal duration of the search in milliseconds
+	 */
+	public CycleSearchLimits(int maxLength, long maxCycles, long timeout){
+		this.maxLength = maxLength;
+		this.maxCycles = maxCycles;
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Asks the searches using these limits to stop
+	 */
+	public void cancel(){
+		cancelled = true;
+	}
+
+	/**
+	 * @return {@code true} if the search was cancelled, {@code false} otherwise
+	 */
+	public boolean isCancelled(){
+		return cancelled;
+	}
+
+	/**
+	 * @return Maximal number of vertices of a reported cycle
+	 */
+	public int getMaxLength() {
+		return maxLength;
+	}
+
+	/**
+	 * @param maxLength Maximal number of vertices of a reported cycle to set
+	 */
+	public void setMaxLength(int maxLength) {
+		this.maxLength = maxLength;
+	}
+
+	/**
+	 * @return Maximal number of reported cycles
+	 */
+	public long getMaxCycles() {
+		return maxCycles;
+	}
+
+	/**
+	 * @param maxCycles Maximal number of reported cycles to set
+	 */
+	public void setMaxCycles(long maxCycles) {
+		this.maxCycles = maxCycles;
+	}
+
+	/**
+	 * @return Maximal duration of the search in milliseconds
+	 */
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * @param timeout Maximal duration of the search in milliseconds to set
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+}
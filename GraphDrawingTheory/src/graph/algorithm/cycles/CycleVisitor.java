@@ -0,0 +1,21 @@
+package graph.algorithm.cycles;
+
+import graph.elements.Vertex;
+
+import java.util.List;
+
+/**
+ * Receives cycles one at a time, as they are found by a cycle search,
+ * so that they don't all have to be kept in memory
+ * @param <V> The vertex type
+ */
+public interface CycleVisitor<V extends Vertex> {
+
+	/**
+	 * Called for each found cycle
+	 * @param cycle Vertices of the cycle, in order. The list is not used by the search afterwards
+	 * @return {@code true} if the search should continue, {@code false} if it should stop
+	 */
+	boolean visit(List<V> cycle);
+
+}
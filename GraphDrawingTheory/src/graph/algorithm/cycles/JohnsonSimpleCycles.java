@@ -17,24 +17,25 @@
 =============================================================================*/
 package graph.algorithm.cycles;
 
+import graph.elements.CompactGraph;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.Stack;
 
 /**
  * Find all simple cycles of a directed graph using the Johnson's
  * algorithm.
  * D.B.Johnson, Finding all the elementary circuits of 
  * a directed graph, SIAM J. Comput., 4 (1975), pp. 77-84.
+ * Cycles are passed to a visitor as soon as they are found, so the search can be stopped
+ * at any moment and only the current path and the blocking structures are kept in memory.
+ * The search runs on the compact representation of the graph and is iterative,
+ * so long paths don't overflow the call stack.
+ * When the graph is treated as undirected, each edge can be traversed in both directions
+ * and every cycle is reported once.
  * Ports the implementation of the following author:
  * @author Nikolay Ognyanov
  *
@@ -44,23 +45,33 @@ import java.util.Stack;
 public class JohnsonSimpleCycles<V extends Vertex, E extends Edge<V>>{
 
 	private Graph<V,E> graph;
+	private boolean stopWhenOneFound = false;
+	/**
+	 * Indicates if edges can be traversed in both directions
+	 */
+	private boolean undirected = false;
 
+	private CompactGraph<V,E> compact;
+	private int size;
 
 	// The main state of the algorithm.
-	private List<List<V>>       cycles   = null;
-	private Map<V, Integer>     vToI     = null;
-	private Set<V>              blocked  = null;
-	private Map<V, Set<V>>      bSets    = null;
-	private Stack<V>            stack    = null;
+	private boolean[] blocked;
+	private int[][] bLists;
+	private int[] bSizes;
+	private int[] path, positions;
+	private boolean[] found;
+	private int[] unblockStack;
+
+	// Vertices of the current component, marked with its stamp.
+	private int[] component;
+	private int[] componentVertices;
+	private int componentSize;
+	private int stamp = 0, currentStamp = 0;
 
 	// The state of the embedded Tarjan SCC algorithm.
-	private List<Set<V>>        SCCs     = null;
-	private int                 index    = 0;
-	private Map<V, Integer>     vIndex   = null;
-	private Map<V, Integer>     vLowlink = null;
-	private Stack<V>            path     = null;
-	private Set<V>              pathSet  = null;
-	private boolean stopWhenOneFound = false;
+	private int[] index, lowlink;
+	private boolean[] onStack;
+	private int[] tarjanStack, callStack, callPositions;
 
 	/**
 	 * Create a simple cycle finder with an unspecified graph.
@@ -73,17 +84,27 @@ public class JohnsonSimpleCycles<V extends Vertex, E extends Edge<V>>{
 	 * Create a simple cycle finder for the specified graph.
 	 * @param stopWhenOneFound Indicator if the algorithm should stop when as soon as one cycle is detected  
 	 * @param graph A directed graph in which to find cycles.
-	 * @throws IllegalArgumentException if the graph argument is
-	 *         <code>null</code>.
 	 */
 	public JohnsonSimpleCycles(Graph<V,E> graph, boolean stopWhenOneFound){
 		this.graph = graph;
+		this.stopWhenOneFound = stopWhenOneFound;
 	}
 
 	public JohnsonSimpleCycles(Graph<V,E> graph){
 		this.graph = graph;
 	}
 
+	/**
+	 * Create a simple cycle finder which treats the graph as undirected
+	 * @param graph Graph in which to find cycles
+	 * @param stopWhenOneFound Indicator if the algorithm should stop when as soon as one cycle is detected  
+	 * @param undirected Indicator if edges can be traversed in both directions
+	 */
+	JohnsonSimpleCycles(Graph<V,E> graph, boolean stopWhenOneFound, boolean undirected){
+		this(graph, stopWhenOneFound);
+		this.undirected = undirected;
+	}
+
 
 	/**
 	 * @return A list simple cycles, where each cycle is represented as
@@ -91,293 +112,369 @@ public class JohnsonSimpleCycles<V extends Vertex, E extends Edge<V>>{
 	 */
 	public List<List<V>> findSimpleCycles()
 	{
+		final List<List<V>> cycles = new ArrayList<List<V>>();
+		CycleSearchLimits limits = new CycleSearchLimits();
+		if (stopWhenOneFound)
+			limits.setMaxCycles(1);
+		findSimpleCycles(new CycleVisitor<V>() {
+			@Override
+			public boolean visit(List<V> cycle) {
+				cycles.add(cycle);
+				return true;
+			}
+		}, limits);
+		return cycles;
+	}
+
+	/**
+	 * Finds simple cycles and passes them to the visitor one by one
+	 * @param visitor Visitor which receives the cycles
+	 * @param limits Limits of the search
+	 * @return {@code true} if all cycles within the length limit were found, {@code false} if the
+	 * search was stopped by the visitor, by reaching the maximal number of cycles or time, or by cancellation
+	 */
+	public boolean findSimpleCycles(CycleVisitor<V> visitor, CycleSearchLimits limits){
+		CycleSearch<V> search = new CycleSearch<V>(visitor, limits);
 		initState();
 
 		int startIndex = 0;
-		int size = graph.getVertices().size();
-		while (startIndex < size) {
-
-			Object[] minSCCGResult = findMinSCSG(startIndex);
-			if (minSCCGResult[0] != null) {
-				startIndex = (Integer) minSCCGResult[1];
-				@SuppressWarnings("unchecked")
-
-
-				Graph<V,E> scg = (Graph<V, E>) minSCCGResult[0];
-				V startV = toV(startIndex);
-
-				for (E e : scg.allEdges(startV)) {
-					V v = e.getDestination();
-					blocked.remove(v);
-					getBSet(v).clear();
-				}
-				if (findCyclesInSCG(startIndex, startIndex, scg) && stopWhenOneFound)
-					break;
-				startIndex++;
-			}
-			else {
+		while (startIndex < size && !search.isStopped()) {
+			// Per Johnson : "adjacency structure of strong 
+			// component K with least vertex in subgraph of 
+			// G induced by {s, s+ 1, n}".
+			startIndex = undirected ? findMinCore(startIndex) : findMinSCC(startIndex);
+			if (startIndex == -1)
 				break;
+			for (int i = 0; i < componentSize; i++){
+				int v = componentVertices[i];
+				blocked[v] = false;
+				bSizes[v] = 0;
 			}
+			findCyclesInComponent(startIndex, search);
+			startIndex++;
 		}
 
-		List<List<V>> result = cycles;
 		clearState();
-		return result;
+		return !search.isStopped();
 	}
 
-	@SuppressWarnings("unchecked")
-	private Object[] findMinSCSG(int startIndex)
-	{
-		// Per Johnson : "adjacency structure of strong 
-		// component K with least vertex in subgraph of 
-		// G induced by {s, s+ 1, n}".
-		// Or in contemporary terms: the strongly connected
-		// component of the subgraph induced by {v1,...,vn}
-		// which contains the minimum (among those SCCs)
-		// vertex index. We return that index together with
-		// the graph.
-		initMinSCGState();
-		Object[] result = new Object[2];
-
-		List<Set<V>> SCCs = findSCCS(startIndex);
-		// find the SCC with the minimum index
-		int minIndexFound = Integer.MAX_VALUE;
-		Set<V> minSCC = null;
-		for (Set<V> scc : SCCs) {
-			for (V v : scc) {
-				int t = toI(v);
-				if (t < minIndexFound) {
-					minIndexFound = t;
-					minSCC = scc;
-				}
-			}
-		}
-		if (minSCC == null) {
-			return result;
-		}
-		// build a graph for the SCC found
-
-		Graph<V,E> resultGraph = new Graph<V,E>();
-
-		for (V v : minSCC) {
-			resultGraph.addVertex(v);
-		}
-		for (V v : minSCC) {
-			for (V w : minSCC) {
-				if (graph.hasEdge(v, w)) {
-					System.out.println("checking for edge between " + v + " and "+ w);
-					resultGraph.addEdge(graph.edgeesBetween(v, w).get(0));
-				}
-			}
-		}
-		// It is ugly to return results in an array
-		// of Object but the idea is to restrict 
-		// dependencies to JgraphT only and there is
-		// no utility pair container in JgraphT.
-		result[0] = resultGraph;
-		result[1] = minIndexFound;
-
-		clearMinSCCState();
-		return result;
-	}
-
-	private List<Set<V>> findSCCS(int startIndex)
-	{
-		// Find SCCs in the subgraph induced
-		// by vertices startIndex and beyond.
-		// A call to StrongConnectivityInspector
-		// would be too expensive because of the
-		// need to materialize the subgraph.
-		// So - do a local search by the Tarjan's
+	/**
+	 * Finds the strongly connected component of the subgraph induced by vertices
+	 * startIndex and beyond which contains the minimum vertex index among
+	 * components which contain cycles, and marks its vertices
+	 * @return Minimum vertex index of the component, -1 if there is no such component
+	 */
+	private int findMinSCC(int startIndex){
+		// Do a local search by the Tarjan's
 		// algorithm and pretend that vertices
 		// with an index smaller than startIndex
 		// do not exist.
-		for (V v : graph.getVertices()) {
-			int vI = toI(v);
-			if (vI < startIndex) {
+		for (int v = startIndex; v < size; v++)
+			index[v] = -1;
+		int counter = 0;
+		int minIndexFound = -1;
+		int minStamp = -1;
+		int tarjanTop = 0;
+		for (int root = startIndex; root < size; root++){
+			if (index[root] != -1)
 				continue;
-			}
-			if (!vIndex.containsKey(v)) {
-				getSCCs(startIndex, vI);
+			index[root] = lowlink[root] = counter++;
+			tarjanStack[tarjanTop++] = root;
+			onStack[root] = true;
+			int callTop = 0;
+			callStack[0] = root;
+			callPositions[0] = first(root);
+			while (callTop >= 0){
+				int vertex = callStack[callTop];
+				if (callPositions[callTop] < end(vertex)){
+					int successor = target(callPositions[callTop]++);
+					if (successor < startIndex)
+						continue;
+					if (index[successor] == -1){
+						index[successor] = lowlink[successor] = counter++;
+						tarjanStack[tarjanTop++] = successor;
+						onStack[successor] = true;
+						callTop++;
+						callStack[callTop] = successor;
+						callPositions[callTop] = first(successor);
+					}
+					else if (onStack[successor])
+						lowlink[vertex] = Math.min(lowlink[vertex], index[successor]);
+					continue;
+				}
+				callTop--;
+				if (callTop >= 0)
+					lowlink[callStack[callTop]] = Math.min(lowlink[callStack[callTop]], lowlink[vertex]);
+				if (lowlink[vertex] != index[vertex])
+					continue;
+
+				// pop the component, it contains cycles if it has more than one
+				// vertex or a self loop
+				stamp++;
+				int componentMin = Integer.MAX_VALUE;
+				int count = 0;
+				int temp;
+				do {
+					temp = tarjanStack[--tarjanTop];
+					onStack[temp] = false;
+					component[temp] = stamp;
+					componentMin = Math.min(componentMin, temp);
+					count++;
+				} while (temp != vertex);
+				if ((count > 1 || hasSelfLoop(vertex)) && (minIndexFound == -1 || componentMin < minIndexFound)){
+					minIndexFound = componentMin;
+					minStamp = stamp;
+				}
 			}
 		}
-		List<Set<V>> result = SCCs;
-		SCCs = null;
-		return result;
+		if (minIndexFound == -1)
+			return -1;
+		collectComponent(minIndexFound, minStamp);
+		return minIndexFound;
 	}
 
-	private void getSCCs(int startIndex, int vertexIndex)
-	{
-		V vertex = toV(vertexIndex);
-		vIndex.put(vertex, index);
-		vLowlink.put(vertex, index);
-		index++;
-		path.push(vertex);
-		pathSet.add(vertex);
-
-		List<E> edges = graph.outEdges(vertex);
-		if (edges != null){
-			for (E e : edges) {
-				V successor = e.getDestination();
-				int successorIndex = toI(successor);
-				if (successorIndex < startIndex) {
-					continue;
-				}
-				if (!vIndex.containsKey(successor)) {
-					getSCCs(startIndex, successorIndex);
-					vLowlink.put(
-							vertex,
-							Math.min(vLowlink.get(vertex),
-									vLowlink.get(successor)));
-				}
-				else if (pathSet.contains(successor)) {
-					vLowlink.put(
-							vertex,
-							Math.min(vLowlink.get(vertex),
-									vIndex.get(successor)));
+	/**
+	 * Finds the connected component of the two-core of the subgraph induced by vertices
+	 * startIndex and beyond which contains the minimum vertex index, and marks its vertices.
+	 * Vertices which are not in the two-core don't belong to any cycle
+	 * @return Minimum vertex index of the component, -1 if the two-core is empty
+	 */
+	private int findMinCore(int startIndex){
+		// index holds the remaining degrees, lowlink is used as a queue
+		int[] degree = index;
+		int[] queue = lowlink;
+		int head = 0, tail = 0;
+		for (int v = startIndex; v < size; v++){
+			degree[v] = 0;
+			for (int position = first(v); position < end(v); position++)
+				if (target(position) >= startIndex)
+					degree[v]++;
+			onStack[v] = degree[v] >= 2;
+			if (!onStack[v])
+				queue[tail++] = v;
+		}
+		while (head < tail){
+			int v = queue[head++];
+			for (int position = first(v); position < end(v); position++){
+				int w = target(position);
+				if (w >= startIndex && onStack[w] && --degree[w] < 2){
+					onStack[w] = false;
+					queue[tail++] = w;
 				}
 			}
 		}
-		if (vLowlink.get(vertex).
-				equals(vIndex.get(vertex)))
-		{
-			Set<V> result = new HashSet<V>();
-			V temp = null;
-			do {
-				temp = path.pop();
-				pathSet.remove(temp);
-				result.add(temp);
-			} while (!vertex.equals(temp));
-			if (result.size() == 1) {
-				V v = result.iterator().next();
-				if (graph.hasEdge(vertex, v)) {
-					SCCs.add(result);
+		int minIndexFound = startIndex;
+		while (minIndexFound < size && !onStack[minIndexFound])
+			minIndexFound++;
+		if (minIndexFound == size)
+			return -1;
+
+		currentStamp = ++stamp;
+		component[minIndexFound] = currentStamp;
+		componentVertices[0] = minIndexFound;
+		componentSize = 1;
+		for (int i = 0; i < componentSize; i++){
+			int v = componentVertices[i];
+			for (int position = first(v); position < end(v); position++){
+				int w = target(position);
+				if (w >= startIndex && onStack[w] && component[w] != currentStamp){
+					component[w] = currentStamp;
+					componentVertices[componentSize++] = w;
 				}
 			}
-			else {
-				SCCs.add(result);
-			}
 		}
+		for (int v = startIndex; v < size; v++)
+			onStack[v] = false;
+		return minIndexFound;
+	}
+
+	private void collectComponent(int vertex, int componentStamp){
+		componentSize = 0;
+		for (int v = vertex; v < size; v++)
+			if (component[v] == componentStamp)
+				componentVertices[componentSize++] = v;
+		currentStamp = componentStamp;
 	}
 
-	private boolean findCyclesInSCG(int startIndex,
-			int vertexIndex,
-			Graph<V, E> scg)
+	private boolean hasSelfLoop(int vertex){
+		for (int position = first(vertex); position < end(vertex); position++)
+			if (target(position) == vertex)
+				return true;
+		return false;
+	}
+
+	private void findCyclesInComponent(int startIndex, CycleSearch<V> search)
 	{
 		// Find cycles in a strongly connected graph
 		// per Johnson.
-		boolean foundCycle = false;
-		V vertex = toV(vertexIndex);
-		stack.push(vertex);
-		blocked.add(vertex);
-
-		for (E e : scg.outEdges(vertex)) {
-			V successor = e.getDestination();
-			int successorIndex = toI(successor);
-			if (successorIndex == startIndex) {
-				List<V> cycle = new ArrayList<V>();
-				cycle.addAll(stack);
-				cycles.add(cycle);
-				foundCycle = true;
-				if (stopWhenOneFound)
-					return true;
-			}
-			else if (!blocked.contains(successor)) {
-				boolean gotCycle =
-						findCyclesInSCG(startIndex, successorIndex, scg);
-				foundCycle = foundCycle || gotCycle;
+		int depth = 0;
+		path[0] = startIndex;
+		positions[0] = first(startIndex);
+		found[0] = false;
+		blocked[startIndex] = true;
+
+		while (depth >= 0) {
+			if (search.shouldStop())
+				return;
+			int vertex = path[depth];
+			if (positions[depth] < end(vertex)) {
+				int position = positions[depth]++;
+				int successor = target(position);
+				if (successor < 0 || component[successor] != currentStamp)
+					continue;
+				if (successor == startIndex) {
+					found[depth] = true;
+					if (isReported(position, depth, search) && !search.report(cycle(depth)))
+						return;
+				}
+				else if (!blocked[successor]) {
+					if (!search.accepts(depth + 2)) {
+						// cycles through the successor are too long, but
+						// the vertex must not stay blocked because of that
+						found[depth] = true;
+						continue;
+					}
+					depth++;
+					path[depth] = successor;
+					positions[depth] = first(successor);
+					found[depth] = false;
+					blocked[successor] = true;
+				}
+				continue;
 			}
-		}
-		if (foundCycle) {
-			unblock(vertex);
-		}
-		else {
-			for (E ew : scg.outEdges(vertex)) {
-				V w = ew.getDestination();
-				Set<V> bSet = getBSet(w);
-				bSet.add(vertex);
+
+			if (found[depth])
+				unblock(vertex);
+			else {
+				for (int position = first(vertex); position < end(vertex); position++) {
+					int w = target(position);
+					if (w >= 0 && component[w] == currentStamp)
+						addToBList(w, vertex);
+				}
 			}
+			depth--;
+			if (depth >= 0 && found[depth + 1])
+				found[depth] = true;
 		}
-		stack.pop();
-		return foundCycle;
 	}
 
-	private void unblock(V vertex)
-	{
-		blocked.remove(vertex);
-		Set<V> bSet = getBSet(vertex);
-		while (bSet.size() > 0) {
-			V w = bSet.iterator().next();
-			bSet.remove(w);
-			if (blocked.contains(w)) {
-				unblock(w);
-			}
+	/**
+	 * Checks if the cycle formed by the current path should be reported.
+	 * In an undirected graph, every cycle is found in both directions, and
+	 * edges traversed there and back are not cycles
+	 */
+	private boolean isReported(int position, int depth, CycleSearch<V> search){
+		if (!search.accepts(depth + 1))
+			return false;
+		if (!undirected)
+			return true;
+		if (depth == 0){
+			// a self loop is in the adjacency list twice
+			int edge = compact.incidentEdge(position);
+			for (int p = first(path[0]); p < position; p++)
+				if (compact.incidentEdge(p) == edge)
+					return false;
+			return true;
 		}
+		return depth >= 2 && path[1] < path[depth];
 	}
 
-	private void initState()
-	{
-		cycles = new LinkedList<List<V>>();
-
-
-		vToI = new HashMap<V, Integer>();
-		blocked = new HashSet<V>();
-		bSets = new HashMap<V, Set<V>>();
-		stack = new Stack<V>();
+	private List<V> cycle(int depth){
+		List<V> cycle = new ArrayList<V>(depth + 1);
+		for (int i = 0; i <= depth; i++)
+			cycle.add(compact.vertex(path[i]));
+		return cycle;
+	}
 
-		for (int i = 0; i < graph.getVertices().size(); i++) {
-			vToI.put(graph.getVertices().get(i), i);
+	private void unblock(int vertex)
+	{
+		int top = 0;
+		unblockStack[top++] = vertex;
+		blocked[vertex] = false;
+		while (top > 0) {
+			int u = unblockStack[--top];
+			int[] bList = bLists[u];
+			for (int i = 0; i < bSizes[u]; i++) {
+				int w = bList[i];
+				if (blocked[w]) {
+					blocked[w] = false;
+					unblockStack[top++] = w;
+				}
+			}
+			bSizes[u] = 0;
 		}
 	}
 
-	private void clearState()
-	{
-		cycles = null;
-		vToI = null;
-		blocked = null;
-		bSets = null;
-		stack = null;
+	private void addToBList(int w, int vertex){
+		// B sets typically not all needed,
+		// so instantiate lazily.
+		int[] bList = bLists[w];
+		for (int i = 0; i < bSizes[w]; i++)
+			if (bList[i] == vertex)
+				return;
+		if (bList == null || bSizes[w] == bList.length){
+			int[] grown = new int[bList == null ? 4 : 2 * bList.length];
+			if (bList != null)
+				System.arraycopy(bList, 0, grown, 0, bSizes[w]);
+			bList = grown;
+			bLists[w] = bList;
+		}
+		bList[bSizes[w]++] = vertex;
 	}
 
-	private void initMinSCGState()
-	{
-		index = 0;
-		SCCs = new ArrayList<Set<V>>();
-		vIndex = new HashMap<V, Integer>();
-		vLowlink = new HashMap<V, Integer>();
-		path = new Stack<V>();
-		pathSet = new HashSet<V>();
+	private int first(int vertex){
+		return undirected ? compact.offset(vertex) : compact.outOffset(vertex);
 	}
 
-	private void clearMinSCCState()
-	{
-		index = 0;
-		SCCs = null;
-		vIndex = null;
-		vLowlink = null;
-		path = null;
-		pathSet = null;
+	private int end(int vertex){
+		return undirected ? compact.offset(vertex + 1) : compact.outOffset(vertex + 1);
 	}
 
-	private Integer toI(V vertex)
-	{
-		return vToI.get(vertex);
+	private int target(int position){
+		return undirected ? compact.target(position) : compact.outTarget(position);
 	}
 
-	private V toV(Integer i)
+	private void initState()
 	{
-		return graph.getVertices().get(i);
+		compact = graph.freeze();
+		size = compact.vertexCount();
+		blocked = new boolean[size];
+		bLists = new int[size][];
+		bSizes = new int[size];
+		path = new int[size];
+		positions = new int[size];
+		found = new boolean[size];
+		unblockStack = new int[size];
+		component = new int[size];
+		componentVertices = new int[size];
+		componentSize = 0;
+		stamp = 0;
+		currentStamp = 0;
+		index = new int[size];
+		lowlink = new int[size];
+		onStack = new boolean[size];
+		tarjanStack = new int[size];
+		callStack = new int[size];
+		callPositions = new int[size];
 	}
 
-	private Set<V> getBSet(V v)
+	private void clearState()
 	{
-		// B sets typically not all needed,
-		// so instantiate lazily.
-		Set<V> result = bSets.get(v);
-		if (result == null) {
-			result = new HashSet<V>();
-			bSets.put(v, result);
-		}
-		return result;
+		compact = null;
+		blocked = null;
+		bLists = null;
+		bSizes = null;
+		path = null;
+		positions = null;
+		found = null;
+		unblockStack = null;
+		component = null;
+		componentVertices = null;
+		index = null;
+		lowlink = null;
+		onStack = null;
+		tarjanStack = null;
+		callStack = null;
+		callPositions = null;
 	}
 }
@@ -17,17 +17,13 @@
 =============================================================================*/
 package graph.algorithm.cycles;
 
+import graph.elements.CompactGraph;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.Stack;
 
 /**
  * Find a cycle basis of an undirected graph using the Paton's
@@ -35,6 +31,9 @@ import java.util.Stack;
  * See:
  * K. Paton, An algorithm for finding a fundamental set of cycles
  * for an undirected linear graph, Comm. ACM 12 (1969), pp. 514-518.
+ * The spanning tree is walked on the compact representation of the graph. Each edge is examined
+ * once, so parallel edges and self loops form cycles of their own, and each edge which doesn't
+ * belong to the tree closes exactly one cycle of the basis.
  *  Ports the implementation of the following author:
  * @author Nikolay Ognyanov
  *
@@ -64,72 +63,137 @@ public class PatonSimpleCycles<V extends Vertex, E extends Edge<V>>{
 	 * a list of vertices it contains
 	 */
     public List<List<V>> findSimpleCycles()
+    {
+        final List<List<V>> cycles = new ArrayList<List<V>>();
+        findSimpleCycles(new CycleVisitor<V>() {
+            @Override
+            public boolean visit(List<V> cycle) {
+                cycles.add(cycle);
+                return true;
+            }
+        }, new CycleSearchLimits());
+        return cycles;
+    }
+
+    /**
+     * Finds the cycles of the basis and passes them to the visitor one by one.
+     * Cycles longer than the maximal length are skipped
+     * @param visitor Visitor which receives the cycles
+     * @param limits Limits of the search
+     * @return {@code true} if all cycles within the length limit were found, {@code false} if the
+     * search was stopped by the visitor, by reaching the maximal number of cycles or time, or by cancellation
+     */
+    public boolean findSimpleCycles(CycleVisitor<V> visitor, CycleSearchLimits limits)
     {
         if (graph == null) {
             throw new IllegalArgumentException("Null graph.");
         }
-        Map<V, Set<V>> used = new HashMap<V, Set<V>>();
-        Map<V, V> parent = new HashMap<V, V>();
-        Stack<V> stack = new Stack<V>();
-        List<List<V>> cycles = new ArrayList<List<V>>();
+        CycleSearch<V> search = new CycleSearch<V>(visitor, limits);
+        CompactGraph<V, E> compact = graph.freeze();
+        int size = compact.vertexCount();
+        int[] parent = new int[size];
+        int[] depth = new int[size];
+        boolean[] usedEdges = new boolean[compact.edgeCount()];
+        int[] stack = new int[size];
+        for (int v = 0; v < size; v++) {
+            parent[v] = -1;
+        }
 
-        for (V root : graph.getVertices()) {
+        for (int root = 0; root < size; root++) {
             // Loop over the connected
             // components of the graph.
-            if (parent.containsKey(root)) {
+            if (parent[root] != -1) {
                 continue;
             }
-            // Free some memory in case of
-            // multiple connected components.
-            used.clear();
             // Prepare to walk the spanning tree.
-            parent.put(root, root);
-            used.put(root, new HashSet<V>());
-            stack.push(root);
-            // Do the walk. It is a BFS with
-            // a FIFO instead of the usual
-            // LIFO. Thus it is easier to 
-            // find the cycles in the tree.
-            while (!stack.isEmpty()) {
-                V current = stack.pop();
-                Set<V> currentUsed = used.get(current);
-                for (E e : graph.allEdges(current)) {
-                    V neighbour = e.getDestination();
-                    if (neighbour.equals(current)) {
-                        neighbour = e.getOrigin();
+            parent[root] = root;
+            depth[root] = 0;
+            int top = 0;
+            stack[top++] = root;
+            // Do the walk. It is a DFS-like walk
+            // with a LIFO, where all neighbours
+            // of a vertex are added to the tree
+            // when it is reached.
+            while (top > 0) {
+                if (search.shouldStop()) {
+                    return false;
+                }
+                int current = stack[--top];
+                for (int position = compact.offset(current); position < compact.offset(current + 1); position++) {
+                    int neighbour = compact.target(position);
+                    int edge = compact.incidentEdge(position);
+                    if (neighbour < 0 || usedEdges[edge]) {
+                        continue;
                     }
-                    if (!used.containsKey(neighbour)) {
+                    usedEdges[edge] = true;
+                    if (parent[neighbour] == -1) {
                         // found a new node
-                        parent.put(neighbour, current);
-                        Set<V> neighbourUsed = new HashSet<V>();
-                        neighbourUsed.add(current);
-                        used.put(neighbour, neighbourUsed);
-                        stack.push(neighbour);
+                        parent[neighbour] = current;
+                        depth[neighbour] = depth[current] + 1;
+                        stack[top++] = neighbour;
                     }
-                    else if (neighbour.equals(current)) {
+                    else if (neighbour == current) {
                         // found a self loop
                         List<V> cycle = new ArrayList<V>();
-                        cycle.add(current);
-                        cycles.add(cycle);
+                        cycle.add(compact.vertex(current));
+                        if (search.accepts(1) && !search.report(cycle)) {
+                            return false;
+                        }
                     }
-                    else if (!currentUsed.contains(neighbour)) {
-                        // found a cycle
-                        Set<V> neighbourUsed = used.get(neighbour);
-                        List<V> cycle = new ArrayList<V>();
-                        cycle.add(neighbour);
-                        cycle.add(current);
-                        V p = parent.get(current);
-                        while (!neighbourUsed.contains(p)) {
-                            cycle.add(p);
-                            p = parent.get(p);
+                    else {
+                        // found a cycle, formed by the edge
+                        // and the path in the tree between
+                        // its ends
+                        int ancestor = commonAncestor(current, neighbour, parent, depth);
+                        int length = depth[current] + depth[neighbour] - 2 * depth[ancestor] + 1;
+                        if (!search.accepts(length)) {
+                            continue;
+                        }
+                        if (!search.report(cycle(current, neighbour, ancestor, parent, compact))) {
+                            return false;
                         }
-                        cycle.add(p);
-                        cycles.add(cycle);
-                        neighbourUsed.add(current);
                     }
                 }
             }
         }
-        return cycles;
+        return true;
+    }
+
+    private int commonAncestor(int u, int v, int[] parent, int[] depth)
+    {
+        while (depth[u] > depth[v]) {
+            u = parent[u];
+        }
+        while (depth[v] > depth[u]) {
+            v = parent[v];
+        }
+        while (u != v) {
+            u = parent[u];
+            v = parent[v];
+        }
+        return u;
+    }
+
+    private List<V> cycle(int current, int neighbour, int ancestor, int[] parent, CompactGraph<V, E> compact)
+    {
+        List<V> cycle = new ArrayList<V>();
+        cycle.add(compact.vertex(neighbour));
+        for (int p = current; p != ancestor; p = parent[p]) {
+            cycle.add(compact.vertex(p));
+        }
+        if (ancestor != neighbour) {
+            cycle.add(compact.vertex(ancestor));
+            int start = cycle.size();
+            for (int p = parent[neighbour]; p != ancestor; p = parent[p]) {
+                cycle.add(compact.vertex(p));
+            }
+            // the path from the neighbour is added downwards
+            for (int i = start, j = cycle.size() - 1; i < j; i++, j--) {
+                V temp = cycle.get(i);
+                cycle.set(i, cycle.get(j));
+                cycle.set(j, temp);
+            }
+        }
+        return cycle;
     }
 }
@@ -3,6 +3,8 @@ package graph.algorithm.cycles;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Instrumentation;
+import graph.instrumentation.Task;
 
 import java.util.List;
 
@@ -25,7 +27,16 @@ public class SimpleCyclesFinder<V extends Vertex, E extends Edge<V>> {
 	 * @return A list of all cycles belonging to the cycle basis,
 	 * where a cycle is represented by a list of vertices.
 	 */
-	public List<List<V>> findCycles(Graph<V,E> graph){
+	public List<List<V>> findCycles(final Graph<V,E> graph){
+		return Instrumentation.time(SimpleCyclesFinder.class, "findCycles", new Task<List<List<V>>, RuntimeException>() {
+			@Override
+			public List<List<V>> run() {
+				return doFindCycles(graph);
+			}
+		});
+	}
+
+	private List<List<V>> doFindCycles(Graph<V,E> graph){
 		
 		if (graph.isDirected())
 			return new JohnsonSimpleCycles<V,E>(graph).findSimpleCycles();
@@ -34,4 +45,39 @@ public class SimpleCyclesFinder<V extends Vertex, E extends Edge<V>> {
 		
 	}
 
+	/**
+	 * Finds cycles of the given graph like {@link #findCycles(Graph)}, but passes them
+	 * to the visitor one by one
+	 * @param graph Graph whose cycles are to be found
+	 * @param visitor Visitor which receives the cycles
+	 * @param limits Limits of the search
+	 * @return {@code true} if all cycles within the length limit were found, {@code false} if the
+	 * search was stopped by the visitor, by reaching the maximal number of cycles or time, or by cancellation
+	 */
+	public boolean findCycles(Graph<V,E> graph, CycleVisitor<V> visitor, CycleSearchLimits limits){
+		
+		if (graph.isDirected())
+			return new JohnsonSimpleCycles<V,E>(graph).findSimpleCycles(visitor, limits);
+		else
+			return new PatonSimpleCycles<V,E>(graph).findSimpleCycles(visitor, limits);
+		
+	}
+
+	/**
+	 * Checks if the graph has a cycle. The search stops as soon as one is found
+	 * @param graph Graph
+	 * @return {@code true} if the graph has a cycle, {@code false} otherwise
+	 */
+	public boolean hasCycle(Graph<V,E> graph){
+		final boolean[] found = new boolean[1];
+		findCycles(graph, new CycleVisitor<V>() {
+			@Override
+			public boolean visit(List<V> cycle) {
+				found[0] = true;
+				return false;
+			}
+		}, new CycleSearchLimits());
+		return found[0];
+	}
+
 }
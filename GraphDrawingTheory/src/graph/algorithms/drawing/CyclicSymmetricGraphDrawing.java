@@ -147,7 +147,9 @@ public class CyclicSymmetricGraphDrawing<V extends Vertex, E extends Edge<V>> {
 	
 
 	/**
-	 * Executes the algorithm and automatically selects a suitable permutation
+	 * Executes the algorithm and automatically selects a suitable permutation.
+	 * Since the automorphism group can be exponentially large, only its first
+	 * {@link McKayGraphLabelingAlgorithm#DEFAULT_AUTOMORPHISMS_LIMIT} elements are tried
 	 * @return A list of cycles, where each one is represented as a list of vertices
 	 * it contains
 	 */
@@ -164,7 +166,7 @@ public class CyclicSymmetricGraphDrawing<V extends Vertex, E extends Edge<V>> {
 			= new HashMap<Integer, List<PermutationCycle<V>>>();
 		Map<Integer, List<PermutationCycle<V>>> permutationFoundPaths; 
 
-		List<Permutation> automorphisms = nauty.findAutomorphisms(graph);
+		List<Permutation> automorphisms = nauty.findAutomorphisms(graph, McKayGraphLabelingAlgorithm.DEFAULT_AUTOMORPHISMS_LIMIT);
 		for (Permutation p : automorphisms){
 			permutationFoundPaths = executeForPermutation(p);
 			if (bestFoundPaths.size() == 0 || permutationFoundPaths.get(-1).size() < bestFoundPaths.get(-1).size()){
@@ -288,7 +290,7 @@ public class CyclicSymmetricGraphDrawing<V extends Vertex, E extends Edge<V>> {
 	 */
 	private Pair<List<List<Integer>>,Integer> findPermutation(){
 
-		List<Permutation> automorphisms = nauty.findAutomorphisms(graph);
+		List<Permutation> automorphisms = nauty.findAutomorphisms(graph, McKayGraphLabelingAlgorithm.DEFAULT_AUTOMORPHISMS_LIMIT);
 		List<List<Integer>> cyclicRepresentation = new ArrayList<List<Integer>>();
 		int maxKM = 0;
 		Integer cycleLength = null;
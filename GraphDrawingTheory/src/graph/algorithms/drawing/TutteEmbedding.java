@@ -1,26 +1,36 @@
 package graph.algorithms.drawing;
 
+import graph.elements.CompactGraph;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
 import graph.math.CircleLayoutCalc;
-import graph.math.CramersRule;
-import graph.math.Matrix;
+import graph.math.ConjugateGradient;
+import graph.math.SparseMatrix;
 
 import java.awt.geom.Point2D;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Implementations of Tutte's (or barycentric) embedding of a simple 3-vertex-connected planar graph.
+ * Vertices of the outside face are placed on a circle, and every other vertex is placed in the barycenter
+ * of its neighbours. Positions of the inner vertices are the solution of a system of linear equations
+ * whose matrix is the part of the graph's Laplacian matrix belonging to the inner vertices. The matrix is sparse,
+ * symmetric and positive definite, so the system is solved by the conjugate gradient method,
+ * x and y coordinates jointly.
  * @author Renata
  * @param <V> The vertex type
  * @param <E> The edge type
  */
 public class TutteEmbedding<V extends Vertex, E extends Edge<V>> {
 
+	/**
+	 * Maximal norm of the residual, relative to the norm of the right-hand side
+	 */
+	private static final double TOLERANCE = 1e-10;
+
 	private Graph<V,E> graph;
 
 	public TutteEmbedding(Graph<V,E> graph){
@@ -35,6 +45,21 @@ public class TutteEmbedding<V extends Vertex, E extends Edge<V>> {
 	 * @return A mapping of each vertex to its position
 	 */
 	public Map<V, Point2D> execute (List<V> J, Point2D center, double treshold) {
+		return execute(J, center, treshold, null);
+	}
+
+	/**
+	 * Executes the algorithm, calculates each vertex's position, starting from the given positions
+	 * of the inner vertices. If they are close to the final ones, for example if they are the
+	 * result of the previous execution on a slightly changed graph, the solution is found faster
+	 * @param J Vertices belonging to the outside face
+	 * @param center Center of the drawing
+	 * @param treshold Parameter which determines the distance between vertices
+	 * @param initialPositions Initial positions of inner vertices, can be {@code null}. Vertices without
+	 * an initial position start from the center
+	 * @return A mapping of each vertex to its position
+	 */
+	public Map<V, Point2D> execute (List<V> J, Point2D center, double treshold, Map<V, Point2D> initialPositions) {
 
 		Map<V, Point2D> ret = new HashMap<V, Point2D>();
 
@@ -45,100 +70,78 @@ public class TutteEmbedding<V extends Vertex, E extends Edge<V>> {
 		Map<V,Point2D> positions = circleCalc.calculatePosition(J, radius, center);
 		ret.putAll(positions);
 
-		//now calculate barycentric coordinates of the other vertices
-		//order vertices in such way that those on the orside face - J are placed first
-
-		List<V> orderedVertices = new ArrayList<V>();
-		for (V v : J)
-			orderedVertices.add(v);
-
-		//now add the inner vertices
-		for (V v : graph.getVertices())
-			if (!J.contains(v))
-				orderedVertices.add(v);
-
-		
-		//form matrix K
-
-		int m = orderedVertices.size();
-		int n = J.size();
-		if (n == m)
+		//number the inner vertices in the order of the graph's vertices
+		CompactGraph<V,E> compact = graph.freeze();
+		int m = compact.vertexCount();
+		double[] faceX = new double[m];
+		double[] faceY = new double[m];
+		boolean[] onFace = new boolean[m];
+		for (V v : J){
+			int id = compact.vertexId(v);
+			if (id == -1)
+				continue;
+			onFace[id] = true;
+			faceX[id] = positions.get(v).getX();
+			faceY[id] = positions.get(v).getY();
+		}
+		int[] unknowns = new int[m];
+		int numOfInner = 0;
+		for (int v = 0; v < m; v++)
+			unknowns[v] = onFace[v] ? -1 : numOfInner++;
+		if (numOfInner == 0)
 			return ret;
 
-		Matrix K = new Matrix(m, m);
-
-		for (int i = 0; i < m; i++)
-			for (int j = 0; j < m; j++){
-				V vi = orderedVertices.get(i);
-				V vj = orderedVertices.get(j);
-				if (vi == vj){
-					K.set(i, j, (double) graph.vertexDegree(vi));
+		//form the rows of the Laplacian matrix belonging to inner vertices
+		//neighbours on the outside face have known positions and go to the right-hand side
+		int[] rowStarts = new int[numOfInner + 1];
+		int[] columns = new int[compact.offset(m)];
+		double[] values = new double[compact.offset(m)];
+		double[] diagonal = new double[numOfInner];
+		double[][] b = new double[2][numOfInner];
+		double[][] coordinates = new double[2][numOfInner];
+		int position = 0;
+		for (int v = 0; v < m; v++){
+			int row = unknowns[v];
+			if (row == -1)
+				continue;
+			rowStarts[row] = position;
+			for (int i = compact.offset(v); i < compact.offset(v + 1); i++){
+				int w = compact.target(i);
+				if (w == -1 || w == v)
+					continue;
+				diagonal[row]++;
+				if (onFace[w]){
+					b[0][row] += faceX[w];
+					b[1][row] += faceY[w];
 				}
 				else{
-					int numOfEdges = graph.edgeesBetween(vi,vj).size();
-					K.set(i,j, (double) -numOfEdges);
+					columns[position] = unknowns[w];
+					values[position] = -1;
+					position++;
 				}
 			}
-		
-	//	System.out.println("K:");
-		//K.printMatrix();
-
-		//form equesions
-		//we know Vix and Viy for i <=n
-
-		
-		int numOfInner = m - n;
-		
-		Matrix aX = new Matrix(numOfInner, numOfInner);
-		Matrix aY = new Matrix(numOfInner, numOfInner);
-		Matrix bX = new Matrix(1, numOfInner);
-		Matrix bY = new Matrix(1, numOfInner);
-		
-		int eqesionIndex = 0;
-		
-		for (int p = n; p < m; p++){
-			
-			double kx = 0;
-			double ky = 0;
-			
-			for (int i = 0; i < n; i++){
-				Point2D vPosition = positions.get(orderedVertices.get(i));
-				double vx = vPosition.getX();
-				double vy = vPosition.getY();
-				kx += K.get(p, i) * vx;
-				ky += K.get(p, i) * vy;
-				
-			}
-			
-		//	System.out.println("kx " + kx);
-		//	System.out.println("ky " + ky);
-			
-			bX.set(0, eqesionIndex, -kx);
-			bY.set(0, eqesionIndex, -ky);
-			
-			int index = 0;
-			for (int i = n; i < m; i++){
-				double c = K.get(p, i);
-				aX.set(eqesionIndex, index, c);
-				aY.set(eqesionIndex, index, c);
-				index ++;
+
+			Point2D initial = initialPositions == null ? null : initialPositions.get(compact.vertex(v));
+			if (initial == null)
+				initial = center;
+			coordinates[0][row] = initial.getX();
+			coordinates[1][row] = initial.getY();
+			if (diagonal[row] == 0){
+				//an isolated vertex stays where it is
+				diagonal[row] = 1;
+				b[0][row] = initial.getX();
+				b[1][row] = initial.getY();
 			}
-			
-			eqesionIndex ++;
 		}
-		
-		//now solve using Cramer's rule
-		double[] xCoords = CramersRule.cramers(aX.values(), bX.values()[0]);
-		double[] yCoords = CramersRule.cramers(aY.values(), bY.values()[0]);
-		
-		
-		int index = 0;
-		for (int i = n; i < m; i++){
-			V v = orderedVertices.get(i);
-			Point2D position = new Point2D.Double(xCoords[index], yCoords[index]);
-			ret.put(v, position);
-			index++;
-			
+		rowStarts[numOfInner] = position;
+
+		SparseMatrix K = new SparseMatrix(rowStarts, columns, values, diagonal);
+		ConjugateGradient.solve(K, b, coordinates, TOLERANCE, 10 * numOfInner + 100);
+
+		for (int v = 0; v < m; v++){
+			int row = unknowns[v];
+			if (row != -1)
+				ret.put(compact.vertex(v), new Point2D.Double(coordinates[0][row], coordinates[1][row]));
 		}
 
 		return ret;
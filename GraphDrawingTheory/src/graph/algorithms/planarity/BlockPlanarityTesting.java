@@ -0,0 +1,233 @@
+package graph.algorithms.planarity;
+
+import graph.elements.Edge;
+import graph.elements.Graph;
+import graph.elements.Vertex;
+import graph.exception.CannotBeAppliedException;
+import graph.properties.splitting.BiconnectedSplitting;
+import graph.util.Util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests planarity of a graph by splitting it into biconnected components (blocks), since a graph
+ * is planar if and only if all of its blocks are planar. Blocks are tested in parallel on a fork-join pool.
+ * Planarity testing algorithms are not meant to be shared between threads, so every task creates its own
+ * instance using the given factory. Testing stops as soon as a non-planar block is found.
+ * Blocks with fewer than five vertices or nine edges are planar and are not tested.
+ * Planar embeddings of the blocks can be merged into an embedding of the whole graph.
+ * @param <V> The vertex type
+ * @param <E> The edge type
+ */
+public class BlockPlanarityTesting<V extends Vertex, E extends Edge<V>> extends PlanarityTestingAlgorithm<V, E>{
+
+	/**
+	 * Creates instances of the planarity testing algorithm used for testing the blocks
+	 * @param <V> The vertex type
+	 * @param <E> The edge type
+	 */
+	public interface AlgorithmFactory<V extends Vertex, E extends Edge<V>>{
+
+		/**
+		 * @return A new instance of the planarity testing algorithm
+		 */
+		PlanarityTestingAlgorithm<V,E> createAlgorithm();
+	}
+
+	/**
+	 * Blocks whose total number of edges is not bigger than this are tested in one task
+	 */
+	private static final int SEQUENTIAL_THRESHOLD = 2000;
+
+	private AlgorithmFactory<V,E> factory;
+	/**
+	 * Pool on which the blocks are tested, the shared one if it is not set
+	 */
+	private ForkJoinPool pool;
+	/**
+	 * Blocks of the last tested graph
+	 */
+	private List<Graph<V,E>> blocks = new ArrayList<Graph<V,E>>();
+	/**
+	 * Prefix sums of numbers of edges of the blocks
+	 */
+	private int[] edgeCounts;
+	private AtomicReference<Graph<V,E>> nonPlanarBlock = new AtomicReference<Graph<V,E>>();
+
+	/**
+	 * Creates the planarity test which uses the Boyer-Myrvold algorithm to test the blocks
+	 */
+	public BlockPlanarityTesting(){
+		this(new AlgorithmFactory<V,E>() {
+
+			@Override
+			public PlanarityTestingAlgorithm<V, E> createAlgorithm() {
+				return new BoyerMyrvoldPlanarity<V,E>();
+			}
+		});
+	}
+
+	/**
+	 * Creates the planarity test which uses the algorithms created by the factory to test the blocks
+	 * @param factory Factory of planarity testing algorithms
+	 */
+	public BlockPlanarityTesting(AlgorithmFactory<V,E> factory){
+		this.factory = factory;
+	}
+
+	@Override
+	protected boolean testPlanarity(Graph<V, E> graph) {
+		blocks = new BiconnectedSplitting<V,E>(graph).findBiconnectedComponents();
+		edgeCounts = new int[blocks.size() + 1];
+		for (int i = 0; i < blocks.size(); i++)
+			edgeCounts[i + 1] = edgeCounts[i] + blocks.get(i).getEdges().size();
+		nonPlanarBlock.set(null);
+		getPool().invoke(new BlockTest(0, blocks.size()));
+		return nonPlanarBlock.get() == null;
+	}
+
+	/**
+	 * Finds a planar embedding of the graph by embedding each of its blocks in parallel
+	 * and concatenating the lists of edges around cut vertices. Loops are not included in the embedding.
+	 * The merged embedding doesn't have an st-numbering
+	 * @param graph Graph which should be embedded
+	 * @return Planar embedding of the graph
+	 * @throws CannotBeAppliedException if the graph is not planar
+	 */
+	public Embedding<V,E> embed(Graph<V,E> graph) throws CannotBeAppliedException{
+		if (!isPlannar(graph))
+			throw new CannotBeAppliedException("Graph is not planar.");
+
+		List<Map<V, List<E>>> blockEmbeddings = new ArrayList<Map<V, List<E>>>();
+		for (int i = 0; i < blocks.size(); i++)
+			blockEmbeddings.add(null);
+		AtomicReference<CannotBeAppliedException> error = new AtomicReference<CannotBeAppliedException>();
+		getPool().invoke(new BlockEmbedding(0, blocks.size(), blockEmbeddings, error));
+		if (error.get() != null)
+			throw error.get();
+
+		Map<V, List<E>> embedding = new HashMap<V, List<E>>();
+		for (V v : graph.getVertices())
+			embedding.put(v, new ArrayList<E>());
+		for (Map<V, List<E>> blockEmbedding : blockEmbeddings)
+			for (Map.Entry<V, List<E>> entry : blockEmbedding.entrySet())
+				embedding.get(entry.getKey()).addAll(entry.getValue());
+		return new Embedding<V,E>(embedding, null);
+	}
+
+	private static boolean trivial(Graph<?,?> block){
+		return block.getVertices().size() < 5 || block.getEdges().size() < 9;
+	}
+
+	/**
+	 * Tests a range of blocks, splitting it in two if it contains too many edges
+	 */
+	@SuppressWarnings("serial")
+	private class BlockTest extends RecursiveAction{
+
+		private int from, to;
+
+		private BlockTest(int from, int to){
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1 && edgeCounts[to] - edgeCounts[from] > SEQUENTIAL_THRESHOLD){
+				int middle = (from + to) >>> 1;
+				invokeAll(new BlockTest(from, middle), new BlockTest(middle, to));
+				return;
+			}
+			PlanarityTestingAlgorithm<V,E> algorithm = null;
+			for (int i = from; i < to && nonPlanarBlock.get() == null; i++){
+				Graph<V,E> block = blocks.get(i);
+				if (trivial(block))
+					continue;
+				if (algorithm == null)
+					algorithm = factory.createAlgorithm();
+				if (!algorithm.isPlannar(block))
+					nonPlanarBlock.compareAndSet(null, block);
+			}
+		}
+	}
+
+	/**
+	 * Embeds a range of blocks, splitting it in two if it contains too many edges
+	 */
+	@SuppressWarnings("serial")
+	private class BlockEmbedding extends RecursiveAction{
+
+		private int from, to;
+		private List<Map<V, List<E>>> embeddings;
+		private AtomicReference<CannotBeAppliedException> error;
+
+		private BlockEmbedding(int from, int to, List<Map<V, List<E>>> embeddings, AtomicReference<CannotBeAppliedException> error){
+			this.from = from;
+			this.to = to;
+			this.embeddings = embeddings;
+			this.error = error;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1 && edgeCounts[to] - edgeCounts[from] > SEQUENTIAL_THRESHOLD){
+				int middle = (from + to) >>> 1;
+				invokeAll(new BlockEmbedding(from, middle, embeddings, error),
+						new BlockEmbedding(middle, to, embeddings, error));
+				return;
+			}
+			for (int i = from; i < to && error.get() == null; i++){
+				Graph<V,E> block = blocks.get(i);
+				if (block.getVertices().size() == 2){
+					//the block consists of one or more edges between two vertices
+					Map<V, List<E>> embedding = new HashMap<V, List<E>>();
+					for (V v : block.getVertices())
+						embedding.put(v, new ArrayList<E>(block.getEdges()));
+					embeddings.set(i, embedding);
+					continue;
+				}
+				try {
+					embeddings.set(i, PlanarEmbedding.emedGraph(block, null, null).getEmbedding());
+				} catch (CannotBeAppliedException e) {
+					error.compareAndSet(null, e);
+				}
+			}
+		}
+	}
+
+	private ForkJoinPool getPool(){
+		if (pool == null)
+			pool = Util.sharedPool();
+		return pool;
+	}
+
+	/**
+	 * @return Biconnected components of the last tested graph
+	 */
+	public List<Graph<V, E>> getBlocks() {
+		return blocks;
+	}
+
+	/**
+	 * @return A non-planar biconnected component of the last tested graph,
+	 * or {@code null} if the graph is planar
+	 */
+	public Graph<V, E> getNonPlanarBlock() {
+		return nonPlanarBlock.get();
+	}
+
+	/**
+	 * @param pool Pool on which the blocks should be tested. If not set, a shared fork-join pool is used
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+}
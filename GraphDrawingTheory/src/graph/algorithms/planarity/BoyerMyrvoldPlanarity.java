@@ -1,862 +1,579 @@
 package graph.algorithms.planarity;
 
-import graph.algorithms.numbering.DFSNumbering;
-import graph.algorithms.numbering.Numbering;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
-import graph.enumerations.Direction;
-import graph.traversal.DFSTreeTraversal;
-import graph.trees.dfs.DFSTree;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-
-import org.apache.log4j.Logger;
 
 
 /**
  * Implementation of the Boyer-Myrvold planarity testing algorithm
  * The Boyer-Myrvold algorithm is a planarity testing algorithm which uses reverse DFS order as numbering
- * of the vertices of G. The general strategy is that of explicitly maintaining a 
+ * of the vertices of G. The general strategy is that of explicitly maintaining a
  * "flexible" planar embedding of each connected component of Gi with the outer vertices on the outer face.
  * This embedding is "flexible" in the sense that each block can be flipped in constant time,
  * whatever its size, while the permutation of the blocks around cutvertices is left undecided.
+ * J. M. Boyer and W. J. Myrvold, On the cutting edge: simplified O(n) planarity by edge addition,
+ * Journal of Graph Algorithms and Applications 8 (2004), no. 3, 241–273.
+ * Vertices are identified by their depth-first indices and all state is kept in primitive arrays of a
+ * {@link BoyerMyrvoldWorkspace}, which can be shared by many tests. Only the external faces of the blocks are stored.
+ * A traversal of an external face continues through the link of a vertex which doesn't lead back to the previous
+ * vertex, so blocks never have to be flipped. Virtual root of the block of DFS child c has index n + c.
+ * The tested graph is not modified.
  * @author Renata
  * @param <V> The vertex type
- * @param <E> The edge type 
+ * @param <E> The edge type
  */
 
 public class BoyerMyrvoldPlanarity<V extends Vertex, E extends Edge<V>> extends PlanarityTestingAlgorithm<V,E>{
 
-
-	/**Map whose key is a vertex and value is a list of all block with that vertex as root*/
-	private Map<V, List<Block>> allBlocksWithRoot = new HashMap<V, List<Block>>();
-
-	/**List of all blocks*/
-	private List<Block> blocks = new ArrayList<Block>();
+	private BoyerMyrvoldWorkspace workspace;
 
 	/**
-	 * Map of all blocks and their roots. When checking for pertinent roots of a vertex
-	 * just check if it is a key in this map
+	 * Graph tested last
 	 */
-	private Map<E, Map<V, Block>> pertinentBlocksForEdge = new HashMap<E, Map<V, Block>>();
+	private Graph<V,E> graph;
 
 	/**
-	 * DFS tree formed from the graph which is being analyzed 
+	 * Result of the last test
 	 */
-	private DFSTree<V,E> dfsTree;
-
-	/**Map with a vertex as a key and lists of its dfs children as values*/
-	private Map<V, List<V>> vertexChildListMap = new HashMap<V, List<V>>();
+	private boolean planar;
 
-	/**Map which pairs a vertex with its lowpoint index*/
-	private Map<V, Integer> vertexLowpointMap = new HashMap<V, Integer>();
-
-	/**List of endpoints of back edges used during the walkdown phase*/
-	private List<V> endpoins = new ArrayList<V>();
-
-	/**List of externally active vertices used during the walkdown phase*/
-	private List<V> externallyActive;
-
-	private boolean debug = false;
-
-	private Graph<V,E> graph;
+	private int n;
+	private int[] dfi, vertexAt, parent, leastAncestor, lowpoint;
+	private int[] separatedHead, separatedNext, separatedPrevious;
+	private int[] backEdgeHead, backEdgeNext, backEdgeTarget;
+	private int[] backEdgeFlag, pertinentRootsHead, pertinentRootsTail, pertinentRootsNext;
+	private boolean[] merged;
+	private int[] externalFace, visited, mergeStack;
+	private int activeIn;
 
-	private Logger log = Logger.getLogger(BoyerMyrvoldPlanarity.class);
+	/**
+	 * Creates the planarity test with its own workspace
+	 */
+	public BoyerMyrvoldPlanarity(){
+		this(new BoyerMyrvoldWorkspace());
+	}
 
+	/**
+	 * Creates the planarity test which uses the given workspace
+	 * @param workspace Workspace
+	 */
+	public BoyerMyrvoldPlanarity(BoyerMyrvoldWorkspace workspace){
+		this.workspace = workspace;
+	}
 
 	@Override
-	public boolean isPlannar(Graph<V, E> graph) {
+	protected boolean testPlanarity(Graph<V, E> graph) {
 
 		this.graph = graph;
-		boolean directed = graph.isDirected();
-		graph.setDirected(false);
-
-		//************************
-		//preprocessing
-		//************************
-
-		//clearing all collections, in case the method was not called for the first time
-		//no need to instantiate the class again
-		blocks.clear();
-		allBlocksWithRoot.clear();
-		pertinentBlocksForEdge.clear();
-		vertexChildListMap.clear();
-		vertexLowpointMap.clear();
-
-		if (debug)
-			log.info("Preprocessing started");
+		List<V> vertices = graph.getVertices();
+		List<E> edges = graph.getEdges();
+		BoyerMyrvoldWorkspace ws = workspace;
+		ws.ensureCapacity(vertices.size(), edges.size());
+
+		//vertex ids are positions in the list of vertices
+		boolean indexed = graph.isIndexed();
+		ws.vertexIds.clear();
+		if (!indexed)
+			for (int i = vertices.size() - 1; i >= 0; i--)
+				ws.vertexIds.put(vertices.get(i), i);
+
+		int m = 0;
+		for (E e : edges){
+			int origin = indexed ? graph.vertexId(e.getOrigin()) : id(e.getOrigin());
+			int destination = indexed ? graph.vertexId(e.getDestination()) : id(e.getDestination());
+			if (origin == -1 || destination == -1 || origin == destination)
+				continue;
+			ws.origins[m] = origin;
+			ws.destinations[m] = destination;
+			m++;
+		}
+		ws.vertexIds.clear();
 
-		DFSTreeTraversal<V, E> traversal = new  DFSTreeTraversal<V,E>(graph);
-		dfsTree = traversal.formDFSTree(graph.getVertices().get(0));
+		planar = test(vertices.size(), m);
+		return planar;
+	}
 
-		//equip each vertex with a list called separatedDFSChildList
-		//which initially contains references to all DFS children of the vertex, sorted by
-		//their lowpoint values.
-		//separatedDFSChild list should only contain children which belong to different blocks
-		//when two blocks are joined some children may be removed from this list
+	private int id(V v){
+		Integer id = workspace.vertexIds.get(v);
+		return id == null ? -1 : id;
+	}
 
-		for (V v : graph.getVertices()){
-			List<V> separatedDFSChildList = new ArrayList<V>();
-			for (V child : dfsTree.directDescendantsOf(v)){
-				separatedDFSChildList.add(child);
-				vertexLowpointMap.put(child, dfsTree.lowpt(child));
+	/**
+	 * Tests the planarity of the graph whose edges are stored in the workspace
+	 * @param numberOfVertices Number of vertices
+	 * @param numberOfEdges Number of edges
+	 * @return {@code true} if the graph is planar, {@code false} otherwise
+	 */
+	private boolean test(int numberOfVertices, int numberOfEdges){
+		BoyerMyrvoldWorkspace ws = workspace;
+		n = numberOfVertices;
+		workspace.faceSize = 0;
+		if (n > 4 && numberOfEdges > 3 * n - 6 && !hasParallelEdges(numberOfEdges))
+			return false;
+
+		dfi = ws.dfi;
+		vertexAt = ws.vertexAt;
+		parent = ws.parent;
+		leastAncestor = ws.leastAncestor;
+		lowpoint = ws.lowpoint;
+		separatedHead = ws.separatedHead;
+		separatedNext = ws.separatedNext;
+		separatedPrevious = ws.separatedPrevious;
+		backEdgeHead = ws.backEdgeHead;
+		backEdgeNext = ws.backEdgeNext;
+		backEdgeTarget = ws.backEdgeTarget;
+		backEdgeFlag = ws.backEdgeFlag;
+		pertinentRootsHead = ws.pertinentRootsHead;
+		pertinentRootsTail = ws.pertinentRootsTail;
+		pertinentRootsNext = ws.pertinentRootsNext;
+		merged = ws.merged;
+		externalFace = ws.externalFace;
+		visited = ws.visited;
+		mergeStack = ws.mergeStack;
+
+		buildAdjacency(numberOfEdges);
+		depthFirstSearch();
+		sortSeparatedChildLists();
+
+		Arrays.fill(backEdgeFlag, 0, n, n);
+		Arrays.fill(visited, 0, 2 * n, n);
+		Arrays.fill(pertinentRootsHead, 0, n, -1);
+		Arrays.fill(pertinentRootsTail, 0, n, -1);
+		Arrays.fill(merged, 0, n, false);
+		//every tree edge forms a block with the virtual root of the child
+		for (int c = 0; c < n; c++)
+			if (parent[c] != -1){
+				int root = n + c;
+				externalFace[2 * root] = externalFace[2 * root + 1] = c;
+				externalFace[2 * c] = externalFace[2 * c + 1] = root;
 			}
 
-			Collections.sort(separatedDFSChildList, new Comparator<V>(){
+		for (int v = n - 1; v >= 0; v--){
 
-				@Override
-				public int compare(V o1, V o2) {
+			//identify the pertinent vertices and blocks
+			for (int b = backEdgeHead[v]; b != -1; b = backEdgeNext[b])
+				walkup(v, backEdgeTarget[b]);
 
-					if (vertexLowpointMap.get(o1) > vertexLowpointMap.get(o2))
-						return 1;
-					else if (vertexLowpointMap.get(o1) < vertexLowpointMap.get(o2))
-						return -1;
-					else
-						return 0;
-				}
-			});
-
-			vertexChildListMap.put(v, separatedDFSChildList);
+			//embed the back edges to descendants of each child
+			for (int c = ws.childHead[v]; c != -1; c = ws.childNext[c])
+				if (visited[n + c] == v)
+					walkdown(v, n + c);
 
+			for (int b = backEdgeHead[v]; b != -1; b = backEdgeNext[b])
+				if (backEdgeFlag[backEdgeTarget[b]] == v)
+					return false;
 		}
 
-		if (debug)
-			log.info("Preprocessing finished");
-
-		//***************************************
-		//Preprocessing finished
-		//***************************************
-
-		//*****************************************
-		//Perform the algorithm
-		//*****************************************
-
-		Numbering<V,E> numbering =  new DFSNumbering<V, E>(dfsTree);
-
-		for (V v : numbering.getOrder()){
-
-
-			if (debug)
-				log.info("PROCESSING VERTEX + " + v);
-
-
-			//for each DFS child c of v in G
-			//Embed tree edge (vc, c) as a biconnected component in G
-			for (E e : dfsTree.allOutgoingTreeEdges(v)){
-				formBlock(e);
-			}
+		storeOutsideFace();
+		return true;
+	}
 
-			if (!processVertex(v)){
-				graph.setDirected(directed);
-				return false;
+	/**
+	 * Checks if there are parallel edges, in which case a planar graph can have more than 3n - 6 edges
+	 */
+	private boolean hasParallelEdges(int numberOfEdges){
+		BoyerMyrvoldWorkspace ws = workspace;
+		buildAdjacency(numberOfEdges);
+		int[] last = ws.position;
+		Arrays.fill(last, 0, n, -1);
+		for (int v = 0; v < n; v++)
+			for (int i = ws.offsets[v]; i < ws.offsets[v + 1]; i++){
+				if (last[ws.targets[i]] == v)
+					return true;
+				last[ws.targets[i]] = v;
 			}
+		return false;
+	}
 
-
+	private void buildAdjacency(int numberOfEdges){
+		BoyerMyrvoldWorkspace ws = workspace;
+		int[] offsets = ws.offsets;
+		Arrays.fill(offsets, 0, n + 1, 0);
+		for (int e = 0; e < numberOfEdges; e++){
+			offsets[ws.origins[e] + 1]++;
+			offsets[ws.destinations[e] + 1]++;
+		}
+		for (int v = 0; v < n; v++)
+			offsets[v + 1] += offsets[v];
+		int[] position = ws.position;
+		System.arraycopy(offsets, 0, position, 0, n);
+		for (int e = 0; e < numberOfEdges; e++){
+			int origin = ws.origins[e];
+			int destination = ws.destinations[e];
+			ws.targets[position[origin]] = destination;
+			ws.incidentEdges[position[origin]++] = e;
+			ws.targets[position[destination]] = origin;
+			ws.incidentEdges[position[destination]++] = e;
 		}
-
-		//if the implementation needed to be expanded
-		//to embed all back edges which can be embedded and to isolate
-		//Kuratowski subgraph
-		//don't return false, just keep going
-
-		if (debug)
-			log.info(blocks);
-
-		graph.setDirected(directed);
-		return true;
 	}
 
-
-	private boolean processVertex(V v){
-
-		List<E> incomingBackEdges = dfsTree.allIncomingBackEdges(v);
-
-		//the Walkdown is invoked by the core planarity algorithm once for each DFS child
-		//c of the vertex v to embed the back
-		//edges from v to descendants of c.
-		for (V child : dfsTree.directDescendantsOf(v)){
-
-			//if the vertex has incoming back edges
-			if (incomingBackEdges.size() > 0){
-				List<E> edgesToEmbed = new ArrayList<E>();
-				for (E back : incomingBackEdges){
-					V endpoint = back.getOrigin() == v ? back.getDestination() : back.getOrigin();
-					if (dfsTree.allDescendantsOf(child, false).contains(endpoint)){
-						edgesToEmbed.add(back);
-					}
-				}
-
-				if (edgesToEmbed.size() > 0){
-
-					endpoins.clear();
-					externallyActive = listExternalyActive(v);
-
-
-					//set endpoints list
-					for (E backEdge : edgesToEmbed){
-						V endpoint = backEdge.getOrigin() == v ? backEdge.getDestination() : backEdge.getOrigin();
-						endpoins.add(endpoint);
+	/**
+	 * Numbers the vertices, finds their parents, least ancestors and lowpoints, lists
+	 * the children of each vertex and the back edges leading from each vertex to its descendants
+	 */
+	private void depthFirstSearch(){
+		BoyerMyrvoldWorkspace ws = workspace;
+		int[] offsets = ws.offsets;
+		int[] position = ws.position;
+		int[] stack = ws.stack;
+		int[] parentEdge = ws.parentEdge;
+		Arrays.fill(dfi, 0, n, -1);
+		Arrays.fill(ws.childHead, 0, n, -1);
+		Arrays.fill(backEdgeHead, 0, n, -1);
+		System.arraycopy(offsets, 0, position, 0, n);
+		int count = 0;
+		int backEdges = 0;
+
+		for (int s = 0; s < n; s++){
+			if (dfi[s] != -1)
+				continue;
+			int top = 0;
+			stack[top++] = s;
+			dfi[s] = count;
+			vertexAt[count] = s;
+			parent[count] = -1;
+			parentEdge[count] = -1;
+			leastAncestor[count] = lowpoint[count] = count;
+			count++;
+
+			while (top > 0){
+				int u = stack[top - 1];
+				int du = dfi[u];
+				if (position[u] < offsets[u + 1]){
+					int t = ws.targets[position[u]];
+					int e = ws.incidentEdges[position[u]++];
+					if (dfi[t] == -1){
+						int dt = count++;
+						dfi[t] = dt;
+						vertexAt[dt] = t;
+						parent[dt] = du;
+						parentEdge[dt] = e;
+						leastAncestor[dt] = lowpoint[dt] = dt;
+						ws.childNext[dt] = ws.childHead[du];
+						ws.childHead[du] = dt;
+						stack[top++] = t;
 					}
-
-
-
-					for (E backEdge : edgesToEmbed)
-						walkup(v, backEdge);
-
-
-					while (edgesToEmbed.size() > 0){
-
-						//perform walkup for every edge
-						//since blocks are changed when merging and 
-						//some kind of processing would have to be performed in any case
-						sortEdgesToEmbed(edgesToEmbed);
-
-						E backEdge = edgesToEmbed.get(0);
-						//now perform walkdown and embed the edge
-						//if that is not possible, return false
-						if (!walkdown(v, child, backEdge, edgesToEmbed))
-							return false;
-						edgesToEmbed.remove(backEdge);
+					else if (dfi[t] < du && e != parentEdge[du]){
+						int ancestor = dfi[t];
+						leastAncestor[du] = Math.min(leastAncestor[du], ancestor);
+						lowpoint[du] = Math.min(lowpoint[du], ancestor);
+						backEdgeTarget[backEdges] = du;
+						backEdgeNext[backEdges] = backEdgeHead[ancestor];
+						backEdgeHead[ancestor] = backEdges++;
 					}
 				}
+				else{
+					top--;
+					if (parent[du] != -1)
+						lowpoint[parent[du]] = Math.min(lowpoint[parent[du]], lowpoint[du]);
+				}
 			}
 		}
-		return true;
 	}
 
-
-	private void sortEdgesToEmbed(List<E> edgesToEmbed){
-
-		//sort the embedding order
-		//if the edges are chosen randomly
-		//it is possible that some of them won't be embedded
-		//resulting in algorithm's failure
-		//if there are more relevant vertices in a block, not just back edges
-		//make sure that they are not left out of the external face
-		//basically, traversing the external face of the relevant block and searching for 
-		//ednpoints and pertinent vertices
-
-		Collections.sort(edgesToEmbed, new Comparator<E>() {
-
-			@Override
-			public int compare(E o1, E o2) {
-
-
-				V endpoint1 = dfsTree.getIndex(o1.getOrigin()) > dfsTree.getIndex(o1.getDestination()) ? o1.getOrigin() : o1.getDestination();
-				V endpoint2 = dfsTree.getIndex(o2.getOrigin()) > dfsTree.getIndex(o2.getDestination()) ? o2.getOrigin() : o2.getDestination();
-
-
-				Map<V,Block> pertinent1 = pertinentBlocksForEdge.get(o1);
-				Map<V,Block> pertinent2 = pertinentBlocksForEdge.get(o2);
-
-				if (debug){
-					log.info("pertinent1 " + pertinent1);
-					log.info("pertinent2 " + pertinent2);
-				}
-
-				List<Block> overlappingBlocks = new ArrayList<Block>(pertinent1.values());
-				overlappingBlocks.retainAll(pertinent2.values());
-
-
-				if (overlappingBlocks.size() > 0){
-
-					//find block with lowest dfi (where paths part)
-					Block block = overlappingBlocks.get(0);
-					for (Block overlapping : overlappingBlocks)
-						if (dfsTree.getIndex(overlapping.getRoot()) > dfsTree.getIndex(block.getRoot()))
-							block = overlapping;
-
-
-					int index1 = -1, index2 = -1;
-					int stopIndex = -1;
-					for (int i = 1; i < block.getBoundaryVertices().size(); i++){
-						V boundary = block.getBoundaryVertices().get(i);
-						if (externallyActive.contains(boundary)){
-							stopIndex = i;
-							break;
-						}
-						if (boundary == endpoint1 || pertinent1.containsKey(boundary))
-							index1 = i;
-						if (boundary == endpoint2 || pertinent2.containsKey(boundary))
-							index2 = i;
-						if (index1 != -1 && index2 != -1)
-							break;
-					}
-
-					if (stopIndex != -1){
-						for (int i = block.getBoundaryVertices().size() - 1; i > stopIndex; i--){
-							V boundary = block.getBoundaryVertices().get(i);
-
-							if (boundary == endpoint1 || pertinent1.containsKey(boundary))
-								index1 = i;
-							if (boundary == endpoint2 || pertinent2.containsKey(boundary))
-								index2 = i;
-							if (index1 != -1 && index2 != -1)
-								break;
-						}
-					}
-
-
-					if (stopIndex == -1){
-						if (index1 > index2){
-							return 1;
-						}
-
-
-						if (index1 < index2){
-							return -1;
-						}
-					}
-					else{
-						if (index1 > index2){
-							return -1;
-						}
-
-
-						if (index1 < index2){
-							return 1;
-						}
-					}
-
-					if (dfsTree.getIndex(endpoint1) > dfsTree.getIndex(endpoint2))
-						return 1;
-
-					if (dfsTree.getIndex(endpoint1) < dfsTree.getIndex(endpoint2))
-						return -1;
-
-					return 0;
-
-				}
-
-				if (dfsTree.getIndex(endpoint1) > dfsTree.getIndex(endpoint2))
-					return 1;
-
-				if (dfsTree.getIndex(endpoint1) < dfsTree.getIndex(endpoint2))
-					return -1;
-
-				return 0;
+	/**
+	 * Forms the separated DFS child list of every vertex, containing its children sorted by their lowpoints.
+	 * Uses bucket sort, since lowpoints are depth-first indices
+	 */
+	private void sortSeparatedChildLists(){
+		BoyerMyrvoldWorkspace ws = workspace;
+		int[] bucketHead = ws.bucketHead;
+		int[] bucketNext = ws.bucketNext;
+		Arrays.fill(bucketHead, 0, n, -1);
+		Arrays.fill(separatedHead, 0, n, -1);
+		for (int c = n - 1; c >= 0; c--)
+			if (parent[c] != -1){
+				bucketNext[c] = bucketHead[lowpoint[c]];
+				bucketHead[lowpoint[c]] = c;
+			}
+		int[] tail = ws.position;
+		Arrays.fill(tail, 0, n, -1);
+		for (int low = 0; low < n; low++)
+			for (int c = bucketHead[low]; c != -1; c = bucketNext[c]){
+				int p = parent[c];
+				separatedPrevious[c] = tail[p];
+				separatedNext[c] = -1;
+				if (tail[p] == -1)
+					separatedHead[p] = c;
+				else
+					separatedNext[tail[p]] = c;
+				tail[p] = c;
 			}
-		});
-
 	}
 
-
-
-
 	/**
 	 * Implementation of the Walkup procedure
 	 * The purpose of the Walkup is to identify vertices and biconnected
 	 * components that are pertinent due to the given back edge (v, w).
-	 * @param v
-	 * @param backEdge
+	 * The external faces are traversed in both directions at the same time, so
+	 * the root of a block is found in time proportional to the shorter path
 	 */
-	private void walkup(V v, E backEdge){
-
-		if (debug)
-			log.info("Walkup " + backEdge);
-
-		V w = backEdge.getOrigin() == v ? backEdge.getDestination() : backEdge.getOrigin();
-
-		Map<V, Block> pertinentBlocksMap = new HashMap<V, Block>();
-		pertinentBlocksForEdge.put(backEdge, pertinentBlocksMap);
-
-
-		//find dfs tree path between vertices connected with the back edge
-		List<V> dfsTreePath = dfsTree.treePathBetween(v, w);
-		if (debug)
-			log.info("DFS path " + dfsTreePath);
-
-
-		for (V pathVertex : dfsTreePath){
-
-			//check for blocks on the path which contain the vertex
-			
-			if (debug)
-				log.info("Checking for vertex " + pathVertex);
-
-			//check for blocks with path vertex as root
-			List<Block> rootsBlocks = allBlocksWithRoot.get(pathVertex);
-
-			if (rootsBlocks == null && pathVertex != dfsTreePath.get(0))
-				continue;
-
-			if (rootsBlocks != null){
-				for (Block b : rootsBlocks){
-
-					//check if root has a dfs child in this block and on the path
-					List<V> dfsChildren = dfsTree.directDescendantsOf(pathVertex);
-					boolean contains = false;
-					for (V child : dfsChildren)
-						if (dfsTreePath.contains(child) && b.getVertices().contains(child)){
-							contains = true;
-							break;
-						}
-					if (!contains)
-						continue;
-
-					pertinentBlocksMap.put(pathVertex, b);
-					break;
+	private void walkup(int v, int w){
+		backEdgeFlag[w] = v;
+		int x = w, xPrevious = -1;
+		int y = w, yPrevious = -1;
+
+		while (x != v){
+			if (visited[x] == v || visited[y] == v)
+				break;
+			visited[x] = v;
+			visited[y] = v;
+
+			int root = -1;
+			if (x >= n)
+				root = x;
+			else if (y >= n)
+				root = y;
+
+			if (root != -1){
+				int c = root - n;
+				int p = parent[c];
+				if (p != v){
+					if (lowpoint[c] < v)
+						appendPertinentRoot(p, root);
+					else
+						prependPertinentRoot(p, root);
 				}
+				x = y = p;
+				xPrevious = yPrevious = -1;
+			}
+			else{
+				int next = xPrevious == -1 ? externalFace[2 * x] : successor(x, xPrevious);
+				xPrevious = x;
+				x = next;
+				next = yPrevious == -1 ? externalFace[2 * y + 1] : successor(y, yPrevious);
+				yPrevious = y;
+				y = next;
 			}
 		}
 	}
 
 	/**
 	 * Implementation of the Walkdown procedure
-	 * in this phase it is determined how to embed an edge
-	 * and blocks are joined
+	 * in this phase back edges are embedded and blocks are joined
 	 * it is important to keep externally active vertices
 	 * on the external face
-	 * @param v
-	 * @param child
-	 * @param backEdge
-	 * @param backEdges
-	 * @return {@code true} if the procedure was successfully executed, {@code false} otherwise
+	 * Merge stack holds pairs of a cut vertex and the link through which it was entered,
+	 * and of a root of a child block and the link through which it was left
 	 */
-	private boolean walkdown(V v, V child, E backEdge,  List<E> backEdges){
-
-		if (debug)
-			log.info("Walkdown " + v + " " + backEdge);
-
-		if (debug){
-			log.info("CURRENT BLOCKS " + blocks);
-			log.info("PERTINENT " + pertinentBlocksForEdge.get(backEdge));
-			log.info("Externally active " + externallyActive);
-		}
-
-		//find block whose root is v and which leads to the end of the back edge
-		Block current = pertinentBlocksForEdge.get(backEdge).get(v);
-		List<Block> blocksToBeJoined = new ArrayList<Block>();
-
-		//found the back edge ending vertex while traversing the structure
-		boolean foundEnding = false;
-
-		V endpoint = backEdge.getOrigin() == v ? backEdge.getDestination() : backEdge.getOrigin();
-		List<Block> blocksWhichContainEndpoint = blocksWhichContainVertex(endpoint);
-
-		Direction currentDirection = Direction.CLOCKWISE;
-		boolean first = true;
-
-		List<V> traversedVerticesList = new ArrayList<V>();
-
-		while (!foundEnding){
-
-			if (debug)
-				log.info("Processing block: " + current);
-
-			traversedVerticesList.clear();
-
-			blocksToBeJoined.add(current);
-			Block nextBlock = null;
-
-			//analyze block
-			//go in one direction, if extremely active vertex is reached, go the other way
-			//until a vertex which leads to another block is reached
-			boolean changeDirection = false;
-
-			int index = 1;
-			if (currentDirection == Direction.COUNTERCLOCKWISE)
-				index = current.getBoundaryVertices().size() -1;
-
-			while (true){ //simulating for loop in order to avoid writing the same code twice 
-
-				V currentBoundary = current.getBoundaryVertices().get(index);
-
-				traversedVerticesList.add(currentBoundary);
-
-				if (!blocksWhichContainEndpoint.contains(current)) //don't move to next block if this contains the endpoint
-					if (pertinentBlocksForEdge.get(backEdge).get(currentBoundary) != null && 
-					pertinentBlocksForEdge.get(backEdge).get(currentBoundary) != current){
-						if (debug)
-							log.info("FOUND PERTINENT " + currentBoundary);
-						nextBlock = pertinentBlocksForEdge.get(backEdge).get(currentBoundary);
-						break;
-					}
-
-				if (currentBoundary == endpoint){
-					foundEnding = true;
-					break;
-				}
-
-				if (externallyActive.contains(currentBoundary)){
-					changeDirection = true;
-					if (debug)
-						log.info("found extremely active vertex " + currentBoundary + " changing direction");
-					break;
-				}
-
-
-				if (currentDirection == Direction.CLOCKWISE){
-					index ++;
-					if (index == current.getBoundaryVertices().size()){
-						break;
+	private void walkdown(int v, int root){
+		int top = 0;
+
+		for (int direction = 0; direction < 2; direction++){
+			int w = externalFace[2 * root + direction];
+			int wIn = entry(w, root, direction);
+
+			while (w != root){
+
+				if (backEdgeFlag[w] == v){
+					while (top > 0){
+						int rootOut = mergeStack[--top];
+						int childRoot = mergeStack[--top];
+						int cutVertexIn = mergeStack[--top];
+						int cutVertex = mergeStack[--top];
+						merge(cutVertex, cutVertexIn, childRoot, rootOut);
 					}
+					externalFace[2 * root + direction] = w;
+					externalFace[2 * w + wIn] = root;
+					backEdgeFlag[w] = n;
 				}
-				else{
-					index --;
-					if (index == 0)
-						break;
-				}
-			}
-
 
-			if (changeDirection){
-
-				currentDirection = currentDirection == Direction.CLOCKWISE ? Direction.COUNTERCLOCKWISE : Direction.CLOCKWISE;
-
-				index = 1;
-				if (currentDirection == Direction.COUNTERCLOCKWISE)
-					index = current.getBoundaryVertices().size() -1;
-
-				traversedVerticesList.clear();
-
-				while (true){
-
-					V currentBoundary = current.getBoundaryVertices().get(index);
-
-
-					
-					if (debug){
-						log.info(pertinentBlocksForEdge);
-						log.info("Current boundary: " + currentBoundary);
+				if (pertinentRootsHead[w] != -1){
+					mergeStack[top++] = w;
+					mergeStack[top++] = wIn;
+					int childRoot = pertinentRootsHead[w];
+					int x = firstActive(childRoot, 0, v);
+					int xIn = activeIn;
+					int y = firstActive(childRoot, 1, v);
+					int yIn = activeIn;
+					int rootOut;
+					if (isInternallyActive(x, v)){
+						w = x;
+						wIn = xIn;
+						rootOut = 0;
 					}
-					
-
-					traversedVerticesList.add(currentBoundary);
-
-					//check if a 
-
-					if (!blocksWhichContainEndpoint.contains(current)) //don't move to next block if this contains the endpoint
-						if (pertinentBlocksForEdge.get(backEdge).get(currentBoundary) != null && 
-						pertinentBlocksForEdge.get(backEdge).get(currentBoundary) != current){
-							nextBlock = pertinentBlocksForEdge.get(backEdge).get(currentBoundary);
-							break;
-						}
-					if (currentBoundary == endpoint){
-						foundEnding = true;
-						break;
+					else if (isInternallyActive(y, v)){
+						w = y;
+						wIn = yIn;
+						rootOut = 1;
 					}
-
-					if (externallyActive.contains(currentBoundary)){
-						if (debug)
-							log.info("found another externally active " + currentBoundary + " - not planar!");
-						return false;
-					}
-
-					if (currentDirection == Direction.CLOCKWISE){
-						index ++;
-						if (index == current.getBoundaryVertices().size())
-							break;
+					else if (isPertinent(x, v)){
+						w = x;
+						wIn = xIn;
+						rootOut = 0;
 					}
 					else{
-						index --;
-						if (index == 0)
-							break;
+						w = y;
+						wIn = yIn;
+						rootOut = 1;
 					}
+					mergeStack[top++] = childRoot;
+					mergeStack[top++] = rootOut;
+				}
+				else if (!isPertinent(w, v) && !isExternallyActive(w, v)){
+					//inactive vertex, skip it
+					int out = 1 - wIn;
+					int next = externalFace[2 * w + out];
+					wIn = entry(next, w, out);
+					w = next;
 				}
-			}
-
-			//update external face and flip if necessary (to keep externally active on the external face)
-			//this is when the second traversal is performed:
-			//check if there are externally active on the other side
-			//but it wasn't traversed since the correct direction was chosen
-			//also check if there are other endpoints (to make sure that it will be possible to embed them as well
-			//and if there is no reason to flip at that point
-			//see if there are any pertinent vertices on the other side - leave them on the external face
-
-
-			V last = traversedVerticesList.get(traversedVerticesList.size() - 1);
-			
-			if (debug){
-				log.info(current.getBoundaryVertices());
-				log.info("Externally active: " + externallyActive);
-				log.info("Endpoints " + endpoins);
-			}
-
-
-			if (changeDirection){
-				if (currentDirection == Direction.COUNTERCLOCKWISE)
-					current.setExternalFace(last, Direction.CLOCKWISE);
 				else
-					current.setExternalFace(last, Direction.COUNTERCLOCKWISE);
-				
-				if (debug)
-					log.info(current.getBoundaryVertices());
-
+					//stopping vertex
+					break;
 			}
-			else{
-
-				boolean flip = false;
-
-				int indexOfEnd = current.getBoundaryVertices().
-						indexOf(traversedVerticesList.get(traversedVerticesList.size() - 1));
-
-				boolean hasExternallyActive = false;
-				boolean hasOtherToBeEmbedded = false;
-				boolean hasPertiment = false;
-
-				if (currentDirection == Direction.CLOCKWISE){
-
-					for (int i = current.getBoundaryVertices().size() - 1; i > indexOfEnd; i--){
-						V vert = current.getBoundaryVertices().get(i);
-						if (externallyActive.contains(vert)){
-							hasExternallyActive = true;
-							break;
-						}
-						if (endpoins.contains(vert)){
-							hasOtherToBeEmbedded = true;
-							break;
-						}
-						if (allBlocksWithRoot.get(vert) != null && allBlocksWithRoot.get(vert).size() > 0){
-							hasPertiment = true;
-						}
-					}
-				}
-				else{
-					for (int i = 1; i < indexOfEnd; i++){
-						V vert = current.getBoundaryVertices().get(i);
-						if (externallyActive.contains(vert)){
-							hasExternallyActive = true;
-							break;
-						}
-						if (endpoins.contains(vert)){
-							hasOtherToBeEmbedded = true;
-							break;
-						}
-						if (allBlocksWithRoot.get(vert) != null && allBlocksWithRoot.get(vert).size() > 0){
-							hasPertiment = true;
-						}
-					}
-				}
-
-				if (debug){
-					log.info("Has externally active: " + hasExternallyActive);
-					log.info("Has other to be embedded " + hasOtherToBeEmbedded);
-				}
-				flip = hasExternallyActive || hasOtherToBeEmbedded;
-
-				if (!flip){
-					boolean traversedPertinent = false;
-					for(V vert : traversedVerticesList){
-						if (vert == last)
-							break;
-						if (allBlocksWithRoot.get(vert) != null && allBlocksWithRoot.get(vert).size() > 0){
-							traversedPertinent = true;
-							break;
-						}
-					}
-					if (!traversedPertinent && hasPertiment)
-						flip = true;
-				}
 
-				Direction toSet = currentDirection;
-				if (flip){
-					if (currentDirection == Direction.CLOCKWISE)
-						toSet = Direction.COUNTERCLOCKWISE;
-					else
-						toSet = Direction.CLOCKWISE;
-				}
-
-				current.setExternalFace(last, toSet);
-				
-				if (debug)
-					log.info(current.getBoundaryVertices());
-			}
-			current = nextBlock;
-			if (first)
-				first = false;
+			if (top > 0)
+				break;
 		}
-		
-		//now merge blocks
-		//and set the external face of the new block properly
-		if (blocksToBeJoined.size() > 1){
-			if (debug)
-				log.info("Merging blocks: " + blocksToBeJoined);
-			Block newBlock = mergeBlocks(blocksToBeJoined);
-
-			newBlock.addEdge(backEdge);
-
-			if (debug)
-				log.info(newBlock);
-			endpoins.remove(endpoint);
-
-			//update pertinent map
-			for (E edge : backEdges){
-				Map<V, Block> pertinentForEdge = pertinentBlocksForEdge.get(edge);
-				Iterator<Entry<V,Block>> entries = pertinentForEdge.entrySet().iterator();
-				boolean replaced = false;
-				while (entries.hasNext()){
-					Entry<V, Block> entry = entries.next();
-					if (blocksToBeJoined.contains(entry.getValue())){
-						entries.remove();
-						replaced = true;
-					}
-				}
-				if (replaced)
-					pertinentForEdge.put(newBlock.getRoot(), newBlock);
-			}
-
+	}
 
+	/**
+	 * Finds the first active vertex on the external face of the block with the given root, skipping
+	 * the inactive vertices. The link through which it was entered is stored in {@code activeIn}
+	 */
+	private int firstActive(int root, int out, int v){
+		int w = externalFace[2 * root + out];
+		int in = entry(w, root, out);
+		while (w != root && !isPertinent(w, v) && !isExternallyActive(w, v)){
+			out = 1 - in;
+			int next = externalFace[2 * w + out];
+			in = entry(next, w, out);
+			w = next;
 		}
+		activeIn = in;
+		return w;
+	}
 
-		pertinentBlocksForEdge.remove(backEdge);
-		backEdges.remove(backEdge);
-
-		return true;
+	/**
+	 * Merges the block of the given virtual root with the block containing its parent.
+	 * The cut vertex takes the place of the root and gets the root's neighbour on the side
+	 * which wasn't traversed as its neighbour on the side from which it was entered
+	 */
+	private void merge(int cutVertex, int cutVertexIn, int root, int rootOut){
+		int y = externalFace[2 * root + 1 - rootOut];
+		int yIn = entry(y, root, 1 - rootOut);
+		externalFace[2 * cutVertex + cutVertexIn] = y;
+		externalFace[2 * y + yIn] = cutVertex;
+
+		pertinentRootsHead[cutVertex] = pertinentRootsNext[root];
+		if (pertinentRootsHead[cutVertex] == -1)
+			pertinentRootsTail[cutVertex] = -1;
+
+		int c = root - n;
+		merged[c] = true;
+		if (separatedPrevious[c] == -1)
+			separatedHead[cutVertex] = separatedNext[c];
+		else
+			separatedNext[separatedPrevious[c]] = separatedNext[c];
+		if (separatedNext[c] != -1)
+			separatedPrevious[separatedNext[c]] = separatedPrevious[c];
+	}
 
+	/**
+	 * @return Link of vertex {@code w} which leads to vertex {@code from}, which left
+	 * its own link {@code out} to reach {@code w}
+	 */
+	private int entry(int w, int from, int out){
+		boolean first = externalFace[2 * w] == from;
+		boolean second = externalFace[2 * w + 1] == from;
+		if (first && !second)
+			return 0;
+		if (second && !first)
+			return 1;
+		return 1 - out;
 	}
 
 	/**
-	 * @param v vertex
-	 * @return List of block which contain the vertex
+	 * @return Neighbour of {@code x} on the external face which is not {@code previous}
 	 */
-	private List<Block> blocksWhichContainVertex(V v){
+	private int successor(int x, int previous){
+		return externalFace[2 * x] == previous ? externalFace[2 * x + 1] : externalFace[2 * x];
+	}
 
-		List<Block> ret = new ArrayList<Block>();
-		for (Block b : blocks)
-			if (b.getVertices().contains(v))
-				ret.add(b);
+	private void appendPertinentRoot(int w, int root){
+		pertinentRootsNext[root] = -1;
+		if (pertinentRootsTail[w] == -1)
+			pertinentRootsHead[w] = root;
+		else
+			pertinentRootsNext[pertinentRootsTail[w]] = root;
+		pertinentRootsTail[w] = root;
+	}
 
-		return ret;
+	private void prependPertinentRoot(int w, int root){
+		pertinentRootsNext[root] = pertinentRootsHead[w];
+		if (pertinentRootsHead[w] == -1)
+			pertinentRootsTail[w] = root;
+		pertinentRootsHead[w] = root;
 	}
 
+	/**
+	 * A vertex is pertinent during the processing of v if it has a back edge to v which is not embedded
+	 * or if it is the parent of a pertinent root
+	 */
+	private boolean isPertinent(int w, int v){
+		return backEdgeFlag[w] == v || pertinentRootsHead[w] != -1;
+	}
 
 	/**
-	 * 
 	 * A vertex w is externally active during the processing of v if w either has a least ancestor less than
 	 * v or if the first element in the separatedDFSChildList of w has a lowpoint less than v.
-	 * Checks if vertex w is externally active during the processing of v
-	 * @param v A vertex being processed
-	 * @param w A vertex whose external activity is being checked
-	 * @return {@code true} if the vertex is externally active, {@code false} otherwise
 	 */
-	private boolean externallyActive(V w, V v){
-
-		V leastAncestor = dfsTree.leastAncestor(w);
-
-		if ((leastAncestor != null && dfsTree.getIndex(leastAncestor) < dfsTree.getIndex(v)) || 
-				(vertexChildListMap.get(w).size() > 0 && dfsTree.getIndex(vertexChildListMap.get(w).get(0)) < dfsTree.getIndex(v)))
-			return true;
-
-		return false;
+	private boolean isExternallyActive(int w, int v){
+		return leastAncestor[w] < v || (separatedHead[w] != -1 && lowpoint[separatedHead[w]] < v);
 	}
 
-
-
-	private void formBlock(E treeEdge){
-
-		Block block = new Block();
-		if (dfsTree.getIndex(treeEdge.getOrigin()) < dfsTree.getIndex(treeEdge.getDestination())){
-			block.addVertex(treeEdge.getOrigin(), true);
-			block.addVertex(treeEdge.getDestination(), true);
-		}
-		else{
-			block.addVertex(treeEdge.getDestination(), true);
-			block.addVertex(treeEdge.getOrigin(), true);
-		}
-
-
-		block.addEdge(treeEdge);
-		blocks.add(block);
-		V root = block.getRoot();
-		List<Block> rootsBlocks = allBlocksWithRoot.get(root);
-
-		if (rootsBlocks == null){
-			rootsBlocks = new ArrayList<Block>();
-			allBlocksWithRoot.put(root, rootsBlocks);
-		}
-		rootsBlocks.add(block);
+	private boolean isInternallyActive(int w, int v){
+		return isPertinent(w, v) && !isExternallyActive(w, v);
 	}
 
-
-	private Block mergeBlocks(List<Block> blocksToBeJoined){
-
-		Block result = new Block();
-		
-
-		for (Block block : blocksToBeJoined){
-
-			if (result.getRoot() == null){
-				result.setRoot(block.getRoot());
-			}
-
-			for (V v : block.getVertices()){
-				if (!result.getVertices().contains(v))
-					result.addVertex(v, false);
-			}
-			for (V v : block.getBoundaryVertices()){
-				boolean addBoundary = true;
-				for (Block otherBlock : blocksToBeJoined)
-					if (otherBlock.getVertices().contains(v) && !otherBlock.getBoundaryVertices().contains(v)){
-						addBoundary = false;
-						break;
-					}
-				if (addBoundary)
-					result.getBoundaryVertices().add(v);
-					
+	/**
+	 * Stores the vertices on the external faces of the remaining blocks, starting from their roots
+	 */
+	private void storeOutsideFace(){
+		BoyerMyrvoldWorkspace ws = workspace;
+		int[] mark = ws.position;
+		Arrays.fill(mark, 0, n, -1);
+		int size = 0;
+		for (int c = 0; c < n; c++){
+			if (parent[c] == -1 || merged[c])
+				continue;
+			int root = n + c;
+			if (mark[parent[c]] == -1){
+				mark[parent[c]] = 0;
+				ws.face[size++] = vertexAt[parent[c]];
 			}
-
-			result.getEdges().addAll(block.getEdges());
-
-			blocks.remove(block);
-			allBlocksWithRoot.get(block.getRoot()).remove(block);
-			
-			
-		}
-
-		blocks.add(result);
-		allBlocksWithRoot.get(result.getRoot()).add(result);
-
-		//update dfsSeparatedChildList
-		//since some of the vertices aren't separated any more
-		for (V v : result.getVertices()){
-
-			List<V> separatedDFSChildList = vertexChildListMap.get(v);
-			Iterator<V> separatedListIterator = separatedDFSChildList.iterator();
-			while (separatedListIterator.hasNext()){
-				V next = separatedListIterator.next();
-				if (result.getVertices().contains(next))
-					separatedListIterator.remove();
+			int previous = root;
+			int w = externalFace[2 * root];
+			while (w != root){
+				if (mark[w] == -1){
+					mark[w] = 0;
+					ws.face[size++] = vertexAt[w];
+				}
+				int next = successor(w, previous);
+				previous = w;
+				w = next;
 			}
 		}
-
-		if (debug){
-			log.info("resutl boundary " + result.getBoundaryVertices());
-		}
-		return result;
-
-	}
-
-	private List<V> listExternalyActive(V v){
-
-		List<V> ret = new ArrayList<V>();
-
-		for (V w : dfsTree.getVertices())
-			if (externallyActive(w, v))
-				ret.add(w);
-
-		return ret;
+		ws.faceSize = size;
 	}
 
 	/**
-	 * Return vertices of the outside face
-	 * @return A list of vertices forming the outside face
+	 * Return vertices of the outside face, found by the last planarity test.
+	 * If the graph is not biconnected, vertices of outside faces of all blocks are returned.
+	 * @return A list of vertices forming the outside face, empty if the graph is not planar
 	 */
 	public List<V> getOutsideFace(){
 		List<V> ret = new ArrayList<V>();
-		for (Block b : blocks){
-			for (V vb : b.getBoundaryVertices())
-				if (!ret.contains(vb))
-					ret.add(vb);
-		}
+		if (graph == null || !planar)
+			return ret;
+		List<V> vertices = graph.getVertices();
+		for (int i = 0; i < workspace.faceSize; i++)
+			ret.add(vertices.get(workspace.face[i]));
 		return ret;
 	}
 
@@ -879,147 +596,11 @@ public class BoyerMyrvoldPlanarity<V extends Vertex, E extends Edge<V>> extends
 		return externalFace;
 	}
 
-
-
 	/**
-	 * Represents a block used during the implementation of Boyer-Myrvold algorithm
-	 * @author Renata
+	 * @return Workspace used by the planarity test
 	 */
-	public class Block{
-
-		/**
-		 * Vertices belonging to the block
-		 */
-		private List<V> vertices;
-		/**
-		 * Edges belonging to the block
-		 */
-		private List<E> edges;
-		/**
-		 * A subset of all vertices containing those which are boundary
-		 */
-		private List<V> boundaryVertices;
-		/**
-		 * Root of the block
-		 */
-		private V root;
-
-
-		public Block() {
-			vertices = new ArrayList<V>();
-			edges = new ArrayList<E>();
-			boundaryVertices = new ArrayList<V>();
-		}
-
-
-		/**
-		 * Adds a new vertex to the block
-		 * @param v Vertex to add
-		 * @param boundary Indicator if it's a boundary vertex
-		 */
-		public void addVertex(V v, boolean boundary){
-			
-			vertices.add(v);
-			if (boundary)
-				boundaryVertices.add(v);
-			if (root == null || dfsTree.getIndex(v) < dfsTree.getIndex(root))
-				root = v;
-		}
-
-		/**
-		 * Adds a new edge to the block
-		 * @param edge Edge to be added
-		 */
-		public void addEdge(E edge){
-			edges.add(edge);
-		}
-
-
-		/**
-		 * Sets a new external face based on the old one
-		 * @param endpoint Last boundary vertex
-		 * @param direction Clockwise or counterclockwise traversal
-		 */
-		public void setExternalFace(V endpoint, Direction direction){
-		
-			List<V> boundaryCopy = new ArrayList<V>(boundaryVertices);
-			int indexOF = boundaryVertices.indexOf(endpoint);
-			boundaryVertices.clear();
-			boundaryVertices.add(boundaryCopy.get(0));
-			if (direction == Direction.CLOCKWISE){
-				for (int i = 1; i <= indexOF; i++){
-					boundaryVertices.add(boundaryCopy.get(i));
-				}
-			}
-			else{
-				for (int i = boundaryCopy.size() - 1; i >= indexOF; i--)
-					boundaryVertices.add(boundaryCopy.get(i));
-			}
-		}
-
-		/**
-		 * @return Block's vertices
-		 */
-		public List<V> getVertices() {
-			return vertices;
-		}
-
-		/**
-		 * @param vertices Vertices to set
-		 */
-		public void setVertices(List<V> vertices) {
-			this.vertices = vertices;
-		}
-
-		/**
-		 * @return Block's edges
-		 */
-		public List<E> getEdges() {
-			return edges;
-		}
-
-		/**
-		 * @param edges Edges to set
-		 */
-		public void setEdges(List<E> edges) {
-			this.edges = edges;
-		}
-
-		/**
-		 * @return Boundary (external face) vertices
-		 */
-		public List<V> getBoundaryVertices() {
-			return boundaryVertices;
-		}
-
-		/**
-		 * @param boundaryVertices Boundary vertices to set
-		 */
-		public void setBoundaryVertices(List<V> boundaryVertices) {
-			this.boundaryVertices = boundaryVertices;
-		}
-
-		/**
-		 * @return Block's root
-		 */
-		public V getRoot() {
-			return root;
-		}
-
-		/**
-		 * @param root Root to set
-		 */
-		public void setRoot(V root) {
-			this.root = root;
-		}
-
-		@Override
-		public String toString() {
-			return "Block [vertices=" + vertices + ", edges=" + edges
-					+ ", boundaryVertices=" + boundaryVertices
-					+  "root=" + root + "\n";
-		}
-
+	public BoyerMyrvoldWorkspace getWorkspace() {
+		return workspace;
 	}
 
 }
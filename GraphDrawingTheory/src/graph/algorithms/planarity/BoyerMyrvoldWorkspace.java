@@ -0,0 +1,122 @@
+package graph.algorithms.planarity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Arrays used by the Boyer-Myrvold planarity test. A workspace can be created once, with the sizes
+ * of the largest expected graph, and passed to many planarity testing objects, so that testing
+ * a large number of graphs doesn't allocate any memory. The arrays are enlarged when a bigger graph is tested.
+ * A workspace must not be used by more than one test at a time.
+ */
+public class BoyerMyrvoldWorkspace {
+
+	int vertexCapacity = -1;
+	int edgeCapacity = -1;
+
+	/**
+	 * Ends of the edges of the tested graph
+	 */
+	int[] origins, destinations;
+	/**
+	 * Adjacency of the tested graph in the compressed sparse row format
+	 */
+	int[] offsets, targets, incidentEdges;
+
+	/**
+	 * Depth-first index of each vertex and vertex with each depth-first index
+	 */
+	int[] dfi, vertexAt;
+	/**
+	 * Per vertex, indexed by the depth-first index
+	 */
+	int[] parent, parentEdge, leastAncestor, lowpoint, position, stack;
+	int[] childHead, childNext;
+	int[] separatedHead, separatedNext, separatedPrevious;
+	int[] bucketHead, bucketNext;
+	int[] backEdgeHead, backEdgeNext, backEdgeTarget;
+	int[] backEdgeFlag, pertinentRootsHead, pertinentRootsTail;
+	boolean[] merged;
+
+	/**
+	 * Per vertex and virtual root
+	 */
+	int[] externalFace, visited, pertinentRootsNext;
+	int[] mergeStack;
+
+	/**
+	 * Vertices of the outside face found by the last test
+	 */
+	int[] face;
+	int faceSize;
+
+	/**
+	 * Ids of vertices of the graph being tested, when it isn't indexed
+	 */
+	Map<Object, Integer> vertexIds = new HashMap<Object, Integer>();
+
+	/**
+	 * Creates an empty workspace, which will be enlarged by the first test
+	 */
+	public BoyerMyrvoldWorkspace(){
+		this(0, 0);
+	}
+
+	/**
+	 * Creates a workspace big enough for graphs with up to the given numbers of vertices and edges
+	 * @param numberOfVertices Number of vertices
+	 * @param numberOfEdges Number of edges
+	 */
+	public BoyerMyrvoldWorkspace(int numberOfVertices, int numberOfEdges){
+		ensureCapacity(numberOfVertices, numberOfEdges);
+	}
+
+	/**
+	 * Enlarges the workspace, if necessary, so that it can hold graphs with the given numbers of vertices and edges
+	 * @param numberOfVertices Number of vertices
+	 * @param numberOfEdges Number of edges
+	 */
+	public void ensureCapacity(int numberOfVertices, int numberOfEdges){
+		if (numberOfVertices > vertexCapacity){
+			int n = Math.max(numberOfVertices, 2 * vertexCapacity);
+			vertexCapacity = n;
+			offsets = new int[n + 1];
+			dfi = new int[n];
+			vertexAt = new int[n];
+			parent = new int[n];
+			parentEdge = new int[n];
+			leastAncestor = new int[n];
+			lowpoint = new int[n];
+			position = new int[n];
+			stack = new int[n];
+			childHead = new int[n];
+			childNext = new int[n];
+			separatedHead = new int[n];
+			separatedNext = new int[n];
+			separatedPrevious = new int[n];
+			bucketHead = new int[n];
+			bucketNext = new int[n];
+			backEdgeHead = new int[n];
+			backEdgeFlag = new int[n];
+			pertinentRootsHead = new int[n];
+			pertinentRootsTail = new int[n];
+			merged = new boolean[n];
+			externalFace = new int[4 * n];
+			visited = new int[2 * n];
+			pertinentRootsNext = new int[2 * n];
+			mergeStack = new int[4 * n];
+			face = new int[n];
+		}
+		if (numberOfEdges > edgeCapacity){
+			int m = Math.max(numberOfEdges, 2 * edgeCapacity);
+			edgeCapacity = m;
+			origins = new int[m];
+			destinations = new int[m];
+			targets = new int[2 * m];
+			incidentEdges = new int[2 * m];
+			backEdgeNext = new int[m];
+			backEdgeTarget = new int[m];
+		}
+	}
+
+}
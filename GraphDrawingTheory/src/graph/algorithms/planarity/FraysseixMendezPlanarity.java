@@ -26,7 +26,7 @@ public class FraysseixMendezPlanarity<V extends Vertex, E extends Edge<V>> exten
 	private boolean debug = false;
 	
 	@Override
-	public boolean isPlannar(Graph<V,E> graph) {
+	protected boolean testPlanarity(Graph<V,E> graph) {
 
 		if (debug)
 			log.info("checking cyclic");
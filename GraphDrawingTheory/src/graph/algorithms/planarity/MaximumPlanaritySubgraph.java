@@ -7,13 +7,23 @@ import graph.traversal.DFSTreeTraversal;
 import graph.trees.dfs.DFSTree;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Finds maximum planar subgraph
  * A widely used standard heuristic for finding a maximal planar subgraph is to start with
  * a spanning tree of G, and to iteratively try to add the remaining edges one by one
  * In every step, a planarity testing algorithm is called for the obtained graph.
+ * Instead of testing after every addition, edges are added in batches. Since every subgraph of a planar
+ * graph is planar, the longest batch of following edges which can be added is found using an exponential
+ * and then a binary search, and the edge after it is the next one to be rejected. The result is the same as
+ * if the edges were added one by one, but a long run of accepted edges only needs a logarithmic number of tests.
+ * Loops and edges parallel to already added ones never make the graph nonplanar and are added without testing,
+ * while no other edge is tested once the subgraph has 3n - 6 edges between different pairs of vertices.
  * @author Renata
  * @param <V> The vertex type
  * @param <E> The edge type 
@@ -33,35 +43,152 @@ public class MaximumPlanaritySubgraph<V extends Vertex, E extends Edge<V>> {
 	 */
 	private Graph<V,E> planarSubgraph;
 	private List<E> remainingEdges;
+	/**
+	 * Number of performed planarity tests
+	 */
+	private int numberOfTests;
 	
 	public MaximumPlanaritySubgraph(Graph<V,E> graph){
+		this(graph, new FraysseixMendezPlanarity<V,E>());
+	}
+
+	/**
+	 * Finds maximum planar subgraph of the graph using the given planarity testing algorithm
+	 * @param graph Graph
+	 * @param planarityTest Planarity testing algorithm
+	 */
+	public MaximumPlanaritySubgraph(Graph<V,E> graph, PlanarityTestingAlgorithm<V, E> planarityTest){
 		this.graph = graph;
-		planarityTest = new FraysseixMendezPlanarity<V,E>();
+		this.planarityTest = planarityTest;
 		remainingEdges = new ArrayList<E>();
 		planarSubgraph = calculateMaximumPlanarityGraph();
 	}
 	
 	
-	@SuppressWarnings("unchecked")
 	/**
 	 * Finds the maximum planarity subgraph
 	 * @return Maximum planarity subgraph
 	 */
 	public Graph<V,E> calculateMaximumPlanarityGraph(){
 		DFSTree<V, E> tree = new DFSTreeTraversal<V,E>(graph).formDFSTree();
-		Graph<V,E> testGraph = new Graph<>(tree.getVertices(), tree.getTreeEdges());
-		
-		for (E e : tree.getBackEdges()){
+		List<V> vertices = tree.getVertices();
+		List<E> backEdges = tree.getBackEdges();
+		Map<V, Set<V>> neighbours = new HashMap<V, Set<V>>();
+		int pairs = 0;
+		//edges are added to and removed from one indexed working graph, so checking
+		//if it contains an edge while adding it takes constant time
+		Graph<V,E> testGraph = new Graph<V,E>(false, true);
+		for (V v : vertices)
+			testGraph.addVertex(v);
+		for (E e : tree.getTreeEdges()){
 			testGraph.addEdge(e);
-			if (!planarityTest.isPlannar(testGraph)){
-				testGraph.removeEdge(e);
+			if (addNeighbours(neighbours, e))
+				pairs++;
+		}
+		int maximumPairs = 3 * vertices.size() - 6;
+		remainingEdges.clear();
+		numberOfTests = 0;
+
+		int i = 0;
+		while (i < backEdges.size()){
+			E e = backEdges.get(i);
+			if (e.getOrigin() == e.getDestination() || areNeighbours(neighbours, e)){
+				testGraph.addEdge(e);
+				i++;
+				continue;
+			}
+			if (vertices.size() >= 3 && pairs >= maximumPairs){
 				remainingEdges.add(e);
+				i++;
+				continue;
+			}
+
+			//exponential search for a batch which can't be added
+			//the working graph contains the first inGraph edges of the batch
+			int inGraph = 0;
+			int accepted = 0;
+			int rejected = -1;
+			int step = 1;
+			while (i + accepted < backEdges.size()){
+				int batch = Math.min(step, backEdges.size() - i);
+				inGraph = resize(testGraph, backEdges, i, inGraph, batch);
+				if (isPlanar(testGraph))
+					accepted = batch;
+				else{
+					rejected = batch;
+					break;
+				}
+				step *= 2;
+			}
+			//binary search for the longest batch which can be added
+			if (rejected != -1)
+				while (rejected - accepted > 1){
+					int middle = (accepted + rejected) / 2;
+					inGraph = resize(testGraph, backEdges, i, inGraph, middle);
+					if (isPlanar(testGraph))
+						accepted = middle;
+					else
+						rejected = middle;
+				}
+			resize(testGraph, backEdges, i, inGraph, accepted);
+
+			for (int j = i; j < i + accepted; j++)
+				if (addNeighbours(neighbours, backEdges.get(j)))
+					pairs++;
+			i += accepted;
+			if (rejected != -1){
+				remainingEdges.add(backEdges.get(i));
+				i++;
 			}
 		}
-		
+
+		testGraph.setIndexed(graph.isIndexed());
 		return testGraph;
 	}
 
+	private boolean isPlanar(Graph<V,E> testGraph){
+		numberOfTests++;
+		return planarityTest.isPlannar(testGraph);
+	}
+
+	/**
+	 * Adds or removes the last candidate edges of the working graph, so that it contains
+	 * exactly the given number of candidates starting from {@code from}
+	 * @return New number of candidates in the working graph
+	 */
+	private int resize(Graph<V,E> testGraph, List<E> candidates, int from, int current, int size){
+		for (int j = from + current; j < from + size; j++)
+			testGraph.addEdge(candidates.get(j));
+		for (int j = from + current - 1; j >= from + size; j--)
+			testGraph.removeEdge(candidates.get(j));
+		return size;
+	}
+
+	private boolean areNeighbours(Map<V, Set<V>> neighbours, E e){
+		Set<V> adjacent = neighbours.get(e.getOrigin());
+		return adjacent != null && adjacent.contains(e.getDestination());
+	}
+
+	/**
+	 * @return {@code true} if the ends of the edge weren't neighbours
+	 */
+	private boolean addNeighbours(Map<V, Set<V>> neighbours, E e){
+		if (e.getOrigin() == e.getDestination())
+			return false;
+		boolean ret = neighbours(neighbours, e.getOrigin()).add(e.getDestination());
+		neighbours(neighbours, e.getDestination()).add(e.getOrigin());
+		return ret;
+	}
+
+	private Set<V> neighbours(Map<V, Set<V>> neighbours, V v){
+		Set<V> ret = neighbours.get(v);
+		if (ret == null){
+			ret = new HashSet<V>();
+			neighbours.put(v, ret);
+		}
+		return ret;
+	}
+
 	/**
 	 * @return Maximum planarity subgraph
 	 */
@@ -69,5 +196,19 @@ public class MaximumPlanaritySubgraph<V extends Vertex, E extends Edge<V>> {
 		return planarSubgraph;
 	}
 
+	/**
+	 * @return Edges which couldn't be added to the planar subgraph
+	 */
+	public List<E> getRemainingEdges() {
+		return remainingEdges;
+	}
+
+	/**
+	 * @return Number of planarity tests performed while finding the subgraph
+	 */
+	public int getNumberOfTests() {
+		return numberOfTests;
+	}
+
 	
 }
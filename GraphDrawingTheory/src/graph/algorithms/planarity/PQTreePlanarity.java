@@ -1,47 +1,45 @@
 package graph.algorithms.planarity;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.log4j.Logger;
-
-import graph.algorithms.numbering.STNumbering;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
-import graph.traversal.DijkstraAlgorithm;
+import graph.tree.pq.PQNodeLabel;
 import graph.tree.pq.PQNodeType;
 import graph.tree.pq.PQTree;
-import graph.tree.pq.PQTreeEdge;
-import graph.tree.pq.PQTreeNode;
 import graph.tree.pq.PQTreeReduction;
 
 /**
- * Implementation of the PQ tree planarity testing based on Booth and Lueker's algorithm
+ * Implementation of the PQ tree planarity testing based on Booth and Lueker's algorithm.
+ * Vertices are added one by one in the st-order, and the PQ-tree is reduced so that the leaves
+ * representing edges of the current vertex are consecutive. The embedding is computed as proposed by
+ * Chiba, Nishizeki, Abe and Ozawa, by reading the frontier of the pertinent subtree
+ * and using direction indicators to find out which lists of incoming edges should be reversed.
+ * The st-numbering is found in linear time, and the PQ-tree is stored in arrays, so the algorithm
+ * runs in almost linear time. A planarity testing object reuses its PQ-tree between tests.
+ * The embedding is only found for biconnected graphs. Planarity of other graphs is determined
+ * by testing each of their biconnected components.
  * @author Renata
  * @param <V> The vertex type
- * @param <E> The edge type 
+ * @param <E> The edge type
  */
 public class PQTreePlanarity<V extends Vertex, E extends Edge<V>> extends PlanarityTestingAlgorithm<V, E>{
 
+	private static final int PLANAR = 0, NONPLANAR = 1, NOT_BICONNECTED = 2;
+
 	/**
 	 * A list containing vertices in st order
 	 */
-	private List<V> stOrder;
+	private List<V> stOrder = new ArrayList<V>();
 
 	/**
 	 * Map of vertices and their st-numbers
 	 */
-	private Map<V,Integer> stNumbers;
-
-	/**
-	 * Graph whose planarity is being tested
-	 */
-	private Graph<V,E> graph;
+	private Map<V,Integer> stNumbers = new HashMap<V, Integer>();
 
 	/**
 	 * The embedding of the graph computed during planarity testing
@@ -49,38 +47,37 @@ public class PQTreePlanarity<V extends Vertex, E extends Edge<V>> extends Planar
 	 * vertex in the appropriate order
 	 * Even though the graph is undirected, the st-numbering of the vertices
 	 * determines the flow of edges (which vertex is the source and which is the destination)
-	 * The edges go from a vertex with lower number to a vertex with a higher number) 
+	 * The edges go from a vertex with lower number to a vertex with a higher number)
 	 */
 	private Map<V, List<E>> upwardsEmbedding = new HashMap<V, List<E>>();
 
 	/**
-	 * A map containing graph (subgraphs G1,G2...Gn)
-	 * and the lists of virtual edges turning them into
-	 * Gk'
+	 * First and last vertices of st-numbering, if they are given
 	 */
-	private Map<Graph<V,E>, List<E>> gPrimMap = new HashMap<Graph<V,E>, List<E>>();; 
+	private V s, t;
+
+	private PQTree tree = new PQTree();
+	private PQTreeReduction reduction = new PQTreeReduction(tree);
+	private Map<V, Integer> vertexIds = new HashMap<V, Integer>();
 
 	/**
-	 * An instance of Dijskra's algorithm for finding paths between vertices of a graph
-	 * In this case, between PQ tree nodes
+	 * Edges of the tested graph, without loops, their ends and the adjacency in the compressed sparse row format
 	 */
-	private DijkstraAlgorithm<PQTreeNode, PQTreeEdge> dijkstra = new DijkstraAlgorithm<PQTreeNode, PQTreeEdge>();
-
-	private Logger log = Logger.getLogger(PQTreePlanarity.class);
-
+	private int[] edgeIndices, origins, destinations, offsets, incidentEdges;
 	/**
-	 * An instance of the st-numbering algorithm
+	 * Per vertex: st-number, the vertex with each st-number, list of incoming edges in the upwards embedding
+	 * and the vertex during whose addition its direction indicator was read
 	 */
-	private	STNumbering<V, E> stNumbering;
+	private int[] numbers, vertexAt, embeddingStart, embeddingEnd, embeddingEdges, readers;
+	private boolean[] opposed;
 
-	private boolean debug = false;
 
 	/**
-	 * First and last vertices of st-numbering
+	 * Creates the planarity test which will use the given vertices as the first and the last vertex of the
+	 * st-numbering. They should be adjacent, otherwise the ends of the first edge of the graph are used
+	 * @param s The first vertex of the st-numbering
+	 * @param t The last vertex of the st-numbering
 	 */
-	private V s, t;
-
-
 	public PQTreePlanarity(V s, V t){
 		this.s = s;
 		this.t = t;
@@ -90,476 +87,341 @@ public class PQTreePlanarity<V extends Vertex, E extends Edge<V>> extends Planar
 	}
 
 
-	//TODO Determine the correct order of Au(v) - should a found list be reversed or not
-	//In Chiba's paper it is proposed to add a direction node after the vertex
-	//addition step if the root of the pertinent tree is a q-node that is not full
-	//Even if all of that is done, for the example pqtreeplanar without the edge (v4,v1)
-	//the found embedding is obviously not OK as is, without any reversal
-	//for vertex v2 - (v4,v2), (v2,v0) doesn't seem to be OK when looking at other embeddings
-	//for other vertices. If it is reversed, everything seems to be OK
-	//and there are no q-nodes there in any case
-	//And this embedding was formed so that when adding children to a q-node during the reduction
-	//they are always added at the end - rightmost position
-	//So, the question is, when do these full children of a q-node need to be added in left to right
-	//direction, and when in left to right
-	//Does the fact that the full children of a p-node that is/used to be the parent of the q-node
-	//are sometimes on the left and sometimes on the right have anything to do with that?
-	//Currently, that determines if the node should be placed in the beginning or at the end of existing children of the q-node
-	//Chiba's paper mentions something about determining the position during the vertex addition step
-	//by finding a list of brothers - children of the q-node using dfs and bubble up and then traverse 
-	//the children to see if the list should be reversed
-	//It also notes that a possible solution is to note how many time a node is reversed and if the 
-	//number is odd the Au(v) list should be reversed
-	//The current  idea is inspired by that one, but further testing is needed
-	//Also note the fact that when an upward embedding is extended into full
-	//the edges are traversed from the last one to the first one, that seems to do a good job
-	//if the upwards embedding is correct
-	//The last edge is not so strictly embedded because the nodes are not all children of some q-node
-	//so there can be more combinations
-
-
-	@SuppressWarnings("unchecked")
 	@Override
-	public boolean isPlannar(Graph<V, E> graph) {
-
-		if (graph.isTree())
-			return true;
-		
-		this.graph = graph;
-		gPrimMap.clear();
-		upwardsEmbedding.clear();
-
-
-		//assign st-numbers to all vertices of G
-		//s and t should be connected, but it is not stated
-		//that they should meet any special condition
-		//so, let st be the first edge
-		E st = graph.getEdges().get(0);
-		s = st.getOrigin();
-		t = st.getDestination();
+	protected boolean testPlanarity(Graph<V, E> graph) {
 
-		PQTreeNode pertRoot = null;
+		int result = test(graph);
+		if (result != NOT_BICONNECTED)
+			return result == PLANAR;
 
-		stNumbering = new STNumbering<V,E>(graph, s, t);
-		stOrder = stNumbering.getOrder();
-		stNumbers = stNumbering.getNumbering();
+		//a graph is planar if all of its biconnected components are planar
+		for (Graph<V,E> block : graph.listBiconnectedComponents())
+			if (test(block) == NONPLANAR)
+				return false;
+		upwardsEmbedding.clear();
+		stOrder.clear();
+		stNumbers.clear();
+		return true;
+	}
 
-		final Map<V, Integer> stMapping = stNumbering.getNumbering();
+	private int test(Graph<V,E> graph){
 
-		if (debug){
-			log.info("s " + s);
-			log.info("t " + t);
-			log.info("st order: " + stOrder);
+		upwardsEmbedding.clear();
+		stOrder.clear();
+		stNumbers.clear();
+
+		List<V> vertices = graph.getVertices();
+		List<E> edges = graph.getEdges();
+		int n = vertices.size();
+		if (n < 2){
+			stOrder.addAll(vertices);
+			for (int i = 0; i < n; i++)
+				stNumbers.put(vertices.get(i), i);
+			return PLANAR;
 		}
 
-		//construct a PQ-tree corresponding to G1'
-		Graph<V,E> g = constructG1();
-		PQTree<V, E> T = new PQTree<>(g, gPrimMap.get(g), stMapping);
+		vertexIds.clear();
+		for (int i = n - 1; i >= 0; i--)
+			vertexIds.put(vertices.get(i), i);
+		edgeIndices = new int[edges.size()];
+		origins = new int[edges.size()];
+		destinations = new int[edges.size()];
+		int m = 0;
+		for (int i = 0; i < edges.size(); i++){
+			E e = edges.get(i);
+			Integer origin = vertexIds.get(e.getOrigin());
+			Integer destination = vertexIds.get(e.getDestination());
+			if (origin == null || destination == null || origin.equals(destination))
+				continue;
+			edgeIndices[m] = i;
+			origins[m] = origin;
+			destinations[m] = destination;
+			m++;
+		}
+		if (m == 0){
+			vertexIds.clear();
+			return NOT_BICONNECTED;
+		}
+		int source = origins[0], sink = destinations[0];
+		if (s != null && t != null && vertexIds.containsKey(s) && vertexIds.containsKey(t)){
+			source = vertexIds.get(s);
+			sink = vertexIds.get(t);
+		}
+		vertexIds.clear();
 
-		//S - the set of edges whose higher-numbered vertex is j
-		List<PQTreeNode> S = new ArrayList<PQTreeNode>();
-		//S' - the set of edges whose lower-numbered vertex is j
-		List<E> Sprim = new ArrayList<E>();
+		offsets = new int[n + 1];
+		incidentEdges = new int[2 * m];
+		for (int e = 0; e < m; e++){
+			offsets[origins[e] + 1]++;
+			offsets[destinations[e] + 1]++;
+		}
+		for (int v = 0; v < n; v++)
+			offsets[v + 1] += offsets[v];
+		int[] position = new int[n];
+		for (int v = 0; v < n; v++)
+			position[v] = offsets[v];
+		for (int e = 0; e < m; e++){
+			incidentEdges[position[origins[e]]++] = e;
+			incidentEdges[position[destinations[e]]++] = e;
+		}
 
-		PQTreeReduction<V, E> treeReduction = new PQTreeReduction<V,E>();
+		if (!stNumber(n, source, sink))
+			return NOT_BICONNECTED;
 
-		List<PQTreeNode> fullChildren = new ArrayList<PQTreeNode>();
+		for (int k = 0; k < n; k++){
+			V v = vertices.get(vertexAt[k]);
+			stOrder.add(v);
+			stNumbers.put(v, k);
+		}
 
-		List<PQTreeNode> children = new ArrayList<PQTreeNode>();
+		if (!addVertices(n))
+			return NONPLANAR;
+
+		for (int k = 1; k < n; k++){
+			int v = vertexAt[k];
+			List<E> incoming = new ArrayList<E>(embeddingEnd[v] - embeddingStart[v]);
+			if (opposed[v])
+				for (int i = embeddingEnd[v] - 1; i >= embeddingStart[v]; i--)
+					incoming.add(edges.get(edgeIndices[embeddingEdges[i]]));
+			else
+				for (int i = embeddingStart[v]; i < embeddingEnd[v]; i++)
+					incoming.add(edges.get(edgeIndices[embeddingEdges[i]]));
+			upwardsEmbedding.put(vertices.get(v), incoming);
+		}
+		return PLANAR;
+	}
 
-		//S sets should contains leaves
-		//leaves have higher indexes
-		//if j is higher, add j node
-		//if j is lower, add the other node 
+	/**
+	 * Adds the vertices in the st-order, reducing the PQ-tree and reading the
+	 * lists of incoming edges. When it is done, the {@code opposed} array shows which lists should be reversed
+	 * @param n Number of vertices
+	 * @return {@code true} if the graph is planar
+	 */
+	private boolean addVertices(int n){
+		int[] leaves = new int[incidentEdges.length];
+		final int[] leafOf = new int[incidentEdges.length / 2];
+		embeddingStart = new int[n];
+		embeddingEnd = new int[n];
+		embeddingEdges = new int[incidentEdges.length / 2];
+		readers = new int[n];
+		opposed = new boolean[n];
+
+		int count = 0;
+		for (int k = 0; k < n; k++){
+			int v = vertexAt[k];
+			embeddingStart[v] = count;
+			embeddingEnd[v] = count;
+			readers[v] = -1;
+			for (int i = offsets[v]; i < offsets[v + 1]; i++)
+				if (numbers[other(incidentEdges[i], v)] < k)
+					count++;
+		}
 
-		List<PQTreeNode> nodesWithContent = new ArrayList<PQTreeNode>();
-		for (int j = 1; j < stOrder.size() - 1; j++){
+		final int[] current = new int[1];
+		PQTree.FrontierVisitor visitor = new PQTree.FrontierVisitor() {
 
-			if (debug){
-				log.info("Current j: " + j);
-				log.info("Current tree:" + T);
-			}
-			//pq nodes adjacent to the j vertex will be added to S
-
-			//pay attention to the fact that there could be more leaves that contain the same vertex
-
-			nodesWithContent.clear();
-			for (PQTreeNode node : T.getVertices())
-				if (node.getContent() == stOrder.get(j))
-					nodesWithContent.add(node);
-
-			S.clear();
-			Sprim.clear();
-
-			for (PQTreeNode jNode : nodesWithContent){
-				V content = (V) jNode.getContent();
-				//don't just search the vertices of the tree, S' also needs to be populated
-				for (E edge : graph.adjacentEdges(content)){
-					V other = edge.getOrigin() == content ? edge.getDestination() : edge.getOrigin();
-					if (stMapping.get(other) < j){
-						if (!S.contains(jNode))
-							S.add(jNode);
-					}
-					else{
-						if (!Sprim.contains(edge))
-							Sprim.add(edge);
-					}
-				}
+			@Override
+			public void leaf(int key) {
+				embeddingEdges[embeddingEnd[current[0]]++] = key;
 			}
 
-
-			final V v = stOrder.get(j);
-
-			Collections.sort(Sprim, new Comparator<E>() {
-
-				@Override
-				public int compare(E o1, E o2) {
-					V v1 = o1.getOrigin() == v ? o1.getDestination() : o1.getOrigin();
-					V v2 = o2.getOrigin() == v ? o2.getDestination() : o2.getOrigin();
-
-					if  (stNumbering.getNumbering().get(v1) > stNumbering.getNumbering().get(v2))
-						return 1;
-					else if  (stNumbering.getNumbering().get(v1) == stNumbering.getNumbering().get(v2))
-						return 0;
-					else return -1;
-				}
-			});
-
-			if (debug)
-				log.info("S' " + Sprim);
-
-
-			//sort S so that lower indexes are processed later
-			//bottom up
-
-			Collections.sort(S, new Comparator<PQTreeNode>() {
-
-				@Override
-				public int compare(PQTreeNode node1, PQTreeNode node2) {
-
-
-					V v1 = (V) node1.getContent();
-					V v2 = (V) node2.getContent();
-
-					if  (stMapping.get(v1) > stMapping.get(v2))
-						return 1;
-					else if  (stMapping.get(v1) == stMapping.get(v2))
-						return 0;
-					else return -1;
-
-				}
-			});
-
-			if (debug)
-				log.info("S: " + S);
-
-			pertRoot = pertinentSubtreeRoot(T, S);
-			if (debug)
-				log.info("PERTINENT SUBTREE ROOT: " + pertRoot);
-
-			//bubble(T,S)
-			//reduce(T,S)
-			treeReduction.bubble(T, S);
-			if (!treeReduction.reduce(T, S, pertRoot))
-				return false;
-
-			//if the reduction was successful, note the embedding
-
-
-			pertRoot = pertinentSubtreeRoot(T, S);
-			List<E> currentEmbedding = new ArrayList<E>();
-			if (debug)
-				log.info("embed vertex = " + stOrder.get(j));
-			embed(pertRoot, currentEmbedding, S);
-			upwardsEmbedding.put(stOrder.get(j), currentEmbedding);
-			if (debug)
-				log.info(currentEmbedding);
-
-
-			//S' - the set of edges whose lower-numbered index is i
-			//if root(T,S) is a Q-node
-			//that is, the check if the root of the pertinent subtree is a Q-node
-			//a pertinent subtree is a tree of minimal height whose frontier contains all S nodes
-
-
-			PQTreeNode newNode = constructTSprim(stOrder.get(j), Sprim);
-			if (debug){
-				log.info("Constructed new node T(S',S')");
-				log.info(newNode);
+			@Override
+			public void indicator(int key, boolean isOpposed) {
+				readers[key] = current[0];
+				opposed[key] = isOpposed;
 			}
-
-			T.addVertex(newNode);
-			if (newNode.getType() != PQNodeType.LEAF){
-				for (PQTreeNode child : newNode.getChildren()){
-					T.addVertex(child);
-					T.addEdge(new PQTreeEdge(newNode, child));
-				}
+		};
+
+		tree.clear();
+		tree.setRoot(upwardsNode(vertexAt[0], leafOf));
+		for (int k = 1; k < n; k++){
+			int v = vertexAt[k];
+			int leafCount = 0;
+			for (int i = offsets[v]; i < offsets[v + 1]; i++){
+				int e = incidentEdges[i];
+				if (numbers[other(e, v)] < k)
+					leaves[leafCount++] = leafOf[e];
 			}
+			if (!reduction.reduce(leaves, leafCount))
+				return false;
 
-			//when removing certain nodes, it is not only important
-			//to update the tree
-			//but also list of children of nodes
-
-			if (pertRoot.getType() == PQNodeType.Q){
-				//replace the full children of root(T,S) and their
-				//descendants by T(S', S')
-				if (debug)
-					log.info("Replace the full children of root(T,S) and their descentants by T(S', S')");
-
-
-				//to prevent concurrent modification exception
-				fullChildren.clear();
-				fullChildren.addAll(pertRoot.getFullChildren());
-				if (debug)
-					log.info("Full children: " + fullChildren);
-
-				List<PQTreeNode> descendants = new ArrayList<PQTreeNode>();
-				//find the minimal index of a full child
-				int index = -1;
-				for (PQTreeNode fullChild : fullChildren){
-					descendants.addAll(T.allDescendantsOf(fullChild));
-					int currentIndex = pertRoot.getChildren().indexOf(fullChild); 
-					if (index == -1 || currentIndex < index)
-						index = currentIndex;
-					pertRoot.removeChild(fullChild);
-				}
-				if (index == -1)
-					index = 0;
-
-				//now add the full children
-				descendants.addAll(fullChildren);
-				if (debug)
-					log.info("All descendants: " + descendants);
-				//all nodes in the descendants list should be replaced by
-				//T(S',S')
-
-
-				for (PQTreeNode descendant : descendants)
-					T.removeVertex(descendant);
-
-				//the order is important, so don't
-				//just add the child at the end
-				//replace the removed children
-
-				pertRoot.addChild(newNode, index);
-				T.addEdge(new PQTreeEdge(pertRoot, newNode));
-
-				if (pertRoot.childrenCount() == 2){
-					pertRoot.setType(PQNodeType.P);
-					T.getqNodes().remove(pertRoot);
-					T.getpNodes().add(pertRoot);
-					PQTreeNode parent = pertRoot.getParent();
-					if (parent != null){
-						parent.getPartialChildren().remove(pertRoot);
-					}
-
-				}
-
-				if (debug)
-					log.info(T);
+			current[0] = v;
+			int root = reduction.getPertinentRoot();
+			int replacement = upwardsNode(v, leafOf);
+			if (reduction.getPertinentRootLabel() == PQNodeLabel.FULL){
+				if (replacement != PQTree.NONE)
+					tree.replace(root, replacement);
+				tree.readFrontier(root, PQTree.NONE, root, true, visitor);
 			}
 			else{
-				//else replace root(T,S) and its descendants by T(S', S')
-				List<PQTreeNode> descendants = T.allDescendantsOf(pertRoot);
-				descendants.add(pertRoot);
-				PQTreeNode parent = pertRoot.getParent();
-				int index = -1;
-
-				if (parent != null)
-					index = parent.getChildren().indexOf(pertRoot);
-
-
-				//remove all children of pertinent root
-				if (pertRoot.getChildren() != null){
-					children.clear();
-					children.addAll(pertRoot.getChildren());
-					for (PQTreeNode child : children)
-						pertRoot.removeChild(child);
-				}
-
-				for (PQTreeNode descendant : descendants)
-					T.removeVertex(descendant);		
-
-				if (parent == null)
-					T.setRoot(newNode);
-				else{
-					parent.addChild(newNode, index);
-					T.addEdge(new PQTreeEdge(parent, newNode));
-					parent.removeChild(pertRoot);
-				}
+				//the direction indicator shows in which direction the full children were read
+				int indicator = tree.createIndicator(v);
+				int after = reduction.getAfterLastFull();
+				tree.replaceChildren(root, reduction.getFirstFull(), reduction.getBeforeFirstFull(),
+						reduction.getLastFull(), after, replacement, visitor);
+				tree.insertChild(root, replacement, after, indicator);
 			}
 		}
 
-		//embed the last node
-		List<E> currentEmbedding = new ArrayList<E>();
-		V v = stOrder.get(stOrder.size() - 1);
-		if (debug)
-			log.info("embed vertex = " + v);
-		embedLast(T.getRoot(), currentEmbedding);
-
-		upwardsEmbedding.put(v, currentEmbedding);
-		if (debug)
-			log.info(currentEmbedding);
-
-		upwardsEmbedding.put(v, currentEmbedding);
-		if (debug)
-			log.info("Upwards embedding: " + upwardsEmbedding);
-
-		if (debug){
-			log.info("Reverse emebdiings if necessary");
-			log.info(treeReduction.getReversalNum());
+		//a list is reversed if its indicator was read in the opposite direction
+		//from the list which was being read at that moment, after correcting that list's direction
+		for (int k = n - 1; k >= 0; k--){
+			int v = vertexAt[k];
+			if (readers[v] != -1)
+				opposed[v] ^= opposed[readers[v]];
 		}
-		for (V reversed : treeReduction.getReversalNum().keySet()){
-			if (treeReduction.getReversalNum().get(reversed) % 2 == 1)
-				if (upwardsEmbedding.containsKey(reversed))
-					Collections.reverse(upwardsEmbedding.get(reversed));
-		}
-
-		if (debug)
-			log.info("Upwards embedding: " + upwardsEmbedding);
-
 		return true;
 	}
 
-
-	private Graph<V,E> constructG1(){
-		//vertices in the subgraph
-		List<V> vertices = stOrder.subList(0,1); //the second index is exclusive
-		Graph<V,E> Gk = graph.subgraph(vertices);
-		List<E> virtualEdges = new ArrayList<E>();
-		final V v = vertices.get(0);
-		for (E e : graph.getEdges())
-			if (v == e.getOrigin() || v == e.getDestination())
-				virtualEdges.add(e);
-
-		Collections.sort(virtualEdges, new Comparator<E>() {
-
-			@Override
-			public int compare(E o1, E o2) {
-				V v1 = o1.getOrigin() == v ? o1.getDestination() : o1.getOrigin();
-				V v2 = o2.getOrigin() == v ? o2.getDestination() : o2.getOrigin();
-
-				if  (stNumbering.getNumbering().get(v1) > stNumbering.getNumbering().get(v2))
-					return 1;
-				else if  (stNumbering.getNumbering().get(v1) == stNumbering.getNumbering().get(v2))
-					return 0;
-				else return -1;
-			}
-		});
-
-		gPrimMap.put(Gk, virtualEdges);
-		return Gk;
-
-	}
-
-	private PQTreeNode constructTSprim(V v, List<E> Sprim){
-
-		PQTreeNode newNode;
-
-		if (Sprim.size() > 1){
-			newNode = new PQTreeNode(PQNodeType.P, v);
-			for (E edge : Sprim){
-				V other = edge.getOrigin() == v ? edge.getDestination() : edge.getOrigin();
-				PQTreeNode leafNode = new PQTreeNode(PQNodeType.LEAF, other);
-				leafNode.setVirtualEdge(edge);
-				newNode.addChild(leafNode);
+	/**
+	 * Creates the node representing edges going from the vertex to the vertices with higher st-numbers
+	 * @return A leaf, a P-node with leaves, or {@code NONE} if there are no such edges
+	 */
+	private int upwardsNode(int v, int[] leafOf){
+		int k = numbers[v];
+		int node = PQTree.NONE;
+		int first = PQTree.NONE;
+		for (int i = offsets[v]; i < offsets[v + 1]; i++){
+			int e = incidentEdges[i];
+			if (numbers[other(e, v)] < k)
+				continue;
+			int leaf = tree.createLeaf(e);
+			leafOf[e] = leaf;
+			if (first == PQTree.NONE)
+				first = leaf;
+			else{
+				if (node == PQTree.NONE){
+					node = tree.createNode(PQNodeType.P);
+					tree.addChild(node, first);
+				}
+				tree.addChild(node, leaf);
 			}
 		}
-		else{
-			E edge = Sprim.get(0);
-			V other = edge.getOrigin() == v ? edge.getDestination() : edge.getOrigin();
-			newNode = new PQTreeNode(PQNodeType.LEAF, other);
-			newNode.setVirtualEdge(edge);
-		}
-		return newNode;
+		return node == PQTree.NONE ? first : node;
 	}
 
 	/**
-	 * Find the root of the subtree of minimum height that contains all nodes of S
-	 * @param T Tree
-	 * @param S Set of nodes that should be contained
-	 * @return root of the pertinent subtree
+	 * Finds the st-numbering in linear time using Tarjan's algorithm: in the depth-first order,
+	 * each vertex is placed immediately before or after its parent, depending on the sign of its lowpoint.
+	 * If the given vertices are not adjacent, the ends of the first edge are used
+	 * @param n Number of vertices
+	 * @param source Id of the first vertex
+	 * @param sink Id of the last vertex
+	 * @return {@code false} if the graph is not biconnected
 	 */
-	private PQTreeNode pertinentSubtreeRoot(PQTree<V,E> T, List<PQTreeNode> S){
-
-		if (debug)
-			log.info("Finding the pertinent subtree root");
-
-		//trivial case
-		if (S.size() == 1)
-			return S.get(0);
-
-		//find path from each of the nodes of the set to the root of the tree and
-		//see where they come together
-		dijkstra.setEdges(T.getEdges());
-		List<List<PQTreeNode>> paths = new ArrayList<List<PQTreeNode>>();
-
-		//System.out.println(T.getEdges());
-
-		for (PQTreeNode node : S){
-			//System.out.println("node " + node);
-			List<PQTreeNode> path = dijkstra.getPath(node, T.getRoot()).pathVertices();
-			//System.out.println("path " + path);
-			paths.add(path);
+	private boolean stNumber(int n, int source, int sink){
+		int stEdge = -1;
+		for (int i = offsets[source]; i < offsets[source + 1] && stEdge == -1; i++)
+			if (other(incidentEdges[i], source) == sink)
+				stEdge = incidentEdges[i];
+		if (stEdge == -1){
+			source = origins[0];
+			sink = destinations[0];
+			stEdge = 0;
 		}
 
-		List<PQTreeNode> aPath = paths.get(0);
-
-		PQTreeNode root = null;
-		PQTreeNode current = null;
-
-		for (int i = aPath.size() - 1; i > 0; i--){
-			boolean doesnContain = false;
-			current = aPath.get(i);
+		int[] preorder = new int[n];
+		int[] order = new int[n];
+		int[] parents = new int[n];
+		int[] parentEdges = new int[n];
+		int[] lowpoints = new int[n];
+		int[] next = new int[n];
+		int[] stack = new int[n];
+		for (int v = 0; v < n; v++){
+			preorder[v] = -1;
+			next[v] = offsets[v];
+		}
 
-			for (List<PQTreeNode> path : paths){
-				if (!path.contains(current)){
-					doesnContain = true;
-					break;
+		//the dfs starts with the edge (s,t)
+		preorder[source] = 0;
+		order[0] = source;
+		parents[source] = -1;
+		parentEdges[source] = -1;
+		lowpoints[source] = source;
+		preorder[sink] = 1;
+		order[1] = sink;
+		parents[sink] = source;
+		parentEdges[sink] = stEdge;
+		lowpoints[sink] = sink;
+		int visited = 2;
+		int top = 0;
+		stack[top++] = source;
+		stack[top++] = sink;
+		while (top > 0){
+			int v = stack[top - 1];
+			if (next[v] < offsets[v + 1]){
+				int e = incidentEdges[next[v]++];
+				int w = other(e, v);
+				if (preorder[w] == -1){
+					//the source should have only one child
+					if (v == source)
+						return false;
+					preorder[w] = visited;
+					order[visited++] = w;
+					parents[w] = v;
+					parentEdges[w] = e;
+					lowpoints[w] = w;
+					stack[top++] = w;
 				}
+				else if (e != parentEdges[v] && preorder[w] < preorder[lowpoints[v]])
+					lowpoints[v] = w;
+			}
+			else{
+				top--;
+				int parent = parents[v];
+				if (parent == -1)
+					continue;
+				if (parent != source && preorder[lowpoints[v]] >= preorder[parent])
+					return false;
+				if (preorder[lowpoints[v]] < preorder[lowpoints[parent]])
+					lowpoints[parent] = lowpoints[v];
 			}
-
-			if (doesnContain)
-				break;
-			root = current;
 		}
-
-		return root;
-	}
-
-	@SuppressWarnings("unchecked")
-	private void embed(PQTreeNode currentNode, List<E> embedding, List<PQTreeNode> S){
-		//the main idea is to start with the root of the pertinent subtree
-		//and recursively examine the children
-		//embed pertinent nodes, call embed for other children
-		//the children in the children list of nodes are in the 
-		//specific order, determined during the reduction step
-		//go from left to right, and recursively go deeper
-		//place every found child at the end of the list
-		if (debug){
-			log.info(currentNode);
-			log.info(currentNode.getChildren());
+		if (visited < n)
+			return false;
+
+		//the list is stored in the next and previous arrays
+		int[] previous = stack;
+		boolean[] minus = new boolean[n];
+		next[source] = sink;
+		previous[source] = -1;
+		next[sink] = -1;
+		previous[sink] = source;
+		minus[source] = true;
+		for (int i = 2; i < n; i++){
+			int v = order[i];
+			int parent = parents[v];
+			if (minus[lowpoints[v]]){
+				int before = previous[parent];
+				next[before] = v;
+				previous[v] = before;
+				next[v] = parent;
+				previous[parent] = v;
+				minus[parent] = false;
+			}
+			else{
+				int after = next[parent];
+				next[v] = after;
+				previous[v] = parent;
+				next[parent] = v;
+				if (after != -1)
+					previous[after] = v;
+				minus[parent] = true;
+			}
 		}
 
-		if (currentNode.getType() == PQNodeType.LEAF && S.contains(currentNode))
-			embedding.add((E) currentNode.getVirtualEdge());
-		else if (currentNode.getType() != PQNodeType.LEAF)
-			for (PQTreeNode child : currentNode.getChildren()){
-				embed(child, embedding, S);
-			}
+		numbers = new int[n];
+		vertexAt = new int[n];
+		int k = 0;
+		for (int v = source; v != -1; v = next[v]){
+			numbers[v] = k;
+			vertexAt[k++] = v;
+		}
+		return true;
 	}
 
-	@SuppressWarnings("unchecked")
-	private void embedLast(PQTreeNode currentNode, List<E> embedding){
-		//just like regular embedding, but no need to construct S
-		//all remaining leaves should be embedded
-
-		if (currentNode.getType() == PQNodeType.LEAF)
-			embedding.add((E) currentNode.getVirtualEdge());
-		else if (currentNode.getType() != PQNodeType.LEAF)
-			for (PQTreeNode child : currentNode.getChildren()){
-				embedLast(child, embedding);
-			}
+	private int other(int e, int v){
+		return origins[e] == v ? destinations[e] : origins[e];
 	}
 
 
@@ -2,8 +2,10 @@ package graph.algorithms.planarity;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import graph.elements.Edge;
 import graph.elements.Graph;
@@ -48,7 +50,7 @@ public class PlanarEmbedding {
 			embedding.put(v, list);
 		}
 
-		List<V> covered = new ArrayList<V>();
+		Set<V> covered = new HashSet<V>();
 
 		List<V> stOrder = pqPlanarity.getStOrder();
 		//start with the sink
@@ -60,7 +62,7 @@ public class PlanarEmbedding {
 
 	}
 
-	private static <V extends Vertex, E extends Edge<V>> void dfs(V y, List<V> covered, Map<V,List<E>> upwardsEmbedding, Map<V,List<E>> embedding){
+	private static <V extends Vertex, E extends Edge<V>> void dfs(V y, Set<V> covered, Map<V,List<E>> upwardsEmbedding, Map<V,List<E>> embedding){
 		//mark vertex y as old - adding  it to the list
 		covered.add(y);
 
@@ -3,6 +3,8 @@ package graph.algorithms.planarity;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Instrumentation;
+import graph.instrumentation.Stopwatch;
 
 /**
  * A class which should be extended by all planarity testing implementations
@@ -12,11 +14,27 @@ import graph.elements.Vertex;
  */
 public abstract class PlanarityTestingAlgorithm<V extends Vertex, E extends Edge<V>>  {
 
+	/**
+	 * Determines if the graph is planar.
+	 * The test is measured as operation {@code "<Class> isPlannar"}
+	 * @param graph Graph whose planarity is being checked
+	 * @return {@code true} if graph is planar, otherwise {@code false}
+	 */
+	public final boolean isPlannar(Graph<V,E> graph){
+		Stopwatch stopwatch = Instrumentation.start(getClass(), "isPlannar");
+		try{
+			return testPlanarity(graph);
+		}
+		finally{
+			stopwatch.stop();
+		}
+	}
+
 	/**
 	 * Determines if the graph is planar
 	 * @param graph Graph whose planarity is being checked
 	 * @return {@code true} if graph is planar, otherwise {@code false}
 	 */
-	public abstract boolean isPlannar(Graph<V,E> graph);
+	protected abstract boolean testPlanarity(Graph<V,E> graph);
 
 }
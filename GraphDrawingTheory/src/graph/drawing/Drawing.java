@@ -7,8 +7,11 @@ import java.awt.Point;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Represents a drawing of a graph.
@@ -106,13 +109,14 @@ public class Drawing<V extends Vertex, E extends Edge<V>> {
 		}
 		
 		//now check for multiple links
-		List<E> processedEdges = new ArrayList<E>();
+		Map<V, Map<V, List<E>>> multipleEdgesMap = groupEdgesByEnds();
+		Set<E> processedEdges = new HashSet<E>();
 		for (E e : edges){
 			if (processedEdges.contains(e))
 				continue;
 			
 			processedEdges.add(e);
-			List<E> multipleEdges = findMultipleEdgesForEdge(e);
+			List<E> multipleEdges = findMultipleEdgesForEdge(e, multipleEdgesMap);
 			if (multipleEdges.size() == 0)
 				continue;
 			
@@ -128,15 +132,10 @@ public class Drawing<V extends Vertex, E extends Edge<V>> {
 			
 			for (int i = 0; i <  multipleEdges.size(); i++){
 
-				
-				
 				E multEedge = multipleEdges.get(i);
 				Point2D originPosition = edgeMappings.get(multEedge).get(0);
 				Point2D destinationPosition = edgeMappings.get(multEedge).get(1);
 				
-				System.out.println(originPosition);
-				System.out.println(destinationPosition);
-				
 				if (i < (int) multipleEdges.size()/2){
 					originPosition.setLocation((int)(originPosition.getX() - distanceMultiplicity * distanceOrigin),
 							originPosition.getY());
@@ -155,9 +154,6 @@ public class Drawing<V extends Vertex, E extends Edge<V>> {
 					distanceMultiplicity = 1;
 				else
 					distanceMultiplicity ++;
-				
-				System.out.println(originPosition);
-				System.out.println(destinationPosition);
 					
 			}
 			
@@ -167,16 +163,43 @@ public class Drawing<V extends Vertex, E extends Edge<V>> {
 		}
 	}
 	
-
+	/**
+	 * Groups all positioned edges by their origin and destination vertices in one pass.
+	 * Edges in each group are in the order of iteration over the edge mappings
+	 * @return Map of origins to maps of destinations to edges between the two vertices
+	 */
+	private Map<V, Map<V, List<E>>> groupEdgesByEnds(){
+		Map<V, Map<V, List<E>>> ret = new IdentityHashMap<V, Map<V, List<E>>>();
+		for (E e : edgeMappings.keySet()){
+			Map<V, List<E>> byDestination = ret.get(e.getOrigin());
+			if (byDestination == null){
+				byDestination = new IdentityHashMap<V, List<E>>();
+				ret.put(e.getOrigin(), byDestination);
+			}
+			List<E> group = byDestination.get(e.getDestination());
+			if (group == null){
+				group = new ArrayList<E>(1);
+				byDestination.put(e.getDestination(), group);
+			}
+			group.add(e);
+		}
+		return ret;
+	}
 	
-	private List<E> findMultipleEdgesForEdge(E edge){
+	private List<E> findMultipleEdgesForEdge(E edge, Map<V, Map<V, List<E>>> multipleEdgesMap){
 		List<E> ret = new ArrayList<E>();
+		
+		Map<V, List<E>> byDestination = multipleEdgesMap.get(edge.getOrigin());
+		if (byDestination == null)
+			return ret;
+		List<E> group = byDestination.get(edge.getDestination());
+		if (group == null || group.size() < 2)
+			return ret;
 	
-		for (E e : edgeMappings.keySet()){
+		for (E e : group){
 			if (e == edge)
 				continue;
-			if (e.getOrigin() == edge.getOrigin() && e.getDestination() == edge.getDestination())
-				ret.add(e);
+			ret.add(e);
 		}
 		
 		return ret;
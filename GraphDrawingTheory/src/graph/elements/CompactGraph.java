@@ -0,0 +1,516 @@
+package graph.elements;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable snapshot of a graph in the compressed sparse row format.
+ * Every vertex and edge is given an integer id, and the adjacency of the graph is stored in
+ * primitive arrays: neighbours of the vertex with id {@code v} are found at positions
+ * {@code offset(v)} to {@code offset(v + 1) - 1} of the targets array. The order of the neighbours
+ * is the same as in the graph's adjacency lists.
+ * Traversals and degree queries can therefore be performed without creating any objects. Methods
+ * which need auxiliary arrays accept them as parameters, so that they can be reused between calls.
+ * Changes made to the graph after the snapshot was taken are not reflected in it.
+ * Ids of vertices and edges are found through open addressing tables holding only ints, so a snapshot of a graph
+ * with n vertices and m edges, which keeps r incidences (2m for an undirected graph), takes about
+ * 4 * (n + m) bytes of references to the elements, 8 to 16 bytes per vertex and per edge for the id tables,
+ * 8 * m bytes for the ends of the edges, 8 * r bytes for the adjacency rows and as much again for the rows
+ * of outgoing edges of a directed graph, without creating any objects per vertex or edge.
+ * @param <V> The vertex type
+ * @param <E> The edge type
+ */
+public class CompactGraph<V extends Vertex, E extends Edge<V>> {
+
+	/**
+	 * Vertices, indexed by their ids
+	 */
+	private Object[] vertices;
+	/**
+	 * Edges, indexed by their ids
+	 */
+	private Object[] edges;
+	/**
+	 * Vertex ids
+	 */
+	private IdTable vertexIds;
+	/**
+	 * Edge ids
+	 */
+	private IdTable edgeIds;
+	/**
+	 * Ids of origins of edges, -1 if the origin is not a vertex of the graph
+	 */
+	private int[] origins;
+	/**
+	 * Ids of destinations of edges, -1 if the destination is not a vertex of the graph
+	 */
+	private int[] destinations;
+	/**
+	 * Start of each vertex's row in the {@code targets} and {@code incidentEdges} arrays.
+	 * Has one more element than there are vertices
+	 */
+	private int[] offsets;
+	/**
+	 * Ids of adjacent vertices, row by row
+	 */
+	private int[] targets;
+	/**
+	 * Ids of edges connecting the vertex with the corresponding target
+	 */
+	private int[] incidentEdges;
+	/**
+	 * Row offsets of outgoing edges
+	 */
+	private int[] outOffsets;
+	/**
+	 * Ids of vertices at the other end of outgoing edges, row by row
+	 */
+	private int[] outTargets;
+	/**
+	 * Ids of outgoing edges, row by row
+	 */
+	private int[] outEdges;
+	private boolean directed;
+
+	/**
+	 * Takes a snapshot of the given graph
+	 * @param graph Graph
+	 */
+	public CompactGraph(Graph<V,E> graph){
+		directed = graph.isDirected();
+		List<V> graphVertices = graph.getVertices();
+		List<E> graphEdges = graph.getEdges();
+		int n = graphVertices.size();
+
+		//a vertex which is listed more than once keeps the id of its first occurrence
+		vertices = graphVertices.toArray();
+		vertexIds = new IdTable(vertices, false);
+
+		//edges which are in adjacency lists, but not in the list of edges get ids after all others
+		edgeIds = new IdTable(graphEdges.toArray(), true);
+		int incidences = 0;
+		int outgoing = 0;
+		for (V v : graphVertices){
+			List<E> adjacent = graph.adjacentEdges(v);
+			if (adjacent != null){
+				incidences += adjacent.size();
+				for (E e : adjacent)
+					edgeIds.add(e);
+			}
+			List<E> out = graph.outEdges(v);
+			if (out != null){
+				outgoing += out.size();
+				for (E e : out)
+					edgeIds.add(e);
+			}
+		}
+
+		edges = edgeIds.trim();
+		int edgeCount = edges.length;
+		origins = new int[edgeCount];
+		destinations = new int[edgeCount];
+		for (int id = 0; id < edgeCount; id++){
+			Edge<?> e = (Edge<?>) edges[id];
+			origins[id] = vertexIds.get(e.getOrigin());
+			destinations[id] = vertexIds.get(e.getDestination());
+		}
+
+		offsets = new int[n + 1];
+		targets = new int[incidences];
+		incidentEdges = new int[incidences];
+		outOffsets = new int[n + 1];
+		outTargets = new int[outgoing];
+		outEdges = new int[outgoing];
+		int position = 0;
+		int outPosition = 0;
+		for (int i = 0; i < n; i++){
+			offsets[i] = position;
+			V v = graphVertices.get(i);
+			List<E> adjacent = graph.adjacentEdges(v);
+			if (adjacent != null)
+				for (E e : adjacent){
+					int id = edgeIds.get(e);
+					incidentEdges[position] = id;
+					targets[position] = origins[id] == i ? destinations[id] : origins[id];
+					position++;
+				}
+			outOffsets[i] = outPosition;
+			List<E> out = graph.outEdges(v);
+			if (out != null)
+				for (E e : out){
+					int id = edgeIds.get(e);
+					outEdges[outPosition] = id;
+					outTargets[outPosition] = origins[id] == i ? destinations[id] : origins[id];
+					outPosition++;
+				}
+		}
+		offsets[n] = position;
+		outOffsets[n] = outPosition;
+	}
+
+	/**
+	 * @return Number of vertices
+	 */
+	public int vertexCount(){
+		return vertices.length;
+	}
+
+	/**
+	 * @return Number of edges
+	 */
+	public int edgeCount(){
+		return edges.length;
+	}
+
+	/**
+	 * @param v Vertex
+	 * @return Id of the vertex, or -1 if it is not a vertex of the graph
+	 */
+	public int vertexId(V v){
+		return vertexIds.get(v);
+	}
+
+	/**
+	 * @param e Edge
+	 * @return Id of the edge, or -1 if it is not an edge of the graph
+	 */
+	public int edgeId(E e){
+		return edgeIds.get(e);
+	}
+
+	/**
+	 * @param id Vertex id
+	 * @return Vertex with the given id
+	 */
+	@SuppressWarnings("unchecked")
+	public V vertex(int id){
+		return (V) vertices[id];
+	}
+
+	/**
+	 * @param id Edge id
+	 * @return Edge with the given id
+	 */
+	@SuppressWarnings("unchecked")
+	public E edge(int id){
+		return (E) edges[id];
+	}
+
+	/**
+	 * @param edge Edge id
+	 * @return Id of the edge's origin, or -1 if it is not a vertex of the graph
+	 */
+	public int origin(int edge){
+		return origins[edge];
+	}
+
+	/**
+	 * @param edge Edge id
+	 * @return Id of the edge's destination, or -1 if it is not a vertex of the graph
+	 */
+	public int destination(int edge){
+		return destinations[edge];
+	}
+
+	/**
+	 * Start of the vertex's row. Neighbours of vertex {@code v} are
+	 * {@code target(offset(v))}, ..., {@code target(offset(v + 1) - 1)}
+	 * @param v Vertex id, between 0 and {@code vertexCount()} inclusive
+	 * @return Offset of the vertex's row
+	 */
+	public int offset(int v){
+		return offsets[v];
+	}
+
+	/**
+	 * @param position Position in the adjacency rows
+	 * @return Id of the adjacent vertex stored at the given position
+	 */
+	public int target(int position){
+		return targets[position];
+	}
+
+	/**
+	 * @param position Position in the adjacency rows
+	 * @return Id of the edge stored at the given position
+	 */
+	public int incidentEdge(int position){
+		return incidentEdges[position];
+	}
+
+	/**
+	 * Start of the vertex's row of outgoing edges. Vertices reachable from vertex {@code v} are
+	 * {@code outTarget(outOffset(v))}, ..., {@code outTarget(outOffset(v + 1) - 1)}
+	 * @param v Vertex id, between 0 and {@code vertexCount()} inclusive
+	 * @return Offset of the vertex's row of outgoing edges
+	 */
+	public int outOffset(int v){
+		return outOffsets[v];
+	}
+
+	/**
+	 * @param position Position in the outgoing edges rows
+	 * @return Id of the vertex at the other end of the outgoing edge stored at the given position
+	 */
+	public int outTarget(int position){
+		return outTargets[position];
+	}
+
+	/**
+	 * @param position Position in the outgoing edges rows
+	 * @return Id of the outgoing edge stored at the given position
+	 */
+	public int outEdge(int position){
+		return outEdges[position];
+	}
+
+	/**
+	 * Number of edges entering or leaving v
+	 * @param v Vertex id
+	 * @return Degree of the vertex
+	 */
+	public int degree(int v){
+		return offsets[v + 1] - offsets[v];
+	}
+
+	/**
+	 * @param v Vertex id
+	 * @return Out degree of the vertex
+	 */
+	public int outDegree(int v){
+		return outOffsets[v + 1] - outOffsets[v];
+	}
+
+	/**
+	 * @return Maximum degree of any of the vertices
+	 */
+	public int maxDegree(){
+		int max = 0;
+		for (int v = 0; v < vertices.length; v++)
+			max = Math.max(max, degree(v));
+		return max;
+	}
+
+	/**
+	 * @return {@code true} if the graph was directed when the snapshot was taken
+	 */
+	public boolean isDirected(){
+		return directed;
+	}
+
+	/**
+	 * Visits all vertices reachable from the source in breadth-first order, ignoring edge directions
+	 * @param source Id of the source vertex
+	 * @param order Array of at least {@code vertexCount()} elements which is filled with ids of the visited vertices,
+	 * in the order of visiting
+	 * @param visited Array of at least {@code vertexCount()} elements. Vertex {@code v} is considered to be
+	 * already visited if {@code visited[v] == mark}, and is marked when visited
+	 * @param mark Mark of visited vertices
+	 * @return Number of visited vertices
+	 */
+	public int bfs(int source, int[] order, int[] visited, int mark){
+		int head = 0;
+		int tail = 0;
+		if (visited[source] == mark)
+			return 0;
+		visited[source] = mark;
+		order[tail++] = source;
+		while (head < tail){
+			int current = order[head++];
+			for (int i = offsets[current]; i < offsets[current + 1]; i++){
+				int next = targets[i];
+				if (next != -1 && visited[next] != mark){
+					visited[next] = mark;
+					order[tail++] = next;
+				}
+			}
+		}
+		return tail;
+	}
+
+	/**
+	 * Visits all vertices reachable from the source in depth-first preorder, ignoring edge directions.
+	 * The traversal is iterative, so it doesn't depend on the depth of the graph
+	 * @param source Id of the source vertex
+	 * @param order Array of at least {@code vertexCount()} elements which is filled with ids of the visited vertices,
+	 * in the order of visiting
+	 * @param parent Array of at least {@code vertexCount()} elements which is filled with ids of the parents of
+	 * visited vertices in the dfs tree. Parent of the source is -1
+	 * @param visited Array of at least {@code vertexCount()} elements. Vertex {@code v} is considered to be
+	 * already visited if {@code visited[v] == mark}, and is marked when visited
+	 * @param mark Mark of visited vertices
+	 * @param stack Array of at least {@code vertexCount()} elements used as the dfs stack
+	 * @param next Array of at least {@code vertexCount()} elements, holding the position of the
+	 * next neighbour to be examined for each vertex on the stack
+	 * @return Number of visited vertices
+	 */
+	public int dfs(int source, int[] order, int[] parent, int[] visited, int mark, int[] stack, int[] next){
+		if (visited[source] == mark)
+			return 0;
+		int count = 0;
+		int top = 0;
+		visited[source] = mark;
+		parent[source] = -1;
+		order[count++] = source;
+		stack[top++] = source;
+		next[source] = offsets[source];
+		while (top > 0){
+			int current = stack[top - 1];
+			if (next[current] == offsets[current + 1]){
+				top--;
+				continue;
+			}
+			int adjacent = targets[next[current]++];
+			if (adjacent != -1 && visited[adjacent] != mark){
+				visited[adjacent] = mark;
+				parent[adjacent] = current;
+				order[count++] = adjacent;
+				next[adjacent] = offsets[adjacent];
+				stack[top++] = adjacent;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Finds connected components of the graph, ignoring edge directions
+	 * @param component Array of at least {@code vertexCount()} elements which is filled with component
+	 * numbers of vertices
+	 * @param queue Array of at least {@code vertexCount()} elements used as the bfs queue
+	 * @return Number of components
+	 */
+	public int connectedComponents(int[] component, int[] queue){
+		int n = vertices.length;
+		for (int v = 0; v < n; v++)
+			component[v] = -1;
+		int count = 0;
+		for (int v = 0; v < n; v++){
+			if (component[v] != -1)
+				continue;
+			int head = 0;
+			int tail = 0;
+			component[v] = count;
+			queue[tail++] = v;
+			while (head < tail){
+				int current = queue[head++];
+				for (int i = offsets[current]; i < offsets[current + 1]; i++){
+					int adjacent = targets[i];
+					if (adjacent != -1 && component[adjacent] == -1){
+						component[adjacent] = count;
+						queue[tail++] = adjacent;
+					}
+				}
+			}
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Checks if the graph is connected
+	 * @return {@code true} if the graph is connected, {@code false} otherwise
+	 */
+	public boolean isConnected(){
+		int n = vertices.length;
+		if (n == 0)
+			return true;
+		return bfs(0, new int[n], new int[n], 1) == n;
+	}
+
+	/**
+	 * Open addressing hash table of ids of elements. Slots hold ids increased by one, zero marks an empty slot,
+	 * and the element with id {@code i} is {@code elements[i]}, so no objects are created per element.
+	 * Elements are compared using {@code equals}, like keys of the graph's maps
+	 */
+	private static class IdTable {
+
+		private Object[] elements;
+		private int size;
+		private int[] slots;
+
+		/**
+		 * @param elements Initial elements, the array is used by the table
+		 * @param distinct If equal elements should be stored once, otherwise the table
+		 * keeps the id of the first occurrence of each element, but all occurrences keep their ids
+		 */
+		IdTable(Object[] elements, boolean distinct){
+			this.elements = elements;
+			slots = new int[capacity(elements.length)];
+			if (distinct){
+				size = 0;
+				for (Object element : elements)
+					add(element);
+			}
+			else{
+				size = elements.length;
+				for (int i = 0; i < size; i++)
+					if (elements[i] != null && get(elements[i]) == -1)
+						insert(elements[i], i);
+			}
+		}
+
+		private static int capacity(int expected){
+			int capacity = 16;
+			while (capacity < 2 * expected)
+				capacity <<= 1;
+			return capacity;
+		}
+
+		private int slot(Object element){
+			int h = element.hashCode();
+			h ^= h >>> 16;
+			return (h * 0x9E3779B9) & (slots.length - 1);
+		}
+
+		/**
+		 * @return Id of the element, or -1 if it is not in the table
+		 */
+		int get(Object element){
+			if (element == null)
+				return -1;
+			for (int i = slot(element); slots[i] != 0; i = (i + 1) & (slots.length - 1)){
+				Object stored = elements[slots[i] - 1];
+				if (stored == element || element.equals(stored))
+					return slots[i] - 1;
+			}
+			return -1;
+		}
+
+		/**
+		 * Gives the element the next id, unless it is already in the table
+		 */
+		void add(Object element){
+			if (element == null || get(element) != -1)
+				return;
+			if (size == elements.length)
+				elements = Arrays.copyOf(elements, Math.max(16, 2 * size));
+			elements[size] = element;
+			if (2 * (size + 1) > slots.length){
+				slots = new int[2 * slots.length];
+				for (int i = 0; i < size; i++)
+					if (get(elements[i]) == -1)
+						insert(elements[i], i);
+			}
+			insert(element, size++);
+		}
+
+		private void insert(Object element, int id){
+			int i = slot(element);
+			while (slots[i] != 0)
+				i = (i + 1) & (slots.length - 1);
+			slots[i] = id + 1;
+		}
+
+		/**
+		 * Shrinks the array of elements to their number
+		 * @return Elements, indexed by their ids
+		 */
+		Object[] trim(){
+			if (elements.length != size)
+				elements = Arrays.copyOf(elements, size);
+			return elements;
+		}
+	}
+
+}
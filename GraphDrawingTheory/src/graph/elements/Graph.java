@@ -23,6 +23,10 @@ public class Graph<V extends Vertex,E extends Edge<V>>{
 	protected List<V> vertices;
 	protected List<E> edges;
 	protected boolean directed = false;
+	/**
+	 * Indicates if vertices and edges are kept in hash indexed lists
+	 */
+	protected boolean indexed = false;
 	protected GraphProperties<V,E> properties;
 
 	/**
@@ -85,6 +89,20 @@ public class Graph<V extends Vertex,E extends Edge<V>>{
 		this.directed = directed;
 	}
 
+	/**
+	 * Creates a directed or undirected graph which can keep its vertices and edges in indexed lists.
+	 * In that case, every vertex and edge gets a dense integer id equal to its position
+	 * in the list of vertices or edges and checking if the graph contains a vertex or an edge,
+	 * as well as adding them, takes constant time. Vertices and edges must not
+	 * change their hash codes while they are in an indexed graph.
+	 * @param directed {@code true} if the graph should be directed, {@code false} otherwise
+	 * @param indexed {@code true} if the vertices and edges should be indexed, {@code false} otherwise
+	 */
+	public Graph(boolean directed, boolean indexed){
+		this(directed);
+		setIndexed(indexed);
+	}
+
 	/**
 	 * Checks if the graph contains a certain vertex
 	 * @param v Vertex
@@ -132,6 +150,35 @@ public class Graph<V extends Vertex,E extends Edge<V>>{
 		adjacentLists.put(v, new ArrayList<E>());
 	}
 
+	/**
+	 * Id of the given vertex, which is its position in the list of graph's vertices.
+	 * Runs in constant time if the graph is indexed.
+	 * @param v Vertex
+	 * @return Id of vertex {@code v} or -1 if it doesn't belong to the graph
+	 */
+	public int vertexId(V v){
+		return vertices.indexOf(v);
+	}
+
+	/**
+	 * Id of the given edge, which is its position in the list of graph's edges.
+	 * Runs in constant time if the graph is indexed.
+	 * @param e Edge
+	 * @return Id of edge {@code e} or -1 if it doesn't belong to the graph
+	 */
+	public int edgeId(E e){
+		return edges.indexOf(e);
+	}
+
+	/**
+	 * Checks if the graph contains a certain edge
+	 * @param e Edge
+	 * @return {@code true} if the graph contains {@code e}, {@code false} otherwise
+	 */
+	public boolean hasEdge(E e){
+		return edges.contains(e);
+	}
+
 	/**
 	 * Removes a vertex from the graph, thus updating all relevant structures
 	 * and also removing the edges it was a part of
@@ -158,33 +205,38 @@ public class Graph<V extends Vertex,E extends Edge<V>>{
 	 * @param edge One or more edges to add
 	 */
 	public void addEdge(E...edge){
+		for (E e : edge)
+			addEdge(e);
+	}
 
-		for (E e : edge){
-			if (edges.contains(e))
-				continue;
-			edges.add(e);
-
-			V origin = e.getOrigin();
-			V destination = e.getDestination();
+	/**
+	 * Adds one edge to the graph and updates all relevant structures
+	 * @param e Edge to add
+	 */
+	public void addEdge(E e){
+		if (edges.contains(e))
+			return;
+		edges.add(e);
 
-			if (adjacentLists.get(origin) != null){
-				adjacentLists.get(origin).add(e);
-			}
-			//add it even if the graph is directed
-			if (adjacentLists.get(e.getDestination()) != null){
-				adjacentLists.get(e.getDestination()).add(e);
-			}
+		V origin = e.getOrigin();
+		V destination = e.getDestination();
 
-			if (!incomingEdges.containsKey(destination))
-				incomingEdges.put(destination, new ArrayList<E>());
+		if (adjacentLists.get(origin) != null){
+			adjacentLists.get(origin).add(e);
+		}
+		//add it even if the graph is directed
+		if (adjacentLists.get(e.getDestination()) != null){
+			adjacentLists.get(e.getDestination()).add(e);
+		}
 
-			if (!outgoingEdges.containsKey(origin))
-				outgoingEdges.put(origin, new ArrayList<E>());
+		if (!incomingEdges.containsKey(destination))
+			incomingEdges.put(destination, new ArrayList<E>());
 
-			incomingEdges.get(destination).add(e);
-			outgoingEdges.get(origin).add(e);
+		if (!outgoingEdges.containsKey(origin))
+			outgoingEdges.put(origin, new ArrayList<E>());
 
-		}
+		incomingEdges.get(destination).add(e);
+		outgoingEdges.get(origin).add(e);
 	}
 
 	/**
@@ -570,6 +622,7 @@ public class Graph<V extends Vertex,E extends Edge<V>>{
 	@SuppressWarnings("unchecked")
 	public Graph<V,E> subgraph(List<V> subgraphVertices){
 		Graph<V,E> subgraph = new Graph<V,E>();
+		subgraph.setIndexed(indexed);
 		for (V v : subgraphVertices)
 			subgraph.addVertex(v);
 
@@ -581,6 +634,15 @@ public class Graph<V extends Vertex,E extends Edge<V>>{
 		return subgraph;
 	}
 
+	/**
+	 * Takes an immutable, array based snapshot of the graph, suitable for
+	 * repeated read-only analyses
+	 * @return Compact representation of the graph
+	 */
+	public CompactGraph<V,E> freeze(){
+		return new CompactGraph<V,E>(this);
+	}
+
 	/**
 	 * Calculates the adjacency matrix of the graph
 	 * @return Adjacency matrix
@@ -636,7 +698,10 @@ public class Graph<V extends Vertex,E extends Edge<V>>{
 	 * @param vertices Vertices to set
 	 */
 	public void setVertices(List<V> vertices) {
-		this.vertices = vertices;
+		if (indexed && !(vertices instanceof IndexedList))
+			this.vertices = new IndexedList<V>(vertices);
+		else
+			this.vertices = vertices;
 	}
 
 	/**
@@ -650,7 +715,10 @@ public class Graph<V extends Vertex,E extends Edge<V>>{
 	 * @param edges Edges to set
 	 */
 	public void setEdges(List<E> edges) {
-		this.edges = edges;
+		if (indexed && !(edges instanceof IndexedList))
+			this.edges = new IndexedList<E>(edges);
+		else
+			this.edges = edges;
 	}
 
 	/**
@@ -667,6 +735,32 @@ public class Graph<V extends Vertex,E extends Edge<V>>{
 		this.directed = directed;
 	}
 	
+	/**
+	 * @return {@code true} if the vertices and edges of the graph are indexed, {@code false} otherwise
+	 */
+	public boolean isIndexed() {
+		return indexed;
+	}
+
+	/**
+	 * Turns indexing of vertices and edges on or off. The current vertices and edges
+	 * are kept, in the same order
+	 * @param indexed {@code true} if the vertices and edges should be indexed, {@code false} otherwise
+	 */
+	public void setIndexed(boolean indexed) {
+		if (this.indexed == indexed)
+			return;
+		this.indexed = indexed;
+		if (indexed){
+			vertices = new IndexedList<V>(vertices);
+			edges = new IndexedList<E>(edges);
+		}
+		else{
+			vertices = new ArrayList<V>(vertices);
+			edges = new ArrayList<E>(edges);
+		}
+	}
+	
 	/**
 	 * @return Better formatted string representation of the graph. 
 	 */
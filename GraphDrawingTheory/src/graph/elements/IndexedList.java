@@ -0,0 +1,212 @@
+package graph.elements;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * A list which keeps a hash index of its elements, so that membership tests
+ * run in constant time and {@code indexOf} usually does as well.
+ * The order of the elements is exactly the order of insertion, like with an
+ * {@code ArrayList}, which means that the position of an element can be used as
+ * its dense integer id.
+ * The positional index is maintained eagerly for appends and removals from the end of the list.
+ * After an operation which shifts elements, positions from the first shifted one onward
+ * are repaired lazily, on the next lookup.
+ * Elements must not change their hash code while they are in the list.
+ * @param <T> Type of the elements
+ */
+public class IndexedList<T> extends AbstractList<T> implements RandomAccess {
+
+	/**
+	 * Elements of the list
+	 */
+	private List<T> elements;
+
+	/**
+	 * Number of occurrences of each element
+	 */
+	private Map<T, Integer> counts;
+
+	/**
+	 * Position of the first occurrence of each element.
+	 * Valid only for positions lower than {@code validUpTo}
+	 */
+	private Map<T, Integer> positions;
+
+	/**
+	 * All positions lower than this one are correctly stored in the positions map
+	 */
+	private int validUpTo;
+
+	/**
+	 * Creates an empty indexed list
+	 */
+	public IndexedList(){
+		elements = new ArrayList<T>();
+		counts = new HashMap<T, Integer>();
+		positions = new HashMap<T, Integer>();
+		validUpTo = 0;
+	}
+
+	/**
+	 * Creates an indexed list containing all elements of the given collection,
+	 * in the order in which the collection's iterator returns them
+	 * @param collection Elements to add
+	 */
+	public IndexedList(Collection<? extends T> collection){
+		this();
+		addAll(collection);
+	}
+
+	@Override
+	public T get(int index) {
+		return elements.get(index);
+	}
+
+	@Override
+	public int size() {
+		return elements.size();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return counts.containsKey(o);
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		if (!counts.containsKey(o))
+			return -1;
+		if (validUpTo < elements.size())
+			reindex();
+		return positions.get(o);
+	}
+
+	@Override
+	public boolean add(T element) {
+		int position = elements.size();
+		elements.add(element);
+		increment(element);
+		if (validUpTo == position){
+			Integer first = positions.get(element);
+			if (first == null || first >= position)
+				positions.put(element, position);
+			validUpTo = position + 1;
+		}
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public void add(int index, T element) {
+		if (index == elements.size()){
+			add(element);
+			return;
+		}
+		elements.add(index, element);
+		increment(element);
+		invalidateFrom(index);
+		modCount++;
+	}
+
+	@Override
+	public T set(int index, T element) {
+		T old = elements.set(index, element);
+		decrement(old);
+		increment(element);
+		invalidateFrom(index);
+		return old;
+	}
+
+	/**
+	 * Removes the element at the given position. Like with an {@code ArrayList}, the cost is
+	 * proportional to the number of elements after it: they are shifted now and their positions
+	 * are repaired on the next lookup. Removing from the end takes constant time
+	 */
+	@Override
+	public T remove(int index) {
+		T old = elements.remove(index);
+		decrement(old);
+		if (index == elements.size() && validUpTo > index){
+			//removed from the end, only the removed element's position can be affected
+			validUpTo = index;
+			Integer position = positions.get(old);
+			if (position != null && position == index)
+				positions.remove(old);
+		}
+		else
+			invalidateFrom(index);
+		modCount++;
+		return old;
+	}
+
+	/**
+	 * Removes the first occurrence of the element. Finding it takes constant time,
+	 * the removal costs as much as {@link #remove(int)}
+	 */
+	@Override
+	public boolean remove(Object o) {
+		int index = indexOf(o);
+		if (index == -1)
+			return false;
+		remove(index);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		elements.clear();
+		counts.clear();
+		positions.clear();
+		validUpTo = 0;
+		modCount++;
+	}
+
+	private void increment(T element){
+		Integer count = counts.get(element);
+		counts.put(element, count == null ? 1 : count + 1);
+	}
+
+	private void decrement(T element){
+		Integer count = counts.get(element);
+		if (count == null)
+			return;
+		if (count == 1){
+			counts.remove(element);
+			positions.remove(element);
+		}
+		else
+			counts.put(element, count - 1);
+	}
+
+	private void invalidateFrom(int index){
+		if (index < validUpTo)
+			validUpTo = index;
+	}
+
+	/**
+	 * Recalculates positions of the elements from {@code validUpTo} onward.
+	 * Positions lower than it are still correct, so the elements before it are not visited
+	 */
+	private void reindex(){
+		int from = validUpTo;
+		//drop stale positions, so that only first occurrences are stored below
+		for (int i = from; i < elements.size(); i++){
+			Integer position = positions.get(elements.get(i));
+			if (position != null && position >= from)
+				positions.remove(elements.get(i));
+		}
+		for (int i = from; i < elements.size(); i++){
+			T element = elements.get(i);
+			if (!positions.containsKey(element))
+				positions.put(element, i);
+		}
+		validUpTo = elements.size();
+	}
+
+}
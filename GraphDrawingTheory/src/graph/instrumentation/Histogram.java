@@ -0,0 +1,101 @@
+package graph.instrumentation;
+
+/**
+ * Histogram of durations with logarithmic buckets - duration {@code d} is placed in the bucket
+ * whose index is the position of the highest set bit of {@code d}. Also keeps the count,
+ * sum, minimum and maximum of the durations and the total CPU time.
+ * Methods are synchronized, so that the histogram can be updated from several threads
+ */
+public class Histogram {
+
+	private long[] buckets = new long[64];
+	private long count;
+	private long totalNanos;
+	private long minNanos = Long.MAX_VALUE;
+	private long maxNanos;
+	private long cpuNanos;
+
+	/**
+	 * Adds a measurement to the histogram
+	 * @param durationNanos Duration in nanoseconds
+	 * @param cpuNanos CPU time in nanoseconds, ignored if negative
+	 */
+	public synchronized void add(long durationNanos, long cpuNanos){
+		long duration = Math.max(0, durationNanos);
+		buckets[63 - Long.numberOfLeadingZeros(duration | 1)]++;
+		count++;
+		totalNanos += duration;
+		minNanos = Math.min(minNanos, duration);
+		maxNanos = Math.max(maxNanos, duration);
+		if (cpuNanos > 0)
+			this.cpuNanos += cpuNanos;
+	}
+
+	/**
+	 * Approximates a percentile of the durations. The result is the upper bound of the bucket
+	 * containing the percentile, but never more than the maximum duration
+	 * @param percentile Percentile, between 0 and 100
+	 * @return Approximate percentile in nanoseconds, 0 if the histogram is empty
+	 */
+	public synchronized long getPercentile(double percentile){
+		if (count == 0)
+			return 0;
+		long rank = (long) Math.ceil(percentile / 100 * count);
+		long seen = 0;
+		for (int i = 0; i < buckets.length; i++){
+			seen += buckets[i];
+			if (seen >= rank && seen > 0)
+				return i == 63 ? maxNanos : Math.min(maxNanos, (1L << (i + 1)) - 1);
+		}
+		return maxNanos;
+	}
+
+	/**
+	 * @return Number of measurements
+	 */
+	public synchronized long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return Sum of all durations in nanoseconds
+	 */
+	public synchronized long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * @return Mean duration in nanoseconds, 0 if the histogram is empty
+	 */
+	public synchronized double getMeanNanos() {
+		return count == 0 ? 0 : (double) totalNanos / count;
+	}
+
+	/**
+	 * @return Shortest duration in nanoseconds, 0 if the histogram is empty
+	 */
+	public synchronized long getMinNanos() {
+		return count == 0 ? 0 : minNanos;
+	}
+
+	/**
+	 * @return Longest duration in nanoseconds
+	 */
+	public synchronized long getMaxNanos() {
+		return maxNanos;
+	}
+
+	/**
+	 * @return Total CPU time in nanoseconds
+	 */
+	public synchronized long getCpuNanos() {
+		return cpuNanos;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "Histogram [count=" + count + ", mean=" + getMeanNanos() + "ns, min=" + getMinNanos() + "ns, p50=" + 
+				getPercentile(50) + "ns, p99=" + getPercentile(99) + "ns, max=" + maxNanos + "ns, cpu=" + cpuNanos + "ns]";
+	}
+
+}
@@ -0,0 +1,56 @@
+package graph.instrumentation;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Default metrics sink, which keeps an in-memory histogram for each operation and phase
+ */
+public class HistogramMetricsSink implements MetricsSink{
+
+	private ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<String, Histogram>();
+
+	@Override
+	public void record(String operation, String phase, long durationNanos, long cpuNanos) {
+		String key = key(operation, phase);
+		Histogram histogram = histograms.get(key);
+		if (histogram == null){
+			histogram = new Histogram();
+			Histogram existing = histograms.putIfAbsent(key, histogram);
+			if (existing != null)
+				histogram = existing;
+		}
+		histogram.add(durationNanos, cpuNanos);
+	}
+
+	/**
+	 * @param operation Name of the operation
+	 * @param phase Name of the phase, or {@link Stopwatch#TOTAL}
+	 * @return Histogram of the given operation's phase, or {@code null} if nothing was recorded for it
+	 */
+	public Histogram getHistogram(String operation, String phase){
+		return histograms.get(key(operation, phase));
+	}
+
+	/**
+	 * @return All histograms, sorted by keys of the form {@code operation/phase}
+	 */
+	public Map<String, Histogram> getHistograms(){
+		return Collections.unmodifiableMap(new TreeMap<String, Histogram>(histograms));
+	}
+
+	/**
+	 * Removes all recorded measurements
+	 */
+	public void clear(){
+		histograms.clear();
+	}
+
+	private String key(String operation, String phase){
+		return operation + "/" + phase;
+	}
+
+}
@@ -0,0 +1,134 @@
+package graph.instrumentation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Entry point of the instrumentation of layouters and analysis algorithms.
+ * Instrumentation is disabled by default, in which case measuring costs only a check of a flag.
+ * Besides the wall-clock duration, the CPU time of the measuring thread is recorded if the JVM supports it.
+ * When it is enabled, measurements are sent to the current metrics sink,
+ * which is an in-memory {@link HistogramMetricsSink} unless set otherwise.
+ * Typical use:
+ * <pre>
+ * Stopwatch stopwatch = Instrumentation.start("operation");
+ * try{
+ *     stopwatch.phase("first phase");
+ *     ...
+ *     stopwatch.phase("second phase");
+ *     ...
+ * }
+ * finally{
+ *     stopwatch.stop();
+ * }
+ * </pre>
+ * or, for an operation without phases, {@link #time(Class, String, Task)}.
+ */
+public class Instrumentation {
+
+	private static volatile boolean enabled = false;
+
+	private static volatile MetricsSink sink = new HistogramMetricsSink();
+
+	/**
+	 * Thread MX bean which measures CPU time of threads, {@code null} if the JVM doesn't support that
+	 */
+	private static final ThreadMXBean cpuTimeBean = findCpuTimeBean();
+
+	private static ThreadMXBean findCpuTimeBean(){
+		try{
+			ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (bean.isThreadCpuTimeSupported()){
+				if (!bean.isThreadCpuTimeEnabled())
+					bean.setThreadCpuTimeEnabled(true);
+				return bean;
+			}
+		}
+		catch (Throwable ex){
+			//CPU time measuring is not available
+		}
+		return null;
+	}
+
+	/**
+	 * Starts measuring an operation
+	 * @param operation Name of the operation
+	 * @return Stopwatch which should be stopped when the operation is finished
+	 */
+	public static Stopwatch start(String operation){
+		if (!enabled)
+			return Stopwatch.DISABLED;
+		return new Stopwatch(sink, operation);
+	}
+
+	/**
+	 * Starts measuring an operation named after the given class, for example {@code "BoxLayouter layout"}.
+	 * The name is only formed if instrumentation is enabled
+	 * @param type Class which performs the operation
+	 * @param operation Name of the operation within the class
+	 * @return Stopwatch which should be stopped when the operation is finished
+	 */
+	public static Stopwatch start(Class<?> type, String operation){
+		if (!enabled)
+			return Stopwatch.DISABLED;
+		return new Stopwatch(sink, type.getSimpleName() + " " + operation);
+	}
+
+	/**
+	 * Runs the given task and measures it as an operation named after the given class
+	 * @param type Class which performs the operation
+	 * @param operation Name of the operation within the class
+	 * @param task Task to run
+	 * @return Result of the task
+	 * @throws X If the task throws it
+	 */
+	public static <T, X extends Exception> T time(Class<?> type, String operation, Task<T, X> task) throws X{
+		Stopwatch stopwatch = start(type, operation);
+		try{
+			return task.run();
+		}
+		finally{
+			stopwatch.stop();
+		}
+	}
+
+	/**
+	 * @return CPU time used by the current thread so far in nanoseconds, or -1 if it cannot be measured
+	 */
+	public static long cpuTime(){
+		if (cpuTimeBean == null)
+			return -1;
+		return cpuTimeBean.getCurrentThreadCpuTime();
+	}
+
+	/**
+	 * @return {@code true} if instrumentation is enabled, {@code false} otherwise
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @param enabled {@code true} if measurements should be recorded, {@code false} otherwise
+	 */
+	public static void setEnabled(boolean enabled) {
+		Instrumentation.enabled = enabled;
+	}
+
+	/**
+	 * @return Current metrics sink
+	 */
+	public static MetricsSink getSink() {
+		return sink;
+	}
+
+	/**
+	 * @param sink Metrics sink to set
+	 */
+	public static void setSink(MetricsSink sink) {
+		if (sink == null)
+			throw new IllegalArgumentException("Metrics sink cannot be null");
+		Instrumentation.sink = sink;
+	}
+
+}
@@ -0,0 +1,20 @@
+package graph.instrumentation;
+
+/**
+ * Receives measurements of executions of algorithms.
+ * Implementations must be thread-safe, since algorithms can be measured
+ * from several threads at once
+ */
+public interface MetricsSink {
+
+	/**
+	 * Records one measurement
+	 * @param operation Name of the measured operation, for example a layouter or an analysis
+	 * @param phase Name of the phase of the operation, or {@link Stopwatch#TOTAL} for the whole operation
+	 * @param durationNanos Duration in nanoseconds
+	 * @param cpuNanos CPU time used by the measuring thread in nanoseconds, or -1 if the JVM doesn't support
+	 * measuring it
+	 */
+	void record(String operation, String phase, long durationNanos, long cpuNanos);
+
+}
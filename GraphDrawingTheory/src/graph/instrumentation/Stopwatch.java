@@ -0,0 +1,79 @@
+package graph.instrumentation;
+
+/**
+ * Measures one execution of an operation, which can be divided into phases.
+ * Starting a phase ends the previous one. Each phase, as well as the whole operation,
+ * is recorded in the metrics sink with its duration and the CPU time used by the current thread.
+ * A stopwatch should be used by the thread which created it.
+ * Obtained through {@link Instrumentation#start(String)}
+ */
+public class Stopwatch {
+
+	/**
+	 * Name of the phase under which the whole operation is recorded
+	 */
+	public static final String TOTAL = "total";
+
+	/**
+	 * Stopwatch which doesn't measure anything, used when instrumentation is disabled
+	 */
+	static final Stopwatch DISABLED = new Stopwatch(null, null);
+
+	private MetricsSink sink;
+	private String operation;
+	private long start;
+	private long startCpu;
+	private String phase;
+	private long phaseStart;
+	private long phaseStartCpu;
+
+	Stopwatch(MetricsSink sink, String operation){
+		this.sink = sink;
+		this.operation = operation;
+		if (sink != null){
+			start = System.nanoTime();
+			startCpu = Instrumentation.cpuTime();
+		}
+	}
+
+	/**
+	 * Ends the current phase, if there is one, and starts a new phase
+	 * @param name Name of the new phase
+	 */
+	public void phase(String name){
+		if (sink == null)
+			return;
+		long now = System.nanoTime();
+		long cpu = Instrumentation.cpuTime();
+		endPhase(now, cpu);
+		phase = name;
+		phaseStart = now;
+		phaseStartCpu = cpu;
+	}
+
+	/**
+	 * Ends the current phase and the whole operation
+	 */
+	public void stop(){
+		if (sink == null)
+			return;
+		long now = System.nanoTime();
+		long cpu = Instrumentation.cpuTime();
+		endPhase(now, cpu);
+		sink.record(operation, TOTAL, now - start, difference(startCpu, cpu));
+		sink = null;
+	}
+
+	private void endPhase(long now, long cpu){
+		if (phase != null)
+			sink.record(operation, phase, now - phaseStart, difference(phaseStartCpu, cpu));
+		phase = null;
+	}
+
+	private long difference(long before, long after){
+		if (before < 0 || after < 0)
+			return -1;
+		return after - before;
+	}
+
+}
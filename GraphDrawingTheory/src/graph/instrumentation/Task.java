@@ -0,0 +1,17 @@
+package graph.instrumentation;
+
+/**
+ * Operation measured by {@link Instrumentation#time(Class, String, Task)}
+ * @param <T> Type of the result
+ * @param <X> Type of the exception the operation can throw, {@link RuntimeException} if none
+ */
+public interface Task<T, X extends Exception> {
+
+	/**
+	 * Performs the operation
+	 * @return Result of the operation
+	 * @throws X If the operation fails
+	 */
+	T run() throws X;
+
+}
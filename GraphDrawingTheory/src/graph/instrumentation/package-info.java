@@ -0,0 +1,4 @@
+/**
+ * Lightweight instrumentation of layouters and analysis algorithms: durations, CPU time and phases.
+ */
+package graph.instrumentation;
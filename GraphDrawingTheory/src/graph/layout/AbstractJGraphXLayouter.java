@@ -4,6 +4,7 @@ import graph.drawing.Drawing;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Stopwatch;
 
 import java.awt.Dimension;
 import java.awt.geom.Point2D;
@@ -78,9 +79,12 @@ public abstract class AbstractJGraphXLayouter<V extends Vertex, E extends Edge<V
 		}
 	}
 
-	public Drawing<V,E> layout(Graph<V,E> graph, GraphLayoutProperties layoutProperties){
+	protected Drawing<V,E> doLayout(Graph<V,E> graph, GraphLayoutProperties layoutProperties, Stopwatch stopwatch){
+		stopwatch.phase(CONVERSION_PHASE);
 		createJGraphXGraph(graph);
+		stopwatch.phase(INITIALIZATION_PHASE);
 		initLayouter(layoutProperties);
+		stopwatch.phase(DRAWING_PHASE);
 		return createDrawing(graph);
 	}
 
@@ -1,12 +1,14 @@
 package graph.layout;
 
 import edu.uci.ics.jung.algorithms.layout.Layout;
-import edu.uci.ics.jung.visualization.DefaultVisualizationModel;
+import edu.uci.ics.jung.algorithms.util.IterativeContext;
 import graph.drawing.Drawing;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Stopwatch;
 
+import java.awt.Dimension;
 import java.awt.geom.Point2D;
 
 /**
@@ -17,6 +19,15 @@ import java.awt.geom.Point2D;
  */
 public abstract class AbstractJungLayouter<V extends Vertex, E extends Edge<V>> extends AbstractLayouter<V, E>{
 
+	/**
+	 * Size given to layouts which don't determine their size themselves
+	 */
+	private static final Dimension DEFAULT_SIZE = new Dimension(600, 600);
+	/**
+	 * Default maximum time in milliseconds spent on iterations of an iterative layout
+	 */
+	public static final long DEFAULT_MAX_ITERATION_TIME = 500;
+
 	/**
 	 * JUNG framework layouter
 	 */
@@ -25,9 +36,15 @@ public abstract class AbstractJungLayouter<V extends Vertex, E extends Edge<V>>
 	 * JUNG graph
 	 */
 	protected edu.uci.ics.jung.graph.Graph<V,E> jungGraph;
+	/**
+	 * Maximum time in milliseconds spent on iterations of an iterative layout
+	 */
+	protected long maxIterationTime = DEFAULT_MAX_ITERATION_TIME;
 
 	/**
-	 * Converts the given graph into a JUNG graph
+	 * Converts the given graph into a JUNG graph by copying its vertices and edges
+	 * into the JUNG graph created by the subclass. Subclasses which don't need a specific
+	 * JUNG graph implementation should use a {@link JungGraphAdapter} instead
 	 * @param graph
 	 */
 	protected void createJungGraph(Graph<V,E> graph){
@@ -39,9 +56,12 @@ public abstract class AbstractJungLayouter<V extends Vertex, E extends Edge<V>>
 			jungGraph.addEdge(e, e.getOrigin(), e.getDestination());
 	}
 
-	public Drawing<V,E> layout(Graph<V,E> graph, GraphLayoutProperties layoutProperties){
+	protected Drawing<V,E> doLayout(Graph<V,E> graph, GraphLayoutProperties layoutProperties, Stopwatch stopwatch){
+		stopwatch.phase(CONVERSION_PHASE);
 		createJungGraph(graph);
+		stopwatch.phase(INITIALIZATION_PHASE);
 		initLayouter(layoutProperties);
+		stopwatch.phase(DRAWING_PHASE);
 		return createDrawing(graph);
 
 	}
@@ -53,8 +73,7 @@ public abstract class AbstractJungLayouter<V extends Vertex, E extends Edge<V>>
 	 */
 	protected Drawing<V,E> createDrawing(Graph<V,E> graph){
 
-		//triggers layouting
-		new DefaultVisualizationModel<V, E>(layouter);
+		runLayouter();
 
 		Drawing<V, E> drawing = new Drawing<>();
 
@@ -66,6 +85,36 @@ public abstract class AbstractJungLayouter<V extends Vertex, E extends Edge<V>>
 		return drawing;
 	}
 	
+	/**
+	 * Executes the JUNG layout algorithm. An iterative algorithm is stepped until it is done
+	 * or until the maximum iteration time passes, since some of them never finish
+	 */
+	protected void runLayouter(){
+		if (layouter.getSize() == null)
+			layouter.setSize(DEFAULT_SIZE);
+		if (layouter instanceof IterativeContext){
+			IterativeContext context = (IterativeContext) layouter;
+			layouter.initialize();
+			long start = System.currentTimeMillis();
+			while (!context.done() && System.currentTimeMillis() - start < maxIterationTime)
+				context.step();
+		}
+	}
+	
 	protected abstract void initLayouter(GraphLayoutProperties layoutProperties);
+
+	/**
+	 * @return Maximum time in milliseconds spent on iterations of an iterative layout
+	 */
+	public long getMaxIterationTime() {
+		return maxIterationTime;
+	}
+
+	/**
+	 * @param maxIterationTime Maximum time in milliseconds spent on iterations of an iterative layout
+	 */
+	public void setMaxIterationTime(long maxIterationTime) {
+		this.maxIterationTime = maxIterationTime;
+	}
 	
 }
\ No newline at end of file
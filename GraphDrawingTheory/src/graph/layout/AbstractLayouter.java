@@ -4,6 +4,8 @@ import graph.drawing.Drawing;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Instrumentation;
+import graph.instrumentation.Stopwatch;
 
 /**
  * Abstract layouter class meant to be extended by all layouters.
@@ -12,6 +14,19 @@ import graph.elements.Vertex;
  * @param <E> The edge type 
  */
 public abstract class AbstractLayouter <V extends Vertex,E extends Edge<V>> {
+
+	/**
+	 * Instrumentation phase in which the graph is converted into the graph of the layout library
+	 */
+	public static final String CONVERSION_PHASE = "conversion";
+	/**
+	 * Instrumentation phase in which the layout algorithm is created and configured
+	 */
+	public static final String INITIALIZATION_PHASE = "initialization";
+	/**
+	 * Instrumentation phase in which the layout algorithm is run and the drawing is formed
+	 */
+	public static final String DRAWING_PHASE = "drawing";
 	
 	/**
 	 * Indicates if the given algorithm lays out the whole graph, even if it
@@ -23,13 +38,31 @@ public abstract class AbstractLayouter <V extends Vertex,E extends Edge<V>> {
 	 */
 	protected boolean positionsEdges = false;
 	
+	/**
+	 * Lays out the graph, taking into account given properties.
+	 * The layout is measured as operation {@code "<Class> layout"}
+	 * @param graph Graph that should be laid out
+	 * @param layoutProperties Properties of the layout algorithm 
+	 * @return Drawing
+	 */
+	public final Drawing<V,E> layout(Graph<V,E> graph, GraphLayoutProperties layoutProperties){
+		Stopwatch stopwatch = Instrumentation.start(getClass(), "layout");
+		try{
+			return doLayout(graph, layoutProperties, stopwatch);
+		}
+		finally{
+			stopwatch.stop();
+		}
+	}
+
 	/**
 	 * Lays out the graph, taking into account given properties
 	 * @param graph Graph that should be laid out
 	 * @param layoutProperties Properties of the layout algorithm 
+	 * @param stopwatch Stopwatch measuring the layout, on which phases can be recorded
 	 * @return Drawing
 	 */
-	public abstract Drawing<V,E> layout(Graph<V,E> graph, GraphLayoutProperties layoutProperties);
+	protected abstract Drawing<V,E> doLayout(Graph<V,E> graph, GraphLayoutProperties layoutProperties, Stopwatch stopwatch);
 
 	/**
 	 * @return Indicator of weather the given algorithm lays out the whole graph, even if it
@@ -4,6 +4,7 @@ import graph.drawing.Drawing;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Stopwatch;
 import graph.layout.util.PositionAction;
 
 import java.awt.geom.Point2D;
@@ -101,10 +102,13 @@ public abstract class AbstractPrefuseLayouter<V extends Vertex, E extends Edge<V
 	}
 
 	@Override
-	public Drawing<V, E> layout(Graph<V, E> graph,
-			GraphLayoutProperties layoutProperties) {
+	protected Drawing<V, E> doLayout(Graph<V, E> graph,
+			GraphLayoutProperties layoutProperties, Stopwatch stopwatch) {
+		stopwatch.phase(CONVERSION_PHASE);
 		createPrefuseGraph(graph);
+		stopwatch.phase(INITIALIZATION_PHASE);
 		initLayouter(layoutProperties);
+		stopwatch.phase(DRAWING_PHASE);
 		
 		Drawing<V,E> drawing = new Drawing<V,E>();
 		
@@ -1,5 +1,6 @@
 package graph.layout;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,6 +16,21 @@ public class GraphLayoutProperties {
 	 * Map of properties and their values
 	 */
 	private Map<PropertyEnums, Object> propeprtiesMap = new HashMap<PropertyEnums, Object>();
+
+	/**
+	 * Creates properties without any values set
+	 */
+	public GraphLayoutProperties(){
+	}
+
+	/**
+	 * Creates a copy of the given properties. Values are not copied, so changing
+	 * the copy doesn't affect the original as long as the values themselves are not changed
+	 * @param properties Properties to copy
+	 */
+	public GraphLayoutProperties(GraphLayoutProperties properties){
+		propeprtiesMap.putAll(properties.propeprtiesMap);
+	}
 	
 	/**
 	 * Sets a value of a property with the given key
@@ -34,4 +50,11 @@ public class GraphLayoutProperties {
 		return propeprtiesMap.get(key);
 	}
 
+	/**
+	 * @return Unmodifiable view of the map of all properties and their values
+	 */
+	public Map<PropertyEnums, Object> getProperties(){
+		return Collections.unmodifiableMap(propeprtiesMap);
+	}
+
 }
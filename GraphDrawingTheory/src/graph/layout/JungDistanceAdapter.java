@@ -0,0 +1,50 @@
+package graph.layout;
+
+import edu.uci.ics.jung.algorithms.shortestpath.Distance;
+import graph.elements.CompactGraph;
+import graph.elements.Edge;
+import graph.elements.Vertex;
+import graph.traversal.AllPairsShortestPaths;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * View of precalculated shortest path lengths as a JUNG distance, so that JUNG layouts
+ * don't run their own searches. As JUNG expects, there is no distance between vertices which are not connected
+ * @param <V> The vertex type
+ * @param <E> The edge type
+ */
+public class JungDistanceAdapter<V extends Vertex, E extends Edge<V>> implements Distance<V>{
+
+	private AllPairsShortestPaths<V,E> distances;
+
+	/**
+	 * @param distances Lengths of shortest paths between all pairs of vertices
+	 */
+	public JungDistanceAdapter(AllPairsShortestPaths<V,E> distances){
+		this.distances = distances;
+	}
+
+	@Override
+	public Number getDistance(V source, V target) {
+		int distance = distances.distance(source, target);
+		return distance == AllPairsShortestPaths.UNREACHABLE ? null : distance;
+	}
+
+	@Override
+	public Map<V, Number> getDistanceMap(V source) {
+		Map<V, Number> ret = new HashMap<V, Number>();
+		CompactGraph<V,E> compact = distances.getCompactGraph();
+		int u = compact.vertexId(source);
+		if (u == -1)
+			return ret;
+		for (int v = 0; v < distances.size(); v++){
+			int distance = distances.distance(u, v);
+			if (distance != AllPairsShortestPaths.UNREACHABLE)
+				ret.put(compact.vertex(v), distance);
+		}
+		return ret;
+	}
+
+}
@@ -0,0 +1,360 @@
+package graph.layout;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+import edu.uci.ics.jung.graph.util.Pair;
+import graph.elements.Edge;
+import graph.elements.Graph;
+import graph.elements.Vertex;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read-only view of a graph as a JUNG graph. Nothing is copied, all queries are answered
+ * using the structures of the wrapped graph, so changes of the graph are immediately visible
+ * through the adapter. All edges are seen as being of the same type, given when the adapter is created.
+ * Unlike JUNG's sparse graphs, the adapter doesn't hide parallel edges.
+ * Edges passed to the adapter's methods are assumed to belong to the graph, except in {@link #containsEdge(Edge)}.
+ * Methods which would modify the graph throw {@code UnsupportedOperationException}
+ * @param <V> The vertex type
+ * @param <E> The edge type
+ */
+public class JungGraphAdapter<V extends Vertex, E extends Edge<V>> implements edu.uci.ics.jung.graph.Graph<V, E>{
+
+	/**
+	 * Wrapped graph
+	 */
+	private Graph<V,E> graph;
+	/**
+	 * Type of all edges
+	 */
+	private EdgeType edgeType;
+
+	/**
+	 * Creates a view of the given graph
+	 * @param graph Graph to wrap
+	 * @param edgeType Type of the edges, directed or undirected
+	 */
+	public JungGraphAdapter(Graph<V,E> graph, EdgeType edgeType){
+		this.graph = graph;
+		this.edgeType = edgeType;
+	}
+
+	/**
+	 * Creates a view of the given graph whose edges are directed if the graph is directed
+	 * @param graph Graph to wrap
+	 */
+	public JungGraphAdapter(Graph<V,E> graph){
+		this(graph, graph.isDirected() ? EdgeType.DIRECTED : EdgeType.UNDIRECTED);
+	}
+
+	private boolean isDirected(){
+		return edgeType == EdgeType.DIRECTED;
+	}
+
+	private List<E> nonNull(List<E> edges){
+		if (edges == null)
+			return Collections.emptyList();
+		return Collections.unmodifiableList(edges);
+	}
+
+	/**
+	 * Checks membership using the map of adjacency lists, which, unlike the list of vertices,
+	 * can be searched in constant time
+	 */
+	private boolean contains(V v){
+		return graph.adjacentEdges(v) != null;
+	}
+
+	private V other(V v, E e){
+		return e.getOrigin() == v ? e.getDestination() : e.getOrigin();
+	}
+
+	@Override
+	public Collection<E> getEdges() {
+		return Collections.unmodifiableList(graph.getEdges());
+	}
+
+	@Override
+	public Collection<V> getVertices() {
+		return Collections.unmodifiableList(graph.getVertices());
+	}
+
+	@Override
+	public boolean containsVertex(V vertex) {
+		return contains(vertex);
+	}
+
+	@Override
+	public boolean containsEdge(E edge) {
+		List<E> adjacent = graph.adjacentEdges(edge.getOrigin());
+		return adjacent != null && adjacent.contains(edge);
+	}
+
+	@Override
+	public int getEdgeCount() {
+		return graph.getEdges().size();
+	}
+
+	@Override
+	public int getVertexCount() {
+		return graph.getVertices().size();
+	}
+
+	@Override
+	public Collection<V> getNeighbors(V vertex) {
+		List<E> adjacent = graph.adjacentEdges(vertex);
+		if (adjacent == null)
+			return null;
+		Set<V> ret = new LinkedHashSet<V>();
+		for (E e : adjacent)
+			ret.add(other(vertex, e));
+		return Collections.unmodifiableSet(ret);
+	}
+
+	@Override
+	public Collection<E> getIncidentEdges(V vertex) {
+		List<E> adjacent = graph.adjacentEdges(vertex);
+		if (adjacent == null)
+			return null;
+		return Collections.unmodifiableList(adjacent);
+	}
+
+	@Override
+	public Collection<V> getIncidentVertices(E edge) {
+		return getEndpoints(edge);
+	}
+
+	@Override
+	public E findEdge(V v1, V v2) {
+		if (!contains(v1) || !contains(v2))
+			return null;
+		return graph.edgeBetween(v1, v2);
+	}
+
+	@Override
+	public Collection<E> findEdgeSet(V v1, V v2) {
+		if (!contains(v1) || !contains(v2))
+			return null;
+		return Collections.unmodifiableList(graph.edgeesBetween(v1, v2));
+	}
+
+	@Override
+	public boolean isNeighbor(V v1, V v2) {
+		if (!contains(v1) || !contains(v2))
+			return false;
+		for (E e : graph.adjacentEdges(v1))
+			if (other(v1, e) == v2)
+				return true;
+		return false;
+	}
+
+	@Override
+	public boolean isIncident(V vertex, E edge) {
+		return edge.getOrigin() == vertex || edge.getDestination() == vertex;
+	}
+
+	@Override
+	public int degree(V vertex) {
+		return graph.vertexDegree(vertex);
+	}
+
+	@Override
+	public int getNeighborCount(V vertex) {
+		return getNeighbors(vertex).size();
+	}
+
+	@Override
+	public int getIncidentCount(E edge) {
+		return edge.getOrigin() == edge.getDestination() ? 1 : 2;
+	}
+
+	@Override
+	public EdgeType getEdgeType(E edge) {
+		return edgeType;
+	}
+
+	@Override
+	public EdgeType getDefaultEdgeType() {
+		return edgeType;
+	}
+
+	@Override
+	public Collection<E> getEdges(EdgeType edge_type) {
+		if (edge_type != edgeType)
+			return Collections.emptyList();
+		return getEdges();
+	}
+
+	@Override
+	public int getEdgeCount(EdgeType edge_type) {
+		if (edge_type != edgeType)
+			return 0;
+		return getEdgeCount();
+	}
+
+	@Override
+	public Collection<E> getInEdges(V vertex) {
+		if (!isDirected())
+			return getIncidentEdges(vertex);
+		if (!contains(vertex))
+			return null;
+		return nonNull(graph.inEdges(vertex));
+	}
+
+	@Override
+	public Collection<E> getOutEdges(V vertex) {
+		if (!isDirected())
+			return getIncidentEdges(vertex);
+		if (!contains(vertex))
+			return null;
+		return nonNull(graph.outEdges(vertex));
+	}
+
+	@Override
+	public Collection<V> getPredecessors(V vertex) {
+		if (!isDirected())
+			return getNeighbors(vertex);
+		if (!contains(vertex))
+			return null;
+		Set<V> ret = new LinkedHashSet<V>();
+		for (E e : nonNull(graph.inEdges(vertex)))
+			ret.add(e.getOrigin());
+		return Collections.unmodifiableSet(ret);
+	}
+
+	@Override
+	public Collection<V> getSuccessors(V vertex) {
+		if (!isDirected())
+			return getNeighbors(vertex);
+		if (!contains(vertex))
+			return null;
+		Set<V> ret = new LinkedHashSet<V>();
+		for (E e : nonNull(graph.outEdges(vertex)))
+			ret.add(e.getDestination());
+		return Collections.unmodifiableSet(ret);
+	}
+
+	@Override
+	public int inDegree(V vertex) {
+		return getInEdges(vertex).size();
+	}
+
+	@Override
+	public int outDegree(V vertex) {
+		return getOutEdges(vertex).size();
+	}
+
+	@Override
+	public boolean isPredecessor(V v1, V v2) {
+		if (!isDirected())
+			return isNeighbor(v1, v2);
+		return findEdge(v1, v2) != null;
+	}
+
+	@Override
+	public boolean isSuccessor(V v1, V v2) {
+		return isPredecessor(v2, v1);
+	}
+
+	@Override
+	public int getPredecessorCount(V vertex) {
+		return getPredecessors(vertex).size();
+	}
+
+	@Override
+	public int getSuccessorCount(V vertex) {
+		return getSuccessors(vertex).size();
+	}
+
+	@Override
+	public V getSource(E directed_edge) {
+		if (!isDirected())
+			return null;
+		return directed_edge.getOrigin();
+	}
+
+	@Override
+	public V getDest(E directed_edge) {
+		if (!isDirected())
+			return null;
+		return directed_edge.getDestination();
+	}
+
+	@Override
+	public boolean isSource(V vertex, E edge) {
+		return isDirected() && edge.getOrigin() == vertex;
+	}
+
+	@Override
+	public boolean isDest(V vertex, E edge) {
+		return isDirected() && edge.getDestination() == vertex;
+	}
+
+	@Override
+	public Pair<V> getEndpoints(E edge) {
+		return new Pair<V>(edge.getOrigin(), edge.getDestination());
+	}
+
+	@Override
+	public V getOpposite(V vertex, E edge) {
+		if (edge.getOrigin() == vertex)
+			return edge.getDestination();
+		if (edge.getDestination() == vertex)
+			return edge.getOrigin();
+		throw new IllegalArgumentException(vertex + " is not incident to " + edge);
+	}
+
+	@Override
+	public boolean addVertex(V vertex) {
+		throw new UnsupportedOperationException("JUNG graph adapter is a read-only view");
+	}
+
+	@Override
+	public boolean addEdge(E edge, Collection<? extends V> vertices) {
+		throw new UnsupportedOperationException("JUNG graph adapter is a read-only view");
+	}
+
+	@Override
+	public boolean addEdge(E edge, Collection<? extends V> vertices, EdgeType edge_type) {
+		throw new UnsupportedOperationException("JUNG graph adapter is a read-only view");
+	}
+
+	@Override
+	public boolean addEdge(E e, V v1, V v2) {
+		throw new UnsupportedOperationException("JUNG graph adapter is a read-only view");
+	}
+
+	@Override
+	public boolean addEdge(E e, V v1, V v2, EdgeType edgeType) {
+		throw new UnsupportedOperationException("JUNG graph adapter is a read-only view");
+	}
+
+	@Override
+	public boolean removeVertex(V vertex) {
+		throw new UnsupportedOperationException("JUNG graph adapter is a read-only view");
+	}
+
+	@Override
+	public boolean removeEdge(E edge) {
+		throw new UnsupportedOperationException("JUNG graph adapter is a read-only view");
+	}
+
+	/**
+	 * @return Wrapped graph
+	 */
+	public Graph<V,E> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return Type of the edges
+	 */
+	public EdgeType getEdgeType() {
+		return edgeType;
+	}
+
+}
@@ -0,0 +1,292 @@
+package graph.layout;
+
+import graph.drawing.Drawing;
+import graph.elements.Edge;
+import graph.elements.Vertex;
+
+import java.awt.Dimension;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of drawings created by the layouter. A drawing is stored under a key consisting of
+ * the structure of the laid out graph, the layout algorithm and the layout properties.
+ * The structure of a graph is described by the number of vertices, their sizes and the positions
+ * of each edge's origin and destination in the list of vertices. Two graphs whose
+ * vertices and edges are listed in the same order therefore have the same structure, even if their
+ * vertices and edges are different objects. Positions are stored by index, so a cached drawing can be
+ * applied to the elements of any graph with the same structure.
+ * Drawings are copied when they are stored and when they are returned, so changing them doesn't affect
+ * the cache. Values of the layout properties are compared using {@code equals} and shouldn't be changed
+ * after the drawing is stored.
+ * The cache is bounded by weight, which is the number of vertex and edge positions it holds.
+ * The least recently used drawings are evicted when the maximum weight is exceeded.
+ * The cache can be shared between threads.
+ */
+public class LayoutCache {
+
+	/**
+	 * Default maximum weight of all cached drawings
+	 */
+	public static final long DEFAULT_MAXIMUM_WEIGHT = 1000000;
+
+	/**
+	 * Maximum weight of all cached drawings
+	 */
+	private long maximumWeight;
+	/**
+	 * Current weight of all cached drawings
+	 */
+	private long weight = 0;
+	/**
+	 * Cached drawings, in access order
+	 */
+	private LinkedHashMap<Key, CachedDrawing> drawings = new LinkedHashMap<Key, CachedDrawing>(16, 0.75f, true);
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	/**
+	 * Creates a cache with the default maximum weight
+	 */
+	public LayoutCache(){
+		this(DEFAULT_MAXIMUM_WEIGHT);
+	}
+
+	/**
+	 * Creates a cache with the given maximum weight
+	 * @param maximumWeight Maximum number of vertex and edge positions the cache can hold
+	 */
+	public LayoutCache(long maximumWeight){
+		if (maximumWeight < 0)
+			throw new IllegalArgumentException("Maximum weight cannot be negative");
+		this.maximumWeight = maximumWeight;
+	}
+
+	/**
+	 * Finds a cached drawing of a graph with the same structure laid out using the same algorithm and properties
+	 * @param vertices Vertices of the graph
+	 * @param edges Edges of the graph
+	 * @param algorithm Layout algorithm
+	 * @param layoutProperties Properties of the algorithm
+	 * @return Copy of the cached drawing, mapping the given vertices and edges to their positions,
+	 * or {@code null} if there is no such drawing
+	 */
+	public <V extends Vertex, E extends Edge<V>> Drawing<V,E> get(List<V> vertices, List<E> edges,
+			LayoutAlgorithms algorithm, GraphLayoutProperties layoutProperties){
+		Key key = new Key(vertices, edges, algorithm, layoutProperties);
+		CachedDrawing cached;
+		synchronized (this) {
+			cached = drawings.get(key);
+			if (cached == null){
+				misses++;
+				return null;
+			}
+			hits++;
+		}
+		return cached.toDrawing(vertices, edges);
+	}
+
+	/**
+	 * Stores a copy of the drawing of a graph laid out using the given algorithm and properties
+	 * @param vertices Vertices of the graph
+	 * @param edges Edges of the graph
+	 * @param algorithm Layout algorithm
+	 * @param layoutProperties Properties of the algorithm
+	 * @param drawing Drawing of the graph
+	 */
+	public <V extends Vertex, E extends Edge<V>> void put(List<V> vertices, List<E> edges,
+			LayoutAlgorithms algorithm, GraphLayoutProperties layoutProperties, Drawing<V,E> drawing){
+		Key key = new Key(vertices, edges, algorithm, layoutProperties);
+		CachedDrawing cached = new CachedDrawing(vertices, edges, drawing);
+		if (cached.weight > maximumWeight)
+			return;
+		synchronized (this) {
+			CachedDrawing previous = drawings.put(key, cached);
+			if (previous != null)
+				weight -= previous.weight;
+			weight += cached.weight;
+			Iterator<CachedDrawing> it = drawings.values().iterator();
+			while (weight > maximumWeight){
+				weight -= it.next().weight;
+				it.remove();
+				evictions++;
+			}
+		}
+	}
+
+	/**
+	 * Removes all cached drawings. Counters are not reset
+	 */
+	public synchronized void clear(){
+		drawings.clear();
+		weight = 0;
+	}
+
+	/**
+	 * @return Number of cached drawings
+	 */
+	public synchronized int size(){
+		return drawings.size();
+	}
+
+	/**
+	 * @return Current weight of all cached drawings
+	 */
+	public synchronized long getWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return Maximum weight of all cached drawings
+	 */
+	public long getMaximumWeight() {
+		return maximumWeight;
+	}
+
+	/**
+	 * @return Number of lookups which found a drawing
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return Number of lookups which didn't find a drawing
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return Number of drawings evicted in order not to exceed the maximum weight
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	private static <V> Map<V, Integer> indices(List<V> elements){
+		Map<V, Integer> ret = new IdentityHashMap<V, Integer>();
+		for (int i = 0; i < elements.size(); i++)
+			if (!ret.containsKey(elements.get(i)))
+				ret.put(elements.get(i), i);
+		return ret;
+	}
+
+	private static Point2D copy(Point2D point){
+		return point == null ? null : (Point2D) point.clone();
+	}
+
+	/**
+	 * Key of a cached drawing
+	 */
+	private static class Key{
+
+		/**
+		 * Number of vertices and edges, sizes of the vertices and indices of edges' ends
+		 */
+		private int[] structure;
+		private LayoutAlgorithms algorithm;
+		private Map<PropertyEnums, Object> properties;
+		private int hash;
+
+		private <V extends Vertex, E extends Edge<V>> Key(List<V> vertices, List<E> edges,
+				LayoutAlgorithms algorithm, GraphLayoutProperties layoutProperties){
+			this.algorithm = algorithm;
+			if (layoutProperties == null)
+				properties = new HashMap<PropertyEnums, Object>();
+			else
+				properties = new HashMap<PropertyEnums, Object>(layoutProperties.getProperties());
+
+			structure = new int[2 + 2 * vertices.size() + 2 * edges.size()];
+			structure[0] = vertices.size();
+			structure[1] = edges.size();
+			int index = 2;
+			for (V v : vertices){
+				Dimension size = v.getSize();
+				structure[index++] = size == null ? -1 : size.width;
+				structure[index++] = size == null ? -1 : size.height;
+			}
+			Map<V, Integer> vertexIndices = indices(vertices);
+			for (E e : edges){
+				Integer origin = vertexIndices.get(e.getOrigin());
+				Integer destination = vertexIndices.get(e.getDestination());
+				structure[index++] = origin == null ? -1 : origin;
+				structure[index++] = destination == null ? -1 : destination;
+			}
+
+			hash = Arrays.hashCode(structure);
+			hash = 31 * hash + (algorithm == null ? 0 : algorithm.hashCode());
+			hash = 31 * hash + properties.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return hash == other.hash && algorithm == other.algorithm
+					&& Arrays.equals(structure, other.structure) && properties.equals(other.properties);
+		}
+	}
+
+	/**
+	 * Positions of vertices and edges of a drawing, stored by their indices
+	 */
+	private static class CachedDrawing{
+
+		private Point2D[] vertexPositions;
+		private Point2D[][] edgePositions;
+		private long weight;
+
+		private <V extends Vertex, E extends Edge<V>> CachedDrawing(List<V> vertices, List<E> edges, Drawing<V,E> drawing){
+			weight = 1;
+			vertexPositions = new Point2D[vertices.size()];
+			for (int i = 0; i < vertices.size(); i++){
+				vertexPositions[i] = copy(drawing.getVertexMappings().get(vertices.get(i)));
+				weight++;
+			}
+			edgePositions = new Point2D[edges.size()][];
+			for (int i = 0; i < edges.size(); i++){
+				List<Point2D> nodes = drawing.getEdgeMappings().get(edges.get(i));
+				if (nodes == null)
+					continue;
+				edgePositions[i] = new Point2D[nodes.size()];
+				for (int j = 0; j < nodes.size(); j++)
+					edgePositions[i][j] = copy(nodes.get(j));
+				weight += 1 + nodes.size();
+			}
+		}
+
+		private <V extends Vertex, E extends Edge<V>> Drawing<V,E> toDrawing(List<V> vertices, List<E> edges){
+			Drawing<V,E> drawing = new Drawing<V,E>();
+			for (int i = 0; i < vertexPositions.length; i++)
+				if (vertexPositions[i] != null)
+					drawing.setVertexPosition(vertices.get(i), copy(vertexPositions[i]));
+			for (int i = 0; i < edgePositions.length; i++){
+				if (edgePositions[i] == null)
+					continue;
+				List<Point2D> nodes = new ArrayList<Point2D>(edgePositions[i].length);
+				for (Point2D node : edgePositions[i])
+					nodes.add(copy(node));
+				drawing.setEdgePosition(edges.get(i), nodes);
+			}
+			return drawing;
+		}
+	}
+
+}
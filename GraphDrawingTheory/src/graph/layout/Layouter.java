@@ -1,13 +1,24 @@
 package graph.layout;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import graph.drawing.Drawing;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
 import graph.exception.CannotBeAppliedException;
+import graph.instrumentation.Instrumentation;
+import graph.instrumentation.Stopwatch;
+import graph.util.Util;
 
 /**
  * Layouter accepts lists of veritces and edges which might in fact form more than one graph
@@ -18,6 +29,26 @@ import graph.exception.CannotBeAppliedException;
  */
 public class Layouter<V extends Vertex, E extends Edge<V>> {
 
+	/**
+	 * Instrumentation phase in which graphs are formed from the lists of vertices and edges
+	 */
+	public static final String GRAPH_CONVERSION_PHASE = "graph conversion";
+	/**
+	 * Instrumentation phase in which the layout algorithm is executed
+	 */
+	public static final String LAYOUT_PHASE = "layout";
+	/**
+	 * Instrumentation phase in which drawings of 1-connected components are tiled and merged
+	 */
+	public static final String TILING_PHASE = "tiling";
+	/**
+	 * Instrumentation phase in which edges are positioned
+	 */
+	public static final String EDGE_POSITIONING_PHASE = "edge positioning";
+	/**
+	 * Instrumentation phase in which a drawing is looked up in the cache or stored in it
+	 */
+	public static final String CACHING_PHASE = "caching";
 
 	/**
 	 * Edges of the graph (diagram) that is to be laid out
@@ -39,6 +70,18 @@ public class Layouter<V extends Vertex, E extends Edge<V>> {
 	 * Factory used to create an instance of the appropriate algorithm
 	 */
 	private LayouterFactory<V,E> layouterFactory;
+	/**
+	 * Indicates if 1-connected components should be laid out in parallel
+	 */
+	private boolean parallel = false;
+	/**
+	 * Executor used to lay out components in parallel
+	 */
+	private ExecutorService executor;
+	/**
+	 * Cache of drawings, {@code null} if drawings shouldn't be cached
+	 */
+	private LayoutCache cache;
 
 	/**
 	 * Constructs the layouter without populating list of edges and vertices 
@@ -83,7 +126,8 @@ public class Layouter<V extends Vertex, E extends Edge<V>> {
 	 * @return Constructed graph
 	 */
 	private Graph<V,E> formOneGraph(List<V> vertices, List<E> edges){
-		Graph<V,E> graph = new Graph<V,E>();
+		//indexing avoids quadratic checks while the graph is being formed
+		Graph<V,E> graph = new Graph<V,E>(false, true);
 
 		for (V v : vertices)
 			graph.addVertex(v);
@@ -91,11 +135,13 @@ public class Layouter<V extends Vertex, E extends Edge<V>> {
 		for (E e : edges)
 			graph.addEdge(e);
 
+		graph.setIndexed(false);
 		return graph;
 	}
 
 	/**
-	 * Forms one graph for each 1-connected component
+	 * Forms one graph for each 1-connected component.
+	 * Runs in linear time, using a map of edges incident to each vertex, formed in one pass
 	 * @param vertices
 	 * @param edges
 	 * @return A list of formed graphs
@@ -103,50 +149,74 @@ public class Layouter<V extends Vertex, E extends Edge<V>> {
 	private List<Graph<V,E>> formGraphs(List<V> vertices, List<E> edges){
 
 		List<Graph<V,E>> graphs = new ArrayList<Graph<V,E>>();
-		List<V> coveredVertices = new ArrayList<V>();
-		List<E> coveredEdges = new ArrayList<E>();
+		Map<V, List<E>> incidentEdges = findIncidentEdges(edges);
+		Set<V> coveredVertices = new HashSet<V>();
+		Set<E> coveredEdges = new HashSet<E>();
 		Graph<V,E> notConnected = null;
-		List<V> verticesWithEdges = null;
 
 		if (algorithm == LayoutAlgorithms.AUTOMATIC){
-			verticesWithEdges = new ArrayList<V>();
-			for (E e : edges){ //find vertices that don't belong to any of the graphs
-				if (!verticesWithEdges.contains(e.getOrigin()))
-					verticesWithEdges.add(e.getOrigin());
-				if (!verticesWithEdges.contains(e.getDestination()))
-					verticesWithEdges.add(e.getDestination());
-			}
-			if (verticesWithEdges.size() < vertices.size())
-				notConnected = new Graph<V,E>();
+			//find vertices that don't belong to any of the graphs
+			for (V v : vertices)
+				if (!incidentEdges.containsKey(v)){
+					notConnected = new Graph<V,E>(false, true);
+					break;
+				}
 		}
 
 		for (V v : vertices){
 			if (coveredVertices.contains(v))
 				continue;
-			if (notConnected != null && !verticesWithEdges.contains(v)){
+			if (notConnected != null && !incidentEdges.containsKey(v)){
 				notConnected.addVertex(v);
 				continue;
 			}
 
-			Graph<V,E> graph = new Graph<>();
-			formGraph(graph, v, coveredVertices, coveredEdges);
+			Graph<V,E> graph = new Graph<V,E>(false, true);
+			formGraph(graph, v, incidentEdges, coveredVertices, coveredEdges);
+			graph.setIndexed(false);
 			graphs.add(graph);
 		}
 
-		if (notConnected != null)
+		if (notConnected != null){
+			notConnected.setIndexed(false);
 			graphs.add(notConnected);
+		}
 
 		return graphs;
 	}
 
+	/**
+	 * Forms the graph containing the given vertex by traversing edges depth-first.
+	 * The traversal is iterative, so long chains of vertices don't overflow the stack.
+	 * Vertices and edges are added in the order in which they are reached
+	 */
 	@SuppressWarnings("unchecked")
-	private void formGraph(Graph<V,E> graph, V v, List<V> coveredVertices, List<E> coveredEdges){
+	private void formGraph(Graph<V,E> graph, V v, Map<V, List<E>> incidentEdges, Set<V> coveredVertices, Set<E> coveredEdges){
+
+		List<V> stack = new ArrayList<V>();
+		List<Integer> positions = new ArrayList<Integer>();
+
 		coveredVertices.add(v);
 		graph.addVertex(v);
+		stack.add(v);
+		positions.add(0);
+
+		while (stack.size() > 0){
+			int top = stack.size() - 1;
+			V current = stack.get(top);
+			int position = positions.get(top);
+			List<E> currentEdges = incidentEdges.get(current);
+
+			if (currentEdges == null || position == currentEdges.size()){
+				stack.remove(top);
+				positions.remove(top);
+				continue;
+			}
+			positions.set(top, position + 1);
 
-		for (E e : findAllEdgesContainigVertex(v)){
+			E e = currentEdges.get(position);
 
-			//avoid infinite recursion
+			//avoid infinite loops
 			if (coveredEdges.contains(e))
 				continue;
 
@@ -155,38 +225,80 @@ public class Layouter<V extends Vertex, E extends Edge<V>> {
 			V origin = e.getOrigin();
 			V desitnation = e.getDestination();
 
-			if (!graph.hasVertex(origin))
-				graph.addVertex(origin);
-			if (!graph.hasVertex(desitnation))
-				graph.addVertex(desitnation);
+			graph.addVertex(origin);
+			graph.addVertex(desitnation);
 
 			graph.addEdge(e);
 
-			//call formGraph with the other vertex as argument
-
-			if (origin != v)
-				formGraph(graph, origin, coveredVertices, coveredEdges);
-			else if (desitnation != v)
-				formGraph(graph, desitnation, coveredVertices, coveredEdges);
+			//continue with the other vertex
+			V other = null;
+			if (origin != current)
+				other = origin;
+			else if (desitnation != current)
+				other = desitnation;
+
+			if (other != null){
+				coveredVertices.add(other);
+				stack.add(other);
+				positions.add(0);
+			}
 		}
 	}
 
-
-	private List<E> findAllEdgesContainigVertex(V v){
-		List<E> ret = new ArrayList<E>();
-		for (E e : edges)
-			if (e.getOrigin() == v || e.getDestination() == v)
-				ret.add(e);
-
+	/**
+	 * Maps every vertex to a list of edges containing it, in the order
+	 * in which they appear in the list of edges
+	 * @param edges Edges
+	 * @return Map of vertices and their incident edges
+	 */
+	private Map<V, List<E>> findIncidentEdges(List<E> edges){
+		Map<V, List<E>> ret = new IdentityHashMap<V, List<E>>();
+		for (E e : edges){
+			addIncidentEdge(ret, e.getOrigin(), e);
+			if (e.getDestination() != e.getOrigin())
+				addIncidentEdge(ret, e.getDestination(), e);
+		}
 		return ret;
 	}
 
+	private void addIncidentEdge(Map<V, List<E>> incidentEdges, V v, E e){
+		List<E> list = incidentEdges.get(v);
+		if (list == null){
+			list = new ArrayList<E>();
+			incidentEdges.put(v, list);
+		}
+		list.add(e);
+	}
+
 	/**
-	 * Lays out the graph and returns an instance of the drawing object
+	 * Lays out the graph and returns an instance of the drawing object.
+	 * If instrumentation is enabled, the layout is recorded as operation {@code Layouter <algorithm>}
+	 * with its phases. If a cache is set, a cached drawing of a graph with the same structure laid out
+	 * using the same algorithm and properties is returned instead of laying out the graph again
 	 * @return Laid out drawing (mapping of vertices and edges to their calculated positions)
 	 * @throws CannotBeAppliedException If the specified layout algorithm cannot be applied
 	 */
 	public Drawing<V,E> layout() throws CannotBeAppliedException{
+		Stopwatch stopwatch = Instrumentation.start(Layouter.class, String.valueOf(algorithm));
+		try{
+			if (cache == null)
+				return layout(stopwatch);
+
+			stopwatch.phase(CACHING_PHASE);
+			Drawing<V,E> drawing = cache.get(vertices, edges, algorithm, layoutProperties);
+			if (drawing == null){
+				drawing = layout(stopwatch);
+				stopwatch.phase(CACHING_PHASE);
+				cache.put(vertices, edges, algorithm, layoutProperties, drawing);
+			}
+			return drawing;
+		}
+		finally{
+			stopwatch.stop();
+		}
+	}
+
+	private Drawing<V,E> layout(Stopwatch stopwatch) throws CannotBeAppliedException{
 
 		int startX = 200;
 		int startY = 200;
@@ -208,8 +320,11 @@ public class Layouter<V extends Vertex, E extends Edge<V>> {
 		AbstractLayouter<V, E> layouter = layouterFactory.createLayouter(algorithm);
 
 		if (layouter.isOneGraph()){
+			stopwatch.phase(GRAPH_CONVERSION_PHASE);
+			Graph<V,E> graph = formOneGraph(vertices, edges);
+			stopwatch.phase(LAYOUT_PHASE);
 			try{
-				drawing = layouter.layout(formOneGraph(vertices, edges),layoutProperties);
+				drawing = layouter.layout(graph, layoutProperties);
 			}
 			catch(Exception ex){
 				ex.printStackTrace();
@@ -217,23 +332,36 @@ public class Layouter<V extends Vertex, E extends Edge<V>> {
 			}
 
 			//if (!layouter.isPositionsEdges())
+			stopwatch.phase(EDGE_POSITIONING_PHASE);
 			drawing.positionEdges(edges);
 
 			return drawing;
 		}
 
+		stopwatch.phase(GRAPH_CONVERSION_PHASE);
 		List<Graph<V,E>> graphs = formGraphs(vertices, edges);
-		for (Graph<V,E> graph : graphs){
-			try{
-				drawing = layouter.layout(graph, layoutProperties);
-			}
-			catch(Exception ex){
-				ex.printStackTrace();
-				throw new CannotBeAppliedException("Algorithm cannot be applied. " + ex.getMessage());
+		stopwatch.phase(LAYOUT_PHASE);
+		List<Drawing<V,E>> drawings;
+		if (parallel && graphs.size() > 1)
+			drawings = layoutInParallel(graphs);
+		else{
+			drawings = new ArrayList<Drawing<V,E>>();
+			for (Graph<V,E> graph : graphs){
+				try{
+					drawings.add(layouter.layout(graph, layoutProperties));
+				}
+				catch(Exception ex){
+					ex.printStackTrace();
+					throw new CannotBeAppliedException("Algorithm cannot be applied. " + ex.getMessage());
+				}
 			}
+		}
 
+		stopwatch.phase(TILING_PHASE);
+		for (Drawing<V,E> componentDrawing : drawings){
+			drawing = componentDrawing;
 
-			if (graphs.size() > 1){
+			if (drawings.size() > 1){
 
 
 				int currentLeftmost = drawing.findLeftmostPosition();
@@ -269,11 +397,56 @@ public class Layouter<V extends Vertex, E extends Edge<V>> {
 		}
 		
 		//if (!layouter.isPositionsEdges())
+		stopwatch.phase(EDGE_POSITIONING_PHASE);
 		ret.positionEdges(edges);
 		
 		return ret;
 	}
 
+	/**
+	 * Lays out each of the graphs in a separate task. Every task uses its own
+	 * layouter instance and its own copy of the layout properties, since neither
+	 * is meant to be shared between threads
+	 * @param graphs Graphs (1-connected components) to lay out
+	 * @return Drawings of the graphs, in the same order as the graphs
+	 * @throws CannotBeAppliedException If the layout algorithm cannot be applied to one of the graphs
+	 */
+	private List<Drawing<V,E>> layoutInParallel(List<Graph<V,E>> graphs) throws CannotBeAppliedException{
+		List<Callable<Drawing<V,E>>> tasks = new ArrayList<Callable<Drawing<V,E>>>();
+		for (final Graph<V,E> graph : graphs){
+			final GraphLayoutProperties taskProperties =
+					layoutProperties == null ? null : new GraphLayoutProperties(layoutProperties);
+			tasks.add(new Callable<Drawing<V,E>>() {
+
+				@Override
+				public Drawing<V, E> call() throws Exception {
+					return layouterFactory.createLayouter(algorithm).layout(graph, taskProperties);
+				}
+			});
+		}
+
+		List<Drawing<V,E>> drawings = new ArrayList<Drawing<V,E>>();
+		try{
+			for (Future<Drawing<V,E>> future : getExecutor().invokeAll(tasks))
+				drawings.add(future.get());
+		}
+		catch(ExecutionException ex){
+			ex.getCause().printStackTrace();
+			throw new CannotBeAppliedException("Algorithm cannot be applied. " + ex.getCause().getMessage());
+		}
+		catch(InterruptedException ex){
+			Thread.currentThread().interrupt();
+			throw new CannotBeAppliedException("Layout interrupted");
+		}
+		return drawings;
+	}
+
+	private ExecutorService getExecutor(){
+		if (executor == null)
+			executor = Util.sharedPool();
+		return executor;
+	}
+
 	/**
 	 * @return the edges
 	 */
@@ -329,7 +502,58 @@ public class Layouter<V extends Vertex, E extends Edge<V>> {
 	public void setLayoutProperties(GraphLayoutProperties layoutProperties) {
 		this.layoutProperties = layoutProperties;
 	}
-}
 
+	/**
+	 * @return {@code true} if 1-connected components are laid out in parallel, {@code false} otherwise
+	 */
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * Turns parallel layout of 1-connected components on or off. Has no effect on algorithms
+	 * which lay out the whole graph at once. Components are merged in the same order regardless of the mode,
+	 * so the resulting drawing is the same
+	 * @param parallel {@code true} if the components should be laid out in parallel, {@code false} otherwise
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * @param executor Executor which should be used to lay out components in parallel.
+	 * If not set, a shared fork-join pool is used
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * @return Factory used to create an instance of the layout algorithm
+	 */
+	public LayouterFactory<V, E> getLayouterFactory() {
+		return layouterFactory;
+	}
+
+	/**
+	 * @param layouterFactory Factory used to create an instance of the layout algorithm to set
+	 */
+	public void setLayouterFactory(LayouterFactory<V, E> layouterFactory) {
+		this.layouterFactory = layouterFactory;
+	}
 
+	/**
+	 * @return Cache of drawings, {@code null} if drawings are not cached
+	 */
+	public LayoutCache getCache() {
+		return cache;
+	}
 
+	/**
+	 * @param cache Cache of drawings, which can be shared between layouters,
+	 * or {@code null} if drawings shouldn't be cached
+	 */
+	public void setCache(LayoutCache cache) {
+		this.cache = cache;
+	}
+}
\ No newline at end of file
@@ -4,6 +4,7 @@ import graph.drawing.Drawing;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Stopwatch;
 import graph.layout.AbstractLayouter;
 import graph.layout.DefaultGraphLayoutProperties;
 import graph.layout.GraphLayoutProperties;
@@ -30,8 +31,8 @@ public class AutomaticPropertiesLayout<V extends Vertex, E extends Edge<V>> exte
 	
 	
 	@Override
-	public Drawing<V, E> layout(Graph<V, E> graph,
-			GraphLayoutProperties layoutProperties) {
+	protected Drawing<V, E> doLayout(Graph<V, E> graph,
+			GraphLayoutProperties layoutProperties, Stopwatch stopwatch) {
 		
 		LayoutAlgorithms algorithm = layoutPicker.pickAlgorithm(graph);
 		AbstractLayouter<V, E> layouter = layoutFactory.createLayouter(algorithm);
@@ -4,6 +4,7 @@ import graph.drawing.Drawing;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Stopwatch;
 import graph.layout.AbstractLayouter;
 import graph.layout.GraphLayoutProperties;
 import graph.layout.PropertyEnums.BoxProperties;
@@ -36,7 +37,7 @@ public class BoxLayouter<V extends Vertex, E extends Edge<V>> extends AbstractLa
 	private List<V> elementsToLayout;
 
 	@Override
-	public Drawing<V,E> layout(Graph<V,E> graph, GraphLayoutProperties layoutProperties) {
+	protected Drawing<V,E> doLayout(Graph<V,E> graph, GraphLayoutProperties layoutProperties, Stopwatch stopwatch) {
 		
 		elementsToLayout = graph.getVertices();
 		
@@ -4,6 +4,7 @@ import graph.drawing.Drawing;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Stopwatch;
 import graph.layout.AbstractLayouter;
 import graph.layout.GraphLayoutProperties;
 
@@ -20,8 +21,8 @@ public class CircleWithCenterLayouter<V extends Vertex, E extends Edge<V>> exten
 
 
 	@Override
-	public Drawing<V, E> layout(Graph<V, E> graph,
-			GraphLayoutProperties layoutProperties) {
+	protected Drawing<V, E> doLayout(Graph<V, E> graph,
+			GraphLayoutProperties layoutProperties, Stopwatch stopwatch) {
 		
 		//find the vertex with the largest number of adjacent vertices
 		V center = null;
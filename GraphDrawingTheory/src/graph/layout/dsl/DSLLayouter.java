@@ -4,8 +4,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
-import javax.swing.SwingConstants;
-
 import graph.algorithms.drawing.ConvexDrawing;
 import graph.algorithms.planarity.FraysseixMendezPlanarity;
 import graph.drawing.Drawing;
@@ -20,33 +18,20 @@ import graph.layout.GraphLayoutProperties;
 import graph.layout.LayoutAestheticMap;
 import graph.layout.LayoutAlgorithms;
 import graph.layout.Layouter;
-import graph.layout.PropertyEnums.BalloonProperties;
-import graph.layout.PropertyEnums.BoxProperties;
-import graph.layout.PropertyEnums.CircleProperties;
-import graph.layout.PropertyEnums.CompactTreeProperties;
-import graph.layout.PropertyEnums.FastOrganicProperties;
-import graph.layout.PropertyEnums.FruchtermanReingoldProperties;
 import graph.layout.PropertyEnums.HierarchicalProperties;
-import graph.layout.PropertyEnums.KamadaKawaiProperties;
 import graph.layout.PropertyEnums.NodeLinkTreeProperties;
 import graph.layout.PropertyEnums.OrganicProperties;
-import graph.layout.PropertyEnums.RadialTreeProperties;
-import graph.layout.PropertyEnums.SpringProperties;
-import graph.layout.PropertyEnums.TreeProperties;
-import graph.layout.PropertyEnums.TutteProperties;
 import graph.util.Pair;
 import interfaces.IExpression;
 import interfaces.IFactor;
-import interfaces.ILayout;
-import interfaces.ILayoutGraph;
 import interfaces.ITerm;
-import interpreter.java.Interpreter;
 import models.java.LayoutGraph;
-import models.java.LayoutSubgraphs;
 
 /**
  * A layouter which lays out a given graph in accordance with the user's description
  * which needs to conform to the defined dsl.
+ * The description is compiled into a {@link LayoutPlan}, which is cached and can be shared.
+ * The layouter itself keeps the state of one layout and shouldn't be used by more than one thread.
  * @author Renata
  * @param <V> The vertex type
  * @param <E> The edge type 
@@ -65,8 +50,10 @@ public class DSLLayouter<V extends Vertex, E extends Edge<V>>  {
 	 * User's description which should conform to the dsl
 	 */
 	private String userDescription;
-
-	private Layouter<V,E> layouter;
+	/**
+	 * Compiled description, {@code null} until the description is compiled
+	 */
+	private LayoutPlan plan;
 
 	private FraysseixMendezPlanarity<V, E> planarityTest = 
 			new FraysseixMendezPlanarity<V,E>();
@@ -105,7 +92,20 @@ public class DSLLayouter<V extends Vertex, E extends Edge<V>>  {
 		this.vertices = vertices;
 		this.edges = edges;
 		this.userDescription = userDescription;
-		layouter = new Layouter<V,E>();
+	}
+
+	/**
+	 * Constructs the DSL layouter given lists of graph's vertices and edges
+	 * and an already compiled description of the desired layout
+	 * @param vertices A list of graph's vertices
+	 * @param edges A list of graph's edges
+	 * @param plan Compiled description of the desired layout
+	 */
+	public DSLLayouter(List<V> vertices, List<E> edges, LayoutPlan plan){
+		this.vertices = vertices;
+		this.edges = edges;
+		this.plan = plan;
+		this.userDescription = plan.getSource();
 	}
 
 	/**
@@ -115,95 +115,69 @@ public class DSLLayouter<V extends Vertex, E extends Edge<V>>  {
 	 * @throws  
 	 */
 	public Drawing<V,E> layout() throws DSLException{
-		ILayout layoutDescription = Interpreter.getInstance().execute(userDescription);
-
-		Drawing<V,E> drawing;
-		if (layoutDescription instanceof LayoutGraph){
-			LayoutGraph layoutGraph = (LayoutGraph) layoutDescription;
-			if (layoutGraph.getException() != null && !layoutGraph.getException().equals(""))
-				throw new DSLException(((LayoutGraph) layoutDescription).getException());
-			drawing = executeOne(vertices, edges, (LayoutGraph) layoutDescription);
-		}
-		else{
+		if (plan == null)
+			plan = LayoutPlanCache.getShared().compile(userDescription);
 
-			drawing = new Drawing<V,E>();
+		currentIndex = 1;
+		currentStartPositionX = startX;
+		currentStartPositionY = startY;
+		maxYInRow = 0;
 
-			Graph<V,E> graph = formOneGraph(vertices, edges);
-			List<V> subgraphVertices = new ArrayList<V>();
-			List<V> allSubgraphVertices = new ArrayList<V>();
-			LayoutGraph others = null;
-
-			LayoutSubgraphs layoutSubgraphs = (LayoutSubgraphs)layoutDescription;
-			for (ILayoutGraph layoutGraph : layoutSubgraphs.getSubgraphs()){
-				String subgraph = layoutGraph.getGraph();
-				if (subgraph.equals("others")){
-					others = (LayoutGraph) layoutGraph;
-					continue;
-				}
+		Drawing<V,E> drawing = new Drawing<V,E>();
+		Graph<V,E> graph = null;
+		List<V> allSubgraphVertices = new ArrayList<V>();
 
-				//subgraph is given as a set of vertices
-				//each vertex is identified either by its content
-				//or by its index
-				String[] subgraphVerticesStr = subgraph.split(",");
-				subgraphVertices.clear();
+		for (LayoutPlan.Step step : plan.getSteps()){
+			if (step.getSelector() == LayoutPlan.Selector.GRAPH)
+				return executeOne(vertices, edges, step);
 
-				if (!layoutGraph.isGraphContent()){
-					for (String indexStr : subgraphVerticesStr){
-						if (indexStr.equals(""))
-							subgraphVertices.add(vertices.get(0));
-						else
-							subgraphVertices.add(vertices.get(Integer.parseInt(indexStr)));
-					}
-				}
-				else{
-					for (V v : vertices)
-						if (subgraphVertices.contains(v.getContent()))
-							subgraphVertices.add(v);
-				}
-
-				allSubgraphVertices.addAll(subgraphVertices);
+			if (graph == null)
+				graph = formOneGraph(vertices, edges);
 
-				//find all edges between these vertices
-				List<E> subgraphEdges = graph.edgesBetween(subgraphVertices);
-				Drawing<V,E> oneDrawing = executeOne(subgraphVertices, subgraphEdges, (LayoutGraph) layoutGraph);
-				positionDrawing(oneDrawing);
-				drawing.getVertexMappings().putAll(oneDrawing.getVertexMappings());
-				drawing.getEdgeMappings().putAll(oneDrawing.getEdgeMappings());
+			List<V> subgraphVertices = new ArrayList<V>();
+			if (step.getSelector() == LayoutPlan.Selector.INDICES){
+				for (int index : step.getIndices()){
+					if (index < 0 || index >= vertices.size())
+						throw new DSLException("Graph has no vertex v" + index);
+					subgraphVertices.add(vertices.get(index));
+				}
 			}
-
-			//layout others if specified
-			if (others != null){
-				List<V> otherVertices=  new ArrayList<V>();
+			else if (step.getSelector() == LayoutPlan.Selector.CONTENTS){
+				for (V v : vertices)
+					if (v.getContent() != null && step.getContents().contains(v.getContent().toString()))
+						subgraphVertices.add(v);
+			}
+			else{
 				for (V v : vertices)
 					if (!allSubgraphVertices.contains(v))
-						otherVertices.add(v);
-
-				List<E> subgraphEdges = graph.edgesBetween(otherVertices);
-				Drawing<V,E> oneDrawing = executeOne(otherVertices, subgraphEdges, (LayoutGraph) others);
-				positionDrawing(oneDrawing);
-				drawing.getVertexMappings().putAll(oneDrawing.getVertexMappings());
-				drawing.getEdgeMappings().putAll(oneDrawing.getEdgeMappings());
+						subgraphVertices.add(v);
 			}
-
+			allSubgraphVertices.addAll(subgraphVertices);
+
+			//find all edges between these vertices
+			List<E> subgraphEdges = graph.edgesBetween(subgraphVertices);
+			Drawing<V,E> oneDrawing = executeOne(subgraphVertices, subgraphEdges, step);
+			positionDrawing(oneDrawing);
+			drawing.getVertexMappings().putAll(oneDrawing.getVertexMappings());
+			drawing.getEdgeMappings().putAll(oneDrawing.getEdgeMappings());
 		}
 
 		return drawing;
 	}
 
-	private Drawing<V,E> executeOne(List<V> vertices, List<E> edges, LayoutGraph layoutDescription) throws DSLException{
+	private Drawing<V,E> executeOne(List<V> vertices, List<E> edges, LayoutPlan.Step step) throws DSLException{
 
-		Pair<LayoutAlgorithms, GraphLayoutProperties> algorithmAndProperties = selectLayout(vertices, edges, (LayoutGraph) layoutDescription);
-		LayoutAlgorithms algorithm = algorithmAndProperties.getKey();
-		if (algorithm == null)
-			throw new DSLException("No suitable algorithm for input");
-		
-		GraphLayoutProperties properties = algorithmAndProperties.getValue();
-		layouter.setVertices(vertices);
-		layouter.setEdges(edges);
-		layouter.setAlgorithm(algorithm);
-		if (properties != null)
-			layouter.setLayoutProperties(properties);
+		LayoutAlgorithms algorithm = step.getAlgorithm();
+		GraphLayoutProperties properties = step.createLayoutProperties();
+		if (algorithm == null){
+			Pair<LayoutAlgorithms, GraphLayoutProperties> algorithmAndProperties = selectLayout(vertices, edges, step.getInstructions());
+			if (algorithmAndProperties == null || algorithmAndProperties.getKey() == null)
+				throw new DSLException("No suitable algorithm for input");
+			algorithm = algorithmAndProperties.getKey();
+			properties = algorithmAndProperties.getValue();
+		}
 
+		Layouter<V,E> layouter = new Layouter<V,E>(vertices, edges, algorithm, properties);
 		try {
 			Drawing<V,E> oneDrawing = layouter.layout();
 			return oneDrawing;
@@ -244,15 +218,12 @@ public class DSLLayouter<V extends Vertex, E extends Edge<V>>  {
 	}
 
 
-	@SuppressWarnings("unused")
+	/**
+	 * Selects an algorithm for instructions which don't name it
+	 */
 	private Pair<LayoutAlgorithms, GraphLayoutProperties> selectLayout(List<V> vertices, List<E> edges, LayoutGraph layoutInstructions){
 
-
-
-		if (layoutInstructions.getType().equals("algorithm")){
-			return selectAlgorithm(vertices, edges, layoutInstructions);
-		}
-		else if (layoutInstructions.getType().equals("style")){
+		if (layoutInstructions.getType().equals("style")){
 			return selectStyle(vertices, edges, layoutInstructions);
 		}
 		else if (layoutInstructions.getType().equals("criteria")){
@@ -266,190 +237,6 @@ public class DSLLayouter<V extends Vertex, E extends Edge<V>>  {
 	}
 
 
-	private Pair<LayoutAlgorithms, GraphLayoutProperties> selectAlgorithm(List<V> vertices, List<E> edges, LayoutGraph layoutInstructions){
-		LayoutAlgorithms layoutAlgorithm = null;
-		GraphLayoutProperties layoutProperties = new GraphLayoutProperties();
-
-		Map<String, Object> algorithm = layoutInstructions.getAlgorithm();
-		if (algorithm.get("name").equals("radial")){
-			layoutAlgorithm = LayoutAlgorithms.RADIAL_TREE;
-			if (algorithm.containsKey("xDist"))
-				layoutProperties.setProperty(RadialTreeProperties.X_DISTANCE, algorithm.get("xDist"));
-			if (algorithm.containsKey("yDist"))
-				layoutProperties.setProperty(RadialTreeProperties.Y_DISTANCE, algorithm.get("yDist"));
-		}
-		else if (algorithm.get("name").equals("level")){
-			layoutAlgorithm = LayoutAlgorithms.TREE;
-			if (algorithm.containsKey("xDist"))
-				layoutProperties.setProperty(TreeProperties.X_DISTANCE, algorithm.get("xDist"));
-			if (algorithm.containsKey("yDist"))
-				layoutProperties.setProperty(TreeProperties.Y_DISTANCE, algorithm.get("yDist"));
-		}
-		else if(algorithm.get("name").equals("compact")){
-			layoutAlgorithm = LayoutAlgorithms.COMPACT_TREE;
-			if (algorithm.containsKey("horizontal"))
-				layoutProperties.setProperty(CompactTreeProperties.HORIZONTAL, true);
-			if (algorithm.containsKey("invert"))
-				layoutProperties.setProperty(CompactTreeProperties.INVERT, true);
-			if (algorithm.containsKey("resizeParents"))
-				layoutProperties.setProperty(CompactTreeProperties.RESIZE_PARENTS, true);
-			if (algorithm.containsKey("levelDistance"))
-				layoutProperties.setProperty(CompactTreeProperties.LEVEL_DISTANCE, algorithm.get("levelDistance"));
-			if (algorithm.containsKey("nodeDistance"))
-				layoutProperties.setProperty(CompactTreeProperties.NODE_DISTANCE, algorithm.get("nodeDistance"));
-		}
-		else if(algorithm.get("name").equals("node")){
-			layoutAlgorithm = LayoutAlgorithms.NODE_LINK_TREE;
-			if (algorithm.containsKey("spacingSiblings"))
-				layoutProperties.setProperty(NodeLinkTreeProperties.SPACING_SIBLINGS, algorithm.get("spacingSiblings"));
-			if (algorithm.containsKey("spacingSubtrees"))
-				layoutProperties.setProperty(NodeLinkTreeProperties.SPACING_SUBTREES, algorithm.get("spacingSubtrees"));
-			if (algorithm.containsKey("spacingLevels"))
-				layoutProperties.setProperty(NodeLinkTreeProperties.SPACING_DEPTH_LEVELS, algorithm.get("spacingLevels"));
-			if (algorithm.containsKey("offsetRootNode"))
-				layoutProperties.setProperty(NodeLinkTreeProperties.SPACING_ROOT_NODE, algorithm.get("offsetRootNode"));
-			//TODO razmisliti o orijentaciji u jeziku, da li je ok samo left, right, ili left to right itd.
-			if (algorithm.containsKey("orientation")){
-				String orientation = (String)algorithm.get("orientation");
-				if (orientation.equals("right"))
-					layoutProperties.setProperty(NodeLinkTreeProperties.ORIENTATION, 0);
-				else if (orientation.equals("left"))
-					layoutProperties.setProperty(NodeLinkTreeProperties.ORIENTATION, 1);
-				else if (orientation.equals("down"))
-					layoutProperties.setProperty(NodeLinkTreeProperties.ORIENTATION, 2);
-				else if (orientation.equals("up"))
-					layoutProperties.setProperty(NodeLinkTreeProperties.ORIENTATION, 3);
-			}
-		}
-		else if (algorithm.get("name").equals("balloon")){
-			layoutAlgorithm = LayoutAlgorithms.BALLOON;
-			if (algorithm.containsKey("minRadius"))
-				layoutProperties.setProperty(BalloonProperties.MIN_RADIUS, algorithm.get("minRadius"));
-		}
-		else if (algorithm.get("name").equals("hierarchical")){
-			layoutAlgorithm = LayoutAlgorithms.HIERARCHICAL;
-			if (algorithm.containsKey("resizeParent"))
-				layoutProperties.setProperty(HierarchicalProperties.RESIZE_PARENT, true);
-			if (algorithm.containsKey("moveParent"))
-				layoutProperties.setProperty(HierarchicalProperties.MOVE_PARENT, true);
-			if (algorithm.containsKey("parentBorder"))
-				layoutProperties.setProperty(HierarchicalProperties.PARENT_BORDER, algorithm.get("parentBorder"));
-			if (algorithm.containsKey("intraCellSpacing"))
-				layoutProperties.setProperty(HierarchicalProperties.INTRA_CELL_SPACING, algorithm.get("intraCellSpacing"));
-			if (algorithm.containsKey("interRankSpacing"))
-				layoutProperties.setProperty(HierarchicalProperties.INTER_RANK_CELL_SPACING, algorithm.get("interRankSpacing"));
-			if (algorithm.containsKey("interHierarchySpacing"))
-				layoutProperties.setProperty(HierarchicalProperties.INTER_HIERARCHY_SPACING, algorithm.get("interHierarchySpacing"));
-			if (algorithm.containsKey("parallelEdgesSpacing"))
-				layoutProperties.setProperty(HierarchicalProperties.PARALLEL_EDGE_SPACING, algorithm.get("parallelEdgesSpacing"));
-			if (algorithm.containsKey("fineTune"))
-				layoutProperties.setProperty(HierarchicalProperties.FINE_TUNING, true);
-			if (algorithm.containsKey("orientation")){
-				String orientation = (String)algorithm.get("orientation");
-				if (orientation.equals("right"))
-					layoutProperties.setProperty(HierarchicalProperties.ORIENTATION, SwingConstants.EAST);
-				else if (orientation.equals("left"))
-					layoutProperties.setProperty(HierarchicalProperties.ORIENTATION, SwingConstants.WEST);
-				else if (orientation.equals("down"))
-					layoutProperties.setProperty(HierarchicalProperties.ORIENTATION, SwingConstants.SOUTH);
-				else if (orientation.equals("up"))
-					layoutProperties.setProperty(HierarchicalProperties.ORIENTATION, SwingConstants.NORTH);
-			}
-		}
-		else if (algorithm.get("name").equals("circular")){
-			layoutAlgorithm = LayoutAlgorithms.CIRCLE;
-			if (algorithm.containsKey("optimize"))
-				layoutProperties.setProperty(CircleProperties.OPTIMIZE_CROSSINGS, algorithm.get("optimize"));
-			if (algorithm.containsKey("dist"))
-				layoutProperties.setProperty(CircleProperties.DISTANCE, algorithm.get("dist"));
-		}
-		else if (algorithm.get("name").equals("Kamada")){
-			layoutAlgorithm = LayoutAlgorithms.KAMADA_KAWAI;
-			if (algorithm.containsKey("distanceMultiplier"))
-				layoutProperties.setProperty(KamadaKawaiProperties.DISCONNECTED_DISTANCE_MULTIPLIER, algorithm.get("distanceMultiplier"));
-			if (algorithm.containsKey("lengthFactor"))
-				layoutProperties.setProperty(KamadaKawaiProperties.LENGTH_FACTOR, algorithm.get("lengthFactor"));
-			if (algorithm.containsKey("maxIterations"))
-				layoutProperties.setProperty(KamadaKawaiProperties.MAXIMUM_ITERATIONS, algorithm.get("maxIterations"));
-		}
-		else if (algorithm.get("name").equals("Fruchterman")){
-			layoutAlgorithm = LayoutAlgorithms.FRUCHTERMAN_REINGOLD;
-			if (algorithm.containsKey("attractionMultiplier"))
-				layoutProperties.setProperty(FruchtermanReingoldProperties.ATTRACTION_MULTIPLIER, algorithm.get("attractionMultiplier"));
-			if (algorithm.containsKey("resolutionMultiplier"))
-				layoutProperties.setProperty(FruchtermanReingoldProperties.REPULSION_MULTIPLIER, algorithm.get("resolutionMultiplier"));
-			if (algorithm.containsKey("maxIterations"))
-				layoutProperties.setProperty(FruchtermanReingoldProperties.MAXIMUM_ITERATIONS, algorithm.get("maxIterations"));
-		}
-		else if (algorithm.get("name").equals("spring")){
-			layoutAlgorithm = LayoutAlgorithms.SPRING;
-			if (algorithm.containsKey("stretch"))
-				layoutProperties.setProperty(SpringProperties.STRETCH, algorithm.get("stretch"));
-			if (algorithm.containsKey("resolutionRange"))
-				layoutProperties.setProperty(SpringProperties.REPULSION_RANGE, algorithm.get("resolutionRange"));
-			if (algorithm.containsKey("forceMultiplier"))
-				layoutProperties.setProperty(SpringProperties.FORCE_MULTIPLIER, algorithm.get("forceMultiplier"));
-		}
-		else if (algorithm.get("name").equals("organic") && algorithm.containsKey("type")){
-			//fast organic
-			layoutAlgorithm = LayoutAlgorithms.FAST_ORGANIC;
-			if (algorithm.containsKey("forceConstant"))
-				layoutProperties.setProperty(FastOrganicProperties.FORCE_CONSTANT, algorithm.get("forceConstant"));
-			if (algorithm.containsKey("minimalDistanceLimit"))
-				layoutProperties.setProperty(FastOrganicProperties.MINIMAL_DISTANCE_LIMIT, algorithm.get("minimalDistanceLimit"));
-			if (algorithm.containsKey("initialTemperature"))
-				layoutProperties.setProperty(FastOrganicProperties.INITIAL_TEMP, algorithm.get("initialTemperature"));
-			if (algorithm.containsKey("maxIterations"))
-				layoutProperties.setProperty(FastOrganicProperties.MAX_ITERATIONS, algorithm.get("maxIterations"));
-		}
-		else if (algorithm.get("name").equals("organic")) {
-			layoutAlgorithm = LayoutAlgorithms.ORGANIC;
-			if (algorithm.containsKey("optimizeEdgeCrossings"))
-				layoutProperties.setProperty(OrganicProperties.IS_OPTIMIZE_EDGE_CROSSING, true);
-			if (algorithm.containsKey("edgeCrossingFactor"))
-				layoutProperties.setProperty(OrganicProperties.EDGE_CROSSING_FACTOR, algorithm.get("edgeCrossingFactor"));
-			if (algorithm.containsKey("optimizeEdgeDistance"))
-				layoutProperties.setProperty(OrganicProperties.IS_OPTIMIZE_EDGE_DISTANCE, true);
-			if (algorithm.containsKey("edgeDistanceFactor"))
-				layoutProperties.setProperty(OrganicProperties.EDGE_DISTANCE_FACTOR, algorithm.get("edgeDistanceFactor"));
-			if (algorithm.containsKey("optimizeBorderLine"))
-				layoutProperties.setProperty(OrganicProperties.IS_OPTIMIZE_BORDER_LINE, true);
-			if (algorithm.containsKey("borderLineFactor"))
-				layoutProperties.setProperty(OrganicProperties.BORDER_LINE_FACTOR, algorithm.get("borderLineFactor"));
-			if (algorithm.containsKey("nodeDistributionFactor"))
-				layoutProperties.setProperty(OrganicProperties.NODE_DISTRIBUTION_FACTOR, algorithm.get("nodeDistributionFactor"));
-			if (algorithm.containsKey("fineTune"))
-				layoutProperties.setProperty(OrganicProperties.IS_FINE_TUNING, true);
-			if (algorithm.containsKey("fineTuningRadius"))
-				layoutProperties.setProperty(OrganicProperties.FINE_TUNING_RADIUS, algorithm.get("fineTuningRadius"));
-			if (algorithm.containsKey("averageNodeArea"))
-				layoutProperties.setProperty(OrganicProperties.AVERAGE_NODE_AREA, algorithm.get("averageNodeArea"));
-			if (algorithm.containsKey("averageScaleFactor"))
-				layoutProperties.setProperty(OrganicProperties.AVERAGE_SCALE_FACTOR, algorithm.get("averageScaleFactor"));
-			if (algorithm.containsKey("maxIterations"))
-				layoutProperties.setProperty(OrganicProperties.MAX_ITERATIONS, algorithm.get("maxIterations"));
-		}
-		else if (algorithm.get("name").equals("box")){
-			layoutAlgorithm = LayoutAlgorithms.BOX;
-			if (algorithm.containsKey("numOfColumns"))
-				layoutProperties.setProperty(BoxProperties.COLUMNS, algorithm.get("numOfColumns"));
-		}
-		else if (algorithm.get("name").equals("concentric")){
-			layoutAlgorithm = LayoutAlgorithms.CONCENTRIC;
-		}
-		else if (((String)algorithm.get("name")).toLowerCase().equals("tutte")){
-			layoutAlgorithm = LayoutAlgorithms.TUTTE;
-			if (algorithm.containsKey("dist"))
-				layoutProperties.setProperty(TutteProperties.DISTANCE, algorithm.get("dist"));
-		}
-		else if (algorithm.get("name").equals("convex")){
-			layoutAlgorithm = LayoutAlgorithms.CONVEX;
-		}
-
-		//TODO  simetricni i konveksni (kada se srede)
-		return new Pair<LayoutAlgorithms, GraphLayoutProperties>(layoutAlgorithm, layoutProperties);
-	}
-
 	private Pair<LayoutAlgorithms, GraphLayoutProperties> selectStyle(List<V> vertices, List<E> edges, LayoutGraph layoutInstructions){
 
 		Graph<V,E> graph = formOneGraph(vertices, edges);
@@ -682,27 +469,25 @@ public class DSLLayouter<V extends Vertex, E extends Edge<V>>  {
 	private Pair<LayoutAlgorithms, GraphLayoutProperties> selectCriteriaMath(List<V> vertices, List<E> edges, LayoutGraph layoutInstructions){
 
 		IExpression layoutExpression = layoutInstructions.getCriteriaExpression();
+		//criteria are checked on the subgraph which is being laid out, not on the whole graph
 		Pair<LayoutAlgorithms, GraphLayoutProperties> layoutAlgorithmPair =
-				findAlgorithmExpression(true, layoutExpression);
+				findAlgorithmExpression(true, layoutExpression, formOneGraph(vertices, edges));
 		if (layoutAlgorithmPair != null)
 			System.out.println("selected algorithm " + layoutAlgorithmPair.getKey());
 		return layoutAlgorithmPair;
 	}
 
-	private Pair<LayoutAlgorithms, GraphLayoutProperties> findAlgorithmExpression(boolean positive, IExpression expression){
+	private Pair<LayoutAlgorithms, GraphLayoutProperties> findAlgorithmExpression(boolean positive, IExpression expression, Graph<V,E> graph){
 		for (ITerm term : expression.getTerms()){
 			Pair<LayoutAlgorithms, GraphLayoutProperties> algorithmPair = 
-					findAlgorithmForTerm(positive, term);
+					findAlgorithmForTerm(positive, term, graph);
 			if (algorithmPair != null)
 				return algorithmPair;
 		}
 		return null;
 	}
 
-	private Pair<LayoutAlgorithms, GraphLayoutProperties> findAlgorithmForTerm(boolean positive, ITerm term){
-		
-
-		Graph<V,E> graph = formOneGraph(vertices, edges);
+	private Pair<LayoutAlgorithms, GraphLayoutProperties> findAlgorithmForTerm(boolean positive, ITerm term, Graph<V,E> graph){
 		
 		List<AestheticCriteria> positiveCriteria = new ArrayList<AestheticCriteria>();
 		List<AestheticCriteria> negativeCriteria = new ArrayList<AestheticCriteria>();
@@ -713,7 +498,7 @@ public class DSLLayouter<V extends Vertex, E extends Edge<V>>  {
 			positiveFactor = positiveFactor == positive ? true : false;
 
 			if (factor.getExpression() != null)
-				return findAlgorithmExpression(positiveFactor, factor.getExpression());
+				return findAlgorithmExpression(positiveFactor, factor.getExpression(), graph);
 
 			String criterion = (String)factor.getAestheticCriterion().get("criterion");
 			
@@ -0,0 +1,429 @@
+package graph.layout.dsl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.SwingConstants;
+
+import graph.drawing.Drawing;
+import graph.elements.Edge;
+import graph.elements.Vertex;
+import graph.exception.DSLException;
+import graph.layout.GraphLayoutProperties;
+import graph.layout.LayoutAlgorithms;
+import graph.layout.PropertyEnums;
+import graph.layout.PropertyEnums.BalloonProperties;
+import graph.layout.PropertyEnums.BoxProperties;
+import graph.layout.PropertyEnums.CircleProperties;
+import graph.layout.PropertyEnums.CompactTreeProperties;
+import graph.layout.PropertyEnums.FastOrganicProperties;
+import graph.layout.PropertyEnums.FruchtermanReingoldProperties;
+import graph.layout.PropertyEnums.HierarchicalProperties;
+import graph.layout.PropertyEnums.KamadaKawaiProperties;
+import graph.layout.PropertyEnums.NodeLinkTreeProperties;
+import graph.layout.PropertyEnums.OrganicProperties;
+import graph.layout.PropertyEnums.RadialTreeProperties;
+import graph.layout.PropertyEnums.SpringProperties;
+import graph.layout.PropertyEnums.TreeProperties;
+import graph.layout.PropertyEnums.TutteProperties;
+import graph.util.Pair;
+import interfaces.ILayout;
+import interfaces.ILayoutGraph;
+import interpreter.java.Interpreter;
+import models.java.LayoutGraph;
+import models.java.LayoutSubgraphs;
+
+/**
+ * Layout description compiled into a sequence of steps, each of which selects a part of the graph
+ * and states how it should be laid out. Algorithms given by name are resolved when the plan is compiled,
+ * together with their properties. Styles and aesthetic criteria are resolved when the plan is executed,
+ * since the chosen algorithm depends on the laid out graph.
+ * Plans are immutable, so one plan can be executed by many threads at once.
+ * @see LayoutPlanCache
+ */
+public final class LayoutPlan {
+
+	/**
+	 * Determines which vertices a step lays out
+	 */
+	public enum Selector {
+		/**
+		 * The whole graph, placed as laid out
+		 */
+		GRAPH,
+		/**
+		 * Vertices at the given indices, placed in a row with other subgraphs
+		 */
+		INDICES,
+		/**
+		 * Vertices with the given contents, placed in a row with other subgraphs
+		 */
+		CONTENTS,
+		/**
+		 * Vertices not selected by any other step
+		 */
+		OTHERS
+	}
+
+	private final String source;
+	private final List<Step> steps;
+
+	private LayoutPlan(String source, List<Step> steps){
+		this.source = source;
+		this.steps = Collections.unmodifiableList(steps);
+	}
+
+	/**
+	 * Parses a layout description and compiles it into a plan
+	 * @param description Textual description of the layout conforming to the dsl
+	 * @return Compiled plan
+	 * @throws DSLException If the description does not conform to the dsl
+	 */
+	public static LayoutPlan compile(String description) throws DSLException{
+		ILayout layout = Interpreter.getInstance().execute(description);
+		List<Step> steps = new ArrayList<Step>();
+
+		if (layout instanceof LayoutGraph){
+			LayoutGraph layoutGraph = (LayoutGraph) layout;
+			if (layoutGraph.getException() != null && !layoutGraph.getException().equals(""))
+				throw new DSLException(layoutGraph.getException());
+			steps.add(new Step(Selector.GRAPH, Collections.<Integer>emptyList(), Collections.<String>emptyList(), layoutGraph));
+			return new LayoutPlan(description, steps);
+		}
+
+		//others are laid out last, after all other subgraphs are known
+		Step others = null;
+		for (ILayoutGraph subgraph : ((LayoutSubgraphs) layout).getSubgraphs()){
+			LayoutGraph layoutGraph = (LayoutGraph) subgraph;
+			if (layoutGraph.getGraph().equals("others")){
+				others = new Step(Selector.OTHERS, Collections.<Integer>emptyList(), Collections.<String>emptyList(), layoutGraph);
+				continue;
+			}
+			//subgraph is given as a set of vertices
+			//all vertices are identified either by their contents
+			//or by their indices
+			List<Integer> indices = new ArrayList<Integer>();
+			List<String> contents = new ArrayList<String>();
+			for (String vertex : layoutGraph.getGraph().split(",")){
+				if (layoutGraph.isGraphContent())
+					contents.add(vertex);
+				else{
+					//the subgraph is given by indices if any vertex is, so other vertices were given by content
+					try{
+						indices.add(Integer.parseInt(vertex));
+					}
+					catch(NumberFormatException e){
+						throw new DSLException("Vertices of subgraph " + layoutGraph.getGraph()
+								+ " are given both by index and by content, which can't be mixed");
+					}
+				}
+			}
+			steps.add(new Step(layoutGraph.isGraphContent() ? Selector.CONTENTS : Selector.INDICES, indices, contents, layoutGraph));
+		}
+		if (others != null)
+			steps.add(others);
+		return new LayoutPlan(description, steps);
+	}
+
+	/**
+	 * Lays out a graph according to the plan
+	 * @param vertices A list of graph's vertices
+	 * @param edges A list of graph's edges
+	 * @return Drawing - object containing maps of vertices and edges and their positions
+	 * @throws DSLException If no algorithm can be applied or a subgraph refers to a vertex which doesn't exist
+	 */
+	public <V extends Vertex, E extends Edge<V>> Drawing<V,E> execute(List<V> vertices, List<E> edges) throws DSLException{
+		return new DSLLayouter<V,E>(vertices, edges, this).layout();
+	}
+
+	/**
+	 * @return Description the plan was compiled from
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	/**
+	 * @return Steps of the plan, in the order in which they are executed
+	 */
+	public List<Step> getSteps() {
+		return steps;
+	}
+
+	/**
+	 * Resolves an algorithm given by name and its properties
+	 * @param layoutInstructions Instructions of the algorithm type
+	 * @return Algorithm and its properties. The algorithm is {@code null} if it is not supported
+	 */
+	private static Pair<LayoutAlgorithms, GraphLayoutProperties> selectAlgorithm(LayoutGraph layoutInstructions){
+		LayoutAlgorithms layoutAlgorithm = null;
+		GraphLayoutProperties layoutProperties = new GraphLayoutProperties();
+
+		Map<String, Object> algorithm = layoutInstructions.getAlgorithm();
+		if (algorithm.get("name").equals("radial")){
+			layoutAlgorithm = LayoutAlgorithms.RADIAL_TREE;
+			if (algorithm.containsKey("xDist"))
+				layoutProperties.setProperty(RadialTreeProperties.X_DISTANCE, algorithm.get("xDist"));
+			if (algorithm.containsKey("yDist"))
+				layoutProperties.setProperty(RadialTreeProperties.Y_DISTANCE, algorithm.get("yDist"));
+		}
+		else if (algorithm.get("name").equals("level")){
+			layoutAlgorithm = LayoutAlgorithms.TREE;
+			if (algorithm.containsKey("xDist"))
+				layoutProperties.setProperty(TreeProperties.X_DISTANCE, algorithm.get("xDist"));
+			if (algorithm.containsKey("yDist"))
+				layoutProperties.setProperty(TreeProperties.Y_DISTANCE, algorithm.get("yDist"));
+		}
+		else if(algorithm.get("name").equals("compact")){
+			layoutAlgorithm = LayoutAlgorithms.COMPACT_TREE;
+			if (algorithm.containsKey("horizontal"))
+				layoutProperties.setProperty(CompactTreeProperties.HORIZONTAL, true);
+			if (algorithm.containsKey("invert"))
+				layoutProperties.setProperty(CompactTreeProperties.INVERT, true);
+			if (algorithm.containsKey("resizeParents"))
+				layoutProperties.setProperty(CompactTreeProperties.RESIZE_PARENTS, true);
+			if (algorithm.containsKey("levelDistance"))
+				layoutProperties.setProperty(CompactTreeProperties.LEVEL_DISTANCE, algorithm.get("levelDistance"));
+			if (algorithm.containsKey("nodeDistance"))
+				layoutProperties.setProperty(CompactTreeProperties.NODE_DISTANCE, algorithm.get("nodeDistance"));
+		}
+		else if(algorithm.get("name").equals("node")){
+			layoutAlgorithm = LayoutAlgorithms.NODE_LINK_TREE;
+			if (algorithm.containsKey("spacingSiblings"))
+				layoutProperties.setProperty(NodeLinkTreeProperties.SPACING_SIBLINGS, algorithm.get("spacingSiblings"));
+			if (algorithm.containsKey("spacingSubtrees"))
+				layoutProperties.setProperty(NodeLinkTreeProperties.SPACING_SUBTREES, algorithm.get("spacingSubtrees"));
+			if (algorithm.containsKey("spacingLevels"))
+				layoutProperties.setProperty(NodeLinkTreeProperties.SPACING_DEPTH_LEVELS, algorithm.get("spacingLevels"));
+			if (algorithm.containsKey("offsetRootNode"))
+				layoutProperties.setProperty(NodeLinkTreeProperties.SPACING_ROOT_NODE, algorithm.get("offsetRootNode"));
+			//TODO razmisliti o orijentaciji u jeziku, da li je ok samo left, right, ili left to right itd.
+			if (algorithm.containsKey("orientation")){
+				String orientation = (String)algorithm.get("orientation");
+				if (orientation.equals("right"))
+					layoutProperties.setProperty(NodeLinkTreeProperties.ORIENTATION, 0);
+				else if (orientation.equals("left"))
+					layoutProperties.setProperty(NodeLinkTreeProperties.ORIENTATION, 1);
+				else if (orientation.equals("down"))
+					layoutProperties.setProperty(NodeLinkTreeProperties.ORIENTATION, 2);
+				else if (orientation.equals("up"))
+					layoutProperties.setProperty(NodeLinkTreeProperties.ORIENTATION, 3);
+			}
+		}
+		else if (algorithm.get("name").equals("balloon")){
+			layoutAlgorithm = LayoutAlgorithms.BALLOON;
+			if (algorithm.containsKey("minRadius"))
+				layoutProperties.setProperty(BalloonProperties.MIN_RADIUS, algorithm.get("minRadius"));
+		}
+		else if (algorithm.get("name").equals("hierarchical")){
+			layoutAlgorithm = LayoutAlgorithms.HIERARCHICAL;
+			if (algorithm.containsKey("resizeParent"))
+				layoutProperties.setProperty(HierarchicalProperties.RESIZE_PARENT, true);
+			if (algorithm.containsKey("moveParent"))
+				layoutProperties.setProperty(HierarchicalProperties.MOVE_PARENT, true);
+			if (algorithm.containsKey("parentBorder"))
+				layoutProperties.setProperty(HierarchicalProperties.PARENT_BORDER, algorithm.get("parentBorder"));
+			if (algorithm.containsKey("intraCellSpacing"))
+				layoutProperties.setProperty(HierarchicalProperties.INTRA_CELL_SPACING, algorithm.get("intraCellSpacing"));
+			if (algorithm.containsKey("interRankSpacing"))
+				layoutProperties.setProperty(HierarchicalProperties.INTER_RANK_CELL_SPACING, algorithm.get("interRankSpacing"));
+			if (algorithm.containsKey("interHierarchySpacing"))
+				layoutProperties.setProperty(HierarchicalProperties.INTER_HIERARCHY_SPACING, algorithm.get("interHierarchySpacing"));
+			if (algorithm.containsKey("parallelEdgesSpacing"))
+				layoutProperties.setProperty(HierarchicalProperties.PARALLEL_EDGE_SPACING, algorithm.get("parallelEdgesSpacing"));
+			if (algorithm.containsKey("fineTune"))
+				layoutProperties.setProperty(HierarchicalProperties.FINE_TUNING, true);
+			if (algorithm.containsKey("orientation")){
+				String orientation = (String)algorithm.get("orientation");
+				if (orientation.equals("right"))
+					layoutProperties.setProperty(HierarchicalProperties.ORIENTATION, SwingConstants.EAST);
+				else if (orientation.equals("left"))
+					layoutProperties.setProperty(HierarchicalProperties.ORIENTATION, SwingConstants.WEST);
+				else if (orientation.equals("down"))
+					layoutProperties.setProperty(HierarchicalProperties.ORIENTATION, SwingConstants.SOUTH);
+				else if (orientation.equals("up"))
+					layoutProperties.setProperty(HierarchicalProperties.ORIENTATION, SwingConstants.NORTH);
+			}
+		}
+		else if (algorithm.get("name").equals("circular")){
+			layoutAlgorithm = LayoutAlgorithms.CIRCLE;
+			if (algorithm.containsKey("optimize"))
+				layoutProperties.setProperty(CircleProperties.OPTIMIZE_CROSSINGS, algorithm.get("optimize"));
+			if (algorithm.containsKey("dist"))
+				layoutProperties.setProperty(CircleProperties.DISTANCE, algorithm.get("dist"));
+		}
+		else if (algorithm.get("name").equals("Kamada")){
+			layoutAlgorithm = LayoutAlgorithms.KAMADA_KAWAI;
+			if (algorithm.containsKey("distanceMultiplier"))
+				layoutProperties.setProperty(KamadaKawaiProperties.DISCONNECTED_DISTANCE_MULTIPLIER, algorithm.get("distanceMultiplier"));
+			if (algorithm.containsKey("lengthFactor"))
+				layoutProperties.setProperty(KamadaKawaiProperties.LENGTH_FACTOR, algorithm.get("lengthFactor"));
+			if (algorithm.containsKey("maxIterations"))
+				layoutProperties.setProperty(KamadaKawaiProperties.MAXIMUM_ITERATIONS, algorithm.get("maxIterations"));
+		}
+		else if (algorithm.get("name").equals("Fruchterman")){
+			layoutAlgorithm = LayoutAlgorithms.FRUCHTERMAN_REINGOLD;
+			if (algorithm.containsKey("attractionMultiplier"))
+				layoutProperties.setProperty(FruchtermanReingoldProperties.ATTRACTION_MULTIPLIER, algorithm.get("attractionMultiplier"));
+			if (algorithm.containsKey("resolutionMultiplier"))
+				layoutProperties.setProperty(FruchtermanReingoldProperties.REPULSION_MULTIPLIER, algorithm.get("resolutionMultiplier"));
+			if (algorithm.containsKey("maxIterations"))
+				layoutProperties.setProperty(FruchtermanReingoldProperties.MAXIMUM_ITERATIONS, algorithm.get("maxIterations"));
+		}
+		else if (algorithm.get("name").equals("spring")){
+			layoutAlgorithm = LayoutAlgorithms.SPRING;
+			if (algorithm.containsKey("stretch"))
+				layoutProperties.setProperty(SpringProperties.STRETCH, algorithm.get("stretch"));
+			if (algorithm.containsKey("resolutionRange"))
+				layoutProperties.setProperty(SpringProperties.REPULSION_RANGE, algorithm.get("resolutionRange"));
+			if (algorithm.containsKey("forceMultiplier"))
+				layoutProperties.setProperty(SpringProperties.FORCE_MULTIPLIER, algorithm.get("forceMultiplier"));
+		}
+		else if (algorithm.get("name").equals("organic") && algorithm.containsKey("type")){
+			//fast organic
+			layoutAlgorithm = LayoutAlgorithms.FAST_ORGANIC;
+			if (algorithm.containsKey("forceConstant"))
+				layoutProperties.setProperty(FastOrganicProperties.FORCE_CONSTANT, algorithm.get("forceConstant"));
+			if (algorithm.containsKey("minimalDistanceLimit"))
+				layoutProperties.setProperty(FastOrganicProperties.MINIMAL_DISTANCE_LIMIT, algorithm.get("minimalDistanceLimit"));
+			if (algorithm.containsKey("initialTemperature"))
+				layoutProperties.setProperty(FastOrganicProperties.INITIAL_TEMP, algorithm.get("initialTemperature"));
+			if (algorithm.containsKey("maxIterations"))
+				layoutProperties.setProperty(FastOrganicProperties.MAX_ITERATIONS, algorithm.get("maxIterations"));
+		}
+		else if (algorithm.get("name").equals("organic")) {
+			layoutAlgorithm = LayoutAlgorithms.ORGANIC;
+			if (algorithm.containsKey("optimizeEdgeCrossings"))
+				layoutProperties.setProperty(OrganicProperties.IS_OPTIMIZE_EDGE_CROSSING, true);
+			if (algorithm.containsKey("edgeCrossingFactor"))
+				layoutProperties.setProperty(OrganicProperties.EDGE_CROSSING_FACTOR, algorithm.get("edgeCrossingFactor"));
+			if (algorithm.containsKey("optimizeEdgeDistance"))
+				layoutProperties.setProperty(OrganicProperties.IS_OPTIMIZE_EDGE_DISTANCE, true);
+			if (algorithm.containsKey("edgeDistanceFactor"))
+				layoutProperties.setProperty(OrganicProperties.EDGE_DISTANCE_FACTOR, algorithm.get("edgeDistanceFactor"));
+			if (algorithm.containsKey("optimizeBorderLine"))
+				layoutProperties.setProperty(OrganicProperties.IS_OPTIMIZE_BORDER_LINE, true);
+			if (algorithm.containsKey("borderLineFactor"))
+				layoutProperties.setProperty(OrganicProperties.BORDER_LINE_FACTOR, algorithm.get("borderLineFactor"));
+			if (algorithm.containsKey("nodeDistributionFactor"))
+				layoutProperties.setProperty(OrganicProperties.NODE_DISTRIBUTION_FACTOR, algorithm.get("nodeDistributionFactor"));
+			if (algorithm.containsKey("fineTune"))
+				layoutProperties.setProperty(OrganicProperties.IS_FINE_TUNING, true);
+			if (algorithm.containsKey("fineTuningRadius"))
+				layoutProperties.setProperty(OrganicProperties.FINE_TUNING_RADIUS, algorithm.get("fineTuningRadius"));
+			if (algorithm.containsKey("averageNodeArea"))
+				layoutProperties.setProperty(OrganicProperties.AVERAGE_NODE_AREA, algorithm.get("averageNodeArea"));
+			if (algorithm.containsKey("averageScaleFactor"))
+				layoutProperties.setProperty(OrganicProperties.AVERAGE_SCALE_FACTOR, algorithm.get("averageScaleFactor"));
+			if (algorithm.containsKey("maxIterations"))
+				layoutProperties.setProperty(OrganicProperties.MAX_ITERATIONS, algorithm.get("maxIterations"));
+		}
+		else if (algorithm.get("name").equals("box")){
+			layoutAlgorithm = LayoutAlgorithms.BOX;
+			if (algorithm.containsKey("numOfColumns"))
+				layoutProperties.setProperty(BoxProperties.COLUMNS, algorithm.get("numOfColumns"));
+		}
+		else if (algorithm.get("name").equals("concentric")){
+			layoutAlgorithm = LayoutAlgorithms.CONCENTRIC;
+		}
+		else if (((String)algorithm.get("name")).toLowerCase().equals("tutte")){
+			layoutAlgorithm = LayoutAlgorithms.TUTTE;
+			if (algorithm.containsKey("dist"))
+				layoutProperties.setProperty(TutteProperties.DISTANCE, algorithm.get("dist"));
+		}
+		else if (algorithm.get("name").equals("convex")){
+			layoutAlgorithm = LayoutAlgorithms.CONVEX;
+		}
+
+		//TODO  simetricni i konveksni (kada se srede)
+		return new Pair<LayoutAlgorithms, GraphLayoutProperties>(layoutAlgorithm, layoutProperties);
+	}
+
+	/**
+	 * One step of a layout plan. Immutable
+	 */
+	public static final class Step {
+
+		private final Selector selector;
+		private final List<Integer> indices;
+		private final List<String> contents;
+		/**
+		 * Parsed instructions, only read after the step is created
+		 */
+		private final LayoutGraph instructions;
+		/**
+		 * Algorithm resolved during compilation, {@code null} if it depends on the graph
+		 */
+		private final LayoutAlgorithms algorithm;
+		private final Map<PropertyEnums, Object> properties;
+
+		private Step(Selector selector, List<Integer> indices, List<String> contents, LayoutGraph instructions) throws DSLException{
+			this.selector = selector;
+			this.indices = Collections.unmodifiableList(indices);
+			this.contents = Collections.unmodifiableList(contents);
+			this.instructions = instructions;
+			if (instructions.getType().equals("algorithm")){
+				Pair<LayoutAlgorithms, GraphLayoutProperties> algorithmAndProperties = selectAlgorithm(instructions);
+				if (algorithmAndProperties.getKey() == null)
+					throw new DSLException("No suitable algorithm for input");
+				algorithm = algorithmAndProperties.getKey();
+				properties = Collections.unmodifiableMap(
+						new HashMap<PropertyEnums, Object>(algorithmAndProperties.getValue().getProperties()));
+			}
+			else{
+				algorithm = null;
+				properties = null;
+			}
+		}
+
+		/**
+		 * @return Which vertices are laid out
+		 */
+		public Selector getSelector() {
+			return selector;
+		}
+
+		/**
+		 * @return Indices of the laid out vertices if they are selected by indices
+		 */
+		public List<Integer> getIndices() {
+			return indices;
+		}
+
+		/**
+		 * @return Contents of the laid out vertices if they are selected by contents
+		 */
+		public List<String> getContents() {
+			return contents;
+		}
+
+		/**
+		 * @return Algorithm resolved during compilation, or {@code null} if it
+		 * is chosen based on the laid out graph
+		 */
+		public LayoutAlgorithms getAlgorithm() {
+			return algorithm;
+		}
+
+		/**
+		 * @return New properties of the algorithm resolved during compilation, which can be changed
+		 * without affecting the plan, or {@code null} if the algorithm is chosen based on the laid out graph
+		 */
+		public GraphLayoutProperties createLayoutProperties(){
+			if (properties == null)
+				return null;
+			GraphLayoutProperties layoutProperties = new GraphLayoutProperties();
+			for (Map.Entry<PropertyEnums, Object> entry : properties.entrySet())
+				layoutProperties.setProperty(entry.getKey(), entry.getValue());
+			return layoutProperties;
+		}
+
+		LayoutGraph getInstructions() {
+			return instructions;
+		}
+	}
+
+}
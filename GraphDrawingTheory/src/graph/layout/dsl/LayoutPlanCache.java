@@ -0,0 +1,138 @@
+package graph.layout.dsl;
+
+import graph.exception.DSLException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of layout plans compiled from descriptions, which are stored under their source text.
+ * The cache holds at most the given number of plans and evicts the least recently used ones.
+ * Descriptions which don't conform to the dsl are not cached.
+ * The cache can be shared between threads. Two threads compiling the same description at once
+ * might both compile it, but they get the same plan once it is stored.
+ */
+public class LayoutPlanCache {
+
+	/**
+	 * Default maximum number of cached plans
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 64;
+
+	private static final LayoutPlanCache shared = new LayoutPlanCache();
+
+	/**
+	 * Maximum number of cached plans
+	 */
+	private final int maximumSize;
+	/**
+	 * Cached plans, in access order
+	 */
+	private LinkedHashMap<String, LayoutPlan> plans;
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	/**
+	 * Creates a cache with the default maximum size
+	 */
+	public LayoutPlanCache(){
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * Creates a cache with the given maximum size
+	 * @param maximumSize Maximum number of cached plans
+	 */
+	@SuppressWarnings("serial")
+	public LayoutPlanCache(int maximumSize){
+		if (maximumSize < 0)
+			throw new IllegalArgumentException("Maximum size cannot be negative");
+		this.maximumSize = maximumSize;
+		plans = new LinkedHashMap<String, LayoutPlan>(16, 0.75f, true){
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, LayoutPlan> eldest) {
+				if (size() <= LayoutPlanCache.this.maximumSize)
+					return false;
+				evictions++;
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * @return Cache used by layouters which compile their descriptions
+	 */
+	public static LayoutPlanCache getShared(){
+		return shared;
+	}
+
+	/**
+	 * Returns the cached plan compiled from the description, compiling and storing it if there is none
+	 * @param description Textual description of the layout conforming to the dsl
+	 * @return Compiled plan
+	 * @throws DSLException If the description does not conform to the dsl
+	 */
+	public LayoutPlan compile(String description) throws DSLException{
+		synchronized (this) {
+			LayoutPlan plan = plans.get(description);
+			if (plan != null){
+				hits++;
+				return plan;
+			}
+			misses++;
+		}
+		//parse outside of the lock, so that other descriptions can be looked up meanwhile
+		LayoutPlan plan = LayoutPlan.compile(description);
+		synchronized (this) {
+			LayoutPlan previous = plans.get(description);
+			if (previous != null)
+				return previous;
+			plans.put(description, plan);
+		}
+		return plan;
+	}
+
+	/**
+	 * Removes all cached plans. Counters are not reset
+	 */
+	public synchronized void clear(){
+		plans.clear();
+	}
+
+	/**
+	 * @return Number of cached plans
+	 */
+	public synchronized int size(){
+		return plans.size();
+	}
+
+	/**
+	 * @return Maximum number of cached plans
+	 */
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * @return Number of lookups which found a plan
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return Number of lookups which didn't find a plan
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return Number of plans evicted in order not to exceed the maximum size
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+}
@@ -1,11 +1,12 @@
 package graph.layout.force.directed;
 
-import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import edu.uci.ics.jung.graph.util.EdgeType;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
 import graph.layout.AbstractJungLayouter;
 import graph.layout.GraphLayoutProperties;
+import graph.layout.JungGraphAdapter;
 
 /**
  * Abstract class meant to be extended by others using JUNG framework's force-directed algorithms
@@ -18,8 +19,7 @@ public abstract class AbstractForceDirectedLayouter<V extends Vertex, E extends
 
 	@Override
 	protected void createJungGraph(Graph<V,E> graph){
-		jungGraph = new UndirectedSparseGraph<V,E>();
-		super.createJungGraph(graph);
+		jungGraph = new JungGraphAdapter<V,E>(graph, EdgeType.UNDIRECTED);
 	}
 	
 	
@@ -2,21 +2,38 @@ package graph.layout.force.directed;
 
 import edu.uci.ics.jung.algorithms.layout.KKLayout;
 import graph.elements.Edge;
+import graph.elements.Graph;
 import graph.elements.Vertex;
 import graph.layout.GraphLayoutProperties;
+import graph.layout.JungDistanceAdapter;
 import graph.layout.PropertyEnums.KamadaKawaiProperties;
+import graph.traversal.AllPairsShortestPaths;
 
 /**
  * Layouter which uses JUNG framework's Kamada-Kawai layout
+ * Graph theoretic distances the layout needs are calculated in parallel before it is initialized
  * @author Renata
  * @param <V> The vertex type
  * @param <E> The edge type 
  */
 public class KamadaKawaiLayouter<V extends Vertex, E extends Edge<V>> extends AbstractForceDirectedLayouter<V,E> {
 
+	/**
+	 * Numbers of edges on shortest paths between vertices, ignoring edge directions
+	 */
+	private AllPairsShortestPaths<V,E> distances;
+
+	@Override
+	protected void createJungGraph(Graph<V,E> graph){
+		super.createJungGraph(graph);
+		//the JUNG graph of force-directed layouts is undirected, so JUNG's own searches
+		//ignored edge directions and weights as well
+		distances = new AllPairsShortestPaths<V,E>(graph, false, false);
+	}
+
 	@Override
 	protected void initLayouter(GraphLayoutProperties layoutProperties) {
-		KKLayout<V, E> kkLayout = new KKLayout<>(jungGraph);
+		KKLayout<V, E> kkLayout = new KKLayout<>(jungGraph, new JungDistanceAdapter<V,E>(distances));
 
 		kkLayout.setAdjustForGravity(true);
 		
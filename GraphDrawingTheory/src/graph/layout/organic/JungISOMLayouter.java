@@ -1,13 +1,12 @@
 package graph.layout.organic;
 
 import edu.uci.ics.jung.algorithms.layout.ISOMLayout;
-import edu.uci.ics.jung.graph.DirectedSparseGraph;
-import edu.uci.ics.jung.graph.UndirectedSparseGraph;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
 import graph.layout.AbstractJungLayouter;
 import graph.layout.GraphLayoutProperties;
+import graph.layout.JungGraphAdapter;
 
 /**
  * Layouter which uses JUNG grapmework's ISOM layout
@@ -19,11 +18,7 @@ public class JungISOMLayouter<V extends Vertex, E extends Edge<V>> extends Abstr
 
 	@Override
 	protected void createJungGraph(Graph<V,E> graph){
-		if (graph.isDirected())
-			jungGraph = new DirectedSparseGraph<V,E>();
-		else
-			jungGraph = new UndirectedSparseGraph<V,E>();
-		super.createJungGraph(graph);
+		jungGraph = new JungGraphAdapter<V,E>(graph);
 	}
 	
 	
@@ -8,6 +8,7 @@ import graph.drawing.Drawing;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Stopwatch;
 import graph.layout.AbstractLayouter;
 import graph.layout.GraphLayoutProperties;
 import graph.layout.router.orthogonal.OrthogonalEdgeRouter;
@@ -30,7 +31,7 @@ public class VisibilityRepresentationLayout<V extends Vertex, E extends Edge<V>>
 	}
 
 	@Override
-	public Drawing<V, E> layout(Graph<V, E> graph, GraphLayoutProperties layoutProperties) {
+	protected Drawing<V, E> doLayout(Graph<V, E> graph, GraphLayoutProperties layoutProperties, Stopwatch stopwatch) {
 
 		VisibilityRepresentation<V, E> visibilityRepresentation = new VisibilityRepresentation<>(graph);
 
@@ -5,6 +5,7 @@ import graph.drawing.Drawing;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Stopwatch;
 import graph.layout.AbstractLayouter;
 import graph.layout.GraphLayoutProperties;
 
@@ -20,8 +21,8 @@ import java.util.Map;
 public class ConvexLayouter<V extends Vertex, E extends Edge<V>> extends AbstractLayouter<V, E> {
 
 	@Override
-	public Drawing<V, E> layout(Graph<V, E> graph,
-			GraphLayoutProperties layoutProperties) {
+	protected Drawing<V, E> doLayout(Graph<V, E> graph,
+			GraphLayoutProperties layoutProperties, Stopwatch stopwatch) {
 		
 		ConvexDrawing<V, E> convexDrawing = new ConvexDrawing<V, E>(graph);
 
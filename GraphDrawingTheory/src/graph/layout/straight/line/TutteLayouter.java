@@ -6,6 +6,7 @@ import graph.drawing.Drawing;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Stopwatch;
 import graph.layout.GraphLayoutProperties;
 import graph.layout.PropertyEnums.TutteProperties;
 import graph.layout.symmetric.SymmetricLayouter;
@@ -23,15 +24,16 @@ import java.util.Map;
 public class TutteLayouter <V extends Vertex, E extends Edge<V>> extends SymmetricLayouter<V, E>{
 
 	@Override
-	public Drawing<V, E> layout(Graph<V, E> graph,
-			GraphLayoutProperties layoutProperties) {
+	protected Drawing<V, E> doLayout(Graph<V, E> graph,
+			GraphLayoutProperties layoutProperties, Stopwatch stopwatch) {
 
 		if (layoutProperties.getProperty(TutteProperties.DISTANCE) != null)
 			distance =  (Double) layoutProperties.getProperty(TutteProperties.DISTANCE);
 		if (layoutProperties.getProperty(TutteProperties.CENTER) != null)
 			center = (Point2D) layoutProperties.getProperty(TutteProperties.CENTER);
 
-		init(graph);
+		//the drawing doesn't depend on the graph's automorphisms
+		initCenterAndDistance(graph);
 
 		BoyerMyrvoldPlanarity<V, E> boyerMyrvold = new BoyerMyrvoldPlanarity<V,E>();
 		boyerMyrvold.isPlannar(graph);
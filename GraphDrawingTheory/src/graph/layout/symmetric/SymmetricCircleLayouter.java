@@ -5,6 +5,7 @@ import graph.drawing.Drawing;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Stopwatch;
 import graph.layout.GraphLayoutProperties;
 import graph.layout.PropertyEnums.SymmetricProperties;
 import graph.symmetry.Permutation;
@@ -26,7 +27,7 @@ public class SymmetricCircleLayouter <V extends Vertex, E extends Edge<V>> exten
 
 
 	@Override
-	public Drawing<V, E> layout(Graph<V, E> graph, GraphLayoutProperties layoutProperties) {
+	protected Drawing<V, E> doLayout(Graph<V, E> graph, GraphLayoutProperties layoutProperties, Stopwatch stopwatch) {
 
 
 		if (layoutProperties.getProperty(SymmetricProperties.DISTANCE) != null)
@@ -40,7 +41,7 @@ public class SymmetricCircleLayouter <V extends Vertex, E extends Edge<V>> exten
 
 		CyclicSymmetricGraphDrawing<V, E> symmetricDrawing = new CyclicSymmetricGraphDrawing<V,E>(graph);
 		List<List<V>> circles;
-		if (p == null || p.getPermutation().size() == 0)
+		if (p == null || p.size() == 0)
 			circles = symmetricDrawing.execute();
 		else
 			circles = symmetricDrawing.execute(p);
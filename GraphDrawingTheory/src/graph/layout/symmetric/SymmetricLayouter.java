@@ -6,7 +6,6 @@ import graph.elements.Vertex;
 import graph.layout.AbstractLayouter;
 import graph.math.CircleLayoutCalc;
 import graph.symmetry.Permutation;
-import graph.symmetry.nauty.McKayGraphLabelingAlgorithm;
 
 import java.awt.geom.Point2D;
 /**
@@ -24,6 +23,20 @@ public abstract class SymmetricLayouter <V extends Vertex, E extends Edge<V>> ex
 	
 	protected void init(Graph<V,E> graph){
 	
+		initCenterAndDistance(graph);
+		
+		//the first found automorphism is always the identity,
+		//so the automorphism group doesn't need to be formed
+		if (p == null)
+			p = Permutation.identity(graph.getVertices().size());
+	}
+
+	/**
+	 * Sets the center and the distance between vertices, if they were not given
+	 * @param graph Graph which is being laid out
+	 */
+	protected void initCenterAndDistance(Graph<V,E> graph){
+	
 		if (center == null)
 			center = new Point2D.Double(0, 0);
 			
@@ -40,11 +53,6 @@ public abstract class SymmetricLayouter <V extends Vertex, E extends Edge<V>> ex
 			}
 			distance *= 1.3;
 		}
-		
-		if (p == null){
-			McKayGraphLabelingAlgorithm<V, E> graphLavelingAlg = new McKayGraphLabelingAlgorithm<>();
-			p = graphLavelingAlg.findAutomorphisms(graph).get(0);
-		}
 	}
 
 }
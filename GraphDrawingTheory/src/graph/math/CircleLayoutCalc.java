@@ -176,6 +176,13 @@ public class CircleLayoutCalc<V extends Vertex> {
 
 			double r_current = Math.min(r_x, r_y);
 			
+			//when there are many vertices, neighbouring ones are nearly parallel in both directions
+			//so the distance along the chord between them is used
+			if (r_x == 0 && r_y == 0)
+				r_current = (Math.max(currentV.getSize().getWidth(), currentV.getSize().getHeight()) 
+						+ Math.max(previousV.getSize().getWidth(), previousV.getSize().getHeight()) + treshold)
+						/ (4 * Math.sin(slice / 2));
+			
 			if (radius < r_current)
 				radius = r_current;
 		}
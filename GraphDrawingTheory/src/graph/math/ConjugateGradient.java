@@ -0,0 +1,94 @@
+package graph.math;
+
+/**
+ * Solves systems of linear equations with a symmetric positive definite sparse matrix
+ * using the conjugate gradient method, preconditioned by the matrix's diagonal.
+ * Several systems with the same matrix and different right-hand sides are solved
+ * jointly, each iteration going through the matrix only once.
+ * The method is iterative, and starts from the given approximation of the solution, so
+ * a good starting point, such as a solution of a similar system, reduces the number of iterations
+ */
+public class ConjugateGradient {
+
+	/**
+	 * Solves the systems {@code A x[k] = b[k]}
+	 * @param A Symmetric positive definite matrix
+	 * @param b Right-hand sides
+	 * @param x Initial approximations of the solutions, replaced by the solutions
+	 * @param tolerance Maximal norm of the residual of each system, relative to the norm of its right-hand side
+	 * @param maxIterations Maximal number of iterations
+	 * @return Number of performed iterations
+	 */
+	public static int solve(SparseMatrix A, double[][] b, double[][] x, double tolerance, int maxIterations){
+		int n = A.size();
+		int count = b.length;
+		double[][] r = new double[count][n];
+		double[][] z = new double[count][n];
+		double[][] p = new double[count][n];
+		double[][] q = new double[count][n];
+		double[] rz = new double[count];
+		double[] limit = new double[count];
+		boolean[] converged = new boolean[count];
+
+		//r = b - A x, z = D^-1 r, p = z
+		A.multiply(x, q);
+		int remaining = count;
+		for (int k = 0; k < count; k++){
+			double bNorm = 0;
+			double rNorm = 0;
+			for (int i = 0; i < n; i++){
+				r[k][i] = b[k][i] - q[k][i];
+				z[k][i] = r[k][i] / A.getDiagonal(i);
+				p[k][i] = z[k][i];
+				rz[k] += r[k][i] * z[k][i];
+				bNorm += b[k][i] * b[k][i];
+				rNorm += r[k][i] * r[k][i];
+			}
+			limit[k] = tolerance * tolerance * Math.max(bNorm, Double.MIN_NORMAL);
+			if (rNorm <= limit[k]){
+				converged[k] = true;
+				remaining--;
+			}
+		}
+
+		int iteration = 0;
+		while (remaining > 0 && iteration < maxIterations){
+			iteration++;
+			A.multiply(p, q);
+			for (int k = 0; k < count; k++){
+				if (converged[k])
+					continue;
+				double pq = 0;
+				for (int i = 0; i < n; i++)
+					pq += p[k][i] * q[k][i];
+				if (pq <= 0){
+					//the search direction vanished, the system is solved as well as it can be
+					converged[k] = true;
+					remaining--;
+					continue;
+				}
+				double alpha = rz[k] / pq;
+				double rNorm = 0;
+				double newRz = 0;
+				for (int i = 0; i < n; i++){
+					x[k][i] += alpha * p[k][i];
+					r[k][i] -= alpha * q[k][i];
+					z[k][i] = r[k][i] / A.getDiagonal(i);
+					rNorm += r[k][i] * r[k][i];
+					newRz += r[k][i] * z[k][i];
+				}
+				if (rNorm <= limit[k]){
+					converged[k] = true;
+					remaining--;
+					continue;
+				}
+				double beta = newRz / rz[k];
+				rz[k] = newRz;
+				for (int i = 0; i < n; i++)
+					p[k][i] = z[k][i] + beta * p[k][i];
+			}
+		}
+		return iteration;
+	}
+
+}
@@ -3,35 +3,36 @@ package graph.math;
 /**
  * A class which provides an implementation of Cramer's rule for solving
  * a system of equations
+ * Determinants are calculated by Gaussian elimination with partial pivoting.
+ * For large sparse systems, {@link ConjugateGradient} should be used instead
  * @author Renata
  */
 public class CramersRule {
 
 	private static double determinant(double A[][], int N) {
 		
-		double[][] m;
-		double res;
-		if(N == 1)
-			res = A[0][0];
-		else if(N == 2) {
-			res = (A[0][0]*A[1][1]) - (A[1][0]*A[0][1]);
-		}
-		else{
-			res=0; 
-			for(int j1=0;j1<N;j1++) { 
-				m = new double[N-1][]; 
-				for(int k=0;k<(N-1);k++)
-					m[k] = new double[N-1];
-				for(int i=1;i<N;i++) {
-					int j2=0; 
-					for(int j=0;j<N;j++) { 
-						if(j == j1)
-							continue; 
-						m[i-1][j2] = A[i][j]; 
-						j2++;
-					} 
-				} 
-				res += Math.pow(-1.0,1.0+j1+1.0)* A[0][j1] * determinant(m,N-1);
+		double[][] m = new double[N][];
+		for (int i = 0; i < N; i++)
+			m[i] = A[i].clone();
+		double res = 1;
+		for (int column = 0; column < N; column++){
+			int pivot = column;
+			for (int i = column + 1; i < N; i++)
+				if (Math.abs(m[i][column]) > Math.abs(m[pivot][column]))
+					pivot = i;
+			if (m[pivot][column] == 0)
+				return 0;
+			if (pivot != column){
+				double[] temp = m[pivot];
+				m[pivot] = m[column];
+				m[column] = temp;
+				res = -res;
+			}
+			res *= m[column][column];
+			for (int i = column + 1; i < N; i++){
+				double factor = m[i][column] / m[column][column];
+				for (int j = column + 1; j < N; j++)
+					m[i][j] -= factor * m[column][j];
 			}
 		}
 		return res;
@@ -49,6 +50,7 @@ public class CramersRule {
 		int N = A.length;
 		double temp[][] = new double[N][N];
 		double x[] = new double[N]; 
+		double determinant = determinant(A, N);
 		for(int i=0;i<N;i++) {
 			for(int j=0;j<N;j++){ 
 				for(int k=0;k<N;k++){
@@ -57,12 +59,9 @@ public class CramersRule {
 					else temp[j][k] = A[j][k];
 				}
 			}
-			x[i]=determinant(temp,N)/determinant(A,N);
+			x[i]=determinant(temp,N)/determinant;
 		}
-		for(int i=0;i<N;i++){ 
-			System.out.println(x[i]);
-		} 
 		return x;
 	}
 
-}
\ No newline at end of file
+}
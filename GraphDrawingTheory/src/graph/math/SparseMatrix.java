@@ -0,0 +1,78 @@
+package graph.math;
+
+/**
+ * Class represents a square sparse matrix in the compressed sparse row format.
+ * Non-zero values of row {@code i} are stored at positions {@code rowStarts[i]} to
+ * {@code rowStarts[i + 1] - 1} of the values array, together with their columns.
+ * Values on the main diagonal are stored separately, since iterative solvers need them
+ */
+public class SparseMatrix {
+
+	/**
+	 * Number of rows and columns
+	 */
+	private int size;
+	/**
+	 * Start of each row, has one more element than there are rows
+	 */
+	private int[] rowStarts;
+	/**
+	 * Columns and values of the off-diagonal non-zero elements, row by row
+	 */
+	private int[] columns;
+	private double[] values;
+	/**
+	 * Values on the main diagonal
+	 */
+	private double[] diagonal;
+
+	/**
+	 * Constructs a matrix from its rows
+	 * @param rowStarts Start of each row in the columns and values arrays, one more element than there are rows
+	 * @param columns Columns of off-diagonal non-zero elements
+	 * @param values Off-diagonal non-zero elements
+	 * @param diagonal Elements of the main diagonal
+	 */
+	public SparseMatrix(int[] rowStarts, int[] columns, double[] values, double[] diagonal){
+		this.size = diagonal.length;
+		this.rowStarts = rowStarts;
+		this.columns = columns;
+		this.values = values;
+		this.diagonal = diagonal;
+	}
+
+	/**
+	 * Multiplies the matrix with several vectors at once, going through the matrix only once
+	 * @param x Vectors to multiply, {@code x[k]} is the k-th vector
+	 * @param result Arrays where the products are stored, {@code result[k]} is the product with {@code x[k]}
+	 */
+	public void multiply(double[][] x, double[][] result){
+		int count = x.length;
+		for (int row = 0; row < size; row++){
+			for (int k = 0; k < count; k++)
+				result[k][row] = diagonal[row] * x[k][row];
+			for (int position = rowStarts[row]; position < rowStarts[row + 1]; position++){
+				int column = columns[position];
+				double value = values[position];
+				for (int k = 0; k < count; k++)
+					result[k][row] += value * x[k][column];
+			}
+		}
+	}
+
+	/**
+	 * @return Number of rows and columns
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * @param row Row
+	 * @return Value on the main diagonal in the given row
+	 */
+	public double getDiagonal(int row){
+		return diagonal[row];
+	}
+
+}
@@ -3,6 +3,8 @@ package graph.properties;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Instrumentation;
+import graph.instrumentation.Task;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -38,6 +40,15 @@ public class Bipartite<V extends Vertex,E extends Edge<V>> {
 	 * @return {@code true} if the graph is bipartite, {@code false} otherwise
 	 */
 	public boolean isBipartite(){
+		return Instrumentation.time(Bipartite.class, "isBipartite", new Task<Boolean, RuntimeException>() {
+			@Override
+			public Boolean run() {
+				return doIsBipartite();
+			}
+		});
+	}
+
+	private boolean doIsBipartite(){
 		
 		isBipartite = true;
 		colour.clear();
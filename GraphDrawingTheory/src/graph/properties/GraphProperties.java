@@ -1,18 +1,20 @@
 package graph.properties;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import Jama.EigenvalueDecomposition;
 import Jama.Matrix;
-import graph.algorithm.cycles.JohnsonSimpleCycles;
+import graph.algorithm.cycles.SimpleCyclesFinder;
+import graph.elements.CompactGraph;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Instrumentation;
+import graph.instrumentation.Stopwatch;
+import graph.instrumentation.Task;
 import graph.properties.splitting.BiconnectedSplitting;
-import graph.traversal.DFSTreeTraversal;
-import graph.traversal.DijkstraAlgorithm;
-import graph.trees.dfs.DFSTree;
 
 /**
  * A class containing methods for checking various properties
@@ -23,6 +25,15 @@ import graph.trees.dfs.DFSTree;
  */
 public class GraphProperties<V extends Vertex,E extends Edge<V>>{
 
+	/**
+	 * Instrumentation phase in which the compact snapshot of the graph is taken
+	 */
+	public static final String SNAPSHOT_PHASE = "snapshot";
+	/**
+	 * Instrumentation phase in which the snapshot is traversed
+	 */
+	public static final String TRAVERSAL_PHASE = "traversal";
+
 	/**
 	 * Graph which is being analyzed
 	 */
@@ -37,18 +48,16 @@ public class GraphProperties<V extends Vertex,E extends Edge<V>>{
 	 * @return {@code true} if the graph is connected {@code false} otherwise
 	 */
 	public boolean isConnected(){
-		
-		int size = graph.getVertices().size();
-		Boolean[] visited = new Boolean[size];
-
-		dfs(graph, graph.getVertices().get(0), 0, visited,  new Integer[size], new Integer[size], 
-				new Integer[size], new Integer[size], new Boolean[size]);
-		
-		for (Boolean v : visited)
-			if (v == null)
-				return false;
-		return true;
-		
+		Stopwatch stopwatch = Instrumentation.start("GraphProperties isConnected");
+		try{
+			stopwatch.phase(SNAPSHOT_PHASE);
+			CompactGraph<V,E> compact = graph.freeze();
+			stopwatch.phase(TRAVERSAL_PHASE);
+			return compact.isConnected();
+		}
+		finally{
+			stopwatch.stop();
+		}
 	}
 
 	/**
@@ -56,23 +65,24 @@ public class GraphProperties<V extends Vertex,E extends Edge<V>>{
 	 * @return A list containing all cut vertices
 	 */
 	public List<V> getCutVertices(){
-		List<V> ret = new ArrayList<V>();
-		int size = graph.getVertices().size();
-		Boolean[] visited = new Boolean[size];
-		Integer[] depth = new Integer[size];
-		Integer[] low = new Integer[size];
-		Integer[] parent = new Integer[size];
-		Integer[] childCount = new Integer[size];
-		Boolean[] isArticulation = new Boolean[size];
+		Stopwatch stopwatch = Instrumentation.start("GraphProperties getCutVertices");
+		try{
+			List<V> ret = new ArrayList<V>();
+			stopwatch.phase(SNAPSHOT_PHASE);
+			CompactGraph<V,E> compact = graph.freeze();
+			stopwatch.phase(TRAVERSAL_PHASE);
+			boolean[] isArticulation = new boolean[compact.vertexCount()];
+			dfs(compact, isArticulation);
 
-		dfs(graph, graph.getVertices().get(0), 0, visited, depth, low, parent, childCount, isArticulation);
-		
-		for (int i = 0; i < size; i++)
-			if ((parent[i] != null && isArticulation[i]) || (parent[i] == null && childCount[i] > 1))
-				ret.add(graph.getVertices().get(i));
-		
-		
-		return ret;
+			for (int i = 0; i < isArticulation.length; i++)
+				if (isArticulation[i])
+					ret.add(compact.vertex(i));
+
+			return ret;
+		}
+		finally{
+			stopwatch.stop();
+		}
 	}
 
 	/**
@@ -80,36 +90,90 @@ public class GraphProperties<V extends Vertex,E extends Edge<V>>{
 	 * @return {@code true} if graph is biconnected, @{code false} otherwise
 	 */
 	public boolean isBiconnected(){
-		return getCutVertices().size() == 0;
+		Stopwatch stopwatch = Instrumentation.start("GraphProperties isBiconnected");
+		try{
+			stopwatch.phase(SNAPSHOT_PHASE);
+			CompactGraph<V,E> compact = graph.freeze();
+			stopwatch.phase(TRAVERSAL_PHASE);
+			boolean[] isArticulation = new boolean[compact.vertexCount()];
+			if (dfs(compact, isArticulation) > 1)
+				return false;
+			for (boolean articulation : isArticulation)
+				if (articulation)
+					return false;
+			return true;
+		}
+		finally{
+			stopwatch.stop();
+		}
 	}
 
-	
-	private void dfs(Graph<V,E> graph, V current, int d,
-			Boolean[] visited, Integer[] depth, Integer[] low, Integer[] parent, 
-			Integer[] childCount, Boolean[] isArticulation){
+	/**
+	 * Iterative depth-first search which finds articulation points (cut vertices) of all components
+	 * of the graph in linear time
+	 * @param graph Compact representation of the graph
+	 * @param isArticulation Array which is filled with {@code true} values for cut vertices
+	 * @return Number of connected components
+	 */
+	private int dfs(CompactGraph<V,E> graph, boolean[] isArticulation){
+
+		int size = graph.vertexCount();
+		int[] depth = new int[size];
+		int[] low = new int[size];
+		int[] parent = new int[size];
+		int[] next = new int[size];
+		int[] stack = new int[size];
+		int components = 0;
 
-		int i = graph.getVertices().indexOf(current);
+		Arrays.fill(depth, -1);
 
-		visited[i] = true;
-		depth[i] = d;
-		low[i] = d;
-		childCount[i] = 0;
-		isArticulation[i] = false;
+		for (int root = 0; root < size; root++){
+			if (depth[root] != -1)
+				continue;
+			components++;
+
+			int rootChildren = 0;
+			int top = 0;
+			depth[root] = 0;
+			low[root] = 0;
+			parent[root] = -1;
+			next[root] = graph.offset(root);
+			stack[top++] = root;
 
-		for (V adjacent : graph.adjacentVertices(current)){
-			int ni = graph.getVertices().indexOf(adjacent);
-			if (visited[ni] == null){
-				parent[ni] = i;
-				dfs(graph, adjacent, d + 1, visited, depth, low, parent, childCount, isArticulation);
-				childCount[i] ++;
-				if (low[ni] >= depth[i])
-					isArticulation[i] = true;
-				low[i] = Math.min(low[i], low[ni]);
+			while (top > 0){
+				int current = stack[top - 1];
+				if (next[current] < graph.offset(current + 1)){
+					int adjacent = graph.target(next[current]++);
+					if (adjacent == -1)
+						continue;
+					if (depth[adjacent] == -1){
+						parent[adjacent] = current;
+						depth[adjacent] = depth[current] + 1;
+						low[adjacent] = depth[adjacent];
+						next[adjacent] = graph.offset(adjacent);
+						stack[top++] = adjacent;
+						if (current == root)
+							rootChildren++;
+					}
+					else if (adjacent != parent[current])
+						low[current] = Math.min(low[current], depth[adjacent]);
+				}
+				else{
+					top--;
+					int p = parent[current];
+					if (p != -1){
+						low[p] = Math.min(low[p], low[current]);
+						if (p != root && low[current] >= depth[p])
+							isArticulation[p] = true;
+					}
+				}
 			}
-			else if (parent[i] == null || ni != parent[i])
-				low[i] = Math.min(low[i], depth[ni]);
+
+			if (rootChildren > 1)
+				isArticulation[root] = true;
 		}
 
+		return components;
 	}
 	
 	/**
@@ -139,20 +203,77 @@ public class GraphProperties<V extends Vertex,E extends Edge<V>>{
 	 * @return {@code true} if graph is connected, {@code false} otherwise
 	 */
 	public boolean isConnected(List<V> excluding){
-		DijkstraAlgorithm<V, E> dijkstra = new DijkstraAlgorithm<V,E>(graph);
-		for (V v1 : graph.getVertices()){
-			if (excluding.contains(v1))
-				continue;
-			for (V v2 : graph.getVertices()){
-				if (v1 == v2)
-					continue;
-				if (excluding.contains(v2))
-					continue;
-				if (dijkstra.getPath(v1, v2, excluding) == null) 
-					return false;
+		Stopwatch stopwatch = Instrumentation.start("GraphProperties isConnected excluding");
+		try{
+			stopwatch.phase(SNAPSHOT_PHASE);
+			CompactGraph<V,E> compact = graph.freeze();
+			stopwatch.phase(TRAVERSAL_PHASE);
+			int n = compact.vertexCount();
+			//excluded vertices are marked as already visited, so traversals never enter them
+			int[] visited = new int[n];
+			int remaining = n;
+			for (V v : excluding){
+				int id = compact.vertexId(v);
+				if (id != -1 && visited[id] == 0){
+					visited[id] = 1;
+					remaining--;
+				}
 			}
+			int source = 0;
+			while (source < n && visited[source] == 1)
+				source++;
+			if (source == n)
+				return true;
+
+			int[] order = new int[n];
+			if (!compact.isDirected())
+				return compact.bfs(source, order, visited, 1) == remaining;
+
+			//every vertex has to be reachable from the source, and the source from every vertex
+			int[] excluded = visited.clone();
+			if (reach(compact, source, order, visited, true) != remaining)
+				return false;
+			return reach(compact, source, order, excluded, false) == remaining;
+		}
+		finally{
+			stopwatch.stop();
 		}
-		return true;
+	}
+
+	/**
+	 * Counts vertices reachable from the source following directed edges forwards or backwards.
+	 * Vertices marked with 1 are skipped, visited ones are marked with 2
+	 */
+	private int reach(CompactGraph<V,E> compact, int source, int[] order, int[] visited, boolean forward){
+		int head = 0;
+		int tail = 0;
+		visited[source] = 2;
+		order[tail++] = source;
+		while (head < tail){
+			int current = order[head++];
+			if (forward){
+				for (int i = compact.outOffset(current); i < compact.outOffset(current + 1); i++){
+					int next = compact.outTarget(i);
+					if (next != -1 && visited[next] == 0){
+						visited[next] = 2;
+						order[tail++] = next;
+					}
+				}
+			}
+			else{
+				for (int i = compact.offset(current); i < compact.offset(current + 1); i++){
+					int edge = compact.incidentEdge(i);
+					if (compact.destination(edge) != current)
+						continue;
+					int next = compact.origin(edge);
+					if (next != -1 && visited[next] == 0){
+						visited[next] = 2;
+						order[tail++] = next;
+					}
+				}
+			}
+		}
+		return tail;
 	}
 
 	/**
@@ -160,21 +281,19 @@ public class GraphProperties<V extends Vertex,E extends Edge<V>>{
 	 * @return {@code true} if graph is cyclic, @{code false} otherwise
 	 */
 	public boolean isCyclic(){
+		return Instrumentation.time(GraphProperties.class, "isCyclic", new Task<Boolean, RuntimeException>() {
+			@Override
+			public Boolean run() {
+				return doIsCyclic();
+			}
+		});
+	}
 
-		//if graph is not directed
-		//form a dfs tree and check if it has back edges
-		if (!graph.isDirected()){
-			DFSTreeTraversal<V, E> traversal = new  DFSTreeTraversal<V,E>(graph);
-			DFSTree<V, E> tree = traversal.formDFSTree(graph.getVertices().get(0));
-			return tree.getBackEdges().size() > 0;
-		}
-		//if graph is directed
-		//a more sophisticated algorithm is needed
-		//using johnson's
-		else{
-			JohnsonSimpleCycles<V,E> johnsonCycles = new JohnsonSimpleCycles<V,E>(graph, true);
-			return johnsonCycles.findSimpleCycles().size() > 0;
-		}
+	private boolean doIsCyclic(){
+		//cycles are searched for one by one, using Paton's algorithm
+		//if the graph is not directed and Johnson's if it is,
+		//and the search stops at the first one
+		return new SimpleCyclesFinder<V,E>().hasCycle(graph);
 	}
 	
 	/**
@@ -182,6 +301,15 @@ public class GraphProperties<V extends Vertex,E extends Edge<V>>{
 	 * @return {@code true} if graph is a tree, @{code false} otherwise
 	 */
 	public boolean isTree(){
+		return Instrumentation.time(GraphProperties.class, "isTree", new Task<Boolean, RuntimeException>() {
+			@Override
+			public Boolean run() {
+				return doIsTree();
+			}
+		});
+	}
+
+	private boolean doIsTree(){
 		return !isCyclic() && isConnected();
 	}
 	
@@ -224,6 +352,15 @@ public class GraphProperties<V extends Vertex,E extends Edge<V>>{
 	 * @return A list of grap's biconnected components
 	 */
 	public List<Graph<V, E>> listBiconnectedComponents(){
+		return Instrumentation.time(GraphProperties.class, "listBiconnectedComponents", new Task<List<Graph<V, E>>, RuntimeException>() {
+			@Override
+			public List<Graph<V, E>> run() {
+				return doListBiconnectedComponents();
+			}
+		});
+	}
+
+	private List<Graph<V, E>> doListBiconnectedComponents(){
 		BiconnectedSplitting<V,E> biconnected = new BiconnectedSplitting<V,E>(graph);
 		return biconnected.findBiconnectedComponents();
 	}
@@ -233,6 +370,15 @@ public class GraphProperties<V extends Vertex,E extends Edge<V>>{
 	 * @return {@code true} if graph is a ring, @{code false} otherwise
 	 */
 	public boolean isRing(){
+		return Instrumentation.time(GraphProperties.class, "isRing", new Task<Boolean, RuntimeException>() {
+			@Override
+			public Boolean run() {
+				return doIsRing();
+			}
+		});
+	}
+
+	private boolean doIsRing(){
 		//a graph is a ring if it is basically one cycle
 		
 		//rings have as many vertices as edges
@@ -1,37 +1,51 @@
 package graph.properties.splitting;
 
+import graph.elements.CompactGraph;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Stack;
 
 /**
  * Finds all biconnected components of a graph
- * efficiently, by using the depth-first search 
+ * efficiently, by using the depth-first search
  * Since the components should have the same features as block
- * Like removal of vertex which also removed the edge, being able to find its cut vertices etc. 
+ * Like removal of vertex which also removed the edge, being able to find its cut vertices etc.
  * There is no specific class to represent the component, it is also a graph
+ * The search is performed iteratively on a compact snapshot of the graph, so it runs in linear time
+ * and doesn't depend on the depth of the graph. Components are indexed if the graph is indexed.
  * @author Renata
  * @param <V> The vertex type
- * @param <E> The edge type 
+ * @param <E> The edge type
  */
 public class BiconnectedSplitting<V extends Vertex, E extends Edge<V>> {
 
-	private boolean[] visited;
-	private int[] parent, d, low;
-	private int count;
-	private Stack<E> stack;
+	private int[] parentEdge, d, low, next, vertexStack, edgeStack;
+	private int count, edgeTop;
+	/**
+	 * Number of components containing each vertex and the last component a vertex was added to
+	 */
+	private int[] componentCounts, lastComponent;
+	/**
+	 * Ids of vertices of all components, component by component
+	 */
+	private int[] componentVertices;
+	/**
+	 * Start of each component's vertices in the {@code componentVertices} array
+	 */
+	private int[] componentStarts;
+	private int componentCount, componentVerticesSize;
+	private CompactGraph<V,E> compact;
 	private Graph<V,E> graph;
-	private List<V> vertices;
 
 
 	public BiconnectedSplitting(Graph<V,E> graph){
 		this.graph = graph;
 	}
-	
+
 	/**
 	 * Divides the graph into biconnected components
 	 * and return them
@@ -40,64 +54,144 @@ public class BiconnectedSplitting<V extends Vertex, E extends Edge<V>> {
 	public List<Graph<V,E>> findBiconnectedComponents(){
 
 		//initialization
-		vertices = graph.getVertices();
-		int n = vertices.size();
-		visited = new boolean[n];
-		parent = new int[n];
+		compact = graph.freeze();
+		int n = compact.vertexCount();
+		parentEdge = new int[n];
 		d = new int[n];
 		low = new int[n];
-		stack = new Stack<E>();
+		next = new int[n];
+		vertexStack = new int[n];
+		edgeStack = new int[compact.edgeCount()];
+		componentCounts = new int[n];
+		lastComponent = new int[n];
+		Arrays.fill(lastComponent, -1);
+		componentVertices = new int[Math.max(n, 4)];
+		componentStarts = new int[Math.max(n, 4)];
 		count = 0;
+		edgeTop = 0;
+		componentCount = 0;
+		componentVerticesSize = 0;
 
 		List<Graph<V,E>> components = new ArrayList<Graph<V,E>>();
-		vertices = graph.getVertices();
-
-		for (V u : vertices)
-			if (!visited[vertices.indexOf(u)])
+		for (int u = 0; u < n; u++)
+			if (d[u] == 0)
 				dfsVisit(u, components);
 
 		return components;
 	}
 
-	private void dfsVisit(V u, List<Graph<V,E>> components){
-		int uIndex = vertices.indexOf(u);
-		visited[uIndex] = true;
-		count ++;
-		d[uIndex] = count;
-		low[uIndex] = d[uIndex];
-		for (E e : graph.adjacentEdges(u)){
-			V v = e.getOrigin() == u ? e.getDestination() : e.getOrigin();
-			int vIndex = vertices.indexOf(v);
-
-			if (!visited[vIndex]){
-				stack.push(e);
-				parent[vIndex] = uIndex;
-				dfsVisit(v, components);
-				if (low[vIndex] >= d[uIndex])
-					components.add(formComponent(e));
-				low[uIndex] = Math.min(low[uIndex],low[vIndex]);
+	private void dfsVisit(int root, List<Graph<V,E>> components){
+		int top = 0;
+		d[root] = low[root] = ++count;
+		parentEdge[root] = -1;
+		next[root] = compact.offset(root);
+		vertexStack[top++] = root;
+		while (top > 0){
+			int u = vertexStack[top - 1];
+			if (next[u] < compact.offset(u + 1)){
+				int position = next[u]++;
+				int v = compact.target(position);
+				int e = compact.incidentEdge(position);
+				if (v == -1 || v == u || e == parentEdge[u])
+					continue;
+				if (d[v] == 0){
+					edgeStack[edgeTop++] = e;
+					parentEdge[v] = e;
+					d[v] = low[v] = ++count;
+					next[v] = compact.offset(v);
+					vertexStack[top++] = v;
+				}
+				else if (d[v] < d[u]){
+					//(u,v) is a back edge from u to its ancestor
+					edgeStack[edgeTop++] = e;
+					low[u] = Math.min(low[u], d[v]);
+				}
 			}
-			else if (parent[uIndex] != vIndex && d[vIndex] < d[uIndex]){
-				//(u,v) is a back edge from u to its ancestor
-				stack.push(e);
-				low[uIndex] = Math.min(low[uIndex], d[vIndex]);
+			else{
+				top--;
+				if (top == 0)
+					break;
+				int parent = vertexStack[top - 1];
+				if (low[u] >= d[parent])
+					components.add(formComponent(parentEdge[u]));
+				low[parent] = Math.min(low[parent], low[u]);
 			}
 		}
 	}
 
-	@SuppressWarnings("unchecked")
-	private Graph<V,E> formComponent(E e){
-		Graph<V,E> component = new Graph<V,E>();
-		E pop = null;
+	private Graph<V,E> formComponent(int e){
+		Graph<V,E> component = new Graph<V,E>(false, graph.isIndexed());
+		if (componentCount + 1 >= componentStarts.length)
+			componentStarts = Arrays.copyOf(componentStarts, 2 * componentStarts.length);
+		componentStarts[componentCount] = componentVerticesSize;
+		int pop;
 		do {
-			pop = stack.pop();
-			component.addVertex(pop.getOrigin(), pop.getDestination());
-			component.addEdge(pop);
+			pop = edgeStack[--edgeTop];
+			E edge = compact.edge(pop);
+			addComponentVertex(component, compact.origin(pop), edge.getOrigin());
+			addComponentVertex(component, compact.destination(pop), edge.getDestination());
+			component.addEdge(edge);
 		}
 		while (pop != e);
+		componentCount++;
+		componentStarts[componentCount] = componentVerticesSize;
 
 		return component;
 	}
 
+	private void addComponentVertex(Graph<V,E> component, int id, V v){
+		if (lastComponent[id] == componentCount)
+			return;
+		lastComponent[id] = componentCount;
+		componentCounts[id]++;
+		if (componentVerticesSize == componentVertices.length)
+			componentVertices = Arrays.copyOf(componentVertices, 2 * componentVertices.length);
+		componentVertices[componentVerticesSize++] = id;
+		component.addVertex(v);
+	}
+
+	/**
+	 * Finds cut vertices of the graph, which are the vertices contained in more than one component.
+	 * Should be called after the components are found
+	 * @return A list of all cut vertices, in the order in which they appear in the graph
+	 */
+	public List<V> getCutVertices(){
+		List<V> cutVertices = new ArrayList<V>();
+		for (int i = 0; i < componentCounts.length; i++)
+			if (componentCounts[i] > 1)
+				cutVertices.add(compact.vertex(i));
+		return cutVertices;
+	}
+
+	/**
+	 * Finds cut vertices contained in each of the components, in linear time.
+	 * Should be called after the components are found
+	 * @return A list containing the list of cut vertices of every component, in the order
+	 * in which the components were returned. Cut vertices of a component are listed
+	 * in the order in which they appear in the graph
+	 */
+	public List<List<V>> getComponentCutVertices(){
+		//index components containing each cut vertex
+		int n = componentCounts.length;
+		int[] starts = new int[n + 1];
+		for (int i = 0; i < n; i++)
+			starts[i + 1] = starts[i] + (componentCounts[i] > 1 ? componentCounts[i] : 0);
+		int[] vertexComponents = new int[starts[n]];
+		int[] filled = Arrays.copyOf(starts, n);
+		for (int i = 0; i < componentCount; i++)
+			for (int j = componentStarts[i]; j < componentStarts[i + 1]; j++){
+				int v = componentVertices[j];
+				if (componentCounts[v] > 1)
+					vertexComponents[filled[v]++] = i;
+			}
+
+		List<List<V>> ret = new ArrayList<List<V>>(componentCount);
+		for (int i = 0; i < componentCount; i++)
+			ret.add(new ArrayList<V>());
+		for (int v = 0; v < n; v++)
+			for (int j = starts[v]; j < starts[v + 1]; j++)
+				ret.get(vertexComponents[j]).add(compact.vertex(v));
+		return ret;
+	}
 
 }
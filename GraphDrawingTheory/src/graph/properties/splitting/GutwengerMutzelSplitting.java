@@ -0,0 +1,1033 @@
+package graph.properties.splitting;
+
+import graph.elements.CompactGraph;
+import graph.elements.Edge;
+import graph.elements.Graph;
+import graph.elements.Vertex;
+import graph.properties.components.SplitTriconnectedComponentType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Linear time division of a biconnected multigraph into its triconnected components.
+ * Implementation of Hopcroft and Tarjan's algorithm with the corrections given in:
+ * C. Gutwenger and P. Mutzel, A linear time implementation of SPQR-trees,
+ * Graph Drawing 2000, LNCS 1984, 77–90.
+ * The graph is not modified and no edge objects are created. Vertices and real edges are identified
+ * by their ids in the graph's {@link CompactGraph} snapshot, while virtual edges get ids
+ * starting from the number of real edges. Virtual edges which disappear when bonds or polygons
+ * are merged are dropped and the remaining ones renumbered, so every real edge belongs to exactly one
+ * component and every virtual edge to exactly two. Components of the same type never share a virtual edge
+ * unless they are triconnected graphs, so the components are unique.
+ * All searches are iterative, so graphs of any size can be divided.
+ * @param <V> The vertex type
+ * @param <E> The edge type
+ */
+public class GutwengerMutzelSplitting<V extends Vertex, E extends Edge<V>> {
+
+	private static final int UNSEEN = 0;
+	private static final int TREE = 1;
+	private static final int FROND = 2;
+	private static final int REMOVED = 3;
+
+	private static final int BOND = 0;
+	private static final int POLYGON = 1;
+	private static final int TRICONNECTED = 2;
+
+	/**
+	 * Snapshot of the divided graph
+	 */
+	private CompactGraph<V,E> compact;
+	/**
+	 * Number of vertices
+	 */
+	private int n;
+	/**
+	 * Number of real edges
+	 */
+	private int m;
+
+	/**
+	 * Number of real and virtual edges created so far
+	 */
+	private int edgeCount;
+	/**
+	 * Origins and targets of edges. After the first search, tree arcs are directed
+	 * from fathers to sons and fronds from descendants to ancestors
+	 */
+	private int[] source, target;
+	private int[] type;
+	/**
+	 * Indicators if an edge starts a path
+	 */
+	private boolean[] start;
+
+	/**
+	 * Ordered adjacency lists, linked through the edges, since every
+	 * edge belongs to the list of its source
+	 */
+	private int[] adjacencyHead, adjacencyTail, adjacencyNext, adjacencyPrevious;
+	private boolean[] inAdjacency;
+
+	/**
+	 * Lists of values of vertices from which fronds enter a vertex
+	 */
+	private int[] highHead, highTail;
+	private int[] highValue, highNext, highPrevious, highOwner;
+	private int highCount;
+	/**
+	 * Entry of the high list which belongs to an edge, -1 if there is none
+	 */
+	private int[] inHigh;
+
+	private int[] number, lowpt1, lowpt2, nd, father, treeArc, degree, newnum, nodeAt;
+	private int startVertex;
+
+	private int[] edgeStack;
+	private int edgeTop;
+	/**
+	 * Stack of triples (h, a, b), end of stack markers have {@code a = -1}
+	 */
+	private int[] tripleH, tripleA, tripleB;
+	private int tripleTop;
+
+	private List<Component> components;
+
+	/**
+	 * Types and edges of the resulting components
+	 */
+	private SplitTriconnectedComponentType[] componentTypes;
+	private int[][] componentEdges;
+
+	/**
+	 * Creates the splitting of the given biconnected graph. Components are found
+	 * by calling {@link #execute()}
+	 * @param graph Biconnected graph without self loops
+	 */
+	public GutwengerMutzelSplitting(Graph<V,E> graph){
+		compact = graph.freeze();
+	}
+
+	/**
+	 * Divides the graph into triconnected components
+	 */
+	public void execute(){
+		n = compact.vertexCount();
+		m = compact.edgeCount();
+		components = new ArrayList<Component>();
+
+		int capacity = Math.max(16, 2 * m + 4);
+		source = new int[capacity];
+		target = new int[capacity];
+		type = new int[capacity];
+		start = new boolean[capacity];
+		adjacencyNext = new int[capacity];
+		adjacencyPrevious = new int[capacity];
+		inAdjacency = new boolean[capacity];
+		inHigh = new int[capacity];
+		edgeCount = 0;
+		for (int e = 0; e < m; e++){
+			int origin = compact.origin(e);
+			int destination = compact.destination(e);
+			if (origin == destination)
+				throw new IllegalArgumentException("Graph must not contain self loops");
+			newEdge(origin, destination);
+		}
+
+		if (m == 0){
+			componentTypes = new SplitTriconnectedComponentType[0];
+			componentEdges = new int[0][];
+			return;
+		}
+
+		if (n <= 2){
+			Component bond = newComponent(BOND);
+			for (int e = 0; e < m; e++)
+				bond.add(e);
+		}
+		else{
+			splitMultipleEdges();
+			firstSearch();
+			buildAcceptableAdjacencyStructure();
+			pathFinder();
+
+			int triples = 2 * edgeCount + 2;
+			tripleH = new int[triples];
+			tripleA = new int[triples];
+			tripleB = new int[triples];
+			tripleTop = 0;
+			tripleA[0] = -1;
+			edgeStack = new int[edgeCount];
+			edgeTop = 0;
+
+			pathSearch();
+
+			Component last = newComponent(POLYGON);
+			while (edgeTop > 0)
+				last.add(popEdge());
+			last.type = last.size > 4 ? TRICONNECTED : POLYGON;
+		}
+
+		assembleComponents();
+	}
+
+	/**
+	 * Replaces every bundle of parallel edges with a virtual edge and forms a bond
+	 * containing the bundle and the virtual edge. Edges are sorted by their ends using two bucket sorts
+	 */
+	private void splitMultipleEdges(){
+		int[] minimum = new int[m];
+		int[] maximum = new int[m];
+		for (int e = 0; e < m; e++){
+			minimum[e] = Math.min(source[e], target[e]);
+			maximum[e] = Math.max(source[e], target[e]);
+		}
+		int[] sorted = bucketSort(maximum, identity(m));
+		sorted = bucketSort(minimum, sorted);
+
+		int i = 0;
+		while (i < m){
+			int e = sorted[i];
+			int j = i + 1;
+			while (j < m && minimum[sorted[j]] == minimum[e] && maximum[sorted[j]] == maximum[e])
+				j++;
+			if (j - i > 1){
+				Component bond = newComponent(BOND);
+				bond.add(newEdge(source[e], target[e]));
+				for (int k = i; k < j; k++){
+					bond.add(sorted[k]);
+					type[sorted[k]] = REMOVED;
+				}
+			}
+			i = j;
+		}
+	}
+
+	private static int[] identity(int size){
+		int[] ret = new int[size];
+		for (int i = 0; i < size; i++)
+			ret[i] = i;
+		return ret;
+	}
+
+	/**
+	 * Stable sort of the given elements by their keys, which are between 0 and the number of vertices
+	 */
+	private int[] bucketSort(int[] keys, int[] elements){
+		int[] counts = new int[n + 1];
+		for (int e : elements)
+			counts[keys[e] + 1]++;
+		for (int i = 1; i <= n; i++)
+			counts[i] += counts[i - 1];
+		int[] ret = new int[elements.length];
+		for (int e : elements)
+			ret[counts[keys[e]]++] = e;
+		return ret;
+	}
+
+	/**
+	 * First depth-first search, which numbers the vertices, determines the type of each edge,
+	 * finds lowpoints, numbers of descendants and degrees of vertices and directs the edges
+	 */
+	private void firstSearch(){
+		int[] offsets = new int[n + 1];
+		for (int e = 0; e < edgeCount; e++)
+			if (type[e] != REMOVED){
+				offsets[source[e] + 1]++;
+				offsets[target[e] + 1]++;
+			}
+		for (int v = 0; v < n; v++)
+			offsets[v + 1] += offsets[v];
+		int[] incident = new int[offsets[n]];
+		int[] position = Arrays.copyOf(offsets, n);
+		for (int e = 0; e < edgeCount; e++)
+			if (type[e] != REMOVED){
+				incident[position[source[e]]++] = e;
+				incident[position[target[e]]++] = e;
+			}
+
+		number = new int[n];
+		lowpt1 = new int[n];
+		lowpt2 = new int[n];
+		nd = new int[n];
+		father = new int[n];
+		treeArc = new int[n];
+		degree = new int[n];
+		for (int v = 0; v < n; v++){
+			degree[v] = offsets[v + 1] - offsets[v];
+			position[v] = offsets[v];
+		}
+
+		int[] stack = new int[n];
+		int top = 0;
+		int count = 0;
+		startVertex = 0;
+		stack[top++] = startVertex;
+		number[startVertex] = ++count;
+		father[startVertex] = -1;
+		treeArc[startVertex] = -1;
+		lowpt1[startVertex] = lowpt2[startVertex] = number[startVertex];
+		nd[startVertex] = 1;
+
+		while (top > 0){
+			int v = stack[top - 1];
+			if (position[v] < offsets[v + 1]){
+				int e = incident[position[v]++];
+				if (type[e] != UNSEEN)
+					continue;
+				int w = source[e] == v ? target[e] : source[e];
+				if (number[w] == 0){
+					type[e] = TREE;
+					treeArc[w] = e;
+					father[w] = v;
+					number[w] = ++count;
+					lowpt1[w] = lowpt2[w] = number[w];
+					nd[w] = 1;
+					stack[top++] = w;
+				}
+				else{
+					type[e] = FROND;
+					if (number[w] < lowpt1[v]){
+						lowpt2[v] = lowpt1[v];
+						lowpt1[v] = number[w];
+					}
+					else if (number[w] > lowpt1[v])
+						lowpt2[v] = Math.min(lowpt2[v], number[w]);
+				}
+			}
+			else{
+				top--;
+				int u = father[v];
+				if (u == -1)
+					continue;
+				if (lowpt1[v] < lowpt1[u]){
+					lowpt2[u] = Math.min(lowpt1[u], lowpt2[v]);
+					lowpt1[u] = lowpt1[v];
+				}
+				else if (lowpt1[v] == lowpt1[u])
+					lowpt2[u] = Math.min(lowpt2[u], lowpt2[v]);
+				else
+					lowpt2[u] = Math.min(lowpt2[u], lowpt1[v]);
+				nd[u] += nd[v];
+			}
+		}
+
+		for (int e = 0; e < edgeCount; e++){
+			if (type[e] == REMOVED)
+				continue;
+			boolean up = number[target[e]] > number[source[e]];
+			if ((up && type[e] == FROND) || (!up && type[e] == TREE)){
+				int temp = source[e];
+				source[e] = target[e];
+				target[e] = temp;
+			}
+		}
+	}
+
+	/**
+	 * Orders the adjacency lists so that the paths are generated in the order
+	 * required by the path search
+	 */
+	private void buildAcceptableAdjacencyStructure(){
+		adjacencyHead = new int[n];
+		adjacencyTail = new int[n];
+		Arrays.fill(adjacencyHead, -1);
+		Arrays.fill(adjacencyTail, -1);
+
+		int buckets = 3 * n + 3;
+		int[] phi = new int[edgeCount];
+		int[] counts = new int[buckets + 1];
+		for (int e = 0; e < edgeCount; e++){
+			if (type[e] == REMOVED)
+				continue;
+			int w = target[e];
+			if (type[e] == FROND)
+				phi[e] = 3 * number[w] + 1;
+			else if (lowpt2[w] < number[source[e]])
+				phi[e] = 3 * lowpt1[w];
+			else
+				phi[e] = 3 * lowpt1[w] + 2;
+			counts[phi[e] + 1]++;
+		}
+		for (int i = 1; i <= buckets; i++)
+			counts[i] += counts[i - 1];
+		int[] sorted = new int[counts[buckets]];
+		for (int e = 0; e < edgeCount; e++)
+			if (type[e] != REMOVED)
+				sorted[counts[phi[e]]++] = e;
+		for (int e : sorted)
+			appendAdjacency(e);
+	}
+
+	/**
+	 * Second depth-first search, which renumbers the vertices in the order required by the path search,
+	 * marks the first edges of paths and fills the high lists
+	 */
+	private void pathFinder(){
+		newnum = new int[n];
+		nodeAt = new int[n + 1];
+		highHead = new int[n];
+		highTail = new int[n];
+		Arrays.fill(highHead, -1);
+		Arrays.fill(highTail, -1);
+		int entries = edgeCount + 16;
+		highValue = new int[entries];
+		highNext = new int[entries];
+		highPrevious = new int[entries];
+		highOwner = new int[entries];
+		highCount = 0;
+
+		int[] stack = new int[n];
+		int[] current = new int[n];
+		int top = 0;
+		int count = n;
+		boolean newPath = true;
+
+		stack[top++] = startVertex;
+		newnum[startVertex] = count - nd[startVertex] + 1;
+		current[startVertex] = adjacencyHead[startVertex];
+		while (top > 0){
+			int v = stack[top - 1];
+			int e = current[v];
+			if (e == -1){
+				top--;
+				if (top > 0)
+					count--;
+				continue;
+			}
+			current[v] = adjacencyNext[e];
+			if (newPath){
+				newPath = false;
+				start[e] = true;
+			}
+			int w = target[e];
+			if (type[e] == TREE){
+				stack[top++] = w;
+				newnum[w] = count - nd[w] + 1;
+				current[w] = adjacencyHead[w];
+			}
+			else{
+				inHigh[e] = appendHigh(w, newnum[v]);
+				newPath = true;
+			}
+		}
+
+		int[] oldToNew = new int[n + 1];
+		for (int v = 0; v < n; v++)
+			oldToNew[number[v]] = newnum[v];
+		for (int v = 0; v < n; v++){
+			nodeAt[newnum[v]] = v;
+			lowpt1[v] = oldToNew[lowpt1[v]];
+			lowpt2[v] = oldToNew[lowpt2[v]];
+		}
+	}
+
+	/**
+	 * Path search which finds the separation pairs and splits off the components.
+	 * Simulates the recursive search using a stack of frames
+	 */
+	private void pathSearch(){
+		int[] frameVertex = new int[n];
+		int[] frameOut = new int[n];
+		int[] frameNext = new int[n];
+		int[] frameEdge = new int[n];
+		int[] frameSlot = new int[n];
+		int[] frameChild = new int[n];
+		int depth = 0;
+
+		enter(startVertex, depth++, frameVertex, frameOut, frameNext, frameChild);
+		while (depth > 0){
+			int d = depth - 1;
+			int v = frameVertex[d];
+			int vnum = newnum[v];
+
+			if (frameChild[d] != -1){
+				returnFromTreeArc(d, frameVertex, frameOut, frameEdge, frameSlot, frameChild);
+				frameChild[d] = -1;
+				continue;
+			}
+
+			int e = frameNext[d];
+			if (e == -1){
+				depth--;
+				continue;
+			}
+			frameNext[d] = adjacencyNext[e];
+			frameEdge[d] = e;
+			frameSlot[d] = e;
+			int w = target[e];
+			int wnum = newnum[w];
+
+			if (type[e] == TREE){
+				if (start[e]){
+					int y = 0;
+					if (tripleA[tripleTop] > lowpt1[w]){
+						int b;
+						do {
+							y = Math.max(y, tripleH[tripleTop]);
+							b = tripleB[tripleTop--];
+						} while (tripleA[tripleTop] > lowpt1[w]);
+						pushTriple(y, lowpt1[w], b);
+					}
+					else
+						pushTriple(wnum + nd[w] - 1, lowpt1[w], vnum);
+					pushTriple(0, -1, 0);
+				}
+				frameChild[d] = w;
+				enter(w, depth++, frameVertex, frameOut, frameNext, frameChild);
+			}
+			else{
+				if (start[e]){
+					int y = 0;
+					if (tripleA[tripleTop] > wnum){
+						int b;
+						do {
+							y = Math.max(y, tripleH[tripleTop]);
+							b = tripleB[tripleTop--];
+						} while (tripleA[tripleTop] > wnum);
+						pushTriple(y, wnum, b);
+					}
+					else
+						pushTriple(vnum, wnum, vnum);
+				}
+				pushEdge(e);
+			}
+		}
+	}
+
+	private void enter(int v, int d, int[] frameVertex, int[] frameOut, int[] frameNext, int[] frameChild){
+		frameVertex[d] = v;
+		frameNext[d] = adjacencyHead[v];
+		frameChild[d] = -1;
+		int out = 0;
+		for (int e = adjacencyHead[v]; e != -1; e = adjacencyNext[e])
+			out++;
+		frameOut[d] = out;
+	}
+
+	/**
+	 * Part of the path search performed after the search of the subtree of a tree arc is finished.
+	 * Checks for type-2 and type-1 separation pairs and splits off the found components
+	 */
+	private void returnFromTreeArc(int d, int[] frameVertex, int[] frameOut, int[] frameEdge, int[] frameSlot, int[] frameChild){
+		int v = frameVertex[d];
+		int vnum = newnum[v];
+		int e = frameEdge[d];
+		int w = frameChild[d];
+		int wnum = newnum[w];
+
+		pushEdge(treeArc[w]);
+
+		//type-2 separation pairs
+		while (vnum != 1 && (tripleA[tripleTop] == vnum || (degree[w] == 2 && firstChildNumber(w) > wnum))){
+			int a = tripleA[tripleTop];
+			int b = tripleB[tripleTop];
+
+			if (a == vnum && father[nodeAt[b]] == nodeAt[a]){
+				tripleTop--;
+				continue;
+			}
+
+			int ab = -1;
+			int virtual;
+			int x;
+			if (degree[w] == 2 && firstChildNumber(w) > wnum){
+				int e1 = popEdge();
+				int e2 = popEdge();
+				removeAdjacency(e2);
+				x = target[e2];
+				virtual = newEdge(v, x);
+				degree[x]--;
+				degree[v]--;
+				Component polygon = newComponent(POLYGON);
+				polygon.add(e1);
+				polygon.add(e2);
+				polygon.add(virtual);
+
+				if (edgeTop > 0){
+					e1 = edgeStack[edgeTop - 1];
+					if (source[e1] == x && target[e1] == v){
+						ab = popEdge();
+						removeAdjacency(ab);
+						removeHigh(ab);
+					}
+				}
+			}
+			else{
+				int h = tripleH[tripleTop--];
+				Component component = newComponent(POLYGON);
+				while (edgeTop > 0){
+					int xy = edgeStack[edgeTop - 1];
+					int xnum = newnum[source[xy]];
+					int ynum = newnum[target[xy]];
+					if (!(a <= xnum && xnum <= h && a <= ynum && ynum <= h))
+						break;
+					if ((xnum == a && ynum == b) || (ynum == a && xnum == b)){
+						ab = popEdge();
+						removeAdjacency(ab);
+						removeHigh(ab);
+					}
+					else{
+						int eh = popEdge();
+						if (eh != frameSlot[d]){
+							removeAdjacency(eh);
+							removeHigh(eh);
+						}
+						component.add(eh);
+						degree[source[xy]]--;
+						degree[target[xy]]--;
+					}
+				}
+				virtual = newEdge(nodeAt[a], nodeAt[b]);
+				component.finish(virtual);
+				x = nodeAt[b];
+			}
+
+			if (ab != -1){
+				Component bond = newComponent(BOND);
+				bond.add(ab);
+				bond.add(virtual);
+				virtual = newEdge(v, x);
+				bond.add(virtual);
+				degree[x]--;
+				degree[v]--;
+			}
+
+			pushEdge(virtual);
+			replaceAdjacency(frameSlot[d], virtual);
+			frameSlot[d] = virtual;
+			degree[x]++;
+			degree[v]++;
+			father[x] = v;
+			treeArc[x] = virtual;
+			type[virtual] = TREE;
+
+			w = x;
+			wnum = newnum[w];
+		}
+
+		//type-1 separation pair
+		if (lowpt2[w] >= vnum && lowpt1[w] < vnum && (father[v] != startVertex || frameOut[d] >= 2)){
+			int low = nodeAt[lowpt1[w]];
+			Component component = newComponent(POLYGON);
+			int xnum = 0, ynum = 0;
+			while (edgeTop > 0){
+				int xy = edgeStack[edgeTop - 1];
+				xnum = newnum[source[xy]];
+				ynum = newnum[target[xy]];
+				if (!((wnum <= xnum && xnum < wnum + nd[w]) || (wnum <= ynum && ynum < wnum + nd[w])))
+					break;
+				component.add(popEdge());
+				removeHigh(xy);
+				degree[source[xy]]--;
+				degree[target[xy]]--;
+			}
+			int virtual = newEdge(v, low);
+			component.finish(virtual);
+
+			if ((xnum == vnum && ynum == lowpt1[w]) || (ynum == vnum && xnum == lowpt1[w])){
+				Component bond = newComponent(BOND);
+				int eh = popEdge();
+				if (eh != frameSlot[d])
+					removeAdjacency(eh);
+				bond.add(eh);
+				bond.add(virtual);
+				virtual = newEdge(v, low);
+				bond.add(virtual);
+				inHigh[virtual] = inHigh[eh];
+				inHigh[eh] = -1;
+				degree[v]--;
+				degree[low]--;
+			}
+
+			if (low != father[v]){
+				pushEdge(virtual);
+				replaceAdjacency(frameSlot[d], virtual);
+				frameSlot[d] = virtual;
+				if (inHigh[virtual] == -1 && high(low) < vnum)
+					inHigh[virtual] = prependHigh(low, vnum);
+				degree[v]++;
+				degree[low]++;
+			}
+			else{
+				removeAdjacency(frameSlot[d]);
+				Component bond = newComponent(BOND);
+				bond.add(virtual);
+				virtual = newEdge(low, v);
+				bond.add(virtual);
+				int eh = treeArc[v];
+				bond.add(eh);
+				treeArc[v] = virtual;
+				type[virtual] = TREE;
+				replaceAdjacency(eh, virtual);
+				if (d > 0 && frameSlot[d - 1] == eh)
+					frameSlot[d - 1] = virtual;
+			}
+		}
+
+		if (start[e]){
+			while (tripleA[tripleTop] != -1)
+				tripleTop--;
+			tripleTop--;
+		}
+		while (tripleA[tripleTop] != -1 && tripleB[tripleTop] != vnum && high(v) > tripleH[tripleTop])
+			tripleTop--;
+
+		frameOut[d]--;
+	}
+
+	/**
+	 * Merges bonds which share a virtual edge and polygons which share a virtual edge,
+	 * and stores the resulting components
+	 */
+	private void assembleComponents(){
+		int count = components.size();
+		int[] first = new int[edgeCount];
+		int[] second = new int[edgeCount];
+		Arrays.fill(first, -1);
+		Arrays.fill(second, -1);
+		for (int c = 0; c < count; c++){
+			Component component = components.get(c);
+			for (int i = 0; i < component.size; i++){
+				int e = component.edges[i];
+				if (first[e] == -1)
+					first[e] = c;
+				else
+					second[e] = c;
+			}
+		}
+
+		int[] parent = identity(count);
+		boolean[] merged = new boolean[edgeCount];
+		for (int e = m; e < edgeCount; e++){
+			if (first[e] == -1 || second[e] == -1)
+				continue;
+			int t = components.get(first[e]).type;
+			if (t == TRICONNECTED || t != components.get(second[e]).type)
+				continue;
+			merged[e] = true;
+			int r1 = find(parent, first[e]);
+			int r2 = find(parent, second[e]);
+			if (r1 != r2)
+				parent[r2] = r1;
+		}
+
+		int[] index = new int[count];
+		int[] sizes = new int[count];
+		int resulting = 0;
+		for (int c = 0; c < count; c++)
+			if (find(parent, c) == c)
+				index[c] = resulting++;
+		for (int c = 0; c < count; c++){
+			Component component = components.get(c);
+			for (int i = 0; i < component.size; i++)
+				if (!merged[component.edges[i]])
+					sizes[index[find(parent, c)]]++;
+		}
+
+		componentTypes = new SplitTriconnectedComponentType[resulting];
+		componentEdges = new int[resulting][];
+		int[] filled = new int[resulting];
+		for (int c = 0; c < count; c++){
+			Component component = components.get(c);
+			int i = index[find(parent, c)];
+			if (componentEdges[i] == null){
+				componentEdges[i] = new int[sizes[i]];
+				if (component.type == BOND)
+					componentTypes[i] = SplitTriconnectedComponentType.BOND;
+				else if (component.type == POLYGON)
+					componentTypes[i] = SplitTriconnectedComponentType.RING;
+				else
+					componentTypes[i] = SplitTriconnectedComponentType.TRICONNECTED_GRAPH;
+			}
+			for (int j = 0; j < component.size; j++)
+				if (!merged[component.edges[j]])
+					componentEdges[i][filled[i]++] = component.edges[j];
+		}
+
+		//virtual edges merged away don't belong to any component,
+		//so the remaining ones are renumbered to directly follow the real edges
+		int[] id = new int[edgeCount];
+		int remaining = m;
+		for (int e = 0; e < edgeCount; e++){
+			if (e < m)
+				id[e] = e;
+			else if (merged[e] || first[e] == -1)
+				id[e] = -1;
+			else{
+				id[e] = remaining;
+				source[remaining] = source[e];
+				target[remaining] = target[e];
+				remaining++;
+			}
+		}
+		edgeCount = remaining;
+		for (int[] edges : componentEdges)
+			for (int j = 0; j < edges.length; j++)
+				edges[j] = id[edges[j]];
+	}
+
+	private static int find(int[] parent, int c){
+		int root = c;
+		while (parent[root] != root)
+			root = parent[root];
+		while (parent[c] != root){
+			int next = parent[c];
+			parent[c] = root;
+			c = next;
+		}
+		return root;
+	}
+
+	private int newEdge(int origin, int destination){
+		if (edgeCount == source.length){
+			int capacity = 2 * edgeCount;
+			source = Arrays.copyOf(source, capacity);
+			target = Arrays.copyOf(target, capacity);
+			type = Arrays.copyOf(type, capacity);
+			start = Arrays.copyOf(start, capacity);
+			adjacencyNext = Arrays.copyOf(adjacencyNext, capacity);
+			adjacencyPrevious = Arrays.copyOf(adjacencyPrevious, capacity);
+			inAdjacency = Arrays.copyOf(inAdjacency, capacity);
+			inHigh = Arrays.copyOf(inHigh, capacity);
+		}
+		int e = edgeCount++;
+		source[e] = origin;
+		target[e] = destination;
+		type[e] = UNSEEN;
+		inHigh[e] = -1;
+		adjacencyNext[e] = adjacencyPrevious[e] = -1;
+		return e;
+	}
+
+	private Component newComponent(int type){
+		Component component = new Component(type);
+		components.add(component);
+		return component;
+	}
+
+	private void pushEdge(int e){
+		if (edgeTop == edgeStack.length)
+			edgeStack = Arrays.copyOf(edgeStack, 2 * edgeTop);
+		edgeStack[edgeTop++] = e;
+	}
+
+	private int popEdge(){
+		return edgeStack[--edgeTop];
+	}
+
+	private void pushTriple(int h, int a, int b){
+		if (tripleTop + 1 == tripleA.length){
+			int capacity = 2 * tripleA.length;
+			tripleH = Arrays.copyOf(tripleH, capacity);
+			tripleA = Arrays.copyOf(tripleA, capacity);
+			tripleB = Arrays.copyOf(tripleB, capacity);
+		}
+		tripleTop++;
+		tripleH[tripleTop] = h;
+		tripleA[tripleTop] = a;
+		tripleB[tripleTop] = b;
+	}
+
+	private int firstChildNumber(int v){
+		int e = adjacencyHead[v];
+		return e == -1 ? -1 : newnum[target[e]];
+	}
+
+	private void appendAdjacency(int e){
+		int v = source[e];
+		adjacencyPrevious[e] = adjacencyTail[v];
+		adjacencyNext[e] = -1;
+		if (adjacencyTail[v] == -1)
+			adjacencyHead[v] = e;
+		else
+			adjacencyNext[adjacencyTail[v]] = e;
+		adjacencyTail[v] = e;
+		inAdjacency[e] = true;
+	}
+
+	private void removeAdjacency(int e){
+		if (!inAdjacency[e])
+			return;
+		int v = source[e];
+		if (adjacencyPrevious[e] == -1)
+			adjacencyHead[v] = adjacencyNext[e];
+		else
+			adjacencyNext[adjacencyPrevious[e]] = adjacencyNext[e];
+		if (adjacencyNext[e] == -1)
+			adjacencyTail[v] = adjacencyPrevious[e];
+		else
+			adjacencyPrevious[adjacencyNext[e]] = adjacencyPrevious[e];
+		inAdjacency[e] = false;
+	}
+
+	/**
+	 * Puts the edge {@code replacement} in place of the edge {@code e} in the adjacency list
+	 * of their common source
+	 */
+	private void replaceAdjacency(int e, int replacement){
+		int v = source[e];
+		adjacencyPrevious[replacement] = adjacencyPrevious[e];
+		adjacencyNext[replacement] = adjacencyNext[e];
+		if (adjacencyPrevious[e] == -1)
+			adjacencyHead[v] = replacement;
+		else
+			adjacencyNext[adjacencyPrevious[e]] = replacement;
+		if (adjacencyNext[e] == -1)
+			adjacencyTail[v] = replacement;
+		else
+			adjacencyPrevious[adjacencyNext[e]] = replacement;
+		inAdjacency[e] = false;
+		inAdjacency[replacement] = true;
+	}
+
+	private int newHighEntry(int v, int value){
+		if (highCount == highValue.length){
+			int capacity = 2 * highCount;
+			highValue = Arrays.copyOf(highValue, capacity);
+			highNext = Arrays.copyOf(highNext, capacity);
+			highPrevious = Arrays.copyOf(highPrevious, capacity);
+			highOwner = Arrays.copyOf(highOwner, capacity);
+		}
+		int entry = highCount++;
+		highValue[entry] = value;
+		highOwner[entry] = v;
+		return entry;
+	}
+
+	private int appendHigh(int v, int value){
+		int entry = newHighEntry(v, value);
+		highPrevious[entry] = highTail[v];
+		highNext[entry] = -1;
+		if (highTail[v] == -1)
+			highHead[v] = entry;
+		else
+			highNext[highTail[v]] = entry;
+		highTail[v] = entry;
+		return entry;
+	}
+
+	private int prependHigh(int v, int value){
+		int entry = newHighEntry(v, value);
+		highPrevious[entry] = -1;
+		highNext[entry] = highHead[v];
+		if (highHead[v] == -1)
+			highTail[v] = entry;
+		else
+			highPrevious[highHead[v]] = entry;
+		highHead[v] = entry;
+		return entry;
+	}
+
+	private void removeHigh(int e){
+		int entry = inHigh[e];
+		if (entry == -1)
+			return;
+		int v = highOwner[entry];
+		if (highPrevious[entry] == -1)
+			highHead[v] = highNext[entry];
+		else
+			highNext[highPrevious[entry]] = highNext[entry];
+		if (highNext[entry] == -1)
+			highTail[v] = highPrevious[entry];
+		else
+			highPrevious[highNext[entry]] = highPrevious[entry];
+		inHigh[e] = -1;
+	}
+
+	private int high(int v){
+		return highHead[v] == -1 ? 0 : highValue[highHead[v]];
+	}
+
+	/**
+	 * @return Snapshot of the graph whose ids identify the vertices and real edges
+	 */
+	public CompactGraph<V, E> getCompactGraph() {
+		return compact;
+	}
+
+	/**
+	 * @return Number of triconnected components
+	 */
+	public int getComponentCount(){
+		return componentTypes.length;
+	}
+
+	/**
+	 * @param component Index of the component
+	 * @return Type of the component - a bond, a ring (polygon) or a triconnected graph
+	 */
+	public SplitTriconnectedComponentType getComponentType(int component){
+		return componentTypes[component];
+	}
+
+	/**
+	 * @param component Index of the component
+	 * @return Ids of the real and virtual edges of the component
+	 */
+	public int[] getComponentEdges(int component){
+		return componentEdges[component];
+	}
+
+	/**
+	 * @return Number of real and virtual edges
+	 */
+	public int getEdgeCount(){
+		return edgeCount;
+	}
+
+	/**
+	 * @param edge Id of a real or virtual edge
+	 * @return {@code true} if the edge is virtual, {@code false} otherwise
+	 */
+	public boolean isVirtual(int edge){
+		return edge >= m;
+	}
+
+	/**
+	 * @param edge Id of a real or virtual edge
+	 * @return Id of one end of the edge
+	 */
+	public int edgeOrigin(int edge){
+		return source[edge];
+	}
+
+	/**
+	 * @param edge Id of a real or virtual edge
+	 * @return Id of the other end of the edge
+	 */
+	public int edgeDestination(int edge){
+		return target[edge];
+	}
+
+	/**
+	 * Component being formed, with a growable array of edges
+	 */
+	private static class Component{
+
+		private int type;
+		private int[] edges = new int[4];
+		private int size = 0;
+
+		private Component(int type){
+			this.type = type;
+		}
+
+		private void add(int e){
+			if (size == edges.length)
+				edges = Arrays.copyOf(edges, 2 * size);
+			edges[size++] = e;
+		}
+
+		/**
+		 * Adds the last edge and decides if the component is a polygon or a triconnected graph
+		 */
+		private void finish(int e){
+			add(e);
+			type = size >= 4 ? TRICONNECTED : POLYGON;
+		}
+	}
+
+}
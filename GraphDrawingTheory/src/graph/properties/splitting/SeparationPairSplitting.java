@@ -3,6 +3,8 @@ package graph.properties.splitting;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Instrumentation;
+import graph.instrumentation.Task;
 import graph.properties.components.SplitPair;
 import graph.trees.dfs.DFSTree;
 
@@ -130,7 +132,16 @@ public class SeparationPairSplitting<V extends Vertex, E extends Edge<V>> {
 	 * @return A list of separation pairs of graph {@code graph}
 	 * @throws AlgorithmErrorException If an inconsistency is detected
 	 */
-	public List<SplitPair<V, E>> findSeaparationPairs(Graph<V,E> graph) throws AlgorithmErrorException{
+	public List<SplitPair<V, E>> findSeaparationPairs(final Graph<V,E> graph) throws AlgorithmErrorException{
+		return Instrumentation.time(SeparationPairSplitting.class, "findSeaparationPairs", new Task<List<SplitPair<V, E>>, AlgorithmErrorException>() {
+			@Override
+			public List<SplitPair<V, E>> run() throws AlgorithmErrorException {
+				return doFindSeaparationPairs(graph);
+			}
+		});
+	}
+
+	private List<SplitPair<V, E>> doFindSeaparationPairs(Graph<V,E> graph) throws AlgorithmErrorException{
 
 		//step one: perform a depth-first search on the multigraph converting in
 		//into a palm tree
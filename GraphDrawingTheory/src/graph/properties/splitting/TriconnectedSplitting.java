@@ -8,6 +8,8 @@ import java.util.Map;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Instrumentation;
+import graph.instrumentation.Task;
 import graph.properties.components.HopcroftTarjanSplitComponent;
 import graph.properties.components.SplitTriconnectedComponentType;
 
@@ -131,6 +133,15 @@ public class TriconnectedSplitting<V extends Vertex, E extends Edge<V>>  {
 	}
 
 	public List<HopcroftTarjanSplitComponent<V, E>> formTriconnectedComponents(){
+		return Instrumentation.time(TriconnectedSplitting.class, "formTriconnectedComponents", new Task<List<HopcroftTarjanSplitComponent<V, E>>, RuntimeException>() {
+			@Override
+			public List<HopcroftTarjanSplitComponent<V, E>> run() {
+				return doFormTriconnectedComponents();
+			}
+		});
+	}
+
+	private List<HopcroftTarjanSplitComponent<V, E>> doFormTriconnectedComponents(){
 		
 		try {
 			hopcroftTarjanSplitting.execute();
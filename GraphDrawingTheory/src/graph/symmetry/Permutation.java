@@ -1,177 +1,245 @@
 package graph.symmetry;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Class represents a permutation in the mapping notation
+ * The permutation of integers 0, ..., n - 1 is stored as an array of their images,
+ * so operations on permutations don't need to box integers or use hash maps
  * @author Renata
  */
 public class Permutation {
-	
+
 	/**
-	 * A map representing a permutation
+	 * Images of elements, {@code images[i]} is the element {@code i} is mapped to
 	 */
-	private Map<Integer, Integer> permutation;
-	
+	private int[] images;
+
 	/**
 	 * Creates an empty permutation
 	 */
 	public Permutation(){
-		permutation = new HashMap<Integer, Integer>();
+		images = new int[0];
 	}
-	
+
 	/**
 	 * Creates a permutation with an initial value
+	 * Elements between zero and the largest key which are not keys of the map are fixed
 	 * @param permutation A map representing a permutation
 	 */
 	public Permutation(Map<Integer, Integer> permutation){
-		this.permutation = permutation;
+		setPermutation(permutation);
+	}
+
+	/**
+	 * Creates a permutation given the images of elements
+	 * @param images Images of elements, {@code images[i]} is the image of {@code i}
+	 */
+	public Permutation(int[] images){
+		this.images = images;
+	}
+
+	/**
+	 * Creates the identity permutation
+	 * @param size Number of elements
+	 * @return Identity permutation of the given size
+	 */
+	public static Permutation identity(int size){
+		int[] images = new int[size];
+		for (int i = 0; i < size; i++)
+			images[i] = i;
+		return new Permutation(images);
 	}
-	
+
 	/**
 	 * Calculates inverse permutation
 	 * @return Inverse permutation
 	 */
 	public Permutation inverse(){
-	
-		//basically, switch keys and values
-		Map<Integer, Integer> inversePermutation = new HashMap<Integer, Integer>();
-		
-		for (Integer key : permutation.keySet())
-			inversePermutation.put(permutation.get(key), key);
-		
-		return new Permutation(inversePermutation);
+		int[] inverse = new int[images.length];
+		for (int i = 0; i < images.length; i++)
+			inverse[images[i]] = i;
+		return new Permutation(inverse);
 	}
-	
+
 	/**
-	 * Multiplies this permutation with the provided one
+	 * Multiplies this permutation with the provided one.
+	 * The product maps each element to the image under {@code other} of its image under this permutation
 	 * @param other Permutation to multiply with
 	 * @return Calculated permutation
 	 */
 	public Permutation mul(Permutation other){
-		
-		Map<Integer, Integer> product = new HashMap<Integer, Integer>();
-		
-		for (Integer key : permutation.keySet()){
-			Integer composite = other.getPermutation().get(permutation.get(key));
-			product.put(key, composite);
-		}
+		int[] product = new int[images.length];
+		for (int i = 0; i < images.length; i++)
+			product[i] = other.images[images[i]];
 		return new Permutation(product);
-		
 	}
-	
+
 	/**
-	 * Calculates the permutation's order
+	 * Calculates the permutation's order, which is the least common multiple
+	 * of lengths of its cycles
 	 * @return Permutation's order
 	 */
 	public int order(){
 		int order = 1;
-		Permutation result = new Permutation(new HashMap<Integer,Integer>(this.getPermutation()));
-		
-		while (!result.isIdentityPermutation()){
-			result = result.mul(this);
-			order ++;
-		}
+		for (int length : cycleLengths())
+			order = order / gcd(order, length) * length;
 		return order;
-	
 	}
-	
+
+	private static int gcd(int a, int b){
+		while (b != 0){
+			int remainder = a % b;
+			a = b;
+			b = remainder;
+		}
+		return a;
+	}
+
+	/**
+	 * Finds lengths of the permutation's cycles, including the fixed points
+	 * @return For each element, length of the cycle containing it
+	 */
+	public int[] cycleLengths(){
+		int[] lengths = new int[images.length];
+		for (int i = 0; i < images.length; i++){
+			if (lengths[i] != 0)
+				continue;
+			int length = 1;
+			for (int next = images[i]; next != i; next = images[next])
+				length++;
+			lengths[i] = length;
+			for (int next = images[i]; next != i; next = images[next])
+				lengths[next] = length;
+		}
+		return lengths;
+	}
+
 	/**
 	 * Checks if the permutation is an identity permutation
 	 * @return {@code true} if the permutation is an identity permutation {@code false}
 	 * otherwise
 	 */
 	public boolean isIdentityPermutation(){
-		for (Integer key : permutation.keySet())
-			if (permutation.get(key) != key)
+		for (int i = 0; i < images.length; i++)
+			if (images[i] != i)
 				return false;
 		return true;
 	}
-	
+
 	/**
 	 * Finds the cyclis representation of the permutation
 	 * @return Cyclic representation of the permutation
 	 */
 	public List<List<Integer>> cyclicRepresenatation(){
 		List<List<Integer>> ret = new ArrayList<List<Integer>>();
-		List<Integer> covered = new ArrayList<Integer>();
-		for (Integer key : permutation.keySet()){
-			if (covered.contains(key))
+		boolean[] covered = new boolean[images.length];
+		for (int i = 0; i < images.length; i++){
+			if (covered[i])
 				continue;
-			
+
 			//start a cycle and add all
 			List<Integer> cycle = new ArrayList<Integer>();
-			cycle.add(key);
-			Integer next = permutation.get(key);
-			while (next != key){
+			for (int next = i; !covered[next]; next = images[next]){
 				cycle.add(next);
-				covered.add(next);
-				next = permutation.get(next);
+				covered[next] = true;
 			}
 			ret.add(cycle);
 		}
-		
+
 		return ret;
 	}
-	
+
 	/**
 	 * Finds the fix of the permutation
 	 * @return Fix of the permutation
 	 */
 	public List<Integer> fix(){
 		List<Integer> ret = new ArrayList<Integer>();
-		
-		for (Integer key : permutation.keySet())
-			if (key == permutation.get(key))
-				ret.add(key);
-		
+		for (int i = 0; i < images.length; i++)
+			if (images[i] == i)
+				ret.add(i);
 		return ret;
 	}
-	
+
 	/**
 	 * Finds he permutations orbit given a vertex
 	 * @param u Vertex
-	 * @return Permutation's orbit
+	 * @return Permutation's orbit, images of {@code u} under all powers of the permutation
+	 * up to its order
 	 */
 	public List<Integer> orbit(Integer u){
 		List<Integer> ret = new ArrayList<Integer>();
 		int k = order();
-		Permutation degree = new Permutation(new HashMap<Integer, Integer>(permutation));
+		int image = u;
 		for (int i = 0; i < k; i++){
-			if (i == 0)
-				ret.add(u);
-			else if (i == 1)
-				ret.add(permutation.get(u));
-			else{
-				degree = degree.mul(this);
-				ret.add(degree.getPermutation().get(u));
-			}
+			ret.add(image);
+			image = images[image];
 		}
 		return ret;
 	}
-	
+
+	/**
+	 * @param i Element
+	 * @return Image of the element
+	 */
+	public int image(int i){
+		return images[i];
+	}
+
+	/**
+	 * @return Number of elements the permutation is defined on
+	 */
+	public int size(){
+		return images.length;
+	}
+
+	/**
+	 * @return Images of elements. The array is not copied and shouldn't be changed
+	 */
+	public int[] getImages(){
+		return images;
+	}
+
 	/**
-	 * @return Map representing the permutation
+	 * @return Map representing the permutation. It is created on each call, so changing
+	 * it doesn't change the permutation
 	 */
 	public Map<Integer, Integer> getPermutation() {
+		Map<Integer, Integer> permutation = new HashMap<Integer, Integer>();
+		for (int i = 0; i < images.length; i++)
+			permutation.put(i, images[i]);
 		return permutation;
 	}
 
 	public void setPermutation(Map<Integer, Integer> permutation) {
-		this.permutation = permutation;
+		int size = 0;
+		for (Integer key : permutation.keySet())
+			size = Math.max(size, key + 1);
+		images = new int[size];
+		for (int i = 0; i < size; i++){
+			Integer image = permutation.get(i);
+			images[i] = image == null ? i : image;
+		}
 	}
-	
+
 	@Override
 	public String toString() {
 		return cyclicRepresenatation() + "";
 	}
-	
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(images);
+	}
+
 	@Override
 	public boolean equals(Object obj) {
-		
+
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -179,17 +247,7 @@ public class Permutation {
 		if (getClass() != obj.getClass())
 			return false;
 		Permutation other = (Permutation) obj;
-		
-		if (other.getPermutation().size() != permutation.size())
-			return false;
-		
-		for (Integer key : permutation.keySet()){
-			if (!other.getPermutation().containsKey(key))
-				return false;
-			if (other.getPermutation().get(key) != permutation.get(key))
-				return false;
-		}
-		return true;
+		return Arrays.equals(images, other.images);
 	}
 
 
@@ -3,9 +3,12 @@ package graph.symmetry;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Instrumentation;
+import graph.instrumentation.Task;
 import graph.symmetry.nauty.McKayGraphLabelingAlgorithm;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,18 +22,18 @@ import java.util.Map;
 public class PermutationAnalyzator<V extends Vertex, E extends Edge<V>> {
 
 	/**
-	 * Permutations of the given graph
+	 * Automorphism group of the given graph
 	 */
-	private List<Permutation> permutations;
+	private PermutationGroup automorphisms;
 
 	/**
-	 * Given a graph, finds its permutations and intializes the permutations list
+	 * Given a graph, finds the generators of its automorphism group
 	 * @param graph Graph
 	 */
 	public PermutationAnalyzator(Graph<V, E> graph) {
 		super();
 		McKayGraphLabelingAlgorithm<V, E> nauty = new McKayGraphLabelingAlgorithm<V,E>();
-		permutations = nauty.findAutomorphisms(graph);
+		automorphisms = nauty.findAutomorphismGroup(graph);
 	}
 
 	/**
@@ -38,14 +41,19 @@ public class PermutationAnalyzator<V extends Vertex, E extends Edge<V>> {
 	 * @return List of all reflection permutation groups
 	 */
 	public List<PermutationGroup> findReflectionGroups(){
+		return Instrumentation.time(PermutationAnalyzator.class, "findReflectionGroups", new Task<List<PermutationGroup>, RuntimeException>() {
+			@Override
+			public List<PermutationGroup> run() {
+				return doFindReflectionGroups();
+			}
+		});
+	}
+
+	private List<PermutationGroup> doFindReflectionGroups(){
 		List<PermutationGroup> ret = new ArrayList<PermutationGroup>();
-		for (Permutation p : permutations){
-			PermutationGroup group = isReflectionGroupGenerator(p);
-			if (group != null)
-				ret.add(group);
-		}
+		for (Permutation p : automorphisms.search(new Involutions(automorphisms), Integer.MAX_VALUE))
+			ret.add(new PermutationGroup(p, null));
 		return ret;
-
 	}
 
 	/**
@@ -64,12 +72,18 @@ public class PermutationAnalyzator<V extends Vertex, E extends Edge<V>> {
 	 * @return List of all rotation permutation groups
 	 */
 	public List<PermutationGroup> findRotationGroups(){
+		return Instrumentation.time(PermutationAnalyzator.class, "findRotationGroups", new Task<List<PermutationGroup>, RuntimeException>() {
+			@Override
+			public List<PermutationGroup> run() {
+				return doFindRotationGroups();
+			}
+		});
+	}
+
+	private List<PermutationGroup> doFindRotationGroups(){
 		List<PermutationGroup> ret = new ArrayList<PermutationGroup>();
-		for (Permutation p : permutations){
-			PermutationGroup group = isRotationalGroupGenerator(p);
-			if (group != null)
-				ret.add(group);
-		}
+		for (Permutation p : findRotations())
+			ret.add(new PermutationGroup(null, p));
 
 		return ret;
 	}
@@ -80,29 +94,37 @@ public class PermutationAnalyzator<V extends Vertex, E extends Edge<V>> {
 	 * @return A rotation group if {@code p} is its generator, {@code null} otherwise
 	 */
 	public PermutationGroup isRotationalGroupGenerator(Permutation p){
-		List<Integer> fixedPoints = p.fix();
-		//rotational permutation has one fixed point at most
-		if (fixedPoints.size() > 1)
+		if (!isRotation(p))
 			return null;
+		return new PermutationGroup(null, p);
+	}
 
-		PermutationGroup group = new PermutationGroup(null, p);
-		if (group.size() <= 1)
-			return null;
-		
-		if (fixedPoints.size() == 1){
-			Integer fixed = fixedPoints.get(0);
-			Map<Integer, Integer> pvMap = new HashMap<Integer, Integer>(p.getPermutation());
-			pvMap.remove(fixed);
-			PermutationGroup test = new PermutationGroup(null, new Permutation(pvMap));
-			if (test.isSemiRegular())
-				return group;
-			else
-				return null;
-		}
-
-		if (group.isSemiRegular())
-			return group;
-		return null;
+	private static boolean isRotation(Permutation p){
+		//rotational permutation has one fixed point at most
+		//and all of its other cycles are of the same length, at least two
+		//so the group it generates is semi-regular when the fixed point is left out
+		int cycleLength = 0;
+		int fixedPoints = 0;
+		for (int length : p.cycleLengths()){
+			if (length == 1)
+				fixedPoints++;
+			else if (cycleLength == 0)
+				cycleLength = length;
+			else if (length != cycleLength)
+				return false;
+		}
+		return fixedPoints <= 1 && cycleLength != 0;
+	}
+
+	/**
+	 * Finds rotational automorphisms by searching the stabilizer chain
+	 * @return Rotational permutations of the automorphism group
+	 */
+	private List<Permutation> findRotations(){
+		//every point fixed by the whole group is fixed by the rotations as well
+		if (automorphisms.fix().size() > 1)
+			return new ArrayList<Permutation>();
+		return automorphisms.search(new Rotations(automorphisms), Integer.MAX_VALUE);
 	}
 
 
@@ -111,17 +133,64 @@ public class PermutationAnalyzator<V extends Vertex, E extends Edge<V>> {
 	 * @return List of all dihedral permutation groups
 	 */
 	public List<PermutationGroup> findDihedralGroups(){
+		return Instrumentation.time(PermutationAnalyzator.class, "findDihedralGroups", new Task<List<PermutationGroup>, RuntimeException>() {
+			@Override
+			public List<PermutationGroup> run() {
+				return doFindDihedralGroups();
+			}
+		});
+	}
 
+	private List<PermutationGroup> doFindDihedralGroups(){
 		List<PermutationGroup> ret = new ArrayList<PermutationGroup>();
-		for (Permutation p1 : permutations)
-			for (Permutation p2 : permutations){
-				PermutationGroup group = isDehidralGroupGenerator(p1, p2);
-				if (group != null)
-					ret.add(group);
+		//dihedral groups are generated by a rotation and an axial permutation,
+		//so axial permutations are searched for each rotation
+		//rotations generating the same cyclic group are inverted by the same axial permutations
+		Map<Permutation, List<Permutation>> axialsByRotation = new HashMap<Permutation, List<Permutation>>();
+		for (Permutation rotation : findRotations()){
+			List<Permutation> axials = axialsByRotation.get(rotation);
+			if (axials == null){
+				axials = findAxials(rotation);
+				for (Permutation generator : cyclicGenerators(rotation))
+					axialsByRotation.put(generator, axials);
 			}
+			for (Permutation axial : axials)
+				ret.add(new PermutationGroup(axial, rotation));
+		}
 
 		return ret;
+	}
 
+	/**
+	 * Finds axial automorphisms which form a dihedral group with the given rotation
+	 * @param rotation Rotational permutation
+	 * @return Permutations of order two which invert the rotation and don't belong to the group it generates
+	 */
+	private List<Permutation> findAxials(Permutation rotation){
+		//with the cycles of the rotation at the start of the base,
+		//the image of each point of a cycle determines the image of the next one
+		List<Integer> prefix = new ArrayList<Integer>();
+		for (List<Integer> cycle : rotation.cyclicRepresenatation())
+			if (cycle.size() > 1)
+				prefix.addAll(cycle);
+		PermutationGroup group = automorphisms.changeBase(prefix);
+		return group.search(new Axials(group, rotation), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param rotation Permutation
+	 * @return Powers of the permutation which generate the same cyclic group
+	 */
+	private List<Permutation> cyclicGenerators(Permutation rotation){
+		List<Permutation> ret = new ArrayList<Permutation>();
+		int order = rotation.order();
+		Permutation power = rotation;
+		for (int k = 1; k < order; k++){
+			if (power.order() == order)
+				ret.add(power);
+			power = power.mul(rotation);
+		}
+		return ret;
 	}
 
 	/**
@@ -157,15 +226,149 @@ public class PermutationAnalyzator<V extends Vertex, E extends Edge<V>> {
 		if (!prod1.equals(prod2))
 			return null;
 
-		PermutationGroup g1 = new PermutationGroup(null, rotation);
-		PermutationGroup g2 = new PermutationGroup(axial, null);
-
-		for (Permutation p : g1.getPermutations())
-			if (!p.isIdentityPermutation() && g2.getPermutations().contains(p))
-				return null;
+		//the only element of <axial> other than the identity is axial itself
+		if (new PermutationGroup(null, rotation).contains(axial))
+			return null;
 
 		return new PermutationGroup(axial, rotation);
 
 	}
 
+	/**
+	 * Property of permutations which is checked on the images of the base points known so far
+	 */
+	private static abstract class BaseProperty implements PermutationGroup.Property{
+
+		protected List<Integer> base;
+		/**
+		 * Position of each point in the base, -1 for other points
+		 */
+		protected int[] positions;
+
+		public BaseProperty(PermutationGroup group){
+			base = group.getBase();
+			int size = 0;
+			for (Permutation generator : group.getGenerators())
+				size = Math.max(size, generator.size());
+			positions = new int[size];
+			Arrays.fill(positions, -1);
+			for (int i = 0; i < base.size(); i++)
+				positions[base.get(i)] = i;
+		}
+
+		/**
+		 * @return {@code true} if the point is one of the base points up to the given level
+		 */
+		protected boolean isKnown(int point, int level){
+			return positions[point] != -1 && positions[point] <= level;
+		}
+	}
+
+	/**
+	 * Property of permutations of order two
+	 */
+	private static class Involutions extends BaseProperty{
+
+		public Involutions(PermutationGroup group){
+			super(group);
+		}
+
+		@Override
+		public boolean isPossible(int[] images, int level) {
+			//a base point mapped to another one must be its image as well
+			for (int i = 0; i <= level; i++){
+				int point = base.get(i);
+				int image = images[point];
+				if (isKnown(image, level) && images[image] != point)
+					return false;
+			}
+			return true;
+		}
+
+		@Override
+		public boolean has(Permutation permutation) {
+			return permutation.order() == 2;
+		}
+	}
+
+	/**
+	 * Property of rotational permutations
+	 */
+	private static class Rotations extends BaseProperty{
+
+		public Rotations(PermutationGroup group){
+			super(group);
+		}
+
+		@Override
+		public boolean isPossible(int[] images, int level) {
+			//cycles consisting of base points only are already known
+			int fixedPoints = 0;
+			int cycleLength = 0;
+			for (int i = 0; i <= level; i++){
+				int point = base.get(i);
+				int length = 1;
+				int image = images[point];
+				while (image != point && isKnown(image, level)){
+					image = images[image];
+					length++;
+				}
+				if (image != point)
+					continue;
+				if (length == 1){
+					if (++fixedPoints > 1)
+						return false;
+				}
+				else if (cycleLength == 0)
+					cycleLength = length;
+				else if (length != cycleLength)
+					return false;
+			}
+			return true;
+		}
+
+		@Override
+		public boolean has(Permutation permutation) {
+			return isRotation(permutation);
+		}
+	}
+
+	/**
+	 * Property of axial permutations which form a dihedral group with the given rotation
+	 */
+	private static class Axials extends Involutions{
+
+		private Permutation rotation, inverse;
+		private PermutationGroup rotationGroup;
+
+		public Axials(PermutationGroup group, Permutation rotation){
+			super(group);
+			this.rotation = rotation;
+			inverse = rotation.inverse();
+			rotationGroup = new PermutationGroup(null, rotation);
+		}
+
+		@Override
+		public boolean isPossible(int[] images, int level) {
+			if (!super.isPossible(images, level))
+				return false;
+			//axial * rotation = rotation ^ -1 * axial, so the axial permutation maps
+			//the image of a point under the rotation to the preimage of its own image
+			int point = base.get(level);
+			int next = rotation.image(point);
+			if (isKnown(next, level) && images[next] != inverse.image(images[point]))
+				return false;
+			int previous = inverse.image(point);
+			if (isKnown(previous, level) && images[point] != inverse.image(images[previous]))
+				return false;
+			return true;
+		}
+
+		@Override
+		public boolean has(Permutation permutation) {
+			return super.has(permutation) && permutation.mul(rotation).equals(inverse.mul(permutation))
+					&& !rotationGroup.contains(permutation);
+		}
+	}
+
 }
@@ -2,99 +2,329 @@ package graph.symmetry;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Represents a permutation group and contains methods for its analysis
+ * The group is given by its generators. Queries are answered using a base and a strong generating set,
+ * found by the Schreier-Sims algorithm: a sequence of points b1, ..., bk such that only the identity
+ * fixes all of them, together with, for each i, the orbit of bi under the stabilizer of b1, ..., bi-1
+ * and a permutation mapping bi to each point of that orbit. Every element of the group is then
+ * uniquely written as a product of such permutations, so the order of the group, membership and stabilizers
+ * are found in polynomial time, without forming all elements of the group.
+ * The base is found when the group is first queried, so groups which are only created and printed stay cheap.
  * @author Renata
  */
 public class PermutationGroup {
 
 	/**
-	 * Permutations forming the group
+	 * Generators of the group
 	 */
-	private List<Permutation> permutations;
-	
+	private List<Permutation> generators;
+
 	/**
 	 * Reflection and rotation permutations
 	 */
 	private Permutation reflection, rotation;
-	
+
+	/**
+	 * Number of points the permutations act on
+	 */
+	private int degree;
+	/**
+	 * Points which should be the first points of the base
+	 */
+	private List<Integer> basePrefix;
+	/**
+	 * Points of the base, {@code null} until the base is found
+	 */
+	private List<Integer> base;
+	/**
+	 * Strong generators fixing the first i base points, for each i
+	 */
+	private List<List<int[]>> strongGenerators;
+	/**
+	 * For each base point, permutations mapping it to the points of its orbit, {@code null} for other points,
+	 * and their inverses
+	 */
+	private List<int[][]> transversals, inverseTransversals;
+	/**
+	 * Orbits of base points, as lists of points
+	 */
+	private List<List<Integer>> basicOrbits;
+	/**
+	 * Elements of the group, formed only when requested
+	 */
+	private List<Permutation> permutations;
+
 	/**
 	 * Constructs a permutation group given a reflection and/or a rotation
 	 * @param reflection Reflection permutation. Can be null.
 	 * @param rotation Rotation permutation Can be null.
 	 */
 	public PermutationGroup(Permutation reflection, Permutation rotation){
-		permutations = new ArrayList<Permutation>();
 		this.reflection = reflection;
 		this.rotation = rotation;
-		initPermutations();
+		List<Permutation> generators = new ArrayList<Permutation>();
+		if (reflection != null)
+			generators.add(reflection);
+		if (rotation != null)
+			generators.add(rotation);
+		init(generators, new ArrayList<Integer>());
+	}
+
+	/**
+	 * Constructs a permutation group generated by the given permutations.
+	 * All permutations must act on the same number of points
+	 * @param generators Generators of the group
+	 */
+	public PermutationGroup(List<Permutation> generators){
+		init(generators, new ArrayList<Integer>());
+	}
+
+	private PermutationGroup(List<Permutation> generators, List<Integer> basePrefix){
+		init(generators, basePrefix);
+	}
+
+	private void init(List<Permutation> generators, List<Integer> basePrefix){
+		this.generators = generators;
+		permutations = null;
+		degree = 0;
+		for (Permutation generator : generators)
+			degree = Math.max(degree, generator.size());
+		this.basePrefix = basePrefix;
+		base = null;
 	}
-	
-	private void initPermutations(){
-		if (reflection != null){
-			permutations.add(reflection);
-			permutations.add(reflection.mul(reflection));
+
+	/**
+	 * Finds the base and the strong generating set if that wasn't done already
+	 */
+	private synchronized void findBase(){
+		if (base == null)
+			schreierSims(basePrefix);
+	}
+
+	/**
+	 * Finds a base and a strong generating set using the deterministic Schreier-Sims algorithm
+	 * @param basePrefix Points which should be the first points of the base
+	 */
+	private void schreierSims(List<Integer> basePrefix){
+		base = new ArrayList<Integer>(basePrefix);
+		strongGenerators = new ArrayList<List<int[]>>();
+		transversals = new ArrayList<int[][]>();
+		inverseTransversals = new ArrayList<int[][]>();
+		basicOrbits = new ArrayList<List<Integer>>();
+
+		List<int[]> nontrivial = new ArrayList<int[]>();
+		for (Permutation generator : generators)
+			if (!generator.isIdentityPermutation())
+				nontrivial.add(extend(generator.getImages()));
+		//every generator must move some base point
+		for (int[] generator : nontrivial)
+			if (fixesBase(generator, base.size()))
+				base.add(movedPoint(generator));
+
+		for (int i = 0; i < base.size(); i++){
+			List<int[]> levelGenerators = new ArrayList<int[]>();
+			for (int[] generator : nontrivial)
+				if (fixesBase(generator, i))
+					levelGenerators.add(generator);
+			strongGenerators.add(levelGenerators);
+			transversals.add(null);
+			inverseTransversals.add(null);
+			basicOrbits.add(null);
+			computeOrbit(i);
 		}
-		if (rotation != null){
-			Permutation mul = new Permutation(rotation.getPermutation());
-			while (!mul.isIdentityPermutation()){
-				permutations.add(mul);
-				mul = mul.mul(rotation);
+
+		int i = base.size() - 1;
+		while (i >= 0){
+			int restart = -1;
+			levels:
+			for (int x : basicOrbits.get(i)){
+				for (int[] generator : strongGenerators.get(i)){
+					//Schreier generator, which fixes the i-th base point
+					int[] u = transversals.get(i)[x];
+					int[] inverse = inverseTransversals.get(i)[generator[x]];
+					int[] schreier = new int[degree];
+					for (int p = 0; p < degree; p++)
+						schreier[p] = inverse[generator[u[p]]];
+					int level = strip(schreier, i + 1);
+					if (level < base.size() || !isIdentity(schreier)){
+						if (level == base.size()){
+							base.add(movedPoint(schreier));
+							strongGenerators.add(new ArrayList<int[]>());
+							transversals.add(null);
+							inverseTransversals.add(null);
+							basicOrbits.add(null);
+						}
+						for (int l = i + 1; l <= level; l++){
+							strongGenerators.get(l).add(schreier);
+							computeOrbit(l);
+						}
+						restart = level;
+						break levels;
+					}
+				}
 			}
-			permutations.add(mul);
+			if (restart == -1)
+				i--;
+			else
+				i = restart;
 		}
-		if (reflection != null && rotation != null) {
-			Permutation prod = rotation.mul(reflection);
-			Permutation mul = new Permutation(prod.getPermutation());
-			while (!mul.isIdentityPermutation()){
-				permutations.add(mul);
-				mul = mul.mul(prod);
+	}
+
+	private int[] extend(int[] images){
+		if (images.length == degree)
+			return images;
+		int[] ret = new int[degree];
+		for (int i = 0; i < degree; i++)
+			ret[i] = i < images.length ? images[i] : i;
+		return ret;
+	}
+
+	private boolean fixesBase(int[] permutation, int count){
+		for (int i = 0; i < count; i++)
+			if (permutation[base.get(i)] != base.get(i))
+				return false;
+		return true;
+	}
+
+	private int movedPoint(int[] permutation){
+		for (int p = 0; p < permutation.length; p++)
+			if (permutation[p] != p)
+				return p;
+		return -1;
+	}
+
+	private boolean isIdentity(int[] permutation){
+		return movedPoint(permutation) == -1;
+	}
+
+	private void computeOrbit(int level){
+		int point = base.get(level);
+		int[][] transversal = new int[degree][];
+		int[][] inverseTransversal = new int[degree][];
+		List<Integer> orbit = new ArrayList<Integer>();
+		int[] identity = new int[degree];
+		for (int p = 0; p < degree; p++)
+			identity[p] = p;
+		transversal[point] = identity;
+		inverseTransversal[point] = identity;
+		orbit.add(point);
+		for (int i = 0; i < orbit.size(); i++){
+			int x = orbit.get(i);
+			for (int[] generator : strongGenerators.get(level)){
+				int y = generator[x];
+				if (transversal[y] != null)
+					continue;
+				int[] u = new int[degree];
+				int[] inverse = new int[degree];
+				for (int p = 0; p < degree; p++){
+					u[p] = generator[transversal[x][p]];
+					inverse[u[p]] = p;
+				}
+				transversal[y] = u;
+				inverseTransversal[y] = inverse;
+				orbit.add(y);
 			}
 		}
+		transversals.set(level, transversal);
+		inverseTransversals.set(level, inverseTransversal);
+		basicOrbits.set(level, orbit);
+	}
+
+	/**
+	 * Divides the permutation, in place, by the transversal elements of the levels starting with the given one
+	 * @return The level at which the permutation maps the base point outside of its orbit,
+	 * or the number of levels if there is no such level
+	 */
+	private int strip(int[] permutation, int from){
+		int[] temp = new int[degree];
+		for (int level = from; level < base.size(); level++){
+			int x = permutation[base.get(level)];
+			int[] inverse = inverseTransversals.get(level)[x];
+			if (inverse == null)
+				return level;
+			for (int p = 0; p < degree; p++)
+				temp[p] = inverse[permutation[p]];
+			System.arraycopy(temp, 0, permutation, 0, degree);
+		}
+		return base.size();
 	}
-	
+
+	/**
+	 * Checks if the permutation belongs to the group
+	 * @param permutation Permutation
+	 * @return {@code true} if the permutation is an element of the group, {@code false} otherwise
+	 */
+	public boolean contains(Permutation permutation){
+		findBase();
+		if (permutation.size() > degree){
+			//points not moved by the group must be fixed
+			for (int p = degree; p < permutation.size(); p++)
+				if (permutation.image(p) != p)
+					return false;
+		}
+		int[] images = new int[degree];
+		for (int p = 0; p < degree; p++)
+			images[p] = p < permutation.size() ? permutation.image(p) : p;
+		return strip(images, 0) == base.size() && isIdentity(images);
+	}
+
+	/**
+	 * Finds the stabilizer of a point, the subgroup of permutations which fix it
+	 * @param u Point
+	 * @return Stabilizer of {@code u}
+	 */
+	public PermutationGroup stabilizer(int u){
+		if (u >= degree)
+			return this;
+		List<Integer> prefix = new ArrayList<Integer>();
+		prefix.add(u);
+		PermutationGroup group = new PermutationGroup(generators, prefix);
+		group.findBase();
+		List<Permutation> stabilizerGenerators = new ArrayList<Permutation>();
+		if (group.base.size() > 1)
+			for (int[] generator : group.strongGenerators.get(1))
+				stabilizerGenerators.add(new Permutation(generator));
+		//the trivial group still acts on all points
+		if (stabilizerGenerators.isEmpty())
+			stabilizerGenerators.add(Permutation.identity(degree));
+		return new PermutationGroup(stabilizerGenerators);
+	}
+
 	/**
 	 * Finds stabilizers of the group with respect to some vertex
 	 * @param u Vertex
 	 * @return A list of all stabilizers with respect to some given {@code u}
 	 */
 	public List<Permutation> stabilizers(Integer u){
-		List<Permutation> ret = new ArrayList<Permutation>();
-		
-		for (Permutation perm : permutations){
-			if (perm.getPermutation().get(u) == u)
-				ret.add(perm);
-		}
-		
-		return ret;
+		return stabilizer(u).getPermutations();
 	}
-	
+
 	/**
 	 * Finds stabilizers of the groups with respect to a subset of vertices
 	 * @param Y Subset
 	 * @return A list of stabilizers with respect to a subset {@code Y}
 	 */
 	public List<Permutation> subsetStabilizers(List<Integer> Y){
-		
+
 		List<Permutation> ret = new ArrayList<Permutation>();
-		
-		for (Permutation perm : permutations){
+
+		for (Permutation perm : getPermutations()){
 			boolean stabilizer = true;
 			for (Integer y : Y){
-			  if (!Y.contains(perm.getPermutation().get(y))){
-				  stabilizer = false;
-				  break;
-			  }
-			  if (stabilizer)
-				  ret.add(perm);
-				
+				int image = y < perm.size() ? perm.image(y) : y;
+				if (!Y.contains(image)){
+					stabilizer = false;
+					break;
+				}
 			}
+			if (stabilizer)
+				ret.add(perm);
 		}
 		return ret;
 	}
-	
+
 
 	/**
 	 * Finds vertices fixed by the group
@@ -102,71 +332,234 @@ public class PermutationGroup {
 	 */
 	public List<Integer> fix(){
 		List<Integer> ret = new ArrayList<Integer>();
-		
-		Set<Integer> elements = permutations.get(0).getPermutation().keySet();
-		
-		for (Integer el : elements){
+		for (int p = 0; p < degree; p++){
 			boolean ok = true;
-			for (Permutation perm : permutations){
-				if (perm.getPermutation().get(el) != el){
+			for (Permutation generator : generators)
+				if (p < generator.size() && generator.image(p) != p){
 					ok = false;
 					break;
 				}
-			}
 			if (ok)
-				ret.add(el);
+				ret.add(p);
 		}
 		return ret;
 	}
-	
+
 	/**
 	 * Finds an orbit of the group with resepct to a vertex
 	 * @param u Vertex
 	 * @return An orbit (list of vertices) of the group with respect to u
 	 */
-   	public List<Integer> orbit(Integer u){
-   		
-   		List<Integer> ret = new ArrayList<Integer>();
-   		for (Permutation perm : permutations)
-   			ret.add(perm.getPermutation().get(u));
-   		return ret;
-	}
-   	
-   	/**
-   	 * Checks if the group is semi-regular
-   	 * Group is semi-regular if no permutation which is not an identity
-   	 * has fixed points
-   	 * @return {@code true} if the group is semi-regular {@code false} otherwise
-   	 */
-   	public boolean isSemiRegular(){
-   		for (Permutation p : permutations)
-   			if (!p.isIdentityPermutation())
-   				if (p.fix().size() > 0)
-   					return false;
-   		return true;
-   	}
-   	
-   	/**
-   	 * @return Size of the permutation group
-   	 */
-   	public int size(){
-   		return permutations.size();
-   	}
-   	
-   	/**
-   	 * @return Permutations forming the group
-   	 */
+	public List<Integer> orbit(Integer u){
+		List<Integer> ret = new ArrayList<Integer>();
+		ret.add(u);
+		if (u >= degree)
+			return ret;
+		boolean[] reached = new boolean[degree];
+		reached[u] = true;
+		for (int i = 0; i < ret.size(); i++)
+			for (Permutation generator : generators){
+				int x = ret.get(i);
+				int y = x < generator.size() ? generator.image(x) : x;
+				if (!reached[y]){
+					reached[y] = true;
+					ret.add(y);
+				}
+			}
+		return ret;
+	}
+
+	/**
+	 * Checks if the group is semi-regular
+	 * Group is semi-regular if no permutation which is not an identity
+	 * has fixed points, which means that the stabilizer of every point is trivial,
+	 * or that all orbits are as big as the group
+	 * @return {@code true} if the group is semi-regular {@code false} otherwise
+	 */
+	public boolean isSemiRegular(){
+		long size = size();
+		boolean[] checked = new boolean[degree];
+		for (int p = 0; p < degree; p++){
+			if (checked[p])
+				continue;
+			List<Integer> orbit = orbit(p);
+			if (orbit.size() != size)
+				return false;
+			for (int x : orbit)
+				checked[x] = true;
+		}
+		return true;
+	}
+
+	/**
+	 * @return Size of the permutation group, the product of sizes of orbits of the base points
+	 */
+	public long size(){
+		findBase();
+		long size = 1;
+		for (List<Integer> orbit : basicOrbits)
+			size *= orbit.size();
+		return size;
+	}
+
+	/**
+	 * @return Points of the base
+	 */
+	public List<Integer> getBase(){
+		findBase();
+		return base;
+	}
+
+	/**
+	 * @return Generators of the group
+	 */
+	public List<Permutation> getGenerators(){
+		return generators;
+	}
+
+	/**
+	 * Forms all elements of the group. The number of elements can be exponential
+	 * in the number of points, so this should only be used for small groups
+	 * @return Permutations forming the group
+	 */
 	public List<Permutation> getPermutations() {
-		return permutations;
+		return getPermutations(Integer.MAX_VALUE);
 	}
 
 	/**
-	 * @param permutations Permutations to set
+	 * Forms at most the given number of elements of the group, starting with the identity.
+	 * Elements are formed one by one as products of transversal elements, one for each level,
+	 * the deepest level being applied first, so only the returned elements are created
+	 * @param limit Maximum number of elements
+	 * @return The first {@code limit} permutations of the group, or all of them if there are fewer
+	 */
+	public List<Permutation> getPermutations(int limit) {
+		if (permutations != null)
+			return permutations.size() <= limit ? permutations : permutations.subList(0, limit);
+
+		findBase();
+		List<Permutation> ret = new ArrayList<Permutation>();
+		int levels = base.size();
+		//the chosen orbit point for each level and the products of the chosen transversal elements of the previous levels
+		int[] choice = new int[levels];
+		int[][] products = new int[levels + 1][];
+		products[0] = new int[degree];
+		for (int p = 0; p < degree; p++)
+			products[0][p] = p;
+		int from = 0;
+		while (ret.size() < limit){
+			for (int level = from; level < levels; level++){
+				int[] u = transversals.get(level)[basicOrbits.get(level).get(choice[level])];
+				int[] product = new int[degree];
+				for (int p = 0; p < degree; p++)
+					product[p] = products[level][u[p]];
+				products[level + 1] = product;
+			}
+			ret.add(new Permutation(products[levels].clone()));
+
+			//next choice of orbit points, the deepest level changing first
+			int level = levels - 1;
+			while (level >= 0 && ++choice[level] == basicOrbits.get(level).size()){
+				choice[level] = 0;
+				level--;
+			}
+			if (level < 0)
+				break;
+			from = level;
+		}
+		if (ret.size() == size())
+			permutations = ret;
+		return ret;
+	}
+
+	/**
+	 * Finds elements of the group with the given property by a backtracking search over the stabilizer chain.
+	 * Images of the base points are chosen one by one and the property is checked
+	 * after each choice, so all elements mapping the base points chosen so far in the same way are
+	 * skipped together when none of them can have the property
+	 * @param property Property of the permutations
+	 * @param limit Maximum number of elements
+	 * @return At most {@code limit} elements of the group which have the property
+	 */
+	public List<Permutation> search(Property property, int limit){
+		findBase();
+		List<Permutation> ret = new ArrayList<Permutation>();
+		int levels = base.size();
+		int[][] products = new int[levels + 1][];
+		products[0] = new int[degree];
+		for (int p = 0; p < degree; p++)
+			products[0][p] = p;
+		if (levels == 0){
+			Permutation identity = new Permutation(products[0]);
+			if (limit > 0 && property.has(identity))
+				ret.add(identity);
+			return ret;
+		}
+
+		int[] choice = new int[levels];
+		choice[0] = -1;
+		int level = 0;
+		while (level >= 0 && ret.size() < limit){
+			if (++choice[level] == basicOrbits.get(level).size()){
+				level--;
+				continue;
+			}
+			int[] u = transversals.get(level)[basicOrbits.get(level).get(choice[level])];
+			int[] product = new int[degree];
+			for (int p = 0; p < degree; p++)
+				product[p] = products[level][u[p]];
+			products[level + 1] = product;
+			if (!property.isPossible(product, level))
+				continue;
+			if (level == levels - 1){
+				Permutation permutation = new Permutation(product);
+				if (property.has(permutation))
+					ret.add(permutation);
+			}
+			else
+				choice[++level] = -1;
+		}
+		return ret;
+	}
+
+	/**
+	 * Constructs the same group with a base starting with the given points. Searches can
+	 * prune more when the base points are chosen so that their images depend on each other
+	 * @param basePrefix Points which should be the first points of the base
+	 * @return The group with the new base
+	 */
+	public PermutationGroup changeBase(List<Integer> basePrefix){
+		return new PermutationGroup(generators, basePrefix);
+	}
+
+	/**
+	 * Property of permutations searched for in the group
+	 */
+	public interface Property{
+
+		/**
+		 * Checks if an element of the group which maps the base points up to the given level
+		 * as the given permutation does can have the property. It is called for the levels in order.
+		 * @param images Images of the points, correct only for the base points up to {@code level}
+		 * @param level Index of the last base point whose image is known
+		 * @return {@code false} if no such element has the property, {@code true} otherwise
+		 */
+		boolean isPossible(int[] images, int level);
+
+		/**
+		 * @param permutation Element of the group
+		 * @return {@code true} if the permutation has the property
+		 */
+		boolean has(Permutation permutation);
+	}
+
+	/**
+	 * @param permutations Permutations to set, the group they generate replaces this one
 	 */
 	public void setPermutations(List<Permutation> permutations) {
-		this.permutations = permutations;
+		init(permutations, new ArrayList<Integer>());
 	}
-	
+
 	@Override
 	public String toString() {
 		String ret = "";
@@ -174,11 +567,11 @@ public class PermutationGroup {
 			ret += "Reflection ";
 		else if (reflection == null && rotation != null)
 			ret += "Rotation ";
-		else
+		else if (reflection != null && rotation != null)
 			ret += "Dihedral ";
-		
-		ret += permutations;
-		
+
+		ret += generators;
+
 		return ret;
 	}
 
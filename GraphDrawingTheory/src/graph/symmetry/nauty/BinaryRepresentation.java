@@ -1,5 +1,6 @@
 package graph.symmetry.nauty;
 
+import graph.elements.CompactGraph;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
@@ -7,17 +8,122 @@ import graph.elements.Vertex;
 import java.util.List;
 
 /**
- * Binary representation of a graph, used in graph labeling algorithm 
+ * Binary representation of a graph, used in graph labeling algorithm
+ * The adjacency matrix of the graph is stored as a bit matrix, where each row
+ * is an array of 64-bit words, so that the adjacency of two vertices can be checked in constant time
+ * and the number of neighbours of a vertex in a set of vertices can be counted word by word.
+ * Vertices are identified by their positions in the graph's list of vertices.
+ * Binary representations of the graph given an order of its vertices can be packed into
+ * arrays of words (certificates) and compared without building strings.
  * @author Renata
  * @param <V> The vertex type
- * @param <E> The edge type 
+ * @param <E> The edge type
  */
 public class BinaryRepresentation<V extends Vertex, E extends Edge<V>> {
 
-	private Graph<V,E> graph;
-	
+	private CompactGraph<V,E> compact;
+	/**
+	 * Number of words in one row of the matrix
+	 */
+	private int words;
+	/**
+	 * Rows of the adjacency matrix. For directed graphs, bit u of row v is set
+	 * if there is an edge from v to u
+	 */
+	private long[] adjacency;
+	/**
+	 * Rows of the symmetric adjacency matrix, in which two vertices are adjacent if they
+	 * are connected by an edge of any direction. Same as the adjacency matrix for undirected graphs
+	 */
+	private long[] neighbours;
+
 	public BinaryRepresentation(Graph<V,E> graph){
-		this.graph = graph;
+		compact = graph.freeze();
+		int n = compact.vertexCount();
+		words = (n + 63) >>> 6;
+		neighbours = new long[n * words];
+		for (int v = 0; v < n; v++)
+			for (int position = compact.offset(v); position < compact.offset(v + 1); position++)
+				set(neighbours, v, compact.target(position));
+		if (graph.isDirected()){
+			adjacency = new long[n * words];
+			for (int v = 0; v < n; v++)
+				for (int position = compact.outOffset(v); position < compact.outOffset(v + 1); position++)
+					set(adjacency, v, compact.outTarget(position));
+		}
+		else
+			adjacency = neighbours;
+	}
+
+	private void set(long[] matrix, int row, int column){
+		if (column != -1)
+			matrix[row * words + (column >>> 6)] |= 1L << column;
+	}
+
+	/**
+	 * @return Number of vertices
+	 */
+	public int size(){
+		return compact.vertexCount();
+	}
+
+	/**
+	 * @return Number of words needed to store a set of vertices
+	 */
+	public int words(){
+		return words;
+	}
+
+	/**
+	 * @param v Vertex
+	 * @return Id of the vertex
+	 */
+	public int vertexId(V v){
+		return compact.vertexId(v);
+	}
+
+	/**
+	 * @param id Vertex id
+	 * @return Vertex with the given id
+	 */
+	public V vertex(int id){
+		return compact.vertex(id);
+	}
+
+	/**
+	 * Checks if there is an edge between two vertices. For directed graphs, the edge
+	 * must go from {@code u} to {@code v}
+	 * @param u Id of the first vertex
+	 * @param v Id of the second vertex
+	 * @return {@code true} if the vertices are adjacent, {@code false} otherwise
+	 */
+	public boolean adjacent(int u, int v){
+		return (adjacency[u * words + (v >>> 6)] & (1L << v)) != 0;
+	}
+
+	/**
+	 * Counts neighbours of a vertex, regardless of the directions of edges, in a set of vertices
+	 * @param v Vertex id
+	 * @param set Set of vertices, as a bit set of {@link #words()} words
+	 * @return Number of neighbours of {@code v} in the set
+	 */
+	public int countNeighbours(int v, long[] set){
+		int count = 0;
+		int row = v * words;
+		for (int i = 0; i < words; i++)
+			count += Long.bitCount(neighbours[row + i] & set[i]);
+		return count;
+	}
+
+	/**
+	 * Adds neighbours of a vertex, regardless of the directions of edges, to the given set
+	 * @param v Vertex id
+	 * @param set Set of vertices, as a bit set of {@link #words()} words
+	 */
+	public void addNeighbours(int v, long[] set){
+		int row = v * words;
+		for (int i = 0; i < words; i++)
+			set[i] |= neighbours[row + i];
 	}
 
 	/**
@@ -26,17 +132,47 @@ public class BinaryRepresentation<V extends Vertex, E extends Edge<V>> {
 	 * @return Binary representation
 	 */
 	public String binaryRepresenatation(List<V> verticeList){
-		String representation = "";
-		for (int i = 0; i < verticeList.size(); i++){
-			V v1 = verticeList.get(i);
-			for (int j = i + 1; j < verticeList.size(); j++){
-				V v2 = verticeList.get(j);
-				if (graph.edgeBetween(v1, v2) != null)
-					representation += "1";
-				else
-					representation += "0";
-			}
-		}
-		return representation;
+		int[] order = new int[verticeList.size()];
+		for (int i = 0; i < order.length; i++)
+			order[i] = vertexId(verticeList.get(i));
+		StringBuilder representation = new StringBuilder();
+		for (int i = 0; i < order.length; i++)
+			for (int j = i + 1; j < order.length; j++)
+				representation.append(adjacent(order[i], order[j]) ? '1' : '0');
+		return representation.toString();
+	}
+
+	/**
+	 * Packs the binary representation of the graph given an order of its vertices into words.
+	 * The first bit of the representation is the highest bit of the first word, so
+	 * certificates compare like the binary representations themselves
+	 * @param order Ids of vertices in order
+	 * @return Certificate of the order
+	 */
+	public long[] certificate(int[] order){
+		long bits = (long) order.length * (order.length - 1) / 2;
+		long[] certificate = new long[(int) ((bits + 63) >>> 6)];
+		long position = 0;
+		for (int i = 0; i < order.length; i++)
+			for (int j = i + 1; j < order.length; j++, position++)
+				if (adjacent(order[i], order[j]))
+					certificate[(int) (position >>> 6)] |= Long.MIN_VALUE >>> (position & 63);
+		return certificate;
+	}
+
+	/**
+	 * Compares two certificates lexicographically, word by word
+	 * @param certificate1 The first certificate
+	 * @param certificate2 The second certificate
+	 * @return A negative number, zero or a positive number if the first certificate
+	 * is smaller than, equal to or bigger than the second one
+	 */
+	public static int compare(long[] certificate1, long[] certificate2){
+		int length = Math.min(certificate1.length, certificate2.length);
+		for (int i = 0; i < length; i++)
+			if (certificate1[i] != certificate2[i])
+				//unsigned comparison
+				return (certificate1[i] ^ Long.MIN_VALUE) < (certificate2[i] ^ Long.MIN_VALUE) ? -1 : 1;
+		return certificate1.length - certificate2.length;
 	}
 }
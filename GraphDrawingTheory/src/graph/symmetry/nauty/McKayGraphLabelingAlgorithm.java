@@ -3,297 +3,339 @@ package graph.symmetry.nauty;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.instrumentation.Instrumentation;
+import graph.instrumentation.Task;
 import graph.symmetry.Permutation;
-import graph.util.Pair;
+import graph.symmetry.PermutationGroup;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Implementation of McKay's canonical graph labeling algorithm
+ * The search tree is explored depth-first, keeping only the partitions on the current path,
+ * the first terminal node and the best terminal node (the one with the largest binary representation,
+ * which gives the canonical labeling). When the binary representation of a terminal node
+ * equals that of the first or the best one, an automorphism is found. Automorphisms are used to prune the tree:
+ * children of a node which are in the same orbit of the automorphisms fixing the node are equivalent,
+ * so only one of them is explored, and after finding an automorphism which maps the first terminal node
+ * to the current one, the search goes back to the last node they have in common.
  * @author Renata
  * @param <V> The vertex type
- * @param <E> The edge type 
+ * @param <E> The edge type
  */
 public class McKayGraphLabelingAlgorithm<V extends Vertex, E extends Edge<V>> {
 
+	/**
+	 * Bound on the number of automorphisms formed when they are listed or tried one by one
+	 */
+	public static final int DEFAULT_AUTOMORPHISMS_LIMIT = 1000;
 
 	private Graph<V,E> graph;
 	private BinaryRepresentation<V, E> binaryRepresenatation;
+	private PartitionRefinement<V, E> refinement;
+	private int size;
+
+	/**
+	 * Partitions of the nodes on the current path, by level
+	 */
+	private int[][] labs, cellEnds;
+	/**
+	 * Vertices which were separated from their cells on the current path and on the first path
+	 */
+	private int[] fixed, firstFixed;
+	private int firstLevel;
+	/**
+	 * Orbits of automorphisms fixing the node on each level, given as parents in a union-find structure,
+	 * and the number of automorphisms they were computed from
+	 */
+	private int[][] orbits;
+	private int[] orbitsVersion;
+	/**
+	 * Children which were already explored, by level
+	 */
+	private int[][] explored;
+	private int[] exploredCount;
+	private int[] firstLeaf, bestLeaf;
+	private long[] firstCertificate, bestCertificate;
+	/**
+	 * Automorphisms found during the search, as arrays of images of vertices
+	 */
+	private List<int[]> generators;
+
 
-	
 	public McKayGraphLabelingAlgorithm(){
 	}
 
 	/**
-	 * Finds automorphisms of the graph
+	 * Finds all automorphisms of the graph. The identity permutation comes first.
+	 * The automorphism group can be exponentially large, so {@link #findGenerators(Graph)},
+	 * {@link #findAutomorphismGroup(Graph)} or {@link #findAutomorphisms(Graph, int)} should be used instead
 	 * @return A list of graph's automorphisms
+	 * @deprecated Forms the whole group, use {@link #findAutomorphisms(Graph, int)} to bound the number
+	 * of formed automorphisms
 	 */
+	@Deprecated
 	public List<Permutation> findAutomorphisms(Graph<V,E> graph){
-
-		this.graph = graph;
-		OrderedPartition<V> pi = new OrderedPartition<V>(graph.getVertices());
-		binaryRepresenatation = new BinaryRepresentation<V,E>(graph);
-		OrderedPartition<V> refined = refinementProcedure(pi);
-		SearchTree<V> tree = createSearchTree(refined);
-		List<SearchTreeNode<V>> terminalNodes = tree.getTerminalNodes();
-
-		//canonicalIsomorphism(terminalNodes);
-		return findAutomorphisms(terminalNodes);
-		
+		return findAutomorphisms(graph, Integer.MAX_VALUE);
 	}
 
-	private OrderedPartition<V> refinementProcedure(OrderedPartition<V> pi){
-
-		OrderedPartition<V> tau = new OrderedPartition<V>(pi.getPartition());
-		List<Pair<List<V>,List<V>>> B = new ArrayList<Pair<List<V>, List<V>>>();
-		Map<Integer, List<V>> degreesMap = new HashMap<Integer,List<V>>();
-
-		while (true){
-			B.clear();
-			for (List<V> Vi : tau.getPartition()){
-				for (List<V> Vj : tau.getPartition()){
-					//check if Vj shatters Vi
-					int deg = deg(Vi.get(0), Vj);
-					for (int i = 1; i < Vi.size(); i++){
-						if (deg(Vi.get(i), Vj) != deg){
-							B.add(new Pair<List<V>,List<V>>(Vi, Vj));
-							break;
-						}
-					}
-				}
-			}
-
-			if (B.size() == 0)
-				break;
-			
-			//System.out.println("B: " + B);
-
-			//now find the minimum element
-			Pair<List<V>, List<V>> minimalPair = findMinimal(B);
-
-			//System.out.println("Minimal pair is " + minimalPair );
-
-			//now replace Vi with X1,X2,...Xt
-			degreesMap.clear();
-			List<V> Vi = minimalPair.getKey();
-			List<V> Vj = minimalPair.getValue();
-
-			List<Integer> degrees = new ArrayList<Integer>();
-			for (V v : Vi){
-				Integer deg = deg(v, Vj);
-				List<V> verticesWithDegree = degreesMap.get(deg);
-				if (verticesWithDegree == null){
-					verticesWithDegree = new ArrayList<V>();
-					degreesMap.put(deg, verticesWithDegree);
-				}
-				verticesWithDegree.add(v);
-				if (!degrees.contains(deg))
-					degrees.add(deg);
-			}
-
-			//sort, to insert those with lower degrees first
-			Collections.sort(degrees);
-
-			List<List<V>> replacements = new ArrayList<List<V>>();
-			for (Integer degree : degrees){
-				replacements.add(degreesMap.get(degree));
+	/**
+	 * Finds at most the given number of automorphisms of the graph. The identity permutation comes first.
+	 * The search only finds a set of automorphisms which generates the automorphism group,
+	 * and the requested number of elements is formed from its base and strong generating set
+	 * @param graph Graph
+	 * @param limit Maximum number of automorphisms
+	 * @return A list of at most {@code limit} graph's automorphisms
+	 */
+	public List<Permutation> findAutomorphisms(final Graph<V,E> graph, final int limit){
+		return Instrumentation.time(McKayGraphLabelingAlgorithm.class, "findAutomorphisms", new Task<List<Permutation>, RuntimeException>() {
+			@Override
+			public List<Permutation> run() {
+				return doFindAutomorphisms(graph, limit);
 			}
+		});
+	}
 
-			tau.replace(Vi, replacements);
-
-		}
-		return tau;
-
+	private List<Permutation> doFindAutomorphisms(Graph<V,E> graph, int limit){
+		return findAutomorphismGroup(graph).getPermutations(limit);
 	}
 
-	/*
-	 * For lexicographic total order
-	 * (a,b) <= (c,d) if a<c or a=c and b<=d
+	/**
+	 * Finds the automorphism group of the graph, given by the generators found by the search.
+	 * Its order, orbits and membership are found without forming its elements
+	 * @param graph Graph
+	 * @return Automorphism group of the graph
 	 */
-	private Pair<List<V>, List<V>> findMinimal(List<Pair<List<V>,List<V>>> B){
-		Pair<List<V>, List<V>> minimalPair = null;
-		String minimalBinary1 = null;
-		String minimalBinary2 = null;
-
-		for (Pair<List<V>, List<V>> separationPair : B){
-
-			String binary1 = binaryRepresenatation.binaryRepresenatation(separationPair.getKey());
-
-			if (minimalPair == null){
-				minimalPair = separationPair;
-				minimalBinary1 = binary1;
-			}
-			else{
-
-				//compare current to minimal
-
-				if (binary1.compareTo(minimalBinary1) < 0){
-					minimalPair = separationPair;
-					minimalBinary1 = binary1;
-					minimalBinary2 = null;
-				}
-
-				else if (binary1.compareTo(minimalBinary1) == 0){
-					if (minimalBinary2 == null)
-						minimalBinary2 =  binaryRepresenatation.binaryRepresenatation(minimalPair.getValue());
-
-					String binary2 =  binaryRepresenatation.binaryRepresenatation(separationPair.getValue());
-					if (binary2.compareTo(minimalBinary2) <= 0){
-						minimalPair = separationPair;
-						minimalBinary1 = binary1;
-						minimalBinary2 = binary2;
-					}
+	public PermutationGroup findAutomorphismGroup(Graph<V,E> graph){
+		List<Permutation> generators = findGenerators(graph);
+		//the trivial group still acts on all vertices
+		if (generators.isEmpty())
+			generators.add(Permutation.identity(size));
+		return new PermutationGroup(generators);
+	}
 
-				}
+	/**
+	 * Finds a set of automorphisms which generates the automorphism group of the graph,
+	 * without forming the whole group
+	 * @param graph Graph
+	 * @return Generators of the graph's automorphism group
+	 */
+	public List<Permutation> findGenerators(final Graph<V,E> graph){
+		return Instrumentation.time(McKayGraphLabelingAlgorithm.class, "findGenerators", new Task<List<Permutation>, RuntimeException>() {
+			@Override
+			public List<Permutation> run() {
+				return doFindGenerators(graph);
 			}
-
-		}
-
-		//System.out.println("Minimap pair is: " + minimalPair.getKey() + " " + minimalPair.getValue());
-		return minimalPair;
-
+		});
 	}
 
-	private SearchTree<V> createSearchTree(OrderedPartition<V> rootPartition){
-		//System.out.println("Root " + rootPartition);
-		SearchTree<V> tree = new SearchTree<V>(rootPartition);
-		SearchTreeNode<V> root = tree.getRoot();
-		createSearchTree(root);
-		return tree;
+	private List<Permutation> doFindGenerators(Graph<V,E> graph){
+		search(graph);
+		List<Permutation> ret = new ArrayList<Permutation>(generators.size());
+		for (int[] generator : generators)
+			ret.add(permutation(generator));
+		return ret;
+	}
 
+	/**
+	 * Finds the canonical labeling of the graph, which is the order of vertices in the
+	 * terminal node with the largest binary representation. Isomorphic graphs have equal binary
+	 * representations given their canonical labelings
+	 * @param graph Graph
+	 * @return Vertices of the graph in canonical order
+	 */
+	public List<V> findCanonicalLabeling(Graph<V,E> graph){
+		search(graph);
+		List<V> ret = new ArrayList<V>(size);
+		for (int v : bestLeaf)
+			ret.add(binaryRepresenatation.vertex(v));
+		return ret;
 	}
 
-	private void createSearchTree(SearchTreeNode<V> currentNode){
-		//split tree note, create children, process children
-		OrderedPartition<V> currentPartition = currentNode.getNodePartition();
-		List<V> firstNontrivialrPart = currentPartition.getFirstNontrivialPart();
-		if (firstNontrivialrPart == null)
-			return;
-		//System.out.println("Current partition: " + currentPartition);
-		for (V u : firstNontrivialrPart){
-			//System.out.println("Splitting by " + u);
-			OrderedPartition<V> partition = splitPartition(u, currentPartition);
-			partition = refinementProcedure(partition);
-			//System.out.println(partition);
-			new SearchTreeNode<V>(partition, u, currentNode);
+	private void search(Graph<V,E> graph){
+		this.graph = graph;
+		binaryRepresenatation = new BinaryRepresentation<V,E>(graph);
+		refinement = new PartitionRefinement<V,E>(binaryRepresenatation);
+		size = binaryRepresenatation.size();
+
+		labs = new int[size + 1][];
+		cellEnds = new int[size + 1][];
+		orbits = new int[size + 1][];
+		explored = new int[size + 1][];
+		orbitsVersion = new int[size + 1];
+		exploredCount = new int[size + 1];
+		fixed = new int[size + 1];
+		firstFixed = new int[size + 1];
+		generators = new ArrayList<int[]>();
+		firstLeaf = null;
+		bestLeaf = null;
+
+		//the root partition, with all vertices in one cell
+		labs[0] = new int[size];
+		cellEnds[0] = new int[size];
+		for (int i = 0; i < size; i++)
+			labs[0][i] = i;
+		if (size > 0){
+			cellEnds[0][0] = size;
+			refinement.refine(labs[0], cellEnds[0], new int[]{0}, 1);
+			searchSubtree(0);
 		}
-		for (SearchTreeNode<V> node : currentNode.getChildren())
-			createSearchTree(node);
+		else
+			firstLeaf = bestLeaf = new int[0];
 
+		//release partitions on the path
+		labs = cellEnds = orbits = explored = null;
 	}
 
-	private OrderedPartition<V> splitPartition(V u, OrderedPartition<V> pi){
+	/**
+	 * Explores the subtree of the node on the current path at the given level
+	 * @param level Level of the node
+	 * @return Level of the node on the current path whose subtree should be explored next
+	 */
+	private int searchSubtree(int level){
+		int[] lab = labs[level];
+		int[] ends = cellEnds[level];
+
+		//the first nontrivial cell
+		int target = 0;
+		while (target < size && ends[target] - target == 1)
+			target = ends[target];
+		if (target == size)
+			return leaf(level);
+
+		//children are explored in the order of vertex ids
+		int[] children = Arrays.copyOfRange(lab, target, ends[target]);
+		Arrays.sort(children);
+		if (labs[level + 1] == null){
+			labs[level + 1] = new int[size];
+			cellEnds[level + 1] = new int[size];
+			explored[level] = new int[size];
+			orbits[level] = new int[size];
+		}
+		exploredCount[level] = 0;
+		orbitsVersion[level] = -1;
 
-		//find part which contains u
-		List<V> Vi = pi.partContainingVertex(u);
-		OrderedPartition<V> piPrim = new OrderedPartition<V>();
-		int i = pi.getPartition().indexOf(Vi);
-		for (int j = 0; j < pi.getPartition().size(); j++){
-			List<V> currentPart = pi.getPartition().get(j);
-			if (j != i){
-				piPrim.addPart(currentPart);
+		for (int u : children){
+			if (equivalentToExplored(level, u))
 				continue;
-			}
-			//add trivial partition {u}
-			//add Vi/u
-			List<V> uPart = new ArrayList<V>();
-			uPart.add(u);
-			piPrim.addPart(uPart);
-			List<V> ViPart = new ArrayList<V>();
-			ViPart.addAll(Vi);
-			ViPart.remove(u);
-			piPrim.addPart(ViPart);
 
+			//separate u from its cell and refine
+			int[] childLab = labs[level + 1];
+			int[] childEnds = cellEnds[level + 1];
+			System.arraycopy(lab, 0, childLab, 0, size);
+			System.arraycopy(ends, 0, childEnds, 0, size);
+			for (int position = target; position < ends[target]; position++)
+				if (childLab[position] == u){
+					childLab[position] = childLab[target];
+					childLab[target] = u;
+					break;
+				}
+			childEnds[target] = target + 1;
+			childEnds[target + 1] = ends[target];
+			fixed[level] = u;
+			refinement.refine(childLab, childEnds, new int[]{target}, 1);
+
+			int next = searchSubtree(level + 1);
+			explored[level][exploredCount[level]++] = u;
+			if (next < level)
+				return next;
 		}
-
-		return piPrim;
+		return level - 1;
 	}
 
-
-	@SuppressWarnings("unused")
-	private OrderedPartition<V> canonicalIsomorphism(List<SearchTreeNode<V>> terminalNodes){
-		OrderedPartition<V> maxPartition = null;
-		String maxBinary = null;
-		for (SearchTreeNode<V> node : terminalNodes){
-			OrderedPartition<V> partition = node.getNodePartition();
-			String binary = binaryRepresenatation.binaryRepresenatation(partition.getVerticesInOrder());
-			if (maxBinary != null)
-				System.out.println(binary.compareTo(maxBinary));
-
-			if (maxBinary == null || binary.compareTo(maxBinary) == 1){
-				maxPartition = partition;
-				maxBinary = binary;
-			}
-
+	/**
+	 * Processes a terminal node of the search tree
+	 * @param level Level of the node
+	 * @return Level of the node on the current path whose subtree should be explored next
+	 */
+	private int leaf(int level){
+		int[] order = labs[level];
+		if (firstLeaf == null){
+			firstLeaf = order.clone();
+			bestLeaf = firstLeaf;
+			firstCertificate = binaryRepresenatation.certificate(firstLeaf);
+			bestCertificate = firstCertificate;
+			System.arraycopy(fixed, 0, firstFixed, 0, level);
+			firstLevel = level;
+			return level - 1;
 		}
-		return maxPartition;
-	}
 
-	private List<Permutation> findAutomorphisms(List<SearchTreeNode<V>> terminalNodes){
-		List<Permutation> ret = new ArrayList<Permutation>();
+		long[] certificate = binaryRepresenatation.certificate(order);
+		if (BinaryRepresentation.compare(certificate, firstCertificate) == 0){
+			addGenerator(firstLeaf, order);
+			//the subtree containing the current node is an image of the one containing the first terminal node
+			int common = 0;
+			while (common < firstLevel && fixed[common] == firstFixed[common])
+				common++;
+			return common;
+		}
 
-		//calculate permutations
-		List<Permutation> allPermutations = new ArrayList<Permutation>();
-		for (SearchTreeNode<V> node : terminalNodes){
-			Permutation p = permutation(node.getNodePartition());
-			allPermutations.add(p);
+		int comparison = BinaryRepresentation.compare(certificate, bestCertificate);
+		if (comparison == 0)
+			addGenerator(bestLeaf, order);
+		else if (comparison > 0){
+			bestLeaf = order.clone();
+			bestCertificate = certificate;
 		}
+		return level - 1;
+	}
 
-		for (int i = 0; i < allPermutations.size(); i++)
-			for (int j = i; j < allPermutations.size(); j++){
-				Permutation p1 = allPermutations.get(i);
-				Permutation p2 = allPermutations.get(j);
-				
-				//calculate p1 * (p2)^-1
-				Permutation inverse = p2.inverse();
-				Permutation p = p1.mul(inverse);
-				
-				if (!ret.contains(p))
-					if (checkAutomorphism(p))
-						ret.add(p);
-			}
-		return ret;
+	private void addGenerator(int[] from, int[] to){
+		int[] generator = new int[size];
+		for (int i = 0; i < size; i++)
+			generator[from[i]] = to[i];
+		generators.add(generator);
 	}
 
-	private boolean checkAutomorphism(Permutation permutation){
-		for (E e : graph.getEdges()){
-			V v1 = e.getOrigin();
-			V v2 = e.getDestination();
-			Integer v1Index = graph.getVertices().indexOf(v1);
-			Integer v2Index = graph.getVertices().indexOf(v2);
-			Integer mappedV1Index = permutation.getPermutation().get(v1Index);
-			Integer mappedV2Index = permutation.getPermutation().get(v2Index);
-			V v1Mapped = graph.getVertices().get(mappedV1Index);
-			V v2Mapped = graph.getVertices().get(mappedV2Index);
-			if (graph.edgeBetween(v1Mapped, v2Mapped) == null)
-				return false;
+	/**
+	 * Checks if an automorphism which fixes all vertices separated on the path to the node
+	 * maps the given child to an already explored one
+	 */
+	private boolean equivalentToExplored(int level, int u){
+		if (exploredCount[level] == 0)
+			return false;
+		int[] parent = orbits[level];
+		if (orbitsVersion[level] != generators.size()){
+			for (int v = 0; v < size; v++)
+				parent[v] = v;
+			for (int[] generator : generators){
+				boolean fixesNode = true;
+				for (int i = 0; i < level && fixesNode; i++)
+					fixesNode = generator[fixed[i]] == fixed[i];
+				if (fixesNode)
+					for (int v = 0; v < size; v++)
+						union(parent, v, generator[v]);
+			}
+			orbitsVersion[level] = generators.size();
 		}
-		return true;
+		int orbit = find(parent, u);
+		for (int i = 0; i < exploredCount[level]; i++)
+			if (find(parent, explored[level][i]) == orbit)
+				return true;
+		return false;
 	}
 
-	private Permutation permutation(OrderedPartition<V> discretePartition){
-		Map<Integer, Integer> permutation = new HashMap<Integer, Integer>();
-		for (int i = 0; i < discretePartition.getPartition().size(); i++){
-			List<V> part = discretePartition.getPartition().get(i);
-			V v = part.get(0); //the only one
-			Integer vertexIndex = graph.getVertices().indexOf(v);
-			permutation.put(vertexIndex, i);
+	private int find(int[] parent, int v){
+		while (parent[v] != v){
+			parent[v] = parent[parent[v]];
+			v = parent[v];
 		}
-		return new Permutation(permutation);
+		return v;
 	}
 
+	private void union(int[] parent, int u, int v){
+		int rootU = find(parent, u);
+		int rootV = find(parent, v);
+		if (rootU < rootV)
+			parent[rootV] = rootU;
+		else if (rootV < rootU)
+			parent[rootU] = rootV;
+	}
 
-	private int deg(V v, List<V> Vj){
-		int deg = 0;
-		for (V test : graph.adjacentVertices(v)){
-			if (Vj.contains(test))
-				deg ++;
-		}
-		return deg;
+	private Permutation permutation(int[] images){
+		return new Permutation(images.clone());
 	}
 
 	public void setGraph(Graph<V, E> graph) {
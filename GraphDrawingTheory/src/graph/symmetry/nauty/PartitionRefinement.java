@@ -0,0 +1,183 @@
+package graph.symmetry.nauty;
+
+import graph.elements.Edge;
+import graph.elements.Vertex;
+
+import java.util.Arrays;
+
+/**
+ * Refines ordered partitions of vertices of a graph into equitable ones, as done by McKay's
+ * graph labeling algorithm. A partition is equitable if every two vertices of the same
+ * cell have the same number of neighbours in each of the cells.
+ * Partitions are given as arrays: {@code lab} contains ids of vertices cell by cell,
+ * and {@code cellEnds} contains, at the position where a cell starts, the position after its last vertex.
+ * Cells which might shatter other cells (splitters) are kept in a queue. A cell is split
+ * by the numbers of neighbours of its vertices in the splitter, fragments with fewer neighbours coming first.
+ * If the split cell was not waiting in the queue, all of its fragments except the largest one are added to it.
+ * All decisions depend only on positions of cells and numbers of neighbours, never on vertex ids,
+ * so isomorphic partitions are refined in the same way.
+ * Numbers of neighbours are counted on the bit matrix of the graph's binary representation.
+ * @param <V> The vertex type
+ * @param <E> The edge type
+ */
+public class PartitionRefinement<V extends Vertex, E extends Edge<V>> {
+
+	private BinaryRepresentation<V,E> representation;
+	private int size;
+	/**
+	 * Start of the cell containing each vertex
+	 */
+	private int[] cellOf;
+	/**
+	 * Circular queue of starts of splitter cells
+	 */
+	private int[] queue;
+	private boolean[] queued;
+	/**
+	 * Cells containing neighbours of the current splitter
+	 */
+	private int[] touchedCells;
+	private boolean[] touched;
+	/**
+	 * The current splitter and its neighbourhood, as bit sets
+	 */
+	private long[] splitter, neighbourhood;
+	/**
+	 * Numbers of neighbours in the splitter, in higher halves, and vertex ids, in lower halves,
+	 * of vertices of the cell which is being split
+	 */
+	private long[] sortBuffer;
+	private int queueHead, queueSize, cellCount;
+
+	/**
+	 * @param representation Binary representation of the graph whose partitions are refined
+	 */
+	public PartitionRefinement(BinaryRepresentation<V,E> representation){
+		this.representation = representation;
+		size = representation.size();
+		cellOf = new int[size];
+		queue = new int[size];
+		queued = new boolean[size];
+		touchedCells = new int[size];
+		touched = new boolean[size];
+		splitter = new long[representation.words()];
+		neighbourhood = new long[representation.words()];
+		sortBuffer = new long[size];
+	}
+
+	/**
+	 * Refines the partition into the coarsest equitable partition finer than it.
+	 * The partition must be equitable with respect to all cells which are not given as splitters,
+	 * which is the case when all cells are given, or when one vertex was separated from its cell
+	 * in an equitable partition and the singleton cell is the only splitter
+	 * @param lab Ids of vertices, cell by cell. Changed in place
+	 * @param cellEnds Ends of cells, at positions where they start. Changed in place
+	 * @param splitters Starts of cells which should be used as splitters
+	 * @param splitterCount Number of splitters
+	 * @return Number of cells of the refined partition
+	 */
+	public int refine(int[] lab, int[] cellEnds, int[] splitters, int splitterCount){
+		cellCount = 0;
+		for (int start = 0; start < size; start = cellEnds[start]){
+			cellCount++;
+			for (int position = start; position < cellEnds[start]; position++)
+				cellOf[lab[position]] = start;
+		}
+		queueHead = 0;
+		queueSize = 0;
+		for (int i = 0; i < splitterCount; i++)
+			enqueue(splitters[i]);
+
+		while (queueSize > 0 && cellCount < size){
+			int start = queue[queueHead];
+			queueHead = (queueHead + 1) % size;
+			queueSize--;
+			queued[start] = false;
+
+			Arrays.fill(splitter, 0);
+			Arrays.fill(neighbourhood, 0);
+			for (int position = start; position < cellEnds[start]; position++){
+				int v = lab[position];
+				splitter[v >>> 6] |= 1L << v;
+				representation.addNeighbours(v, neighbourhood);
+			}
+
+			//only cells containing neighbours of the splitter can be shattered
+			int touchedCount = 0;
+			for (int word = 0; word < neighbourhood.length; word++){
+				long bits = neighbourhood[word];
+				while (bits != 0){
+					int v = (word << 6) + Long.numberOfTrailingZeros(bits);
+					bits &= bits - 1;
+					int cell = cellOf[v];
+					if (!touched[cell] && cellEnds[cell] - cell > 1){
+						touched[cell] = true;
+						touchedCells[touchedCount++] = cell;
+					}
+				}
+			}
+			Arrays.sort(touchedCells, 0, touchedCount);
+			for (int i = 0; i < touchedCount; i++){
+				touched[touchedCells[i]] = false;
+				split(touchedCells[i], lab, cellEnds);
+			}
+		}
+
+		while (queueSize > 0){
+			queued[queue[queueHead]] = false;
+			queueHead = (queueHead + 1) % size;
+			queueSize--;
+		}
+		return cellCount;
+	}
+
+	private void split(int start, int[] lab, int[] cellEnds){
+		int end = cellEnds[start];
+		boolean equal = true;
+		for (int position = start; position < end; position++){
+			int v = lab[position];
+			long count = (neighbourhood[v >>> 6] & (1L << v)) == 0 ? 0 : representation.countNeighbours(v, splitter);
+			sortBuffer[position - start] = (count << 32) | v;
+			if (position > start && (sortBuffer[position - start] >>> 32) != (sortBuffer[0] >>> 32))
+				equal = false;
+		}
+		if (equal)
+			return;
+
+		Arrays.sort(sortBuffer, 0, end - start);
+		boolean wasQueued = queued[start];
+		int largest = start;
+		int fragment = start;
+		for (int position = start; position < end; position++){
+			long entry = sortBuffer[position - start];
+			if (position > start && (entry >>> 32) != (sortBuffer[position - start - 1] >>> 32)){
+				cellEnds[fragment] = position;
+				if (position - fragment > cellEnds[largest] - largest)
+					largest = fragment;
+				fragment = position;
+				cellCount++;
+				if (wasQueued)
+					enqueue(fragment);
+			}
+			int v = (int) entry;
+			lab[position] = v;
+			cellOf[v] = fragment;
+		}
+		cellEnds[fragment] = end;
+		if (end - fragment > cellEnds[largest] - largest)
+			largest = fragment;
+
+		if (!wasQueued)
+			for (fragment = start; fragment < end; fragment = cellEnds[fragment])
+				if (fragment != largest)
+					enqueue(fragment);
+	}
+
+	private void enqueue(int start){
+		if (queued[start])
+			return;
+		queued[start] = true;
+		queue[(queueHead + queueSize) % size] = start;
+		queueSize++;
+	}
+}
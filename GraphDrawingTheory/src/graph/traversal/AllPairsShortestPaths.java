@@ -0,0 +1,334 @@
+package graph.traversal;
+
+import graph.elements.CompactGraph;
+import graph.elements.Edge;
+import graph.elements.Graph;
+import graph.elements.Vertex;
+import graph.util.Util;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Calculates lengths of shortest paths between all pairs of vertices of a graph.
+ * Breadth-first search is run from every vertex if the edges are not weighted, and
+ * Dijkstra's algorithm if they are. Searches from different sources are independent,
+ * so rows of the distance matrix are filled in parallel, on the shared fork-join pool unless another one is given.
+ * The matrix is stored in a single array, of shorts if the distances are numbers of edges
+ * which are guaranteed to fit into a short and of ints otherwise
+ * @author Renata
+ * @param <V> The vertex type
+ * @param <E> The edge type
+ */
+public class AllPairsShortestPaths<V extends Vertex, E extends Edge<V>> {
+
+	/**
+	 * Distance between vertices which are not connected by a path
+	 */
+	public static final int UNREACHABLE = -1;
+	/**
+	 * Largest number of vertices for which the matrix fits into an array
+	 */
+	public static final int MAX_VERTICES = 46340;
+	/**
+	 * Number of sources processed sequentially by one task
+	 */
+	private static final int SOURCES_PER_TASK = 16;
+
+	private CompactGraph<V,E> compact;
+	private boolean directed;
+	private boolean weighted;
+	private int n;
+	/**
+	 * Weights of edges by their ids, {@code null} if the edges are not weighted
+	 */
+	private int[] weights;
+	/**
+	 * Distance matrix, distance from {@code u} to {@code v} is stored at {@code u * n + v}.
+	 * Only one of the arrays is used
+	 */
+	private short[] shortDistances;
+	private int[] intDistances;
+
+	/**
+	 * Calculates the distances following edge directions if the graph is directed.
+	 * The edges are weighted unless all of them have weight zero, the default weight of edges
+	 * created in the editor, or all of them have weight one, when lengths are numbers of edges anyway
+	 * @param graph Graph
+	 */
+	public AllPairsShortestPaths(Graph<V,E> graph){
+		this(graph, graph.isDirected(), hasWeights(graph), Util.sharedPool());
+	}
+
+	/**
+	 * Calculates the distances on the shared fork-join pool
+	 * @param graph Graph
+	 * @param directed If edges should only be traversed from their origins to their destinations
+	 * @param weighted If lengths of paths are sums of their edges' weights, or numbers of their edges
+	 */
+	public AllPairsShortestPaths(Graph<V,E> graph, boolean directed, boolean weighted){
+		this(graph, directed, weighted, Util.sharedPool());
+	}
+
+	/**
+	 * Calculates the distances
+	 * @param graph Graph
+	 * @param directed If edges should only be traversed from their origins to their destinations
+	 * @param weighted If lengths of paths are sums of their edges' weights, or numbers of their edges.
+	 * Weights must not be negative, and lengths of paths must fit into an int
+	 * @param pool Pool on which the rows are filled, {@code null} if they should be filled by the calling thread
+	 */
+	public AllPairsShortestPaths(Graph<V,E> graph, boolean directed, boolean weighted, ForkJoinPool pool){
+		compact = graph.freeze();
+		// traversing directed edges requires the rows of outgoing edges, which are only
+		// built for directed graphs
+		this.directed = directed && compact.isDirected();
+		this.weighted = weighted;
+		n = compact.vertexCount();
+		if (n > MAX_VERTICES)
+			throw new IllegalArgumentException("Distance matrix of " + n + " vertices doesn't fit into an array");
+
+		if (weighted){
+			weights = new int[compact.edgeCount()];
+			for (int i = 0; i < weights.length; i++){
+				weights[i] = compact.edge(i).getWeight();
+				if (weights[i] < 0)
+					throw new IllegalArgumentException("Edge " + compact.edge(i) + " has a negative weight");
+			}
+		}
+		if (!weighted && n <= Short.MAX_VALUE)
+			shortDistances = new short[n * n];
+		else
+			intDistances = new int[n * n];
+
+		if (pool == null || n <= SOURCES_PER_TASK)
+			new RowsTask(0, n).compute();
+		else
+			pool.invoke(new RowsTask(0, n));
+	}
+
+	private static <V extends Vertex, E extends Edge<V>> boolean hasWeights(Graph<V,E> graph){
+		boolean zero = false, one = false;
+		for (E e : graph.getEdges()){
+			if (e.getWeight() == 0)
+				zero = true;
+			else if (e.getWeight() == 1)
+				one = true;
+			else
+				return true;
+		}
+		return zero && one;
+	}
+
+	/**
+	 * @param source Source vertex
+	 * @param target Target vertex
+	 * @return Length of the shortest path from {@code source} to {@code target},
+	 * or {@link #UNREACHABLE} if there is no path or one of the vertices doesn't belong to the graph
+	 */
+	public int distance(V source, V target){
+		int u = compact.vertexId(source);
+		int v = compact.vertexId(target);
+		if (u == -1 || v == -1)
+			return UNREACHABLE;
+		return distance(u, v);
+	}
+
+	/**
+	 * @param source Id of the source vertex in the graph's compact snapshot
+	 * @param target Id of the target vertex
+	 * @return Length of the shortest path from {@code source} to {@code target},
+	 * or {@link #UNREACHABLE} if there is no path
+	 */
+	public int distance(int source, int target){
+		if (shortDistances != null)
+			return shortDistances[source * n + target];
+		return intDistances[source * n + target];
+	}
+
+	/**
+	 * @return Largest distance between two vertices connected by a path
+	 */
+	public int diameter(){
+		int diameter = 0;
+		for (int i = 0; i < n * n; i++)
+			diameter = Math.max(diameter, shortDistances != null ? shortDistances[i] : intDistances[i]);
+		return diameter;
+	}
+
+	/**
+	 * @return Compact snapshot of the graph, which gives ids of its vertices
+	 */
+	public CompactGraph<V,E> getCompactGraph(){
+		return compact;
+	}
+
+	/**
+	 * @return Number of vertices
+	 */
+	public int size(){
+		return n;
+	}
+
+	/**
+	 * @return {@code true} if edges were traversed only in their direction
+	 */
+	public boolean isDirected(){
+		return directed;
+	}
+
+	/**
+	 * @return {@code true} if lengths of paths are sums of weights of their edges
+	 */
+	public boolean isWeighted(){
+		return weighted;
+	}
+
+	/**
+	 * Fills rows of the distance matrix of a range of sources, splitting the range
+	 * while it is large. Arrays used by the searches are allocated once per task
+	 */
+	@SuppressWarnings("serial")
+	private class RowsTask extends RecursiveAction {
+
+		private int from, to;
+		private int[] distance, queue, heapPositions;
+		private boolean[] settled;
+
+		RowsTask(int from, int to){
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute(){
+			if (to - from > SOURCES_PER_TASK){
+				int middle = (from + to) >>> 1;
+				invokeAll(new RowsTask(from, middle), new RowsTask(middle, to));
+				return;
+			}
+			distance = new int[n];
+			queue = new int[n];
+			if (weighted){
+				heapPositions = new int[n];
+				settled = new boolean[n];
+			}
+			for (int source = from; source < to; source++){
+				Arrays.fill(distance, UNREACHABLE);
+				if (weighted)
+					dijkstra(source);
+				else
+					bfs(source);
+				int row = source * n;
+				if (shortDistances != null)
+					for (int v = 0; v < n; v++)
+						shortDistances[row + v] = (short) distance[v];
+				else
+					System.arraycopy(distance, 0, intDistances, row, n);
+			}
+		}
+
+		private int rowStart(int v){
+			return directed ? compact.outOffset(v) : compact.offset(v);
+		}
+
+		private int rowTarget(int position){
+			return directed ? compact.outTarget(position) : compact.target(position);
+		}
+
+		private int rowEdge(int position){
+			return directed ? compact.outEdge(position) : compact.incidentEdge(position);
+		}
+
+		private void bfs(int source){
+			int head = 0;
+			int tail = 0;
+			distance[source] = 0;
+			queue[tail++] = source;
+			while (head < tail){
+				int current = queue[head++];
+				int next = distance[current] + 1;
+				for (int i = rowStart(current); i < rowStart(current + 1); i++){
+					int target = rowTarget(i);
+					if (target != -1 && distance[target] == UNREACHABLE){
+						distance[target] = next;
+						queue[tail++] = target;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Dijkstra's algorithm, using {@code queue} as a binary heap of reached, but not settled vertices
+		 */
+		private void dijkstra(int source){
+			Arrays.fill(settled, false);
+			int heapSize = 0;
+			distance[source] = 0;
+			queue[heapSize] = source;
+			heapPositions[source] = heapSize++;
+			while (heapSize > 0){
+				int current = queue[0];
+				heapSize--;
+				if (heapSize > 0){
+					queue[0] = queue[heapSize];
+					heapPositions[queue[0]] = 0;
+					siftDown(0, heapSize);
+				}
+				settled[current] = true;
+				for (int i = rowStart(current); i < rowStart(current + 1); i++){
+					int target = rowTarget(i);
+					if (target == -1 || settled[target])
+						continue;
+					int newDistance = distance[current] + weights[rowEdge(i)];
+					if (distance[target] == UNREACHABLE){
+						distance[target] = newDistance;
+						queue[heapSize] = target;
+						heapPositions[target] = heapSize;
+						siftUp(heapSize++);
+					}
+					else if (newDistance < distance[target]){
+						distance[target] = newDistance;
+						siftUp(heapPositions[target]);
+					}
+				}
+			}
+		}
+
+		private void siftUp(int position){
+			int v = queue[position];
+			while (position > 0){
+				int parent = (position - 1) >>> 1;
+				int u = queue[parent];
+				if (distance[u] <= distance[v])
+					break;
+				queue[position] = u;
+				heapPositions[u] = position;
+				position = parent;
+			}
+			queue[position] = v;
+			heapPositions[v] = position;
+		}
+
+		private void siftDown(int position, int heapSize){
+			int v = queue[position];
+			while (true){
+				int child = 2 * position + 1;
+				if (child >= heapSize)
+					break;
+				if (child + 1 < heapSize && distance[queue[child + 1]] < distance[queue[child]])
+					child++;
+				int u = queue[child];
+				if (distance[v] <= distance[u])
+					break;
+				queue[position] = u;
+				heapPositions[u] = position;
+				position = child;
+			}
+			queue[position] = v;
+			heapPositions[v] = position;
+		}
+	}
+
+}
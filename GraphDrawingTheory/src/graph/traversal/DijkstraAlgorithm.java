@@ -5,33 +5,63 @@ import graph.elements.EdgeDirection;
 import graph.elements.Graph;
 import graph.elements.Path;
 import graph.elements.Vertex;
+import graph.instrumentation.Instrumentation;
+import graph.instrumentation.Task;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 
 /**
  * An implementation of Dijkstra's algorithm for finding a path between
  * two graph vertices in a graph
+ * The edges are indexed once, when the first path is requested after they were set: vertices
+ * are given integer ids and the edges leaving each vertex are stored in primitive arrays.
+ * Unsettled vertices are kept in a binary heap, and the search stops as soon as the target is settled.
+ * Arrays used by the search are reused between calls, so only the found path is allocated.
  * @author Renata
  * @param <V> The vertex type
- * @param <E> The edge type 
+ * @param <E> The edge type
  */
 public class DijkstraAlgorithm<V extends Vertex, E extends Edge<V>> {
 
 	private List<E> edges;
-	private Set<V> settledNodes;
-	private Set<V> unSettledNodes;
-	private Map<V, V> predecessors;
-	private Map<V, Integer> distance;
-	private Map<V,E> predEdges;
 	private boolean directed;
-	
+
+	/**
+	 * Ids of vertices, {@code null} if the edges are not indexed
+	 */
+	private Map<V, Integer> vertexIds;
+	/**
+	 * Start of each vertex's arcs in the arc arrays, one more element than there are vertices
+	 */
+	private int[] arcOffsets;
+	/**
+	 * Target vertex, edge index and weight of each arc. Every edge of an undirected graph
+	 * gives two arcs
+	 */
+	private int[] arcTargets, arcEdges, arcWeights;
+
+	// The state of the search, reused between calls
+	private long[] distance;
+	private int[] predEdges;
+	private int[] predecessors;
+	/**
+	 * Vertex {@code v} is reached in the current search if {@code reached[v] == search},
+	 * settled if {@code settled[v] == search}, and excluded if {@code excluded[v] == search}
+	 */
+	private int[] reached, settled, excluded;
+	private int search = 0;
+	/**
+	 * Binary heap of reached, but not settled vertices, ordered by distance,
+	 * and the position of each vertex in it
+	 */
+	private int[] heap, heapPositions;
+	private int heapSize;
+
 
 	/**
 	 * Initialized the algorithm's parameters based on the properties of the graph
@@ -43,7 +73,7 @@ public class DijkstraAlgorithm<V extends Vertex, E extends Edge<V>> {
 		this.edges = new ArrayList<E>(graph.getEdges());
 		this.directed = graph.isDirected();
 	}
-	
+
 	/**
 	 * Initializes the algorithm's parameters based on the given values
 	 * @param edges Edges to be traverse
@@ -53,14 +83,14 @@ public class DijkstraAlgorithm<V extends Vertex, E extends Edge<V>> {
 		this.edges = new ArrayList<E>(edges);
 		this.directed = directed;
 	}
-	
+
 	/**
-	 * Sets default value of the directed parameter and leaves the edge empty 
+	 * Sets default value of the directed parameter and leaves the edge empty
 	 */
 	public DijkstraAlgorithm(){
 		this.directed = false;
 	}
-	
+
 
 	/**
 	 * Finds a path in the given graph between two vertices if it exists.
@@ -71,7 +101,7 @@ public class DijkstraAlgorithm<V extends Vertex, E extends Edge<V>> {
 	public Path<V,E> getPath(V source, V target){
 		return getPath(source, target, null);
 	}
-	
+
 
 	/**
 	 * Finds a path in the given graph between two vertices which doesn't contain
@@ -82,156 +112,243 @@ public class DijkstraAlgorithm<V extends Vertex, E extends Edge<V>> {
 	 * @return A path from {@code source} to {@code target} not containing {@code excluding}
 	 * if it exists, otherwise null
 	 */
-	public Path<V,E> getPath(V source, V target, List<V> excluding) {
-		execute(source, excluding);
-		List<E> path = new ArrayList<E>();
-		List<EdgeDirection> directions = new ArrayList<EdgeDirection>();
-		V step = target;
+	public Path<V,E> getPath(final V source, final V target, final List<V> excluding) {
+		return Instrumentation.time(DijkstraAlgorithm.class, "getPath", new Task<Path<V,E>, RuntimeException>() {
+			@Override
+			public Path<V,E> run() {
+				return doGetPath(source, target, excluding);
+			}
+		});
+	}
+
+	private Path<V,E> doGetPath(V source, V target, List<V> excluding){
+		if (vertexIds == null)
+			index();
+		Integer sourceId = vertexIds.get(source);
+		Integer targetId = vertexIds.get(target);
+		if (sourceId == null || targetId == null || sourceId.equals(targetId))
+			return null;
+
+		execute(sourceId, targetId, excluding);
 		// check if a path exists
-		if (predecessors.get(step) == null) 
+		if (settled[targetId] != search)
 			return null;
 
-		E edge;
-		while (predecessors.get(step) != null) {
-			edge = predEdges.get(step);
+		List<E> path = new ArrayList<E>();
+		List<EdgeDirection> directions = new ArrayList<EdgeDirection>();
+		int step = targetId;
+		while (step != sourceId) {
+			E edge = edges.get(predEdges[step]);
 			path.add(edge);
-			if (edge.getOrigin() == step)
+			if (vertexIds.get(edge.getOrigin()) == step)
 				directions.add(EdgeDirection.TO_ORIGIN); //changed this
 			else
 				directions.add(EdgeDirection.TO_DESTINATION);
-			step = predecessors.get(step);
+			step = predecessors[step];
 		}
 		// Put it into the correct order
-		
-		if (path.size() == 0)
-			return null;
-		
 		Collections.reverse(path);
 		Collections.reverse(directions);
-		
+
 		return new Path<V,E>(path, directions);
 	}
-	
 
-	private void execute(V source, List<V> excluding) {
+	/**
+	 * Finds the length of the shortest path between two vertices, which is the sum of
+	 * weights of its edges
+	 * @param source Source vertex
+	 * @param target Target (destination) vertex
+	 * @return Length of the shortest path from {@code source} to {@code target}, or -1 if there is no path
+	 */
+	public long getDistance(V source, V target){
+		if (vertexIds == null)
+			index();
+		Integer sourceId = vertexIds.get(source);
+		Integer targetId = vertexIds.get(target);
+		if (sourceId == null || targetId == null)
+			return -1;
+		if (sourceId.equals(targetId))
+			return 0;
+		execute(sourceId, targetId, null);
+		return settled[targetId] == search ? distance[targetId] : -1;
+	}
 
-		settledNodes = new HashSet<V>();
-		unSettledNodes = new HashSet<V>();
-		distance = new HashMap<V, Integer>();
-		predecessors = new HashMap<V, V>();
-		predEdges = new HashMap<V,E>();
-		distance.put(source, 0);
+	/**
+	 * Gives ids to vertices of the edges and stores the arcs leaving each vertex
+	 */
+	private void index(){
+		vertexIds = new HashMap<V, Integer>();
+		List<E> edgeList = edges == null ? new ArrayList<E>() : edges;
+		edges = edgeList;
+		int m = edgeList.size();
+		int[] origins = new int[m];
+		int[] destinations = new int[m];
+		for (int i = 0; i < m; i++){
+			E e = edgeList.get(i);
+			origins[i] = id(e.getOrigin());
+			destinations[i] = id(e.getDestination());
+		}
+		int n = vertexIds.size();
 
-		unSettledNodes.add(source);
-		while (unSettledNodes.size() > 0) {
-			V node = getMinimum(unSettledNodes);
-			settledNodes.add(node);
-			unSettledNodes.remove(node);
-			findMinimalDistances(node, excluding);
+		arcOffsets = new int[n + 1];
+		for (int i = 0; i < m; i++){
+			arcOffsets[origins[i] + 1]++;
+			if (!directed)
+				arcOffsets[destinations[i] + 1]++;
+		}
+		for (int v = 0; v < n; v++)
+			arcOffsets[v + 1] += arcOffsets[v];
+		int arcs = arcOffsets[n];
+		arcTargets = new int[arcs];
+		arcEdges = new int[arcs];
+		arcWeights = new int[arcs];
+		int[] next = new int[n];
+		System.arraycopy(arcOffsets, 0, next, 0, n);
+		for (int i = 0; i < m; i++){
+			int weight = edgeList.get(i).getWeight();
+			addArc(next, origins[i], destinations[i], i, weight);
+			if (!directed)
+				addArc(next, destinations[i], origins[i], i, weight);
 		}
+
+		distance = new long[n];
+		predEdges = new int[n];
+		predecessors = new int[n];
+		reached = new int[n];
+		settled = new int[n];
+		excluded = new int[n];
+		heap = new int[n];
+		heapPositions = new int[n];
+		search = 0;
 	}
 
-	private void findMinimalDistances(V node, List<V> excluding) {
-		List<V> adjacentNodes = getNeighbors(node);
-		E minEdge;
-		for (V target : adjacentNodes) {
-			if (excluding != null && excluding.contains(target))
-				continue;
-			minEdge = getMinDistance(node, target);
-			if (getShortestDistance(target) > getShortestDistance(node)
-					+ minEdge.getWeight())
-				distance.put(target, getShortestDistance(node)
-						+ minEdge.getWeight());
-			predecessors.put(target, node);
-			predEdges.put(target, minEdge);
-
-			unSettledNodes.add(target);
+	private int id(V v){
+		Integer id = vertexIds.get(v);
+		if (id == null){
+			id = vertexIds.size();
+			vertexIds.put(v, id);
 		}
+		return id;
 	}
 
+	private void addArc(int[] next, int from, int to, int edge, int weight){
+		int position = next[from]++;
+		arcTargets[position] = to;
+		arcEdges[position] = edge;
+		arcWeights[position] = weight;
+	}
 
-	private E getMinDistance(V node, V target) {
-		E minEdge = null;
-		Integer min = null;
-		for (E edge : edges) {
-			if (edge.getOrigin().equals(node)
-					&& edge.getDestination().equals(target)) {
-				if (min == null || edge.getWeight() < min){
-					min = edge.getWeight();
-					minEdge = edge;
-				}
+	private void execute(int source, int target, List<V> excluding) {
+
+		search++;
+		if (excluding != null)
+			for (V v : excluding){
+				Integer id = vertexIds.get(v);
+				if (id != null)
+					excluded[id] = search;
 			}
-			if (!directed){
-				if (edge.getDestination().equals(node)
-						&& edge.getOrigin().equals(target)) {
-					if (min == null || edge.getWeight() < min){
-						min = edge.getWeight();
-						minEdge = edge;
-					}
+
+		heapSize = 0;
+		reached[source] = search;
+		distance[source] = 0;
+		push(source);
+		while (heapSize > 0) {
+			int node = pop();
+			settled[node] = search;
+			if (node == target)
+				break;
+			for (int position = arcOffsets[node]; position < arcOffsets[node + 1]; position++){
+				int next = arcTargets[position];
+				if (settled[next] == search || excluded[next] == search)
+					continue;
+				long newDistance = distance[node] + arcWeights[position];
+				if (reached[next] != search){
+					reached[next] = search;
+					distance[next] = newDistance;
+					predecessors[next] = node;
+					predEdges[next] = arcEdges[position];
+					push(next);
+				}
+				else if (newDistance < distance[next]){
+					distance[next] = newDistance;
+					predecessors[next] = node;
+					predEdges[next] = arcEdges[position];
+					siftUp(heapPositions[next]);
 				}
 			}
 		}
-		return minEdge;
 	}
 
-	private List<V> getNeighbors(V node) {
-		List<V> neighbors = new ArrayList<V>();
-		for (E edge : edges) {
-			if (edge.getOrigin().equals(node)
-					&& !isSettled(edge.getDestination())) {
-				neighbors.add(edge.getDestination());
-				continue;
-			}
-			if (!directed){
-				if (edge.getDestination().equals(node)
-						&& !isSettled(edge.getOrigin())) {
-					neighbors.add(edge.getOrigin());
-				}
-			}
-		}
-		return neighbors;
+	private void push(int v){
+		heap[heapSize] = v;
+		heapPositions[v] = heapSize;
+		heapSize++;
+		siftUp(heapSize - 1);
 	}
 
-	private V getMinimum(Set<V> vertices) {
-		V minimum = null;
-		for (V vertex : vertices) {
-			if (minimum == null) {
-				minimum = vertex;
-			} else {
-				if (getShortestDistance(vertex) < getShortestDistance(minimum)) {
-					minimum = vertex;
-				}
-			}
+	private int pop(){
+		int top = heap[0];
+		heapSize--;
+		if (heapSize > 0){
+			heap[0] = heap[heapSize];
+			heapPositions[heap[0]] = 0;
+			siftDown(0);
 		}
-		return minimum;
+		return top;
 	}
 
-	private boolean isSettled(V vertex) {
-		return settledNodes.contains(vertex);
+	private void siftUp(int position){
+		int v = heap[position];
+		while (position > 0){
+			int parent = (position - 1) >>> 1;
+			int u = heap[parent];
+			if (distance[u] <= distance[v])
+				break;
+			heap[position] = u;
+			heapPositions[u] = position;
+			position = parent;
+		}
+		heap[position] = v;
+		heapPositions[v] = position;
 	}
 
-	private int getShortestDistance(V destination) {
-		Integer d = distance.get(destination);
-		if (d == null) {
-			return Integer.MAX_VALUE;
-		} else {
-			return d;
+	private void siftDown(int position){
+		int v = heap[position];
+		while (true){
+			int child = 2 * position + 1;
+			if (child >= heapSize)
+				break;
+			if (child + 1 < heapSize && distance[heap[child + 1]] < distance[heap[child]])
+				child++;
+			int u = heap[child];
+			if (distance[v] <= distance[u])
+				break;
+			heap[position] = u;
+			heapPositions[u] = position;
+			position = child;
 		}
+		heap[position] = v;
+		heapPositions[v] = position;
 	}
 
 	/**
+	 * Sets the edges to be traversed. They are indexed when the next path is requested,
+	 * so the list shouldn't be changed until the edges are set again
 	 * @param edges Edges to set
 	 */
 	public void setEdges(List<E> edges) {
 		this.edges = edges;
+		vertexIds = null;
 	}
 
 	/**
 	 * @param directed Indicator if the graph is directed to set
 	 */
 	public void setDirected(boolean directed) {
+		if (this.directed != directed)
+			vertexIds = null;
 		this.directed = directed;
 	}
 
 
-} 
\ No newline at end of file
+}
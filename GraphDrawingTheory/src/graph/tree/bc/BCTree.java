@@ -1,11 +1,19 @@
 package graph.tree.bc;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
+import graph.properties.splitting.BiconnectedSplitting;
 
 
 /**
@@ -14,6 +22,9 @@ import graph.elements.Vertex;
  * Let B be the set of blocks and C be the set of cut vertices of a separable graph G. Construct a
  * graph H with vertex set B U C in which adjacencies are defined as follows: 
  * ci in C is adjacent to bj in B if and only if the block bj of G contains the cut vertex ci of G 
+ * The blocks, cut vertices and the edges of the tree are all found during one depth-first search of the graph.
+ * The tree keeps track of block nodes whose degree changed, so that the list of pendants can be updated
+ * without checking all blocks after each modification
  * @author Renata
  * @param <V> The vertex type
  * @param <E> The edge type 
@@ -41,12 +52,26 @@ public class BCTree<V extends Vertex, E extends Edge<V>> extends Graph<BCTreeNod
 	 * A list of pendants - block which contain only one cut vertex
 	 */
 	private List<Graph<V,E>> pendants = new ArrayList<Graph<V,E>>();
+	/**
+	 * Pendant block nodes, ordered by the order in which the nodes were added to the tree
+	 */
+	private TreeMap<Integer, BCTreeNode> pendantNodes = new TreeMap<Integer, BCTreeNode>();
+	/**
+	 * Order in which block nodes were added to the tree
+	 */
+	private Map<BCTreeNode, Integer> blockOrder = new HashMap<BCTreeNode, Integer>();
+	private int blockCount;
+	/**
+	 * Block nodes whose degree might have changed since the pendants were last updated
+	 */
+	private Set<BCTreeNode> changedBlocks = new HashSet<BCTreeNode>();
 
 	/**
 	 * Constructs the BC-tree of the specified graph
 	 * @param graph Graph
 	 */
 	public BCTree(Graph<V,E> graph){
+		super(false, true);
 		this.graph = graph;
 		cVertices = new ArrayList<BCTreeNode>();
 		bVertices = new ArrayList<BCTreeNode>();
@@ -56,11 +81,16 @@ public class BCTree<V extends Vertex, E extends Edge<V>> extends Graph<BCTreeNod
 	
 	@Override
 	public void addVertex(BCTreeNode node){
+		if (hasVertex(node))
+			return;
 		super.addVertex(node);
 		if (node.getType() == BCNodeType.C)
 			cVertices.add(node);
-		if (node.getType() == BCNodeType.B)
+		if (node.getType() == BCNodeType.B){
 			bVertices.add(node);
+			blockOrder.put(node, blockCount++);
+			changedBlocks.add(node);
+		}
 	}
 	
 	@Override
@@ -68,62 +98,100 @@ public class BCTree<V extends Vertex, E extends Edge<V>> extends Graph<BCTreeNod
 		super.removeVertex(node);
 		if (node.getType() == BCNodeType.C)
 			cVertices.remove(node);
-		else if (node.getType() == BCNodeType.B)
+		else if (node.getType() == BCNodeType.B){
 			bVertices.remove(node);
+			Integer order = blockOrder.remove(node);
+			if (order != null)
+				pendantNodes.remove(order);
+			changedBlocks.remove(node);
+		}
+	}
+
+	/**
+	 * Adds an edge and marks its block node as changed. Adding several edges at once
+	 * calls this method for each of them
+	 */
+	@Override
+	public void addEdge(BCTreeEdge edge){
+		super.addEdge(edge);
+		blockChanged(edge.getOrigin());
+		blockChanged(edge.getDestination());
+	}
+
+	@Override
+	public void removeEdge(BCTreeEdge edge){
+		super.removeEdge(edge);
+		blockChanged(edge.getOrigin());
+		blockChanged(edge.getDestination());
+	}
+
+	private void blockChanged(BCTreeNode node){
+		if (blockOrder.containsKey(node))
+			changedBlocks.add(node);
 	}
 
 	private void constructTree(){
 		
-		List<V> cutVertices = graph.listCutVertices();
-		List<Graph<V,E>> blocks = graph.listBiconnectedComponents();
+		BiconnectedSplitting<V,E> splitting = new BiconnectedSplitting<V,E>(graph);
+		List<Graph<V,E>> blocks = splitting.findBiconnectedComponents();
+		List<V> cutVertices = splitting.getCutVertices();
+		List<List<V>> blockCutVertices = splitting.getComponentCutVertices();
 		
+		Map<V, BCTreeNode> cutVertexNodes = new HashMap<V, BCTreeNode>();
 		for (V cutVertex : cutVertices){
 			BCTreeNode node = new BCTreeNode( BCNodeType.C, cutVertex);
 			addVertex(node);
+			cutVertexNodes.put(cutVertex, node);
 			if (root == null)
 				root = node;
 		}
 
-		for (Graph<V,E> block : blocks){
-			BCTreeNode node  = new BCTreeNode(BCNodeType.B, block);
+		for (int i = 0; i < blocks.size(); i++){
+			BCTreeNode node  = new BCTreeNode(BCNodeType.B, blocks.get(i));
 			addVertex(node);
-			int containedCutVerticesCount = 0;
-			for (V cutVertex : cutVertices){
-				if (block.hasVertex(cutVertex)){
-					addEdge(new BCTreeEdge(getVertexByContent(cutVertex),node));
-					containedCutVerticesCount++;
-				}
-			}
-			if (containedCutVerticesCount == 1)
-				pendants.add(block);
+			for (V cutVertex : blockCutVertices.get(i))
+				addEdge(new BCTreeEdge(cutVertexNodes.get(cutVertex),node));
 		}
 		
-		setParents(root, new ArrayList<BCTreeNode>());
+		setParents(root);
+		updatePendants();
 	}
 	
 
 	
 	/**
 	 * Updates the list of pendants after certain tree nodes were added or removed,
-	 * thus changing degrees of other nodes
+	 * thus changing degrees of other nodes. Only the blocks whose degree might have changed
+	 * since the last update are checked
 	 */
 	@SuppressWarnings("unchecked")
 	public void updatePendants(){
-		pendants.clear();
-		for (BCTreeNode blockNode : bVertices){
+		for (BCTreeNode blockNode : changedBlocks){
 			if (vertexDegree(blockNode) == 1)
-				pendants.add((Graph<V, E>) blockNode.getContent());
+				pendantNodes.put(blockOrder.get(blockNode), blockNode);
+			else
+				pendantNodes.remove(blockOrder.get(blockNode));
 		}
+		changedBlocks.clear();
+		pendants.clear();
+		for (BCTreeNode blockNode : pendantNodes.values())
+			pendants.add((Graph<V, E>) blockNode.getContent());
 	}
 	
-	private void setParents(BCTreeNode currentNode, List<BCTreeNode> processed){
-		processed.add(currentNode);
-		for (BCTreeEdge edge : adjacentEdges(currentNode)){
-			BCTreeNode other = edge.getOrigin() == currentNode ? edge.getDestination() : edge.getOrigin();
-			if (processed.contains(other))
-				continue;
-			other.setParent(currentNode);
-			setParents(other, processed);
+	private void setParents(BCTreeNode root){
+		if (root == null)
+			return;
+		Deque<BCTreeNode> stack = new ArrayDeque<BCTreeNode>();
+		stack.push(root);
+		while (!stack.isEmpty()){
+			BCTreeNode currentNode = stack.pop();
+			for (BCTreeEdge edge : adjacentEdges(currentNode)){
+				BCTreeNode other = edge.getOrigin() == currentNode ? edge.getDestination() : edge.getOrigin();
+				if (other == root || other == currentNode.getParent())
+					continue;
+				other.setParent(currentNode);
+				stack.push(other);
+			}
 		}
 	}
 	
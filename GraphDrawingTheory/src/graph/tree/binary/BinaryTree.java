@@ -4,6 +4,8 @@ import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
 import graph.exception.CannotBeAppliedException;
+import graph.instrumentation.Instrumentation;
+import graph.instrumentation.Task;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -53,6 +55,16 @@ public class BinaryTree<V extends Vertex, E extends Edge<V>> {
 	}
 	
 	public void execute(){
+		Instrumentation.time(BinaryTree.class, "execute", new Task<Void, RuntimeException>() {
+			@Override
+			public Void run() {
+				doExecute();
+				return null;
+			}
+		});
+	}
+
+	private void doExecute(){
 		try {
 			formBinaryTree(graph);
 			canBeConstructed = true;
@@ -300,6 +312,15 @@ public class BinaryTree<V extends Vertex, E extends Edge<V>> {
 	 * @return {@code true} if tree is balanced, {@code false} otherwise
 	 */
 	public boolean isBalanced(){
+		return Instrumentation.time(BinaryTree.class, "isBalanced", new Task<Boolean, RuntimeException>() {
+			@Override
+			public Boolean run() {
+				return doIsBalanced();
+			}
+		});
+	}
+
+	private boolean doIsBalanced(){
 		if (root == null)
 			return true;
  
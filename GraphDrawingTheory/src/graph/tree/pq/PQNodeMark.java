@@ -1,10 +0,0 @@
-package graph.tree.pq;
-
-/**
- * A list of PQ-node marks
- * @author Renata
- */
-public enum PQNodeMark {
-
-	UNMARKED, QUEUED, BLOCKED, UNBLOCKED;
-}
@@ -1,11 +0,0 @@
-package graph.tree.pq;
-
-/**
- * Validity of PQ-nodes (valid, invalid or needs to be reversed)
- * @author Renata
- */
-public enum PQNodeOrderValid {
-	
-	VALID, INVALID, REVERSAL;
-
-}
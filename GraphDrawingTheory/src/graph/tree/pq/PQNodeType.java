@@ -6,5 +6,5 @@ package graph.tree.pq;
  */
 public enum PQNodeType {
 
-	P,Q, LEAF;
+	P,Q, LEAF, INDICATOR;
 }
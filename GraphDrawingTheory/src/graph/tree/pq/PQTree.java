@@ -1,225 +1,603 @@
 package graph.tree.pq;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-
-import graph.elements.Edge;
-import graph.elements.Graph;
-import graph.elements.Vertex;
+import java.util.Arrays;
 
 /**
- * Class represents a PQ-tree, which is used in some algorithms for planarity testing
- * P nodes are cut vertices
- * Q nodes are nonseparable components
- * Leaves are virtual vertices (vertices on the other side of edges where one vertex is on subgraph Gk and the
- * other one is in V-Vk)
- * @author Renata
- *
+ * Class represents a PQ-tree, which is used in some algorithms for planarity testing.
+ * P-nodes are nodes whose children can be permuted arbitrarily, Q-nodes are nodes
+ * whose children can only be reversed. Leaves usually represent edges of a graph.
+ * Direction indicators are special children of Q-nodes which are not a part of the frontier,
+ * but show in which direction their Q-node is traversed when they are reached.
+ * Nodes are identified by integers and their data is kept in arrays. Ids of removed nodes are reused,
+ * so a tree can be cleared and rebuilt many times without allocating memory.
+ * Children of a node are kept in a doubly linked list. Since the two siblings of a node are not ordered,
+ * a list of children is traversed by moving from a node to its sibling which is different from the previous one,
+ * and a Q-node can be reversed without changing any links.
+ * Parents are found using a union-find structure over groups of children, so that all children of a Q-node
+ * can be moved to another Q-node in constant time.
  */
-public class PQTree <V extends Vertex, E extends Edge<V>> extends Graph<PQTreeNode, PQTreeEdge> {
+public class PQTree {
+
+	/**
+	 * Id used where there is no node
+	 */
+	public static final int NONE = -1;
+
+	/**
+	 * Number of ids which have been given to nodes, including the removed ones
+	 */
+	int size;
+	/**
+	 * First id in the list of removed nodes
+	 */
+	private int freeHead;
+	private int root;
 
+	PQNodeType[] types;
+	/**
+	 * Keys of leaves and indicators
+	 */
+	int[] keys;
+	/**
+	 * The two siblings of each node, at positions {@code 2 * node} and {@code 2 * node + 1}
+	 */
+	int[] siblings;
+	/**
+	 * The two endmost children of each node, at positions {@code 2 * node} and {@code 2 * node + 1}
+	 */
+	int[] endmostChildren;
+	/**
+	 * Number of children which are not direction indicators
+	 */
+	int[] childCounts;
 	/**
-	 * Lists of P-typed, Q-typed nodes and tree leaves
+	 * Group of the node's children
 	 */
-	private List<PQTreeNode> pNodes, qNodes, leaves;
-	
-	private Graph<V,E> graph;
+	int[] childGroups;
 	/**
-	 * The root of the PQ-tree is the unique node having no immediate siblings and no parent
+	 * Group the node belongs to as a child, {@code NONE} for the root
 	 */
-	private PQTreeNode root;
+	int[] parentGroups;
 
-	private Map<V, Integer> stNumbering;
+	/**
+	 * Union-find structure of child groups
+	 */
+	private int[] groupParents, groupSizes, groupOwners;
+	private int groupCount;
 
 	/**
-	 * Construct the PQ tree, given the a graph, a list of virtual edges and st-numbering
-	 * @param graph Graph for which the PQ-tree in being constructed
-	 * @param virtualEdges Virtual edges
-	 * @param stNumbering ST-numbering
+	 * Stack used for reading the frontier
 	 */
-	public PQTree(Graph<V,E> graph, List<E> virtualEdges, Map<V, Integer> stNumbering){
-		super();
-		this.graph = graph;
-		pNodes = new ArrayList<PQTreeNode>();
-		qNodes = new ArrayList<PQTreeNode>();
-		leaves = new ArrayList<PQTreeNode>();
-		this.stNumbering = stNumbering;
-		constructTree(virtualEdges);
+	private int[] stack;
 
+	/**
+	 * Receives leaves and direction indicators as they are reached when reading the frontier
+	 */
+	public interface FrontierVisitor{
+
+		/**
+		 * Called for each leaf
+		 * @param key Key of the leaf
+		 */
+		void leaf(int key);
+
+		/**
+		 * Called for each direction indicator
+		 * @param key Key of the indicator
+		 * @param opposed {@code true} if the indicator is traversed from its second sibling to its first one
+		 */
+		void indicator(int key, boolean opposed);
 	}
 
-	@Override
-	public void addVertex(PQTreeNode node){
-		super.addVertex(node);
-		if (node.getType() == PQNodeType.P)
-			pNodes.add(node);
-		else if (node.getType() == PQNodeType.Q)
-			qNodes.add(node);
-		else if (node.getType() == PQNodeType.LEAF)
-			leaves.add(node);
+	/**
+	 * Creates an empty tree
+	 */
+	public PQTree(){
+		this(16);
 	}
 
-	@Override
-	public void removeVertex(PQTreeNode node){
-		super.removeVertex(node);
-		if (node.getType() == PQNodeType.P)
-			pNodes.remove(node);
-		else if (node.getType() == PQNodeType.Q)
-			qNodes.remove(node);
-		else if (node.getType() == PQNodeType.LEAF)
-			leaves.remove(node);
+	/**
+	 * Creates an empty tree with room for the given number of nodes
+	 * @param capacity Initial capacity
+	 */
+	public PQTree(int capacity){
+		capacity = Math.max(capacity, 1);
+		types = new PQNodeType[capacity];
+		keys = new int[capacity];
+		siblings = new int[2 * capacity];
+		endmostChildren = new int[2 * capacity];
+		childCounts = new int[capacity];
+		childGroups = new int[capacity];
+		parentGroups = new int[capacity];
+		groupParents = new int[capacity];
+		groupSizes = new int[capacity];
+		groupOwners = new int[capacity];
+		stack = new int[3 * capacity];
+		clear();
 	}
 
-	@Override
-	public void addEdge(PQTreeEdge...edges){
-		super.addEdge(edges);
-		for (PQTreeEdge edge : edges){
-			edge.getDestination().setParent(edge.getOrigin());
-		}
+	/**
+	 * Removes all nodes, keeping the allocated arrays
+	 */
+	public void clear(){
+		size = 0;
+		groupCount = 0;
+		freeHead = NONE;
+		root = NONE;
 	}
 
-	private void constructTree(List<E> virtualEdges){
-		//the tree contains leaves
-		//which represent virtual vertices
-		//pay attention to the fact that there could be more leaves referencing the same vertex
+	/**
+	 * Creates a leaf
+	 * @param key Key of the leaf
+	 * @return Id of the leaf
+	 */
+	public int createLeaf(int key){
+		int node = allocate(PQNodeType.LEAF);
+		keys[node] = key;
+		return node;
+	}
 
+	/**
+	 * Creates a direction indicator
+	 * @param key Key of the indicator
+	 * @return Id of the indicator
+	 */
+	public int createIndicator(int key){
+		int node = allocate(PQNodeType.INDICATOR);
+		keys[node] = key;
+		return node;
+	}
 
-		for (V v : graph.getVertices()){
-			PQTreeNode node = new PQTreeNode( PQNodeType.P, v);
-			addVertex(node);
+	/**
+	 * Creates a P-node or a Q-node without children
+	 * @param type Type of the node
+	 * @return Id of the node
+	 */
+	public int createNode(PQNodeType type){
+		int node = allocate(type);
+		if (groupCount == groupParents.length){
+			int capacity = 2 * groupCount;
+			groupParents = Arrays.copyOf(groupParents, capacity);
+			groupSizes = Arrays.copyOf(groupSizes, capacity);
+			groupOwners = Arrays.copyOf(groupOwners, capacity);
+		}
+		int group = groupCount++;
+		groupParents[group] = group;
+		groupSizes[group] = 1;
+		groupOwners[group] = node;
+		childGroups[node] = group;
+		return node;
+	}
 
-			if (root == null)
-				root = node;
+	private int allocate(PQNodeType type){
+		int node;
+		if (freeHead != NONE){
+			node = freeHead;
+			freeHead = siblings[2 * node];
 		}
+		else{
+			if (size == types.length)
+				grow(2 * size);
+			node = size++;
+		}
+		types[node] = type;
+		siblings[2 * node] = NONE;
+		siblings[2 * node + 1] = NONE;
+		endmostChildren[2 * node] = NONE;
+		endmostChildren[2 * node + 1] = NONE;
+		childCounts[node] = 0;
+		childGroups[node] = NONE;
+		parentGroups[node] = NONE;
+		return node;
+	}
 
-		for (E edge : graph.getEdges()){
-			V v1 = edge.getOrigin();
-			V v2 = edge.getDestination();
+	private void grow(int capacity){
+		types = Arrays.copyOf(types, capacity);
+		keys = Arrays.copyOf(keys, capacity);
+		siblings = Arrays.copyOf(siblings, 2 * capacity);
+		endmostChildren = Arrays.copyOf(endmostChildren, 2 * capacity);
+		childCounts = Arrays.copyOf(childCounts, capacity);
+		childGroups = Arrays.copyOf(childGroups, capacity);
+		parentGroups = Arrays.copyOf(parentGroups, capacity);
+		stack = Arrays.copyOf(stack, 3 * capacity);
+	}
 
-			if (stNumbering.get(v1) < stNumbering.get(v2)){
-				addEdge(new PQTreeEdge(getVertexByContent(v1), getVertexByContent(v2)));
-				getVertexByContent(v1).addChild(getVertexByContent(v2));
-			}
-			else{
-				addEdge(new PQTreeEdge(getVertexByContent(v2), getVertexByContent(v1)));
-				getVertexByContent(v2).addChild(getVertexByContent(v1));
-			}
+	/**
+	 * Marks the node as removed, so that its id can be reused. The node should already be detached
+	 * from the tree, or its parent should be removed as well
+	 * @param node Node
+	 */
+	public void free(int node){
+		types[node] = null;
+		siblings[2 * node] = freeHead;
+		freeHead = node;
+	}
+
+	/**
+	 * @return Number of ids given to nodes so far. All ids are smaller than this number
+	 */
+	public int getIdBound(){
+		return size;
+	}
+
+	/**
+	 * @return The root of the tree, {@code NONE} if the tree is empty
+	 */
+	public int getRoot() {
+		return root;
+	}
+
+	/**
+	 * @param root The root to set
+	 */
+	public void setRoot(int root) {
+		this.root = root;
+		if (root != NONE){
+			parentGroups[root] = NONE;
+			siblings[2 * root] = NONE;
+			siblings[2 * root + 1] = NONE;
 		}
+	}
 
-		for (E e : virtualEdges){
-			PQTreeNode treeNode = null;
-			PQTreeNode node = null;
-			if (graph.getVertices().contains(e.getOrigin())){
-				node = new PQTreeNode(PQNodeType.LEAF,  e.getDestination());
-				node.setVirtualEdge(e);
-				addVertex(node);
-				treeNode = getVertexByContent(e.getOrigin());
+	/**
+	 * @param node Node
+	 * @return Type of the node
+	 */
+	public PQNodeType getType(int node){
+		return types[node];
+	}
 
+	/**
+	 * @param node Leaf or direction indicator
+	 * @return Key of the node
+	 */
+	public int getKey(int node){
+		return keys[node];
+	}
 
-			}
-			else if (graph.getVertices().contains(e.getDestination())){
-				node = new PQTreeNode(PQNodeType.LEAF,  e.getOrigin());
-				node.setVirtualEdge(e);
-				addVertex(node);
-				treeNode = getVertexByContent(e.getDestination());
-			}
+	/**
+	 * @param node Node
+	 * @return Number of the node's children which are not direction indicators
+	 */
+	public int getChildCount(int node){
+		return childCounts[node];
+	}
 
-			if (treeNode != null){
-				addEdge(new PQTreeEdge(treeNode, node));
-				treeNode.addChild(node);
-			}
-		}
+	/**
+	 * @param node Node
+	 * @param side 0 or 1
+	 * @return Endmost child of the node on the given side
+	 */
+	public int getEndmostChild(int node, int side){
+		return endmostChildren[2 * node + side];
 	}
 
 	/**
-	 * Finds all leaves which are destination or source of the edge
-	 * belonging to the provided list 
-	 * @param virtualEdges A list of virtual edges
-	 * @return A list of leaves which are either source or destination nodes of edges
-	 * belonging to {@code virtualEdges} list
+	 * @param node Node
+	 * @param side 0 or 1
+	 * @return Sibling of the node on the given side
 	 */
-	public List<PQTreeNode> findLeavesOf(List<E> virtualEdges){
-		List<PQTreeNode> ret = new ArrayList<PQTreeNode>();
-		for (E e : virtualEdges){
-			if (getVertexByContent(e.getOrigin()).getType() == PQNodeType.LEAF)
-				ret.add(getVertexByContent(e.getOrigin()));
-			else if (getVertexByContent(e.getDestination()).getType() == PQNodeType.LEAF)
-				ret.add(getVertexByContent(e.getDestination())); 
-		}
-		return ret;
+	public int getSibling(int node, int side){
+		return siblings[2 * node + side];
+	}
 
+	/**
+	 * Finds the next sibling when traversing a list of children
+	 * @param node Current node
+	 * @param previous Previous node, {@code NONE} if the current node is endmost and the traversal starts with it
+	 * @return Sibling of the node which is not the previous node
+	 */
+	public int next(int node, int previous){
+		return siblings[2 * node] == previous ? siblings[2 * node + 1] : siblings[2 * node];
 	}
 
 	/**
-	 * Finds all descendants of a tree node
 	 * @param node Node
-	 * @return A list of descendants of {@code node}
+	 * @return Parent of the node, {@code NONE} if it is the root
 	 */
-	public List<PQTreeNode> allDescendantsOf(PQTreeNode node){
-		List<PQTreeNode> ret = new ArrayList<PQTreeNode>();
-		allDescendantsRecursive(node, ret);
-		return ret;
+	public int getParent(int node){
+		int group = parentGroups[node];
+		if (group == NONE)
+			return NONE;
+		return groupOwners[find(group)];
 	}
 
-	private void allDescendantsRecursive(PQTreeNode node, List<PQTreeNode> descendants){
-		if (node.getChildren() != null)
-			for (PQTreeNode child : node.getChildren()){
-				descendants.add(child);
-				allDescendantsRecursive(child, descendants);
-			}
+	private int find(int group){
+		while (groupParents[group] != group){
+			groupParents[group] = groupParents[groupParents[group]];
+			group = groupParents[group];
+		}
+		return group;
 	}
-	
 
-	@Override
-	public String toString() {
-		
-		return "PQTree [pNodes=" + pNodes + ", qNodes=" + qNodes + ", leaves="
-				+ leaves + " " + edges + "] ";
+	/**
+	 * Adds the child at the end of the node's list of children
+	 * @param node Node
+	 * @param child New child
+	 */
+	public void addChild(int node, int child){
+		int last = endmostChildren[2 * node + 1];
+		parentGroups[child] = childGroups[node];
+		siblings[2 * child + 1] = NONE;
+		if (last == NONE){
+			endmostChildren[2 * node] = child;
+			siblings[2 * child] = NONE;
+		}
+		else{
+			replaceSibling(last, NONE, child);
+			siblings[2 * child] = last;
+		}
+		endmostChildren[2 * node + 1] = child;
+		if (types[child] != PQNodeType.INDICATOR)
+			childCounts[node]++;
+	}
+
+	/**
+	 * Adds the child next to one of the endmost children of the node
+	 * @param node Node
+	 * @param endmostChild Endmost child of the node, which will be the new child's sibling
+	 * @param child New child
+	 */
+	public void addChildNextTo(int node, int endmostChild, int child){
+		int side = endmostChildren[2 * node] == endmostChild ? 0 : 1;
+		replaceSibling(endmostChild, NONE, child);
+		parentGroups[child] = childGroups[node];
+		siblings[2 * child] = endmostChild;
+		siblings[2 * child + 1] = NONE;
+		endmostChildren[2 * node + side] = child;
+		if (types[child] != PQNodeType.INDICATOR)
+			childCounts[node]++;
 	}
 
+	/**
+	 * Inserts the child between two adjacent children of the node.
+	 * The first sibling of the inserted child will be {@code left} and the second one {@code right}
+	 * @param node Node
+	 * @param left Child of the node
+	 * @param right Child of the node adjacent to {@code left}, or {@code NONE} if {@code left} is endmost
+	 * @param child New child
+	 */
+	public void insertChild(int node, int left, int right, int child){
+		replaceSibling(left, right, child);
+		if (right == NONE)
+			replaceEndmostChild(node, left, child);
+		else
+			replaceSibling(right, left, child);
+		parentGroups[child] = childGroups[node];
+		siblings[2 * child] = left;
+		siblings[2 * child + 1] = right;
+		if (types[child] != PQNodeType.INDICATOR)
+			childCounts[node]++;
+	}
 
 	/**
-	 * @return Root of the tree
+	 * Removes the child from the node's list of children
+	 * @param node Node
+	 * @param child Child to remove
 	 */
-	public PQTreeNode getRoot() {
-		return root;
+	public void removeChild(int node, int child){
+		int first = siblings[2 * child];
+		int second = siblings[2 * child + 1];
+		if (first == NONE)
+			replaceEndmostChild(node, child, second);
+		else
+			replaceSibling(first, child, second);
+		if (second == NONE)
+			replaceEndmostChild(node, child, first);
+		else
+			replaceSibling(second, child, first);
+		siblings[2 * child] = NONE;
+		siblings[2 * child + 1] = NONE;
+		parentGroups[child] = NONE;
+		if (types[child] != PQNodeType.INDICATOR)
+			childCounts[node]--;
 	}
 
 	/**
-	 * @param root Root to set
+	 * Puts the replacement in the place of the node in the tree. The node is detached from the tree,
+	 * but keeps its children
+	 * @param node Node to replace
+	 * @param replacement Node without a parent and siblings
 	 */
-	public void setRoot(PQTreeNode root) {
-		this.root = root;
+	public void replace(int node, int replacement){
+		int first = siblings[2 * node];
+		int second = siblings[2 * node + 1];
+		parentGroups[replacement] = parentGroups[node];
+		siblings[2 * replacement] = first;
+		siblings[2 * replacement + 1] = second;
+		if (parentGroups[node] == NONE)
+			root = replacement;
+		else if (first == NONE || second == NONE)
+			replaceEndmostChild(getParent(node), node, replacement);
+		if (first != NONE)
+			replaceSibling(first, node, replacement);
+		if (second != NONE)
+			replaceSibling(second, node, replacement);
+		parentGroups[node] = NONE;
+		siblings[2 * node] = NONE;
+		siblings[2 * node + 1] = NONE;
 	}
 
 	/**
-	 * @return The list of P nodes
+	 * Replaces the child of the node by the child's own children and removes the child.
+	 * The given endmost child of the removed node will be adjacent to {@code neighbour}
+	 * @param node Node
+	 * @param child Child whose children are moved to the node
+	 * @param neighbour Sibling of the child, or {@code NONE} if there is no sibling on that side
+	 * @param end Endmost child of {@code child} which should be placed next to {@code neighbour}
 	 */
-	public List<PQTreeNode> getpNodes() {
-		return pNodes;
+	public void spliceChild(int node, int child, int neighbour, int end){
+		int other = next(child, neighbour);
+		int otherEnd = endmostChildren[2 * child] == end ? endmostChildren[2 * child + 1] : endmostChildren[2 * child];
+		replaceSibling(end, NONE, neighbour);
+		if (neighbour == NONE)
+			replaceEndmostChild(node, child, end);
+		else
+			replaceSibling(neighbour, child, end);
+		replaceSibling(otherEnd, NONE, other);
+		if (other == NONE)
+			replaceEndmostChild(node, child, otherEnd);
+		else
+			replaceSibling(other, child, otherEnd);
+		childCounts[node] += childCounts[child] - 1;
+		union(childGroups[node], childGroups[child], node);
+		free(child);
 	}
 
 	/**
-	 * @return A list of Q nodes
+	 * Moves the children of the second node to the end of the first node's list of children
+	 * and removes the second node. The given endmost children of the two nodes become adjacent
+	 * @param node Node
+	 * @param end Endmost child of the node
+	 * @param other Node whose children are moved, without a parent
+	 * @param otherEnd Endmost child of the other node
 	 */
-	public List<PQTreeNode> getqNodes() {
-		return qNodes;
+	public void append(int node, int end, int other, int otherEnd){
+		int side = endmostChildren[2 * node] == end ? 0 : 1;
+		int newEnd = endmostChildren[2 * other] == otherEnd ? endmostChildren[2 * other + 1] : endmostChildren[2 * other];
+		replaceSibling(end, NONE, otherEnd);
+		replaceSibling(otherEnd, NONE, end);
+		endmostChildren[2 * node + side] = newEnd;
+		childCounts[node] += childCounts[other];
+		union(childGroups[node], childGroups[other], node);
+		free(other);
 	}
 
 	/**
-	 * @return A list of leaves
+	 * Replaces a sequence of adjacent children of the node by a single node.
+	 * The replaced children and their descendants are removed from the tree and their frontier
+	 * is passed to the visitor, from {@code first} to {@code last}
+	 * @param node Node
+	 * @param first First child of the sequence
+	 * @param before Sibling of {@code first} outside of the sequence, {@code NONE} if {@code first} is endmost
+	 * @param last Last child of the sequence
+	 * @param after Sibling of {@code last} outside of the sequence, {@code NONE} if {@code last} is endmost
+	 * @param replacement Node placed instead of the sequence, without a parent
+	 * @param visitor Visitor
 	 */
-	public List<PQTreeNode> getLeaves() {
-		return leaves;
+	public void replaceChildren(int node, int first, int before, int last, int after, int replacement, FrontierVisitor visitor){
+		int removed = readFrontier(first, before, last, true, visitor);
+		parentGroups[replacement] = childGroups[node];
+		siblings[2 * replacement] = before;
+		siblings[2 * replacement + 1] = after;
+		if (before == NONE)
+			replaceEndmostChild(node, first, replacement);
+		else
+			replaceSibling(before, first, replacement);
+		if (after == NONE)
+			replaceEndmostChild(node, last, replacement);
+		else
+			replaceSibling(after, last, replacement);
+		childCounts[node] += 1 - removed;
 	}
 
 	/**
-	 * @param leaves the leaves to set
+	 * Reads the frontier of a sequence of siblings, that is, the leaves of their subtrees from left to right,
+	 * as well as the direction indicators found on the way
+	 * @param first First node of the sequence
+	 * @param before Sibling of {@code first} outside of the sequence, which determines the direction of the traversal
+	 * @param last Last node of the sequence
+	 * @param remove {@code true} if the read nodes should be removed. Links between the nodes of the sequence
+	 * and their siblings outside of it are not changed
+	 * @param visitor Visitor
+	 * @return Number of nodes in the sequence which are not direction indicators
 	 */
-	public void setLeaves(List<PQTreeNode> leaves) {
-		this.leaves = leaves;
+	public int readFrontier(int first, int before, int last, boolean remove, FrontierVisitor visitor){
+		int count = 0;
+		int top = 0;
+		stack[top++] = first;
+		stack[top++] = before;
+		stack[top++] = last;
+		while (top > 0){
+			int current = stack[top - 3];
+			if (current == NONE){
+				top -= 3;
+				continue;
+			}
+			int previous = stack[top - 2];
+			if (current == stack[top - 1])
+				stack[top - 3] = NONE;
+			else{
+				stack[top - 3] = next(current, previous);
+				stack[top - 2] = current;
+			}
+			boolean sequence = top == 3;
+			PQNodeType type = types[current];
+			if (type == PQNodeType.LEAF)
+				visitor.leaf(keys[current]);
+			else if (type == PQNodeType.INDICATOR)
+				visitor.indicator(keys[current], siblings[2 * current] != previous);
+			else{
+				stack[top++] = endmostChildren[2 * current];
+				stack[top++] = NONE;
+				stack[top++] = endmostChildren[2 * current + 1];
+			}
+			if (sequence && type != PQNodeType.INDICATOR)
+				count++;
+			if (remove)
+				free(current);
+		}
+		return count;
+	}
+
+	private void replaceSibling(int node, int sibling, int replacement){
+		if (siblings[2 * node] == sibling)
+			siblings[2 * node] = replacement;
+		else
+			siblings[2 * node + 1] = replacement;
+	}
+
+	private void replaceEndmostChild(int node, int child, int replacement){
+		if (endmostChildren[2 * node] == child)
+			endmostChildren[2 * node] = replacement;
+		else
+			endmostChildren[2 * node + 1] = replacement;
+	}
+
+	private void union(int group, int other, int owner){
+		group = find(group);
+		other = find(other);
+		if (group != other){
+			if (groupSizes[group] < groupSizes[other]){
+				int tmp = group;
+				group = other;
+				other = tmp;
+			}
+			groupParents[other] = group;
+			groupSizes[group] += groupSizes[other];
+		}
+		groupOwners[group] = owner;
+	}
+
+	@Override
+	public String toString() {
+		if (root == NONE)
+			return "()";
+		StringBuilder builder = new StringBuilder();
+		append(builder, root);
+		return builder.toString();
 	}
 
+	private void append(StringBuilder builder, int node){
+		PQNodeType type = types[node];
+		if (type == PQNodeType.LEAF)
+			builder.append(keys[node]);
+		else if (type == PQNodeType.INDICATOR)
+			builder.append("i").append(keys[node]);
+		else{
+			builder.append(type == PQNodeType.P ? '(' : '[');
+			int previous = NONE;
+			int current = endmostChildren[2 * node];
+			while (current != NONE){
+				if (previous != NONE)
+					builder.append(' ');
+				append(builder, current);
+				int next = next(current, previous);
+				previous = current;
+				current = next;
+			}
+			builder.append(type == PQNodeType.P ? ')' : ']');
+		}
+	}
 
 }
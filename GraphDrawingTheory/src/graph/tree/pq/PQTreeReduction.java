@@ -1,1003 +1,565 @@
 package graph.tree.pq;
 
-import graph.elements.Edge;
-
-import graph.elements.Vertex;
-
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-import java.util.Queue;
-
-import org.apache.log4j.Logger;
+import java.util.Arrays;
 
 /**
  * Implementation of the PQ-tree reduction procedure, as described by Booth and Lueker.
- * Used in their planarity testing and embedding algorithm
- * @author Renata
- * @param <V> The vertex type
- * @param <E> The edge type 
+ * Used in their planarity testing and embedding algorithm.
+ * The bubble pass finds the nodes of the pertinent subtree, moving upwards from the pertinent leaves,
+ * and the reduce pass applies the templates to them bottom-up. Both passes use the same array-based queue.
+ * Labels and counters of the nodes are stored in arrays and stamped with the number of the reduction,
+ * so they don't need to be cleared between reductions.
+ * Direction indicators are ignored by the templates and moved together with their siblings.
+ * After a successful reduction, the pertinent root is either full, or a partial Q-node whose full
+ * children form a consecutive sequence
  */
-public class PQTreeReduction<V extends Vertex, E extends Edge<V>> {
+public class PQTreeReduction {
+
+	private PQTree tree;
 
 	/**
-	 * A first-in first-out list which is used during both passes for
-	 * sequencing the order in which nodes are processed
+	 * Number of the current reduction
 	 */
-	private Queue<PQTreeNode> queue;
-
-	private Logger log = Logger.getLogger(PQTreeReduction.class);
-
-	private boolean debug = false;
+	private int step = 0;
+	private int[] stamps;
+	private PQNodeLabel[] labels;
+	private int[] pertinentChildCounts, pertinentLeafCounts;
+	/**
+	 * Full children of each node, as a linked list
+	 */
+	private int[] fullCounts, fullHeads, fullNext;
+	private int[] partialCounts, partialChildren;
+	/**
+	 * For each partial Q-node, the endmost child on the full side,
+	 * the innermost full child and its sibling which is not full
+	 */
+	private int[] fullEnds, fullBorders, borderOutsides;
+	private int[] queue;
 
-	private Map<V, Integer> reversalNum = new HashMap<V, Integer>();
+	private int pertinentRoot;
+	private int firstFull, beforeFirstFull, lastFull, afterLastFull;
 
-	public PQTreeReduction(){
-		queue = new LinkedList<PQTreeNode>();
+	/**
+	 * Creates the reduction procedure for the given tree
+	 * @param tree PQ-tree
+	 */
+	public PQTreeReduction(PQTree tree){
+		this.tree = tree;
+		int capacity = Math.max(tree.getIdBound(), 16);
+		stamps = new int[capacity];
+		labels = new PQNodeLabel[capacity];
+		pertinentChildCounts = new int[capacity];
+		pertinentLeafCounts = new int[capacity];
+		fullCounts = new int[capacity];
+		fullHeads = new int[capacity];
+		fullNext = new int[capacity];
+		partialCounts = new int[capacity];
+		partialChildren = new int[2 * capacity];
+		fullEnds = new int[capacity];
+		fullBorders = new int[capacity];
+		borderOutsides = new int[capacity];
+		queue = new int[capacity];
 	}
 
 	/**
-	 * Implementation of the bubble procedure
-	 * @param pqTree PQ-tree
-	 * @param S A subset of all nodes
-	 * @return Indicator whether the the procedure was successful
+	 * Reduces the tree so that the given leaves become consecutive
+	 * @param leaves Array containing the pertinent leaves
+	 * @param count Number of pertinent leaves
+	 * @return {@code true} if the reduction was successful, {@code false} if
+	 * the leaves cannot be made consecutive
 	 */
-	public boolean bubble(PQTree<V,E> pqTree, List<PQTreeNode> S){
-
-		if (debug)
-			log.info("Bubble");
-
-		setPertinendChildren(pqTree.getRoot(), S);
-
-		if (debug){
-			for (PQTreeNode node : pqTree.getVertices())
-				log.info("Pertinent children count of " + node + " = " +  node.getPertinendChildCount() );
-		}
-		return true;
+	public boolean reduce(int[] leaves, int count){
+		bubble(leaves, count);
+		return reduceBottomUp(leaves, count);
 	}
 
-	private void setPertinendChildren(PQTreeNode node, List<PQTreeNode> S){
-		node.setPertinendChildCount(0);
-		if (node.getType() == PQNodeType.LEAF){
-			if (S.contains(node)){
-				node.setPertinendChildCount(1);
-			}
+	/**
+	 * Bubble pass: visits the nodes of the pertinent subtree and counts their pertinent children
+	 */
+	private void bubble(int[] leaves, int count){
+		step++;
+		if (stamps.length < tree.getIdBound())
+			grow(Math.max(2 * stamps.length, tree.getIdBound()));
+		int head = 0, tail = 0;
+		for (int i = 0; i < count; i++){
+			touch(leaves[i]);
+			queue[tail++] = leaves[i];
 		}
-		else{
-
-			for (PQTreeNode child : node.getChildren()){
-				setPertinendChildren(child, S);
-				if (child.getPertinendChildCount() >= 1){
-					node.incrementPertinentChildCount();
-				}
-			}
+		int offTheTop = 0;
+		while (tail - head + offTheTop > 1){
+			int node = queue[head++];
+			int parent = tree.getParent(node);
+			if (parent == PQTree.NONE){
+				offTheTop = 1;
+				continue;
+			}
+			if (stamps[parent] != step){
+				touch(parent);
+				queue[tail++] = parent;
+			}
+			pertinentChildCounts[parent]++;
 		}
 	}
 
 	/**
-	 * Implementation of the reduction procedure
-	 * @param pqTree PQ-tree to be reduced
-	 * @param S Subset of all nodes
-	 * @param pertRoot Pertinent root
-	 * @return {@code true} if the tree can be reduced, {@code false} otherwise
+	 * Reduce pass: applies the templates to the pertinent nodes, starting with the leaves.
+	 * A node is processed once all its pertinent children are processed
 	 */
-	public boolean reduce(PQTree<V,E> pqTree, List<PQTreeNode> S, PQTreeNode pertRoot){
-
-		if (debug)
-			log.info("Reduction");
-
-		//initialize queue to be empty
-		queue.clear();
-		//for each leaf x in S
-		for (PQTreeNode x : S){
-			if (x.getType() == PQNodeType.LEAF){
-				queue.add(x);
-			}
+	private boolean reduceBottomUp(int[] leaves, int count){
+		int head = 0, tail = 0;
+		for (int i = 0; i < count; i++){
+			pertinentLeafCounts[leaves[i]] = 1;
+			queue[tail++] = leaves[i];
 		}
-		while (queue.size() > 0){
-			//remove x from the from the front of the queue
-			PQTreeNode x = queue.remove();
-			if (debug)
-				log.info("Current x " + x);
-			if (x != pertRoot){
-				//X is not root(T,S)
-				PQTreeNode y = x.getParent();
-				if (debug){
-					log.info("Y (parent of x): " + y); 
-					log.info("Y pertinent child count " + y.getPertinendChildCount());
-				}
-				y.decrementPertinentChildCount();
-				if (y.getPertinendChildCount() == 0){
-					queue.add(y);
-					if (debug)
-						log.info("Adding " + y + "  to queue");
-				}
-				//try templates
-				//the order is very important
-				if (debug)
-					log.info("Trying templates");
-				if (!templateL1(x, S))
-					if (!templateP1(x))
-						if (!templateP3(x, pqTree))
-							if (!templateP5(x, pqTree))
-								if (!templateQ1(x))
-									if (!templateQ2(x, pqTree)){
-										return false;
-									}
+		while (head < tail){
+			int node = queue[head++];
+			if (pertinentLeafCounts[node] == count)
+				return reduceRoot(node);
+			int parent = tree.getParent(node);
+			int leafCount = pertinentLeafCounts[node];
+			node = template(node);
+			if (node == PQTree.NONE)
+				return false;
+			pertinentLeafCounts[parent] += leafCount;
+			if (labels[node] == PQNodeLabel.FULL){
+				fullCounts[parent]++;
+				fullNext[node] = fullHeads[parent];
+				fullHeads[parent] = node;
 			}
 			else{
-				//x is root(T,S)
-				//try templates a bit differently
-				if (!templateL1(x, S))
-					if (!templateP1(x))
-						if (!templateP2(x, pqTree))
-							if (!templateP4(x, pqTree))
-								if (!templateP6(x, pqTree))
-									if (!templateQ1(x))
-										if (!templateQ2(x, pqTree))
-											if (!templateQ3(x, pqTree)){
-												return false;
-											}
+				if (partialCounts[parent] == 2)
+					return false;
+				partialChildren[2 * parent + partialCounts[parent]++] = node;
 			}
+			if (--pertinentChildCounts[parent] == 0)
+				queue[tail++] = parent;
 		}
-
-		if (debug){
-			log.info("Tree reduced");
-			log.info(pqTree);
-		}
-		return true;
+		return false;
 	}
 
-
 	/**
-	 * Template matching for leaves. The simplest case, the node is simply
-	 * marked as empty or full depending on if it belongs to S or not 
-	 * @param node
-	 * @return {@code true} if the template can be applied, {@code false} otherwise
+	 * Applies a template to a node which is not the pertinent root
+	 * @return The node which replaced the given one in the tree, {@code NONE} if no template matches
 	 */
-	private boolean templateL1(PQTreeNode node, List<PQTreeNode> S){
-		if (debug)
-			log.info("Trying template L1 for node " + node);
-		if (node.getType() != PQNodeType.LEAF)
-			return false;
-
-		//label node
-		if (S.contains(node))
-			node.labelAsFull();
-		else
-			node.labelAsEmpty();
-
-		if (debug)
-			log.info("Template matched. Labeled the leaf as " + node.getLabel());
-		return true;
+	private int template(int node){
+		PQNodeType type = tree.getType(node);
+		if (type == PQNodeType.LEAF){
+			labels[node] = PQNodeLabel.FULL;
+			return node;
+		}
+		int fullCount = fullCounts[node];
+		int partialCount = partialCounts[node];
+		if (partialCount == 0 && fullCount == tree.getChildCount(node)){
+			labels[node] = PQNodeLabel.FULL;
+			return node;
+		}
+		if (partialCount > 1)
+			return PQTree.NONE;
+		if (partialCount == 1 && labels[partialChildren[2 * node]] != PQNodeLabel.SINGLY_PARTIAL)
+			return PQTree.NONE;
+		if (type == PQNodeType.P){
+			if (partialCount == 0)
+				return templateP3(node);
+			return templateP5(node);
+		}
+		return templateQ2(node) ? node : PQTree.NONE;
 	}
 
-
 	/**
-	 * The simplest case for a P-node. If all children of the node
-	 * are labeled empty, then the node can be labeled empty.
-	 * @param node
-	 * @return {@code true} if the template can be applied, {@code false} otherwise
+	 * Applies a template to the pertinent root
 	 */
-	@SuppressWarnings("unused")
-	private boolean templateP0(PQTreeNode node){
-		if (debug)
-			log.info("Trying template P0 for node " + node);
-		if (node.getType() != PQNodeType.P)
-			return false;
-
-		//all children are empty
-		if (node.emptyChildrenCount() == node.childrenCount()){
-			node.labelAsEmpty();
-			if (debug)
-				log.info("Templated matched. Labeled the P node as empty");
+	private boolean reduceRoot(int node){
+		pertinentRoot = node;
+		PQNodeType type = tree.getType(node);
+		if (type == PQNodeType.LEAF){
+			labels[node] = PQNodeLabel.FULL;
 			return true;
 		}
+		int fullCount = fullCounts[node];
+		int partialCount = partialCounts[node];
+		if (partialCount == 0 && fullCount == tree.getChildCount(node)){
+			labels[node] = PQNodeLabel.FULL;
+			return true;
+		}
+		for (int i = 0; i < partialCount; i++)
+			if (labels[partialChildren[2 * node + i]] != PQNodeLabel.SINGLY_PARTIAL)
+				return false;
+		if (type == PQNodeType.P){
+			if (partialCount == 0)
+				templateP2(node);
+			else if (partialCount == 1)
+				templateP4(node);
+			else
+				templateP6(node);
+			return true;
+		}
+		return templateQ3(node);
+	}
 
-		return false;
+	/**
+	 * Root P-node with full and empty children: the full children are
+	 * grouped under a new full P-node, which becomes the pertinent root
+	 */
+	private void templateP2(int node){
+		int full = fullCounts[node] == 1 ? fullHeads[node] : gatherFullChildren(node);
+		if (full != fullHeads[node])
+			tree.addChild(node, full);
+		pertinentRoot = full;
+		labels[full] = PQNodeLabel.FULL;
 	}
 
 	/**
-	 * The simplest case for a P-node. If all children of the node
-	 * are labeled full, then the node can be labeled full.
-	 * @param node
-	 * @return {@code true} if the template can be applied, {@code false} otherwise
+	 * Non-root P-node with full and empty children: it is replaced by a partial Q-node
+	 * whose children are the full and the empty children, each grouped if necessary
 	 */
-	private boolean templateP1(PQTreeNode node){
-		if (debug)
-			log.info("Trying template P1 for node " + node);
-		if (node.getType() != PQNodeType.P)
-			return false;
+	private int templateP3(int node){
+		int qNode = tree.createNode(PQNodeType.Q);
+		reset(qNode);
+		int full = gatherFullChildren(node);
+		tree.replace(node, qNode);
+		int empty = detachEmptyChildren(node);
+		tree.addChild(qNode, full);
+		tree.addChild(qNode, empty);
+		labels[qNode] = PQNodeLabel.SINGLY_PARTIAL;
+		fullEnds[qNode] = full;
+		fullBorders[qNode] = full;
+		borderOutsides[qNode] = empty;
+		return qNode;
+	}
 
-		//all children are full
-		if (node.fullChildrenCount() == node.childrenCount()){
-			node.labelAsFull();
-			if (debug)
-				log.info("Templated matched. Labeled the P node as full");
-			return true;
+	/**
+	 * Root P-node with one partial child: the full children are added to the full end of the partial child
+	 */
+	private void templateP4(int node){
+		int partial = partialChildren[2 * node];
+		if (fullCounts[node] > 0){
+			int full = gatherFullChildren(node);
+			tree.addChildNextTo(partial, fullEnds[partial], full);
+			fullEnds[partial] = full;
 		}
-		return false;
+		if (tree.getChildCount(node) == 1){
+			tree.removeChild(node, partial);
+			tree.replace(node, partial);
+			tree.free(node);
+		}
+		setPartialRoot(partial, fullEnds[partial], PQTree.NONE, fullBorders[partial], borderOutsides[partial]);
 	}
 
 	/**
-	 * The P-node should be the root of the pertinent subtree
-	 * The children of the node have different labels
-	 * The full children are grouped under a new P-node
-	 * which is made a child of the root node, which is left unlabeled
-	 * @param node
-	 * @return {@code true} if the template can be applied, {@code false} otherwise
+	 * Non-root P-node with one partial child: the partial child takes its place, and the full and the empty
+	 * children are added to its full and empty end
 	 */
-	private boolean templateP2(PQTreeNode node, PQTree<V,E> tree){
-		if (debug)
-			log.info("Trying template P2 for node " + node);
-
-		if (node.getType() != PQNodeType.P)
-			return false;
-
-		//also update the tree
-
-		//checking if there are children with different labels
-		//and that there are full children
-		if (node.fullChildrenCount() > 0 &&  node.emptyChildrenCount() > 0
-				&& node.partialChildrenCount() == 0){
-
-			//if there is only one child, just place it on one of the ends
-			//else create a new P-node and group the full children
-
-			if (node.fullChildrenCount() > 1){
-
-				PQTreeNode newNode = new PQTreeNode(PQNodeType.P);
-				tree.addVertex(newNode);
-				for (PQTreeNode fullChild : node.getFullChildren()){
-					newNode.addChild(fullChild);
-					node.getChildren().remove(fullChild);
-					tree.removeEdge(tree.edgeBetween(node, fullChild));
-					tree.addEdge(new PQTreeEdge(newNode, fullChild));
-				}
-				node.getFullChildren().clear();
-				newNode.setLabel(PQNodeLabel.FULL);
-
-				//this also sets the parent of the new node
-				//and updates the list of full nodes
-				node.addChild(newNode);
-				tree.addEdge(new PQTreeEdge(node, newNode));
-				if (debug)
-					log.info("Created the node: " + newNode);
-			}
-
-			else{
-				PQTreeNode fullNode = node.getFullChildren().get(0);
-				node.getChildren().remove(fullNode);
-				node.getChildren().add(fullNode);
-			}
-
-			if (debug){
-				log.info("Template matched");
-				log.info("Node after the change: " + node);
-			}
-			return true;
+	private int templateP5(int node){
+		int partial = partialChildren[2 * node];
+		tree.removeChild(node, partial);
+		tree.replace(node, partial);
+		if (fullCounts[node] > 0){
+			int full = gatherFullChildren(node);
+			tree.addChildNextTo(partial, fullEnds[partial], full);
+			fullEnds[partial] = full;
 		}
-
-		return false;
+		if (tree.getChildCount(node) == 0)
+			tree.free(node);
+		else{
+			int emptyEnd = tree.getEndmostChild(partial, 0) == fullEnds[partial] ?
+					tree.getEndmostChild(partial, 1) : tree.getEndmostChild(partial, 0);
+			tree.addChildNextTo(partial, emptyEnd, detachEmptyChildren(node));
+		}
+		return partial;
 	}
 
 	/**
-	 * If the P-node is not the root of the tree and it has both
-	 * empty and full children, the empty children are grouped are
-	 * children of a new empty p-node, the full as children of 
-	 * a new full p-node
-	 * The node itself is turned into a singly partial Q-node
-	 * If there is only one empty or full child
-	 * the additional p-node is not created
-	 * @param node
-	 * @return {@code true} if the template can be applied, {@code false} otherwise
+	 * Root P-node with two partial children: the full children are placed between them,
+	 * and they are merged into one doubly partial Q-node
 	 */
-	private boolean templateP3(PQTreeNode node, PQTree<V,E> tree){
-		if (debug)
-			log.info("Trying template P3 for node " + node);
-		if (node.getType() != PQNodeType.P)
-			return false;
-
-		//and that there are full children
-		if (node.fullChildrenCount() > 0 && node.emptyChildrenCount() > 0
-				&& node.partialChildrenCount() == 0){
-
-
-			PQTreeNode qNode = new PQTreeNode(PQNodeType.Q);
-			qNode.setLabel(PQNodeLabel.SINGLY_PARTIAL);
-			PQTreeNode parent = node.getParent();
-			int index = parent.getChildren().indexOf(node);
-			System.out.println("INDEX  " + index);
-			parent.removeChild(node);
-			//add on the same position where the node was
-			parent.addChild(qNode, index);
-
-			//update tree
-			tree.removeVertex(node);
-			tree.addVertex(qNode);
-			tree.addEdge(new PQTreeEdge(parent, qNode));
-			qNode.setContent(node.getContent());
-
-			//should create a new p-node for the empty children
-			if (node.emptyChildrenCount() > 1){
-				if (debug)
-					log.info("Creating a new p node for the empty children");
-				PQTreeNode emptyPNode = new PQTreeNode(PQNodeType.P);
-				tree.addVertex(emptyPNode);
-				for (PQTreeNode emptyNode : node.getEmptyChildren()){
-					emptyPNode.addChild(emptyNode);
-					tree.addEdge(new PQTreeEdge(emptyPNode, emptyNode));
-				}
-				emptyPNode.setLabel(PQNodeLabel.EMPTY);
-				qNode.addChild(emptyPNode);
-				tree.addEdge(new PQTreeEdge(qNode, emptyPNode));
-				if (debug)
-					log.info("New node: " + emptyPNode);
-			}
-			else{
-				//add the single empty node to the q-node
-				qNode.addChild(node.getEmptyChildren().get(0));
-				tree.addEdge(new PQTreeEdge(qNode, node.getEmptyChildren().get(0)));
-			}
-
-			//should create a new p-node for the full children
-			if (node.fullChildrenCount() > 1){
-				if (debug)
-					log.info("Creating a new p node for the full children");
-				PQTreeNode fullPNode = new PQTreeNode(PQNodeType.P);
-				tree.addVertex(fullPNode);
-				for (PQTreeNode fullNode : node.getFullChildren()){
-					fullPNode.addChild(fullNode);
-					tree.addEdge(new PQTreeEdge(fullPNode, fullNode));
-				}
-				fullPNode.setLabel(PQNodeLabel.FULL);
-				qNode.addChild(fullPNode);
-				tree.addEdge(new PQTreeEdge(qNode, fullPNode));
-				if (debug)
-					log.info("New node: " + fullPNode);
-			}
-			else{
-				//add the single full node to the q-node
-				qNode.addChild(node.getFullChildren().get(0));
-				tree.addEdge(new PQTreeEdge(qNode, node.getFullChildren().get(0)));
-			}
-
-			if (debug){
-				log.info("Template matched");
-				log.info("Partial q-node: " + qNode);
-				log.info("Children: " + qNode.getChildren());
-			}
-			return true;
+	private void templateP6(int node){
+		int partial = partialChildren[2 * node];
+		int other = partialChildren[2 * node + 1];
+		tree.removeChild(node, other);
+		if (fullCounts[node] > 0){
+			int full = gatherFullChildren(node);
+			tree.addChildNextTo(partial, fullEnds[partial], full);
+			fullEnds[partial] = full;
 		}
-
-		return false;
-
+		int first = fullBorders[partial], beforeFirst = borderOutsides[partial];
+		tree.append(partial, fullEnds[partial], other, fullEnds[other]);
+		if (tree.getChildCount(node) == 1){
+			tree.removeChild(node, partial);
+			tree.replace(node, partial);
+			tree.free(node);
+		}
+		labels[partial] = PQNodeLabel.DOUBLY_PARTIAL;
+		setPartialRoot(partial, first, beforeFirst, fullBorders[other], borderOutsides[other]);
 	}
 
 	/**
-	 * If a P-node has exactly one partial child, it is
-	 * labeled singly partial. Template P4 is tried if
-	 * the node is the root of the pertinent subtree
-	 * @param node
-	 * @return {@code true} if the template can be applied, {@code false} otherwise
+	 * Non-root Q-node: the full children have to form a sequence at one of its ends,
+	 * which can be followed by a partial child
 	 */
-	private boolean templateP4(PQTreeNode node, PQTree<V,E> tree){
-		if (debug)
-			log.info("Trying template P4 for node " + node);
-		if (node.getType() != PQNodeType.P)
-			return false;
-
-		//if the node has exactly one partial child
-		if (node.partialChildrenCount() == 1){
-			node.labelAsPartial(PQNodeLabel.SINGLY_PARTIAL);
-
-			if (debug)
-				log.info("Labeling node as singly partial ");
-
-			//leave empty children as they are
-			//add full children as children of a new p-node
-			//which itself is a child of the partial node
-			//don't add the p-node is there are less than
-			//two full children of the P-node in question
-
-			if (debug){
-				log.info("FULL CHILDREN");
-				log.info(node.getFullChildren());
-				log.info("ALL CHILDREN");
-				log.info(node.getChildren());
-			}
-			
-			
-
-
-			PQTreeNode partialChild = node.getPartialChildren().get(0);
-			int partialChildIndex = node.getChildren().indexOf(partialChild);
-
-			//add new full children in the correct place, next to another full child
-
-			//very important
-			//determine where to place the full children
-
-			int partialChildEndIndex = -1;
-			int partialChildStartIndex = -1;
-			if (partialChild.fullChildrenCount() > 0){
-				partialChildEndIndex = partialChild.getChildren().indexOf(partialChild.getFullChildren().get(partialChild.getFullChildren().size() - 1)) + 1;
-				partialChildStartIndex = partialChild.getChildren().indexOf(partialChild.getFullChildren().get(0));
-			}
-
-			if (node.fullChildrenCount() == 1){
-				if (debug)
-					log.info("Only one full child");
-				PQTreeNode fullChild = node.getFullChildren().get(0);
-				//int fullChildIndex = node.getChildren().indexOf(fullChild);
-				node.removeChild(fullChild);
-				tree.removeEdge(tree.edgeBetween(node, fullChild));
-				
-				//TODO is this ok - determining if the new node should be placed after or before the full children
-				//if yes, should the same be done for other templates
-				
-//				if (fullChildIndex > partialChildIndex){
-//					if (partialChildEndIndex != -1)
-//						partialChild.addChild(fullChild, partialChildEndIndex);
-//					else
-//						partialChild.addChild(fullChild);
-//				}
-//				else{
-//					if (partialChildStartIndex != -1)
-//						partialChild.addChild(fullChild, partialChildStartIndex);
-//					else
-//						partialChild.addChild(fullChild);
-//				}
-				
-				partialChild.addChild(fullChild);
-
-				tree.addEdge(new PQTreeEdge(partialChild, fullChild));
-				if (debug){
-					log.info("Partial child " + partialChild);
-					log.info("Partial child children: " + partialChild.getChildren());
-				}
-			}
-			else if (node.fullChildrenCount() > 1){
-				if (debug)
-					log.info("Two or more full children, creating a new P-node");
-				PQTreeNode newPNode = new PQTreeNode(PQNodeType.P);
-				tree.addVertex(newPNode);
-				int fullChildrenIndex = -1;
-				for (PQTreeNode fullChild : node.getFullChildren()){
-					if (fullChildrenIndex == -1)
-						fullChildrenIndex = node.getChildren().indexOf(fullChild);
-					newPNode.addChild(fullChild);
-					node.removeChild(fullChild);
-					tree.removeEdge(tree.edgeBetween(node, fullChild));
-					tree.addEdge(new PQTreeEdge(newPNode, fullChild));
+	private boolean templateQ2(int node){
+		int side;
+		if (fullCounts[node] == 0){
+			int partial = partialChildren[2 * node];
+			for (side = 0; side < 2; side++){
+				int previous = partial;
+				int current = tree.getSibling(partial, side);
+				while (current != PQTree.NONE && tree.getType(current) == PQNodeType.INDICATOR){
+					int next = tree.next(current, previous);
+					previous = current;
+					current = next;
 				}
-				newPNode.setLabel(PQNodeLabel.FULL);
-				node.getFullChildren().clear();
-
-				if (fullChildrenIndex > partialChildIndex){
-					if (partialChildEndIndex != -1)
-						partialChild.addChild(newPNode, partialChildEndIndex);
-					else
-						partialChild.addChild(newPNode);
+				if (current == PQTree.NONE){
+					int neighbour = tree.getSibling(partial, side);
+					int end = neighbour == PQTree.NONE ? fullEnds[partial] : previous;
+					tree.spliceChild(node, partial, neighbour, fullEnds[partial]);
+					fullEnds[node] = end;
+					fullBorders[node] = fullBorders[partial];
+					borderOutsides[node] = borderOutsides[partial];
+					labels[node] = PQNodeLabel.SINGLY_PARTIAL;
+					return true;
 				}
-				else{
-					if (partialChildStartIndex != -1)
-						partialChild.addChild(newPNode, partialChildStartIndex);
-					else
-						partialChild.addChild(newPNode);
-				}
-				tree.addEdge(new PQTreeEdge(partialChild, newPNode));
-				if (debug){
-					log.info("New p-node: " + newPNode);
-					log.info("Partial child " + partialChild);
-					log.info("Partial child children: " + partialChild.getChildren());
-				}
-			}
-			if (debug){
-				log.info("Template matched");
-				log.info("Node " + node);
-				log.info("Children: " + node.getChildren());
 			}
-			return true;
+			return false;
 		}
-
-		return false;
-
+		if (!scanFullChildren(node))
+			return false;
+		if (boundaries[0] == PQTree.NONE)
+			side = 0;
+		else if (boundaries[1] == PQTree.NONE)
+			side = 1;
+		else
+			return false;
+		int other = 1 - side;
+		if (partialCounts[node] == 1 && partialChildren[2 * node] != boundaries[other])
+			return false;
+		fullEnds[node] = beforeBoundaries[side];
+		spliceBoundary(node, other);
+		fullBorders[node] = runEnds[other];
+		borderOutsides[node] = runOutsides[other];
+		labels[node] = PQNodeLabel.SINGLY_PARTIAL;
+		return true;
 	}
 
 	/**
-	 * If a P-node has exactly one partial child, it is
-	 * labeled singly partial. Template P5 is tried if
-	 * the node is not the root of the pertinent subtree
-	 * A new singly partial node is created, as well as the p-nodes
-	 * for empty and full nodes, similarly to the template P3
-	 * The new partial node has these p nodes as well as the 
-	 * empty and full nodes of the child partial node as its children
-	 * That original partial node is removed from the list of children
-	 * @param node
-	 * @return {@code true} if the template can be applied, {@code false} otherwise
+	 * Root Q-node: the full children have to form a consecutive sequence,
+	 * which can be surrounded by partial children
 	 */
-	private boolean templateP5(PQTreeNode node, PQTree<V,E> tree){
-		if (debug)
-			log.info("Trying template P5 for node " + node);
-		if (node.getType() != PQNodeType.P)
-			return false;
-		
-		System.out.println(node.getChildren());
-		System.out.println(node.getPartialChildren());
-
-		if (node.partialChildrenCount() == 1){
-
-			PQTreeNode qNode = new PQTreeNode(PQNodeType.Q);
-			qNode.setLabel(PQNodeLabel.SINGLY_PARTIAL);
-			PQTreeNode parent = node.getParent();
-			int index = parent.getChildren().indexOf(node);
-			parent.removeChild(node);
-			parent.addChild(qNode, index);
-
-			tree.removeVertex(node);
-			tree.addVertex(qNode);
-			tree.addEdge(new PQTreeEdge(parent, qNode));
-			qNode.setContent(node.getContent());
-
-
-			//should create a new p-node for the empty children
-			if (node.emptyChildrenCount() > 1){
-				if (debug)
-					log.info("Creating a new p node for the empty children");
-				PQTreeNode emptyPNode = new PQTreeNode(PQNodeType.P);
-				for (PQTreeNode emptyNode : node.getEmptyChildren()){
-					emptyPNode.addChild(emptyNode);
-					tree.addEdge(new PQTreeEdge(emptyPNode, emptyNode));
-				}
-				emptyPNode.setLabel(PQNodeLabel.EMPTY);
-				qNode.addChild(emptyPNode);
-				tree.addEdge(new PQTreeEdge(qNode, emptyPNode));
-				if (debug)
-					log.info("New node: " + emptyPNode);
-			}
-			else{
-				//add the single empty node to the q-node
-				//there could be no empty children as well
-				if (node.emptyChildrenCount() == 1){
-					qNode.addChild(node.getEmptyChildren().get(0));
-					tree.addEdge(new PQTreeEdge(qNode, node.getEmptyChildren().get(0)));
-				}
-			}
-
-			//now add the empty children of the partial node 
-			//followed my the full children of the partial node
-			PQTreeNode partialChild = node.getPartialChildren().get(0);
-			for (PQTreeNode emptyChild : partialChild.getEmptyChildren()){
-				qNode.addChild(emptyChild);
-				tree.removeEdge(tree.edgeBetween(partialChild, emptyChild));
-				tree.addEdge(new PQTreeEdge(qNode, emptyChild));
-			}
-			for (PQTreeNode fullChild : partialChild.getFullChildren()){
-				qNode.addChild(fullChild);
-				tree.removeEdge(tree.edgeBetween(partialChild, fullChild));
-				tree.addEdge(new PQTreeEdge(qNode, fullChild));
-			}
-
-			tree.removeVertex(partialChild);
-
-
-			//should create a new p-node for the full children
-			if (node.fullChildrenCount() > 1){
-				if (debug)
-					log.info("Creating a new p node for the full children");
-				PQTreeNode fullPNode = new PQTreeNode(PQNodeType.P);
-				for (PQTreeNode fullNode : node.getFullChildren()){
-					fullPNode.addChild(fullNode);
-					tree.addEdge(new PQTreeEdge(fullPNode, fullNode));
+	private boolean templateQ3(int node){
+		if (fullCounts[node] == 0){
+			if (partialCounts[node] != 2)
+				return false;
+			int partial = partialChildren[2 * node];
+			int other = partialChildren[2 * node + 1];
+			for (int side = 0; side < 2; side++){
+				int previous = partial;
+				int current = tree.getSibling(partial, side);
+				while (current != PQTree.NONE && tree.getType(current) == PQNodeType.INDICATOR){
+					int next = tree.next(current, previous);
+					previous = current;
+					current = next;
 				}
-				fullPNode.setLabel(PQNodeLabel.FULL);
-				qNode.addChild(fullPNode);
-				tree.addEdge(new PQTreeEdge(qNode, fullPNode));
-				if (debug)
-					log.info("New node: " + fullPNode);
-			}
-			else{
-				//add the single full node to the q-node
-				//there could be no full children
-				if (node.fullChildrenCount() == 1){
-					qNode.addChild(node.getFullChildren().get(0));
-					tree.addEdge(new PQTreeEdge(qNode, node.getFullChildren().get(0)));
+				if (current == other){
+					int first = fullBorders[partial], beforeFirst = borderOutsides[partial];
+					int partialEnd = fullEnds[partial];
+					tree.spliceChild(node, partial, tree.getSibling(partial, side), partialEnd);
+					tree.spliceChild(node, other, previous == partial ? partialEnd : previous, fullEnds[other]);
+					labels[node] = PQNodeLabel.DOUBLY_PARTIAL;
+					setPartialRoot(node, first, beforeFirst, fullBorders[other], borderOutsides[other]);
+					return true;
 				}
 			}
-
-			if (debug){
-				log.info("Template matched");
-				log.info("Partial q-node: " + qNode);
-			}
-			return true;
+			return false;
 		}
-
-		return false;
+		if (!scanFullChildren(node))
+			return false;
+		for (int i = 0; i < partialCounts[node]; i++){
+			int partial = partialChildren[2 * node + i];
+			if (partial != boundaries[0] && partial != boundaries[1])
+				return false;
+		}
+		spliceBoundary(node, 0);
+		spliceBoundary(node, 1);
+		labels[node] = PQNodeLabel.DOUBLY_PARTIAL;
+		setPartialRoot(node, runEnds[0], runOutsides[0], runEnds[1], runOutsides[1]);
+		return true;
 	}
 
 	/**
-	 * If a P-node has two partial children
-	 * It must be the root of the pertinent subtree
-	 * The two partial children are joined and a p-node
-	 * is created for the full nodes of the root
-	 * and added as the child of the newly created partial child
-	 * @param node
-	 * @return {@code true} if the template can be applied, {@code false} otherwise
+	 * Results of scanning the full children of a Q-node in both directions:
+	 * the last full child, its sibling, the first child which is not full and its sibling on the run side
 	 */
-	private boolean templateP6(PQTreeNode node, PQTree<V,E> tree){
-		if (debug)
-			log.info("Trying template P6 for node " + node);
-
-		if (node.getType() != PQNodeType.P)
-			return false;
-
-		//if the node has exactly one partial child
-		if (node.partialChildrenCount() == 2){
-			node.labelAsPartial(PQNodeLabel.DOUBLY_PARTIAL);
-
-			if (debug)
-				log.info("Labeling node as doubly partial ");
-
-
-			//leave empty children as they are
-			//join the partial children and full children
-			//create a new partial child and add to it:
-			//all empty children of the first partial child
-			//all full children of the first partial child
-			//full children (using the new P-node if there is more than one)
-			//all full children of the second partial child
-			//all empty children of the second partial child
+	private int[] runEnds = new int[2], runOutsides = new int[2], boundaries = new int[2], beforeBoundaries = new int[2];
 
-			PQTreeNode newPartialChild = new PQTreeNode(PQNodeType.Q);
-			tree.addVertex(newPartialChild);
-			newPartialChild.setLabel(PQNodeLabel.SINGLY_PARTIAL);
-
-			PQTreeNode firstPartialChild = node.getPartialChildren().get(0);
-
-
-			for (PQTreeNode emptyChild : firstPartialChild.getEmptyChildren()){
-				newPartialChild.addChild(emptyChild);
-				tree.addEdge(new PQTreeEdge(newPartialChild, emptyChild));
-			}
-			for (PQTreeNode fullChild : firstPartialChild.getFullChildren()){
-				newPartialChild.addChild(fullChild);
-				tree.addEdge(new PQTreeEdge(newPartialChild, fullChild));
-			}
-
-			node.removeChild(firstPartialChild);
-			tree.removeVertex(firstPartialChild);
-
-
-			if (node.fullChildrenCount() == 1){
-				if (debug)
-					log.info("Only one full child");
-				PQTreeNode fullChild = node.getFullChildren().get(0);
-				node.removeChild(fullChild);
-				newPartialChild.addChild(fullChild);
-				tree.removeEdge(tree.edgeBetween(node, fullChild));
-				tree.addEdge(new PQTreeEdge(newPartialChild, fullChild));
-				if (debug)
-					log.info("Partial child " + newPartialChild);
-			}
-			else if (node.fullChildrenCount() > 1){
-				if (debug)
-					log.info("Two or more full children, creating a new P-node");
-				PQTreeNode newPNode = new PQTreeNode(PQNodeType.P);
-				for (PQTreeNode fullChild : node.getFullChildren()){
-					newPNode.addChild(fullChild);
-					node.getChildren().remove(fullChild);
-					tree.removeEdge(tree.edgeBetween(node, fullChild));
-					tree.addEdge(new PQTreeEdge(newPNode, fullChild));
-				}
-				newPNode.setLabel(PQNodeLabel.FULL);
-				node.getFullChildren().clear();
-				newPartialChild.addChild(newPNode);
-				tree.addEdge(new PQTreeEdge(newPartialChild, newPNode));
-				if (debug){
-					log.info("New p-node: " + newPNode);
-					log.info("Partial child " + newPartialChild);
+	/**
+	 * Starting with a full child of the Q-node, finds the sequence of full children
+	 * @return {@code true} if all full children are consecutive
+	 */
+	private boolean scanFullChildren(int node){
+		int seed = fullHeads[node];
+		int found = 1;
+		for (int side = 0; side < 2; side++){
+			int previous = seed;
+			int current = tree.getSibling(seed, side);
+			int last = seed;
+			int outside = current;
+			while (current != PQTree.NONE){
+				if (tree.getType(current) != PQNodeType.INDICATOR){
+					if (labelOf(current) != PQNodeLabel.FULL)
+						break;
+					found++;
+					last = current;
 				}
-			}
-
-			//already removed the first one
-			PQTreeNode secondPartialChild = node.getPartialChildren().get(0);
-			for (PQTreeNode fullChild : secondPartialChild.getFullChildren()){
-				newPartialChild.addChild(fullChild);
-				tree.addEdge(new PQTreeEdge(newPartialChild, fullChild));
-			}
-			for (PQTreeNode emptyChild : secondPartialChild.getEmptyChildren()){
-				newPartialChild.addChild(emptyChild);
-				tree.addEdge(new PQTreeEdge(newPartialChild, emptyChild));
-			}
-
-			node.removeChild(secondPartialChild);
-			tree.removeVertex(secondPartialChild);
-			node.addChild(newPartialChild);
-			tree.addEdge(new PQTreeEdge(node, newPartialChild));
-
-			if (debug){
-				log.info("Template mathced");
-				log.info("Node " + node);
-			}
-			return true;
+				int next = tree.next(current, previous);
+				previous = current;
+				current = next;
+				if (last == previous)
+					outside = current;
+			}
+			runEnds[side] = last;
+			runOutsides[side] = outside;
+			boundaries[side] = current;
+			beforeBoundaries[side] = previous;
 		}
-
-		return false;
+		return found == fullCounts[node];
 	}
 
-
 	/**
-	 * Simplest case for Q-nodes. If all of its children are empty
-	 * it is also labeled as empty
-	 * @param node
-	 * @return {@code true} if the template can be applied, {@code false} otherwise
+	 * If the child found after the full children on the given side is partial, replaces it by its children
+	 * and moves the end of the full sequence to its innermost full child
 	 */
-	@SuppressWarnings("unused")
-	private boolean templateQ0(PQTreeNode node){
-		if (debug)
-			log.info("Trying template Q0 for node " + node);
-		if (node.getType() != PQNodeType.Q)
-			return false;
-
-		//all children are empty
-		if (node.emptyChildrenCount() == node.childrenCount()){
-			node.labelAsEmpty();
-			if (debug)
-				log.info("Templated matched. Labeled the Q node as empty");
-			return true;
-		}
-
-		return false;
+	private void spliceBoundary(int node, int side){
+		int boundary = boundaries[side];
+		if (boundary == PQTree.NONE || labelOf(boundary) != PQNodeLabel.SINGLY_PARTIAL)
+			return;
+		runEnds[side] = fullBorders[boundary];
+		runOutsides[side] = borderOutsides[boundary];
+		tree.spliceChild(node, boundary, beforeBoundaries[side], fullEnds[boundary]);
 	}
 
 	/**
-	 * Simplest case for Q-nodes. If all of its children are full
-	 * it is also labeled as full
-	 * @param node
-	 * @return
+	 * Removes the full children of the node and returns them grouped under a new P-node,
+	 * or the only full child
 	 */
-	private boolean templateQ1(PQTreeNode node){
-		if (debug)
-			log.info("Trying template Q1 for node " + node);
-		if (node.getType() != PQNodeType.Q)
-			return false;
-
-		//all children are full
-		if (node.fullChildrenCount() == node.childrenCount()){
-			node.labelAsFull();
-			if (debug)
-				log.info("Templated matched. Labeled the Q node as full");
-			return true;
+	private int gatherFullChildren(int node){
+		int child = fullHeads[node];
+		if (fullCounts[node] == 1){
+			tree.removeChild(node, child);
+			return child;
 		}
-
-		return false;
+		int pNode = tree.createNode(PQNodeType.P);
+		reset(pNode);
+		labels[pNode] = PQNodeLabel.FULL;
+		for (; child != PQTree.NONE; child = fullNext[child]){
+			tree.removeChild(node, child);
+			tree.addChild(pNode, child);
+		}
+		return pNode;
 	}
 
 	/**
-	 * Not all children of the node are labeled identically
-	 * and it shouldn't have more than one partial child
-	 * The empty children should be first, then a partial one
-	 * and then the full ones
-	 * Some may be missing and the order of the children can be reversed 
-	 * @param node
-	 * @return {@code true} if the template can be applied, {@code false} otherwise
+	 * Returns the node if it has at least two remaining children, or removes it and returns its only child
 	 */
-	private boolean templateQ2(PQTreeNode node, PQTree<V,E> tree){
-		if (debug)
-			log.info("Trying template Q2 for node " + node);
-
-		if (node.getType() != PQNodeType.Q)
-			return false;
-
-		if (node.fullChildrenCount() < node.childrenCount() && 
-				node.emptyChildrenCount() < node.childrenCount() && 
-				node.partialChildrenCount() <= 1){
-			
-			System.out.println(node.getParent().getPartialChildren());
-
-
-			//check the order
-			//only looks for singly partial
-			//so if the partial child is doubly partial, that should be
-			//recognized as invalid
-
-			PQNodeOrderValid validOrder = node.orderValidUpToOnePartial();
-			System.out.println(validOrder);
-			if (validOrder == PQNodeOrderValid.INVALID)
-				return false;
-			if (validOrder == PQNodeOrderValid.REVERSAL){
-				increaseReversalNum(node);
-			}
-
-			//if an invalid situation wasn't detected
-			//eliminate the partial child and add its children to the parent
-			//keep the order empty-full
-			if (node.partialChildrenCount() == 1){
-
-				PQTreeNode partialChild = node.getPartialChildren().get(0);
-				//check the partial child
-				//are its children mixed
-				validOrder = partialChild.orderValidUpToTwoPartial();
-				if (validOrder == PQNodeOrderValid.INVALID)
-					return false;
-				if (validOrder == PQNodeOrderValid.REVERSAL){
-					increaseReversalNum(partialChild);
-				}
-
-				int index = node.getChildren().indexOf(partialChild);
-
-				for (PQTreeNode partialEmpty : partialChild.getEmptyChildren()){
-					node.addChild(partialEmpty, index);
-					tree.addEdge(new PQTreeEdge(node, partialEmpty));
-					index++;
-				}
-				for (PQTreeNode partialFull : partialChild.getFullChildren()){
-					node.addChild(partialFull, index);
-					tree.addEdge(new PQTreeEdge(node, partialFull));
-					index++;
-				}
-
-				node.removeChild(partialChild);
-				tree.removeVertex(partialChild);
-			}
-
-			node.labelAsPartial(PQNodeLabel.SINGLY_PARTIAL);
-			if (debug){
-				log.info("Template matched");
-				log.info("Node: " + node);
-			}
+	private int detachEmptyChildren(int node){
+		if (tree.getChildCount(node) > 1)
+			return node;
+		int child = tree.getEndmostChild(node, 0);
+		tree.removeChild(node, child);
+		tree.free(node);
+		return child;
+	}
 
-			return true;
-		}
+	private void setPartialRoot(int node, int first, int beforeFirst, int last, int afterLast){
+		pertinentRoot = node;
+		firstFull = first;
+		beforeFirstFull = beforeFirst;
+		lastFull = last;
+		afterLastFull = afterLast;
+	}
 
-		return false;
+	private PQNodeLabel labelOf(int node){
+		return stamps[node] == step ? labels[node] : PQNodeLabel.EMPTY;
 	}
 
 	/**
-	 * Up to two children may be partial
-	 * Node is root of the pertinent subtree
-	 * Doubly partial case
-	 * The order should be empty, partial, full, partial, empty
-	 * @param node
-	 * @return {@code true} if the template can be applied, {@code false} otherwise
+	 * Resets the data of the node if it hasn't been used in the current reduction
 	 */
-	private boolean templateQ3(PQTreeNode node, PQTree<V,E> tree){
-		if (debug)
-			log.info("Trying template Q3 for node " + node);
-
-		if (node.getType() != PQNodeType.Q)
-			return false;
-
-		if (node.fullChildrenCount() < node.childrenCount() && 
-				node.emptyChildrenCount() < node.childrenCount() && 
-				node.partialChildrenCount() <= 2){
-
-			PQNodeOrderValid validOrder = node.orderValidUpToTwoPartial();
-			if (validOrder == PQNodeOrderValid.INVALID)
-				return false;
-			if (validOrder == PQNodeOrderValid.REVERSAL){
-				increaseReversalNum(node);
-			}
-
-			List<PQTreeNode> children = node.getChildren();
-
-			//process the first group of empty nodes
-			//the beginning
-			//firstEmpty counts how many empty nodes are at the beginning
-			int firstEmpty = 0;
-
-			for (PQTreeNode child : children){
-				if (child.getLabel() == PQNodeLabel.EMPTY)
-					firstEmpty++;
-				else
-					break;
-			}
-
-			if (children.get(firstEmpty).getLabel() == PQNodeLabel.SINGLY_PARTIAL){
-				PQTreeNode partialChild = children.get(firstEmpty);
-
-				validOrder = partialChild.orderValidUpToOnePartial();
-				if (validOrder == PQNodeOrderValid.INVALID)
-					return false;
-				if (validOrder == PQNodeOrderValid.REVERSAL){
-					increaseReversalNum(partialChild);
-				}
-
-				int index = firstEmpty;
-
-				for (PQTreeNode partialEmpty : partialChild.getEmptyChildren()){
-					node.addChild(partialEmpty, index);
-					tree.addEdge(new PQTreeEdge(node, partialEmpty));
-					index++;
-				}
-				for (PQTreeNode partialFull : partialChild.getFullChildren()){
-					node.addChild(partialFull, index);
-					tree.addEdge(new PQTreeEdge(node, partialFull));
-					index++;
-				}
-
-				node.removeChild(partialChild);
-				tree.removeVertex(partialChild);
-			}
-
-			//process the other end
-
-			int lastEmpty = children.size() - 1;
-
-			for (int i = children.size() - 1; i >= 0; i--){
-				PQTreeNode child = children.get(i);
-				if (child.getLabel() != PQNodeLabel.EMPTY){
-					lastEmpty = i;
-					break;
-				}
-			}
-
-			if (children.get(lastEmpty).getLabel() == PQNodeLabel.SINGLY_PARTIAL){
-
-				PQTreeNode partialChild = children.get(lastEmpty);
-
-				validOrder = partialChild.orderValidUpToOnePartial();
-				if (validOrder == PQNodeOrderValid.INVALID)
-					return false;
-				if (validOrder == PQNodeOrderValid.REVERSAL){
-					increaseReversalNum(partialChild);
-				}
-
-
-				int index = lastEmpty;
-
-				//not decreasing the index here
-				//if nodes are added at that position, it'll always be the
-				//beginning of the part where nodes of the second
-				//child are added
-
-				for (PQTreeNode partialEmpty : partialChild.getEmptyChildren()){
-					node.addChild(partialEmpty, index);
-					tree.addEdge(new PQTreeEdge(node, partialEmpty));
-					//index--;
-				}
+	private void touch(int node){
+		if (stamps[node] == step)
+			return;
+		reset(node);
+	}
 
-				for (PQTreeNode partialFull : partialChild.getFullChildren()){
-					node.addChild(partialFull, index);
-					tree.addEdge(new PQTreeEdge(node, partialFull));
-					//index--;
-				}
+	/**
+	 * Resets the data of the node, which might be left from a removed node with the same id
+	 */
+	private void reset(int node){
+		if (node >= stamps.length)
+			grow(Math.max(2 * stamps.length, tree.getIdBound()));
+		stamps[node] = step;
+		labels[node] = PQNodeLabel.EMPTY;
+		pertinentChildCounts[node] = 0;
+		pertinentLeafCounts[node] = 0;
+		fullCounts[node] = 0;
+		fullHeads[node] = PQTree.NONE;
+		partialCounts[node] = 0;
+	}
 
-				node.removeChild(partialChild);
-				tree.removeVertex(partialChild);
+	private void grow(int capacity){
+		stamps = Arrays.copyOf(stamps, capacity);
+		labels = Arrays.copyOf(labels, capacity);
+		pertinentChildCounts = Arrays.copyOf(pertinentChildCounts, capacity);
+		pertinentLeafCounts = Arrays.copyOf(pertinentLeafCounts, capacity);
+		fullCounts = Arrays.copyOf(fullCounts, capacity);
+		fullHeads = Arrays.copyOf(fullHeads, capacity);
+		fullNext = Arrays.copyOf(fullNext, capacity);
+		partialCounts = Arrays.copyOf(partialCounts, capacity);
+		partialChildren = Arrays.copyOf(partialChildren, 2 * capacity);
+		fullEnds = Arrays.copyOf(fullEnds, capacity);
+		fullBorders = Arrays.copyOf(fullBorders, capacity);
+		borderOutsides = Arrays.copyOf(borderOutsides, capacity);
+		queue = Arrays.copyOf(queue, capacity);
+	}
 
-			}
+	/**
+	 * @return Root of the pertinent subtree after the last successful reduction
+	 */
+	public int getPertinentRoot() {
+		return pertinentRoot;
+	}
 
-			node.labelAsPartial(PQNodeLabel.DOUBLY_PARTIAL);
-			if (debug){
-				log.info("Template matched");
-				log.info("Node: " + node);
-			}
+	/**
+	 * @return Label of the pertinent root after the last successful reduction
+	 */
+	public PQNodeLabel getPertinentRootLabel(){
+		return labelOf(pertinentRoot);
+	}
 
-		}
-		return true;
+	/**
+	 * @return The first full child of a partial pertinent root
+	 */
+	public int getFirstFull() {
+		return firstFull;
 	}
 
 	/**
-	 * @return The number of reversals
+	 * @return Sibling of the first full child which is not full, {@code NONE} if the first full child is endmost
 	 */
-	public Map<V, Integer> getReversalNum() {
-		return reversalNum;
+	public int getBeforeFirstFull() {
+		return beforeFirstFull;
 	}
 
-	@SuppressWarnings("unchecked")
-	private void increaseReversalNum(PQTreeNode node){
-		if (node.getContent() == null)
-			return;
-		if (!reversalNum.containsKey(node.getContent()))
-			reversalNum.put((V) node.getContent(), 1);
-		else{
-			int num = reversalNum.get((V) node.getContent());
-			reversalNum.put((V) node.getContent(), num+1);
-		}
+	/**
+	 * @return The last full child of a partial pertinent root
+	 */
+	public int getLastFull() {
+		return lastFull;
 	}
 
+	/**
+	 * @return Sibling of the last full child which is not full, {@code NONE} if the last full child is endmost
+	 */
+	public int getAfterLastFull() {
+		return afterLastFull;
+	}
 
 }
@@ -1,9 +1,16 @@
 package graph.tree.spqr;
 
+import graph.elements.CompactGraph;
 import graph.elements.Edge;
 import graph.elements.Graph;
 import graph.elements.Vertex;
 import graph.exception.CannotBeAppliedException;
+import graph.properties.components.SplitTriconnectedComponentType;
+import graph.properties.splitting.GutwengerMutzelSplitting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * SPQR-trees implicitly represent all embeddings of a graph
@@ -24,13 +31,28 @@ public class SPQRTree<V extends Vertex,E extends Edge<V>> extends AbstractTree<V
 	 * @throws CannotBeAppliedException if the graph doesn't have a SPQR tree
 	 */
 	public  SPQRTree(E referenceEdge, Graph<V, E> graph) throws CannotBeAppliedException {
+		this(referenceEdge, graph, SPQRTreeConstruction.SPLIT_PAIRS);
+	}
+
+	/**
+	 *  Constructs a SPQR tree of the given graph in the given way
+	 * @param referenceEdge Reference edge
+	 * @param graph Graph
+	 * @param construction Construction of the tree. Trees of larger graphs should be
+	 * constructed from triconnected components, which takes linear time
+	 * @throws CannotBeAppliedException if the graph doesn't have a SPQR tree
+	 */
+	public  SPQRTree(E referenceEdge, Graph<V, E> graph, SPQRTreeConstruction construction) throws CannotBeAppliedException {
 		super(referenceEdge, graph);
-		
+
 		//check if is biconnected
 		if (!graph.isBiconnected())
 			throw new CannotBeAppliedException("Cannot construct SPQR tree for provided graph. Graph must be biconnected.");
-		
-		constructTree();
+
+		if (construction == SPQRTreeConstruction.TRICONNECTED_COMPONENTS)
+			constructTreeFromTriconnectedComponents();
+		else
+			constructTree();
 	}
 	
 	/** Construct the SPQR tree
@@ -38,16 +60,106 @@ public class SPQRTree<V extends Vertex,E extends Edge<V>> extends AbstractTree<V
 	 *  consists of a Q node representing the reference edge e whose child is the root of the
 	 *  Proto-SPQR tree for G with reference edge e.
 	 */
-	@SuppressWarnings("unchecked")
 	private void constructTree(){
-		Skeleton<V,TreeEdgeWithContent<V,E>> skeleton = new Skeleton<>();
-		skeleton.addVertex(referenceEdge.getOrigin(), referenceEdge.getDestination());
-		skeleton.addEdge(new TreeEdgeWithContent<V,E>(referenceEdge.getOrigin(), referenceEdge.getDestination()));
-		root = new SPQRTreeNode<>(NodeType.Q, skeleton);
+		root = createQNode(referenceEdge);
 		
 		ProtoSPQRTree<V, E> protoTree = new ProtoSPQRTree<V,E>(referenceEdge, graph);
 		root.addChildNode(protoTree.getRoot());
 		
 	}
 
+	/**
+	 * Constructs the SPQR tree from the triconnected components of the graph.
+	 * Bonds become P nodes, polygons S nodes and triconnected graphs R nodes. The child of the Q node
+	 * representing the reference edge is the node of the component containing it. Children of
+	 * every other node are Q nodes of its real edges and nodes of the components which share its
+	 * virtual edges, except the one shared with its parent, which is the virtual edge of its skeleton.
+	 * Nodes are created in breadth-first order, so the depth of the tree is not limited by the stack size.
+	 * @throws CannotBeAppliedException if the graph contains self loops or doesn't contain the reference edge
+	 */
+	private void constructTreeFromTriconnectedComponents() throws CannotBeAppliedException{
+		GutwengerMutzelSplitting<V,E> splitting = new GutwengerMutzelSplitting<V,E>(graph);
+		CompactGraph<V,E> compact = splitting.getCompactGraph();
+		int reference = compact.edgeId(referenceEdge);
+		if (reference == -1)
+			throw new CannotBeAppliedException("Cannot construct SPQR tree for provided graph. Graph must contain the reference edge.");
+		try {
+			splitting.execute();
+		} catch (IllegalArgumentException ex) {
+			throw new CannotBeAppliedException("Cannot construct SPQR tree for provided graph. " + ex.getMessage());
+		}
+
+		root = createQNode(referenceEdge);
+		if (compact.edgeCount() == 1)
+			return;
+
+		int componentCount = splitting.getComponentCount();
+		int[] first = new int[splitting.getEdgeCount()];
+		int[] second = new int[splitting.getEdgeCount()];
+		Arrays.fill(first, -1);
+		for (int c = 0; c < componentCount; c++)
+			for (int e : splitting.getComponentEdges(c)){
+				if (first[e] == -1)
+					first[e] = c;
+				else
+					second[e] = c;
+			}
+
+		//queue of components, each with the edge shared with its parent and the parent's node
+		int[] queue = new int[componentCount];
+		int[] parentEdge = new int[componentCount];
+		List<SPQRTreeNode<V,TreeEdgeWithContent<V,E>>> parentNode = new ArrayList<SPQRTreeNode<V,TreeEdgeWithContent<V,E>>>(componentCount);
+		int head = 0, tail = 0;
+		queue[tail] = first[reference];
+		parentEdge[tail++] = reference;
+		parentNode.add(root);
+
+		while (head < tail){
+			int component = queue[head];
+			int[] edges = splitting.getComponentEdges(component);
+
+			Skeleton<V,TreeEdgeWithContent<V,E>> skeleton = new Skeleton<>();
+			skeleton.setIndexed(true);
+			for (int e : edges){
+				V origin = compact.vertex(splitting.edgeOrigin(e));
+				V destination = compact.vertex(splitting.edgeDestination(e));
+				skeleton.addVertex(origin);
+				skeleton.addVertex(destination);
+				skeleton.addEdge(new TreeEdgeWithContent<V,E>(origin, destination), e == parentEdge[head]);
+			}
+
+			SPQRTreeNode<V,TreeEdgeWithContent<V,E>> node = new SPQRTreeNode<>(nodeType(splitting.getComponentType(component)), skeleton);
+			parentNode.get(head).getChildren().add(node);
+
+			for (int e : edges){
+				if (e == parentEdge[head])
+					continue;
+				if (splitting.isVirtual(e)){
+					queue[tail] = first[e] == component ? second[e] : first[e];
+					parentEdge[tail++] = e;
+					parentNode.add(node);
+				}
+				else
+					node.getChildren().add(createQNode(compact.edge(e)));
+			}
+			head++;
+		}
+	}
+
+	private SPQRTreeNode<V,TreeEdgeWithContent<V,E>> createQNode(E e){
+		Skeleton<V,TreeEdgeWithContent<V,E>> skeleton = new Skeleton<>();
+		skeleton.addVertex(e.getOrigin());
+		skeleton.addVertex(e.getDestination());
+		skeleton.addEdge(new TreeEdgeWithContent<V,E>(e.getOrigin(), e.getDestination()), false);
+		return new SPQRTreeNode<>(NodeType.Q, skeleton);
+	}
+
+	private NodeType nodeType(SplitTriconnectedComponentType componentType){
+		if (componentType == SplitTriconnectedComponentType.BOND)
+			return NodeType.P;
+		if (componentType == SplitTriconnectedComponentType.RING)
+			return NodeType.S;
+		return NodeType.R;
+	}
+
 }
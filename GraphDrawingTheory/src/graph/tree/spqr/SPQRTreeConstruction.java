@@ -0,0 +1,19 @@
+package graph.tree.spqr;
+
+/**
+ * Way of constructing an SPQR tree
+ */
+public enum SPQRTreeConstruction {
+
+	/**
+	 * Recursive construction of the Proto-SPQR tree from split pairs and split components.
+	 * Skeleton edges contain the subgraphs they represent, but the construction takes more than
+	 * quadratic time and is only suitable for smaller graphs
+	 */
+	SPLIT_PAIRS,
+	/**
+	 * Construction from the triconnected components found by {@link graph.properties.splitting.GutwengerMutzelSplitting}
+	 * in linear time. Skeleton edges don't contain the subgraphs they represent
+	 */
+	TRICONNECTED_COMPONENTS;
+}
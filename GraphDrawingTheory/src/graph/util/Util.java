@@ -7,6 +7,7 @@ import graph.elements.Vertex;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A class with some util methods
@@ -14,7 +15,21 @@ import java.util.Random;
  */
 public class Util {
 
-	
+	/**
+	 * Fork-join pool shared by the algorithms and layouters which run in parallel
+	 */
+	private static ForkJoinPool sharedPool;
+
+	/**
+	 * @return Fork-join pool shared by the algorithms and layouters which run in parallel,
+	 * created when it is first needed
+	 */
+	public static synchronized ForkJoinPool sharedPool(){
+		if (sharedPool == null)
+			sharedPool = new ForkJoinPool();
+		return sharedPool;
+	}
+
 	/**
 	 * Creates a copy of a graph
 	 * @param graph Graph to be copied
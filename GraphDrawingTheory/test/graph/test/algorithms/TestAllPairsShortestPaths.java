@@ -0,0 +1,119 @@
+package graph.test.algorithms;
+
+import graph.elements.Graph;
+import graph.elements.impl.GraphEdge;
+import graph.elements.impl.GraphVertex;
+import graph.test.elements.TestEdge;
+import graph.test.elements.TestVertex;
+import graph.traversal.AllPairsShortestPaths;
+import graph.traversal.DijkstraAlgorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+public class TestAllPairsShortestPaths extends TestCase{
+
+	private List<TestVertex> vertices;
+
+	private Graph<TestVertex, TestEdge> randomGraph(Random random, int n, int m, boolean directed, boolean weighted){
+		Graph<TestVertex, TestEdge> graph = new Graph<TestVertex, TestEdge>(directed);
+		vertices = new ArrayList<TestVertex>();
+		for (int i = 0; i < n; i++){
+			TestVertex v = new TestVertex(String.valueOf(i));
+			vertices.add(v);
+			graph.addVertex(v);
+		}
+		for (int i = 0; i < m; i++){
+			TestEdge e = new TestEdge(vertices.get(random.nextInt(n)), vertices.get(random.nextInt(n)));
+			if (weighted)
+				e.setWeight(random.nextInt(10));
+			graph.addEdge(e);
+		}
+		return graph;
+	}
+
+	@Test
+	public void testAgainstDijkstra(){
+		Random random = new Random(3);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		for (int i = 0; i < 8; i++){
+			boolean directed = i % 2 == 0;
+			boolean weighted = (i / 2) % 2 == 0;
+			Graph<TestVertex, TestEdge> graph = randomGraph(random, 40, 70, directed, weighted);
+			AllPairsShortestPaths<TestVertex, TestEdge> distances =
+					new AllPairsShortestPaths<TestVertex, TestEdge>(graph, directed, weighted, i < 4 ? null : pool);
+			DijkstraAlgorithm<TestVertex, TestEdge> dijkstra = new DijkstraAlgorithm<TestVertex, TestEdge>(graph);
+			if (!weighted)
+				for (TestEdge e : graph.getEdges())
+					e.setWeight(1);
+			for (TestVertex u : vertices)
+				for (TestVertex v : vertices){
+					long expected = dijkstra.getDistance(u, v);
+					//vertices without edges are unknown to Dijkstra's algorithm
+					if (u == v)
+						expected = 0;
+					assertEquals(expected, distances.distance(u, v));
+				}
+		}
+		pool.shutdown();
+	}
+
+	@Test
+	public void testPath(){
+		//unweighted path, distances are differences of positions
+		Graph<TestVertex, TestEdge> graph = new Graph<TestVertex, TestEdge>();
+		vertices = new ArrayList<TestVertex>();
+		for (int i = 0; i < 50; i++){
+			vertices.add(new TestVertex(String.valueOf(i)));
+			graph.addVertex(vertices.get(i));
+			if (i > 0)
+				graph.addEdge(new TestEdge(vertices.get(i - 1), vertices.get(i)));
+		}
+		TestVertex isolated = new TestVertex("isolated");
+		graph.addVertex(isolated);
+		AllPairsShortestPaths<TestVertex, TestEdge> distances = new AllPairsShortestPaths<TestVertex, TestEdge>(graph);
+		assertFalse(distances.isWeighted());
+		for (int i = 0; i < 50; i++)
+			for (int j = 0; j < 50; j++)
+				assertEquals(Math.abs(i - j), distances.distance(vertices.get(i), vertices.get(j)));
+		assertEquals(AllPairsShortestPaths.UNREACHABLE, distances.distance(vertices.get(0), isolated));
+		assertEquals(49, distances.diameter());
+	}
+
+	@Test
+	public void testDefaultWeights(){
+		//edges created by the editor have weight zero, which doesn't make the graph weighted
+		Graph<GraphVertex, GraphEdge> graph = new Graph<GraphVertex, GraphEdge>();
+		List<GraphVertex> path = new ArrayList<GraphVertex>();
+		for (int i = 0; i < 5; i++){
+			path.add(new GraphVertex());
+			graph.addVertex(path.get(i));
+			if (i > 0)
+				graph.addEdge(new GraphEdge(path.get(i - 1), path.get(i)));
+		}
+		AllPairsShortestPaths<GraphVertex, GraphEdge> distances = new AllPairsShortestPaths<GraphVertex, GraphEdge>(graph);
+		assertFalse(distances.isWeighted());
+		assertEquals(4, distances.distance(path.get(0), path.get(4)));
+		assertEquals(4, distances.diameter());
+
+		//any other weight, even if all edges share it, is a length of the edge
+		for (GraphEdge e : graph.getEdges())
+			e.setWeight(3);
+		distances = new AllPairsShortestPaths<GraphVertex, GraphEdge>(graph);
+		assertTrue(distances.isWeighted());
+		assertEquals(12, distances.distance(path.get(0), path.get(4)));
+		assertEquals(12, distances.diameter());
+
+		graph.getEdges().get(0).setWeight(5);
+		distances = new AllPairsShortestPaths<GraphVertex, GraphEdge>(graph);
+		assertTrue(distances.isWeighted());
+		assertEquals(14, distances.distance(path.get(0), path.get(4)));
+	}
+
+}
@@ -0,0 +1,81 @@
+package graph.test.algorithms;
+
+import graph.elements.CompactGraph;
+import graph.elements.Graph;
+import graph.test.elements.TestEdge;
+import graph.test.elements.TestVertex;
+
+import org.junit.Test;
+
+public class TestCompactGraph extends GraphTestCase{
+
+	@Test
+	public void testAdjacency(){
+		CompactGraph<TestVertex, TestEdge> compact = graph.freeze();
+		assertEquals(graph.getVertices().size(), compact.vertexCount());
+		assertEquals(graph.getEdges().size(), compact.edgeCount());
+
+		for (TestVertex v : graph.getVertices()){
+			int id = compact.vertexId(v);
+			assertEquals(v, compact.vertex(id));
+			assertEquals(graph.vertexDegree(v), compact.degree(id));
+			for (int i = compact.offset(id); i < compact.offset(id + 1); i++){
+				TestEdge e = compact.edge(compact.incidentEdge(i));
+				assertEquals(graph.adjacentEdges(v).get(i - compact.offset(id)), e);
+				TestVertex other = e.getOrigin() == v ? e.getDestination() : e.getOrigin();
+				assertEquals(other, compact.vertex(compact.target(i)));
+			}
+		}
+		assertEquals(graph.graphMaxDegree(), compact.maxDegree());
+	}
+
+	@Test
+	public void testTraversals(){
+		CompactGraph<TestVertex, TestEdge> compact = graph.freeze();
+		int n = compact.vertexCount();
+		int[] order = new int[n];
+		int[] visited = new int[n];
+		int[] parent = new int[n];
+
+		assertTrue(compact.isConnected());
+		assertEquals(n, compact.bfs(compact.vertexId(vert5), order, visited, 1));
+		assertEquals(n, compact.dfs(compact.vertexId(vert5), order, parent, visited, 2, new int[n], new int[n]));
+		assertEquals(-1, parent[compact.vertexId(vert5)]);
+
+		graph.removeEdge(edge4);
+		graph.removeEdge(edge5);
+		graph.removeEdge(edge15);
+		compact = graph.freeze();
+		int[] component = new int[n];
+		assertFalse(compact.isConnected());
+		assertEquals(2, compact.connectedComponents(component, order));
+		assertEquals(component[compact.vertexId(vert5)], component[compact.vertexId(vert7)]);
+		assertFalse(component[compact.vertexId(vert5)] == component[compact.vertexId(vert1)]);
+	}
+
+	@Test
+	public void testIds(){
+		//enough elements for the id tables to grow
+		Graph<TestVertex, TestEdge> large = new Graph<TestVertex, TestEdge>();
+		for (int i = 0; i < 500; i++){
+			large.addVertex(new TestVertex(String.valueOf(i)));
+			if (i > 0)
+				large.addEdge(new TestEdge(large.getVertices().get(i - 1), large.getVertices().get(i)));
+		}
+		CompactGraph<TestVertex, TestEdge> compact = large.freeze();
+		for (int i = 0; i < 500; i++){
+			assertEquals(i, compact.vertexId(large.getVertices().get(i)));
+			//equal vertices have the same id
+			assertEquals(i, compact.vertexId(new TestVertex(String.valueOf(i))));
+		}
+		for (int i = 0; i < 499; i++){
+			TestEdge e = large.getEdges().get(i);
+			assertEquals(i, compact.edgeId(e));
+			assertEquals(i, compact.origin(i));
+			assertEquals(i + 1, compact.destination(i));
+		}
+		assertEquals(-1, compact.vertexId(new TestVertex("missing")));
+		assertEquals(-1, compact.edgeId(new TestEdge(vert1, new TestVertex("missing"))));
+	}
+
+}
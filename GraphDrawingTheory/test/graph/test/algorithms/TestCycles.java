@@ -0,0 +1,106 @@
+package graph.test.algorithms;
+
+import graph.algorithm.cycles.CycleSearchLimits;
+import graph.algorithm.cycles.CycleVisitor;
+import graph.algorithm.cycles.JohnsonSimpleCycles;
+import graph.algorithm.cycles.SimpleUndirectedCyclesFinder;
+import graph.elements.Graph;
+import graph.test.elements.TestEdge;
+import graph.test.elements.TestVertex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+public class TestCycles extends TestCase{
+
+	private List<TestVertex> vertices;
+
+	private Graph<TestVertex, TestEdge> complete(int n, boolean directed){
+		Graph<TestVertex, TestEdge> graph = new Graph<TestVertex, TestEdge>(directed);
+		vertices = new ArrayList<TestVertex>();
+		for (int i = 0; i < n; i++){
+			TestVertex v = new TestVertex(String.valueOf(i));
+			vertices.add(v);
+			graph.addVertex(v);
+		}
+		for (int i = 0; i < n; i++)
+			for (int j = directed ? 0 : i + 1; j < n; j++)
+				if (i != j)
+					graph.addEdge(new TestEdge(vertices.get(i), vertices.get(j)));
+		return graph;
+	}
+
+	private CycleVisitor<TestVertex> collector(final List<List<TestVertex>> cycles){
+		return new CycleVisitor<TestVertex>() {
+			@Override
+			public boolean visit(List<TestVertex> cycle) {
+				cycles.add(cycle);
+				return true;
+			}
+		};
+	}
+
+	@Test
+	public void testDirected(){
+		//complete directed graph on four vertices has 6 + 8 + 6 simple cycles
+		Graph<TestVertex, TestEdge> graph = complete(4, true);
+		assertEquals(20, new JohnsonSimpleCycles<TestVertex, TestEdge>(graph).findSimpleCycles().size());
+		assertEquals(1, new JohnsonSimpleCycles<TestVertex, TestEdge>(graph, true).findSimpleCycles().size());
+		assertTrue(graph.isCyclic());
+
+		List<List<TestVertex>> cycles = new ArrayList<List<TestVertex>>();
+		CycleSearchLimits limits = new CycleSearchLimits();
+		limits.setMaxLength(2);
+		assertTrue(new JohnsonSimpleCycles<TestVertex, TestEdge>(graph).findSimpleCycles(collector(cycles), limits));
+		assertEquals(6, cycles.size());
+
+		//acyclic orientation
+		Graph<TestVertex, TestEdge> dag = new Graph<TestVertex, TestEdge>(true);
+		for (TestVertex v : vertices)
+			dag.addVertex(v);
+		for (int i = 0; i < 4; i++)
+			for (int j = i + 1; j < 4; j++)
+				dag.addEdge(new TestEdge(vertices.get(i), vertices.get(j)));
+		assertFalse(dag.isCyclic());
+	}
+
+	@Test
+	public void testUndirected(){
+		//complete graph on five vertices has 10 + 15 + 12 cycles
+		Graph<TestVertex, TestEdge> graph = complete(5, false);
+		SimpleUndirectedCyclesFinder<TestVertex, TestEdge> finder = new SimpleUndirectedCyclesFinder<TestVertex, TestEdge>(graph);
+		assertEquals(37, finder.findAllCycles().size());
+
+		List<List<TestVertex>> cycles = new ArrayList<List<TestVertex>>();
+		assertTrue(finder.findAllCycles(collector(cycles), new CycleSearchLimits(3, Long.MAX_VALUE, Long.MAX_VALUE)));
+		assertEquals(10, cycles.size());
+		assertTrue(graph.isCyclic());
+	}
+
+	@Test
+	public void testLimits(){
+		//a complete directed graph on twelve vertices has too many cycles to list
+		Graph<TestVertex, TestEdge> graph = complete(12, true);
+		List<List<TestVertex>> cycles = new ArrayList<List<TestVertex>>();
+		assertFalse(new JohnsonSimpleCycles<TestVertex, TestEdge>(graph).findSimpleCycles(collector(cycles), new CycleSearchLimits(Integer.MAX_VALUE, 1000, Long.MAX_VALUE)));
+		assertEquals(1000, cycles.size());
+
+		final CycleSearchLimits limits = new CycleSearchLimits();
+		final int[] count = new int[1];
+		assertFalse(new JohnsonSimpleCycles<TestVertex, TestEdge>(graph).findSimpleCycles(new CycleVisitor<TestVertex>() {
+			@Override
+			public boolean visit(List<TestVertex> cycle) {
+				if (++count[0] == 10)
+					limits.cancel();
+				return true;
+			}
+		}, limits));
+		assertTrue(count[0] < 10000);
+
+		assertFalse(new JohnsonSimpleCycles<TestVertex, TestEdge>(graph).findSimpleCycles(collector(new ArrayList<List<TestVertex>>()), new CycleSearchLimits(Integer.MAX_VALUE, Long.MAX_VALUE, 50)));
+	}
+}
@@ -1,9 +1,16 @@
 package graph.test.algorithms;
 
+import graph.elements.Graph;
+import graph.elements.Path;
+import graph.properties.GraphProperties;
 import graph.test.elements.TestEdge;
 import graph.test.elements.TestVertex;
 import graph.traversal.DijkstraAlgorithm;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Test;
 
 
@@ -23,4 +30,53 @@ public class TestDijkstra extends GraphTestCase{
 	}
 	
 
+	@Test
+	public void testWeights(){
+		//a - b - c is shorter than the direct edge a - c
+		TestVertex a = new TestVertex("a");
+		TestVertex b = new TestVertex("b");
+		TestVertex c = new TestVertex("c");
+		TestVertex d = new TestVertex("d");
+		TestEdge ab = new TestEdge(a, b);
+		TestEdge cb = new TestEdge(c, b);
+		TestEdge ac = new TestEdge(a, c);
+		ab.setWeight(2);
+		cb.setWeight(3);
+		ac.setWeight(10);
+		Graph<TestVertex, TestEdge> weighted = new Graph<TestVertex, TestEdge>();
+		weighted.addVertex(a, b, c, d);
+		weighted.addEdge(ab, cb, ac);
+
+		DijkstraAlgorithm<TestVertex, TestEdge> dijkstra = new DijkstraAlgorithm<>(weighted);
+		Path<TestVertex, TestEdge> path = dijkstra.getPath(a, c);
+		assertEquals(Arrays.asList(ab, cb), path.getPath());
+		assertEquals(5, dijkstra.getDistance(a, c));
+		assertEquals(Arrays.asList(ac), dijkstra.getPath(a, c, Arrays.asList(b)).getPath());
+		assertNull(dijkstra.getPath(a, d));
+		assertNull(dijkstra.getPath(a, a));
+		assertEquals(-1, dijkstra.getDistance(a, d));
+
+		//only the direct edge can be followed from a to c in the directed graph
+		dijkstra.setDirected(true);
+		assertEquals(Arrays.asList(ac), dijkstra.getPath(a, c).getPath());
+		assertNull(dijkstra.getPath(c, a));
+	}
+
+	@Test
+	public void testConnectedExcluding(){
+		GraphProperties<TestVertex, TestEdge> properties = new GraphProperties<TestVertex, TestEdge>(graph);
+		List<TestVertex> none = new ArrayList<TestVertex>();
+		assertEquals(properties.isConnected(), properties.isConnected(none));
+		for (TestVertex v : graph.getVertices()){
+			List<TestVertex> excluding = Arrays.asList(v);
+			DijkstraAlgorithm<TestVertex, TestEdge> dijkstra = new DijkstraAlgorithm<>(graph);
+			boolean connected = true;
+			for (TestVertex v1 : graph.getVertices())
+				for (TestVertex v2 : graph.getVertices())
+					if (v1 != v2 && v1 != v && v2 != v && dijkstra.getPath(v1, v2, excluding) == null)
+						connected = false;
+			assertEquals(connected, properties.isConnected(excluding));
+		}
+	}
+
 }
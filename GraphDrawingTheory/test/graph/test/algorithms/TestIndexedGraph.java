@@ -0,0 +1,93 @@
+package graph.test.algorithms;
+
+import graph.elements.Graph;
+import graph.elements.IndexedList;
+import graph.test.elements.TestEdge;
+import graph.test.elements.TestVertex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestIndexedGraph extends GraphTestCase{
+
+	@Test
+	public void testIds(){
+		graph.setIndexed(true);
+		assertTrue(graph.isIndexed());
+		for (int i = 0; i < graph.getVertices().size(); i++)
+			assertEquals(i, graph.vertexId(graph.getVertices().get(i)));
+		for (int i = 0; i < graph.getEdges().size(); i++)
+			assertEquals(i, graph.edgeId(graph.getEdges().get(i)));
+
+		graph.removeVertex(vert2);
+		assertFalse(graph.hasVertex(vert2));
+		assertFalse(graph.hasEdge(edge1));
+		assertEquals(-1, graph.vertexId(vert2));
+		assertEquals(1, graph.vertexId(vert3));
+		assertEquals(graph.getEdges().indexOf(edge15), graph.edgeId(edge15));
+
+		graph.addVertex(vert2);
+		assertEquals(graph.getVertices().size() - 1, graph.vertexId(vert2));
+	}
+
+	@Test
+	public void testSameAsUnindexed(){
+		Graph<TestVertex, TestEdge> indexed = new Graph<TestVertex, TestEdge>(false, true);
+		indexed.addVertex(vert1, vert2, vert3, vert4, vert5, vert6, vert7, vert8, vert9, vert10, vert11);
+		indexed.addEdge(edge1, edge2, edge3, edge4, edge5, edge6, edge7, edge8, edge9, edge10, edge11, edge12, edge13, edge14, edge15);
+		indexed.addEdge(edge1);
+
+		assertEquals(graph.getVertices(), indexed.getVertices());
+		assertEquals(graph.getEdges(), indexed.getEdges());
+		assertEquals(graph.isBiconnected(), indexed.isBiconnected());
+		assertEquals(graph.listCutVertices(), indexed.listCutVertices());
+	}
+
+	@Test
+	public void testIndexedList(){
+		//random insertions, replacements and removals, with duplicates, compared with an array list
+		Random random = new Random(3);
+		IndexedList<Integer> indexed = new IndexedList<Integer>();
+		List<Integer> list = new ArrayList<Integer>();
+		for (int i = 0; i < 5000; i++){
+			Integer element = random.nextInt(30);
+			switch (random.nextInt(6)){
+			case 0:
+			case 1:
+				indexed.add(element);
+				list.add(element);
+				break;
+			case 2:
+				int index = random.nextInt(list.size() + 1);
+				indexed.add(index, element);
+				list.add(index, element);
+				break;
+			case 3:
+				assertEquals(list.remove(element), indexed.remove(element));
+				break;
+			case 4:
+				if (!list.isEmpty()){
+					index = random.nextInt(list.size());
+					assertEquals(list.remove(index), indexed.remove(index));
+				}
+				break;
+			default:
+				if (!list.isEmpty()){
+					index = random.nextInt(list.size());
+					assertEquals(list.set(index, element), indexed.set(index, element));
+				}
+			}
+			//several changes can happen between lookups
+			if (random.nextInt(3) == 0){
+				assertEquals(list, indexed);
+				Integer probe = random.nextInt(30);
+				assertEquals(list.indexOf(probe), indexed.indexOf(probe));
+				assertEquals(list.contains(probe), indexed.contains(probe));
+			}
+		}
+	}
+
+}
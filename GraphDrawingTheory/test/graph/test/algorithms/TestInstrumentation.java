@@ -0,0 +1,132 @@
+package graph.test.algorithms;
+
+import graph.algorithm.AlgorithmExecutor;
+import graph.algorithm.ExecuteResult;
+import graph.algorithms.planarity.BoyerMyrvoldPlanarity;
+import graph.instrumentation.Histogram;
+import graph.instrumentation.HistogramMetricsSink;
+import graph.instrumentation.Instrumentation;
+import graph.instrumentation.MetricsSink;
+import graph.instrumentation.Stopwatch;
+import graph.instrumentation.Task;
+import graph.layout.AbstractLayouter;
+import graph.layout.GraphLayoutProperties;
+import graph.layout.LayoutAlgorithms;
+import graph.layout.Layouter;
+import graph.properties.Bipartite;
+import graph.test.elements.TestEdge;
+import graph.test.elements.TestVertex;
+
+import java.awt.Dimension;
+import java.util.concurrent.Callable;
+
+import org.junit.Test;
+
+public class TestInstrumentation extends GraphTestCase{
+
+	private HistogramMetricsSink sink;
+	private MetricsSink previousSink;
+
+	@Override
+	public void setUp(){
+		super.setUp();
+		previousSink = Instrumentation.getSink();
+		sink = new HistogramMetricsSink();
+		Instrumentation.setSink(sink);
+		Instrumentation.setEnabled(true);
+	}
+
+	@Override
+	public void tearDown(){
+		Instrumentation.setEnabled(false);
+		Instrumentation.setSink(previousSink);
+	}
+
+	@Test
+	public void testPhases(){
+		assertTrue(graph.isBiconnected());
+		Histogram total = sink.getHistogram("GraphProperties isBiconnected", Stopwatch.TOTAL);
+		assertEquals(1, total.getCount());
+		assertEquals(1, sink.getHistogram("GraphProperties isBiconnected", "snapshot").getCount());
+		assertEquals(1, sink.getHistogram("GraphProperties isBiconnected", "traversal").getCount());
+		assertTrue(total.getTotalNanos() >= sink.getHistogram("GraphProperties isBiconnected", "traversal").getTotalNanos());
+	}
+
+	@Test
+	public void testDisabled(){
+		Instrumentation.setEnabled(false);
+		graph.isBiconnected();
+		assertTrue(sink.getHistograms().isEmpty());
+	}
+
+	@Test
+	public void testExecute() throws Exception{
+		ExecuteResult result = AlgorithmExecutor.execute("cut vertices", new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				return graph.listCutVertices();
+			}
+		});
+		assertEquals(graph.listCutVertices(), result.getValue());
+		assertTrue(result.getDurationNanos() >= 0);
+		assertEquals(1, sink.getHistogram("cut vertices", Stopwatch.TOTAL).getCount());
+
+		try{
+			AlgorithmExecutor.execute("failing", new Callable<Object>() {
+				@Override
+				public Object call() throws Exception {
+					throw new IllegalStateException();
+				}
+			});
+			fail();
+		}
+		catch (IllegalStateException ex){
+			assertEquals(1, sink.getHistogram("failing", Stopwatch.TOTAL).getCount());
+		}
+	}
+
+	@Test
+	public void testAnalyses(){
+		assertTrue(graph.isCyclic());
+		new Bipartite<TestVertex, TestEdge>(graph).isBipartite();
+		assertEquals(1, sink.getHistogram("GraphProperties isCyclic", Stopwatch.TOTAL).getCount());
+		assertEquals(1, sink.getHistogram("Bipartite isBipartite", Stopwatch.TOTAL).getCount());
+
+		assertTrue(new BoyerMyrvoldPlanarity<TestVertex, TestEdge>().isPlannar(graph));
+		assertEquals(1, sink.getHistogram("BoyerMyrvoldPlanarity isPlannar", Stopwatch.TOTAL).getCount());
+	}
+
+	@Test
+	public void testTime(){
+		try{
+			Instrumentation.time(TestInstrumentation.class, "failing", new Task<Void, Exception>() {
+				@Override
+				public Void run() throws Exception {
+					throw new Exception();
+				}
+			});
+			fail();
+		}
+		catch (Exception ex){
+			assertEquals(1, sink.getHistogram("TestInstrumentation failing", Stopwatch.TOTAL).getCount());
+		}
+	}
+
+	@Test
+	public void testLayouters() throws Exception{
+		for (TestVertex v : graph.getVertices())
+			v.setSize(new Dimension(10, 10));
+		Layouter<TestVertex, TestEdge> layouter = new Layouter<TestVertex, TestEdge>(graph.getVertices(),
+				graph.getEdges(), LayoutAlgorithms.ISOM, new GraphLayoutProperties());
+		layouter.layout();
+		assertEquals(1, sink.getHistogram("Layouter ISOM", Stopwatch.TOTAL).getCount());
+		//the JUNG layouter records its phases
+		assertEquals(1, sink.getHistogram("JungISOMLayouter layout", AbstractLayouter.CONVERSION_PHASE).getCount());
+		assertEquals(1, sink.getHistogram("JungISOMLayouter layout", AbstractLayouter.DRAWING_PHASE).getCount());
+
+		layouter.setAlgorithm(LayoutAlgorithms.BOX);
+		layouter.layout();
+		assertEquals(1, sink.getHistogram("BoxLayouter layout", Stopwatch.TOTAL).getCount());
+	}
+
+}
@@ -86,8 +86,7 @@ public class TestEdge implements Edge<TestVertex>{
 
 	@Override
 	public void setWeight(int weight) {
-		// TODO Auto-generated method stub
-		
+		this.weight = weight;
 	}
 
 }
@@ -120,6 +120,27 @@ public class TestGraph extends TestCase{
 
 	}
 
+	@Test
+	public void testCutVerticesLongPath(){
+		int size = 100000;
+		Graph<TestVertex, TestEdge> graph = new Graph<TestVertex, TestEdge>(false, true);
+		TestVertex previous = new TestVertex("0");
+		graph.addVertex(previous);
+		for (int i = 1; i < size; i++){
+			TestVertex current = new TestVertex(String.valueOf(i));
+			graph.addVertex(current);
+			graph.addEdge(new TestEdge(previous, current));
+			previous = current;
+		}
+
+		assertTrue(graph.isConnected());
+		assertEquals(size - 2, graph.listCutVertices().size());
+		assertFalse(graph.isBiconnected());
+
+		graph.addEdge(new TestEdge(previous, graph.getVertices().get(0)));
+		assertTrue(graph.isBiconnected());
+	}
+
 
 
 
@@ -2,6 +2,8 @@ package graph.test.graph.properties;
 
 import graph.elements.Graph;
 import graph.properties.components.SplitPair;
+import graph.properties.components.SplitTriconnectedComponentType;
+import graph.properties.splitting.GutwengerMutzelSplitting;
 import graph.properties.splitting.Splitting;
 import graph.test.elements.TestEdge;
 import graph.test.elements.TestVertex;
@@ -147,4 +149,49 @@ public class TestSplitting extends TestCase{
 		
 		
 	}
+
+	@Test
+	public void testGutwengerMutzelSplitting(){
+		graph2.addEdge(new TestEdge(vert1, vert4));
+		GutwengerMutzelSplitting<TestVertex, TestEdge> triconnectedSplitting = new GutwengerMutzelSplitting<TestVertex, TestEdge>(graph2);
+		triconnectedSplitting.execute();
+
+		//real edges belong to one component, virtual to two
+		int[] occurrences = new int[triconnectedSplitting.getEdgeCount()];
+		for (int i = 0; i < triconnectedSplitting.getComponentCount(); i++)
+			for (int e : triconnectedSplitting.getComponentEdges(i))
+				occurrences[e]++;
+		for (int e = 0; e < occurrences.length; e++)
+			assertEquals(triconnectedSplitting.isVirtual(e) ? 2 : 1, occurrences[e]);
+
+		//triangles 1-3-5, 1-2-4 and 1-3-4, bonds of 1-3 and 1-4
+		assertEquals(5, triconnectedSplitting.getComponentCount());
+
+		//a hexagon with a chord between opposite vertices, where the search splits off
+		//polygons which are merged along virtual edges
+		Graph<TestVertex, TestEdge> hexagon = new Graph<TestVertex, TestEdge>();
+		TestVertex[] vertices = {vert1, vert2, vert3, vert4, vert5, vert6};
+		for (int i = 0; i < 6; i++){
+			hexagon.addVertex(vertices[i]);
+			if (i > 0)
+				hexagon.addEdge(new TestEdge(vertices[i - 1], vertices[i]));
+		}
+		hexagon.addEdge(new TestEdge(vert6, vert1));
+		hexagon.addEdge(new TestEdge(vert1, vert4));
+		triconnectedSplitting = new GutwengerMutzelSplitting<TestVertex, TestEdge>(hexagon);
+		triconnectedSplitting.execute();
+
+		//two quadrilaterals and the bond of 1-4, sharing two virtual edges
+		assertEquals(3, triconnectedSplitting.getComponentCount());
+		assertEquals(9, triconnectedSplitting.getEdgeCount());
+		occurrences = new int[triconnectedSplitting.getEdgeCount()];
+		for (int i = 0; i < triconnectedSplitting.getComponentCount(); i++){
+			int[] edges = triconnectedSplitting.getComponentEdges(i);
+			assertEquals(triconnectedSplitting.getComponentType(i) == SplitTriconnectedComponentType.BOND ? 3 : 4, edges.length);
+			for (int e : edges)
+				occurrences[e]++;
+		}
+		for (int e = 0; e < occurrences.length; e++)
+			assertEquals(triconnectedSplitting.isVirtual(e) ? 2 : 1, occurrences[e]);
+	}
 }
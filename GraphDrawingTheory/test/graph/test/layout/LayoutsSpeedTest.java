@@ -2,6 +2,7 @@ package graph.test.layout;
 
 import graph.algorithm.AlgorithmExecutor;
 import graph.algorithm.ExecuteResult;
+import graph.drawing.Drawing;
 import graph.elements.Graph;
 import graph.layout.GraphLayoutProperties;
 import graph.layout.LayoutAlgorithms;
@@ -16,15 +17,16 @@ import java.awt.Dimension;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 public class LayoutsSpeedTest {
 
 	@SuppressWarnings("unchecked")
-	public static void main(String[] args){
+	public static void main(String[] args) throws Exception{
 
 		Map<LayoutAlgorithms, Long> timesMap= new HashMap<LayoutAlgorithms, Long>();
 		GraphLayoutProperties layoutProperties = new GraphLayoutProperties();
-		Layouter<TestVertex, TestEdge> layouter = new Layouter<TestVertex, TestEdge>();
+		final Layouter<TestVertex, TestEdge> layouter = new Layouter<TestVertex, TestEdge>();
 		layouter.setLayoutProperties(layoutProperties);
 		
 		LayoutAlgorithms[] algorithms = new LayoutAlgorithms[12];
@@ -84,7 +86,12 @@ public class LayoutsSpeedTest {
 				
 				System.out.println("Current algoritm " + algorithm);
 				
-				ExecuteResult results = AlgorithmExecutor.execute(layouter, "layout");
+				ExecuteResult results = AlgorithmExecutor.execute("Layouter " + algorithm, new Callable<Drawing<TestVertex, TestEdge>>() {
+					@Override
+					public Drawing<TestVertex, TestEdge> call() throws Exception {
+						return layouter.layout();
+					}
+				});
 				if (!timesMap.containsKey(algorithm))
 					timesMap.put(algorithm, 0L);
 				timesMap.put(algorithm, timesMap.get(algorithm) + results.getDuration());
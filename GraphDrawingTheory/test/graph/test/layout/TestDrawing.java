@@ -0,0 +1,133 @@
+package graph.test.layout;
+
+import graph.drawing.Drawing;
+import graph.elements.impl.GraphEdge;
+import graph.elements.impl.GraphVertex;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+public class TestDrawing extends TestCase{
+
+	@Test
+	public void testMultipleEdges(){
+		GraphVertex v1 = new GraphVertex(new Dimension(40, 20));
+		GraphVertex v2 = new GraphVertex(new Dimension(40, 20));
+		GraphEdge e1 = new GraphEdge(v1, v2);
+		GraphEdge e2 = new GraphEdge(v1, v2);
+		GraphEdge e3 = new GraphEdge(v2, v1);
+		List<GraphEdge> edges = new ArrayList<GraphEdge>();
+		edges.add(e1);
+		edges.add(e2);
+		edges.add(e3);
+
+		Drawing<GraphVertex, GraphEdge> drawing = new Drawing<GraphVertex, GraphEdge>();
+		drawing.getVertexMappings().put(v1, new Point(0, 0));
+		drawing.getVertexMappings().put(v2, new Point(100, 0));
+		drawing.positionEdges(edges);
+
+		//parallel edges are moved apart, the edge in the opposite direction is not
+		assertFalse(drawing.getEdgeMappings().get(e1).get(0).equals(drawing.getEdgeMappings().get(e2).get(0)));
+		assertEquals(new Point(100, 0), drawing.getEdgeMappings().get(e3).get(0));
+		assertEquals(new Point(0, 0), drawing.getEdgeMappings().get(e3).get(1));
+	}
+
+	/**
+	 * Compares edge positioning with the implementation which searched for multiple edges
+	 * by scanning all positioned edges, on random graphs with many multiple edges and loops
+	 */
+	@Test
+	public void testMatchesLinearSearch(){
+		Random random = new Random(7);
+		for (int iteration = 0; iteration < 50; iteration++){
+			int n = 1 + random.nextInt(10);
+			List<GraphVertex> vertices = new ArrayList<GraphVertex>();
+			Map<GraphVertex, Point2D> positions = new HashMap<GraphVertex, Point2D>();
+			for (int i = 0; i < n; i++){
+				GraphVertex v = new GraphVertex(new Dimension(10 + random.nextInt(50), 10 + random.nextInt(50)));
+				vertices.add(v);
+				positions.put(v, new Point(random.nextInt(500), random.nextInt(500)));
+			}
+			List<GraphEdge> edges = new ArrayList<GraphEdge>();
+			int m = random.nextInt(4 * n);
+			for (int i = 0; i < m; i++)
+				edges.add(new GraphEdge(vertices.get(random.nextInt(n)), vertices.get(random.nextInt(n))));
+
+			Drawing<GraphVertex, GraphEdge> drawing = new Drawing<GraphVertex, GraphEdge>();
+			drawing.getVertexMappings().putAll(positions);
+			drawing.positionEdges(edges);
+
+			Map<GraphEdge, List<Point2D>> expected = positionEdges(positions, edges);
+			assertEquals(expected.size(), drawing.getEdgeMappings().size());
+			for (GraphEdge e : edges)
+				assertEquals(expected.get(e), drawing.getEdgeMappings().get(e));
+		}
+	}
+
+	private Map<GraphEdge, List<Point2D>> positionEdges(Map<GraphVertex, Point2D> vertexMappings, List<GraphEdge> edges){
+		Map<GraphEdge, List<Point2D>> edgeMappings = new HashMap<GraphEdge, List<Point2D>>();
+		for (GraphEdge e : edges){
+			List<Point2D> edgeNodePoints = new ArrayList<Point2D>();
+			if (e.getDestination() == e.getOrigin()){
+				int vertexHeight = (int) e.getOrigin().getSize().getHeight();
+				int vertexWidth = (int) e.getOrigin().getSize().getWidth();
+				Point2D position = vertexMappings.get(e.getOrigin());
+				int xPosition = (int) position.getX();
+				int yPosition = (int) position.getY();
+				edgeNodePoints.add(new Point(xPosition, (int) (yPosition - vertexHeight/3)));
+				edgeNodePoints.add(new Point((int) (xPosition - vertexWidth - 20), (int) (yPosition - vertexHeight/3)));
+				edgeNodePoints.add(new Point((int) (xPosition - vertexWidth - 20), (int) (yPosition + vertexHeight/3)));
+				edgeNodePoints.add(new Point(xPosition, (int) (yPosition + vertexHeight/3)));
+			}
+			else{
+				Point2D originPosition = vertexMappings.get(e.getOrigin());
+				Point2D destinationPosition = vertexMappings.get(e.getDestination());
+				edgeNodePoints.add(new Point((int) originPosition.getX(), (int) originPosition.getY()));
+				edgeNodePoints.add(new Point((int) destinationPosition.getX(), (int) destinationPosition.getY()));
+			}
+			edgeMappings.put(e, edgeNodePoints);
+		}
+
+		List<GraphEdge> processedEdges = new ArrayList<GraphEdge>();
+		for (GraphEdge e : edges){
+			if (processedEdges.contains(e))
+				continue;
+			processedEdges.add(e);
+
+			List<GraphEdge> multipleEdges = new ArrayList<GraphEdge>();
+			for (GraphEdge other : edgeMappings.keySet())
+				if (other != e && other.getOrigin() == e.getOrigin() && other.getDestination() == e.getDestination())
+					multipleEdges.add(other);
+			if (multipleEdges.size() == 0)
+				continue;
+
+			int count = multipleEdges.size();
+			int distanceOrigin = (int) e.getOrigin().getSize().getWidth()/(count * 2);
+			int distanceDestination = (int) e.getDestination().getSize().getWidth()/(count * 2);
+			int distanceMultiplicity = 1;
+			for (int i = 0; i < multipleEdges.size(); i++){
+				Point2D originPosition = edgeMappings.get(multipleEdges.get(i)).get(0);
+				Point2D destinationPosition = edgeMappings.get(multipleEdges.get(i)).get(1);
+				int sign = i < multipleEdges.size()/2 ? -1 : 1;
+				originPosition.setLocation((int)(originPosition.getX() + sign * distanceMultiplicity * distanceOrigin),
+						originPosition.getY());
+				destinationPosition.setLocation((int)(destinationPosition.getX() + sign * distanceMultiplicity * distanceDestination),
+						destinationPosition.getY());
+				distanceMultiplicity++;
+			}
+			processedEdges.addAll(multipleEdges);
+		}
+		return edgeMappings;
+	}
+
+}
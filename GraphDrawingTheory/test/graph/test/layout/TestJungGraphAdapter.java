@@ -0,0 +1,67 @@
+package graph.test.layout;
+
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import graph.drawing.Drawing;
+import graph.layout.GraphLayoutProperties;
+import graph.layout.JungGraphAdapter;
+import graph.layout.force.directed.FruchtermanReingoldLayouter;
+import graph.test.algorithms.GraphTestCase;
+import graph.test.elements.TestEdge;
+import graph.test.elements.TestVertex;
+
+import java.util.HashSet;
+
+import org.junit.Test;
+
+public class TestJungGraphAdapter extends GraphTestCase{
+
+	@Test
+	public void testSameAsCopy(){
+		UndirectedSparseGraph<TestVertex, TestEdge> copy = new UndirectedSparseGraph<TestVertex, TestEdge>();
+		for (TestVertex v : graph.getVertices())
+			copy.addVertex(v);
+		for (TestEdge e : graph.getEdges())
+			copy.addEdge(e, e.getOrigin(), e.getDestination());
+
+		JungGraphAdapter<TestVertex, TestEdge> adapter = new JungGraphAdapter<TestVertex, TestEdge>(graph, EdgeType.UNDIRECTED);
+		assertEquals(copy.getVertexCount(), adapter.getVertexCount());
+		assertEquals(copy.getEdgeCount(), adapter.getEdgeCount());
+		for (TestVertex v : graph.getVertices()){
+			assertEquals(new HashSet<TestVertex>(copy.getNeighbors(v)), new HashSet<TestVertex>(adapter.getNeighbors(v)));
+			assertEquals(new HashSet<TestEdge>(copy.getIncidentEdges(v)), new HashSet<TestEdge>(adapter.getIncidentEdges(v)));
+			assertEquals(copy.degree(v), adapter.degree(v));
+			for (TestVertex u : graph.getVertices())
+				assertEquals(copy.isNeighbor(v, u), adapter.isNeighbor(v, u));
+		}
+		for (TestEdge e : graph.getEdges()){
+			assertEquals(copy.getEndpoints(e), adapter.getEndpoints(e));
+			assertEquals(e, adapter.findEdge(e.getDestination(), e.getOrigin()));
+			assertTrue(adapter.containsEdge(e));
+		}
+	}
+
+	@Test
+	public void testLiveView(){
+		JungGraphAdapter<TestVertex, TestEdge> adapter = new JungGraphAdapter<TestVertex, TestEdge>(graph);
+		graph.removeVertex(vert2);
+		assertFalse(adapter.containsVertex(vert2));
+		assertFalse(adapter.containsEdge(edge1));
+		assertFalse(adapter.isNeighbor(vert1, vert2));
+		try{
+			adapter.addVertex(vert2);
+			fail();
+		}
+		catch (UnsupportedOperationException ex){
+		}
+	}
+
+	@Test
+	public void testLayout(){
+		FruchtermanReingoldLayouter<TestVertex, TestEdge> layouter = new FruchtermanReingoldLayouter<TestVertex, TestEdge>();
+		Drawing<TestVertex, TestEdge> drawing = layouter.layout(graph, new GraphLayoutProperties());
+		for (TestVertex v : graph.getVertices())
+			assertNotNull(drawing.getVertexMappings().get(v));
+	}
+
+}
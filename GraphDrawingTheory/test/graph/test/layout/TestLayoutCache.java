@@ -0,0 +1,109 @@
+package graph.test.layout;
+
+import graph.drawing.Drawing;
+import graph.layout.GraphLayoutProperties;
+import graph.layout.LayoutAlgorithms;
+import graph.layout.LayoutCache;
+import graph.layout.Layouter;
+import graph.layout.PropertyEnums.FruchtermanReingoldProperties;
+import graph.test.algorithms.GraphTestCase;
+import graph.test.elements.TestEdge;
+import graph.test.elements.TestVertex;
+
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class TestLayoutCache extends GraphTestCase{
+
+	private List<TestVertex> copyVertices;
+	private List<TestEdge> copyEdges;
+
+	@Override
+	public void setUp(){
+		super.setUp();
+		Map<TestVertex, TestVertex> copies = new IdentityHashMap<TestVertex, TestVertex>();
+		copyVertices = new ArrayList<TestVertex>();
+		for (TestVertex v : graph.getVertices()){
+			v.setSize(new Dimension(10, 10));
+			TestVertex copy = new TestVertex((String) v.getContent());
+			copy.setSize(new Dimension(10, 10));
+			copies.put(v, copy);
+			copyVertices.add(copy);
+		}
+		copyEdges = new ArrayList<TestEdge>();
+		for (TestEdge e : graph.getEdges())
+			copyEdges.add(new TestEdge(copies.get(e.getOrigin()), copies.get(e.getDestination())));
+	}
+
+	@Test
+	public void testSameStructure() throws Exception{
+		LayoutCache cache = new LayoutCache();
+		GraphLayoutProperties properties = new GraphLayoutProperties();
+		Layouter<TestVertex, TestEdge> layouter = new Layouter<TestVertex, TestEdge>(graph.getVertices(), graph.getEdges(), LayoutAlgorithms.FRUCHTERMAN_REINGOLD, properties);
+		layouter.setCache(cache);
+		Drawing<TestVertex, TestEdge> first = layouter.layout();
+		assertEquals(0, cache.getHits());
+		assertEquals(1, cache.getMisses());
+
+		Layouter<TestVertex, TestEdge> copyLayouter = new Layouter<TestVertex, TestEdge>(copyVertices, copyEdges, LayoutAlgorithms.FRUCHTERMAN_REINGOLD, properties);
+		copyLayouter.setCache(cache);
+		Drawing<TestVertex, TestEdge> second = copyLayouter.layout();
+		assertEquals(1, cache.getHits());
+		for (int i = 0; i < copyVertices.size(); i++)
+			assertEquals(first.getVertexMappings().get(graph.getVertices().get(i)), second.getVertexMappings().get(copyVertices.get(i)));
+		for (int i = 0; i < copyEdges.size(); i++)
+			assertEquals(first.getEdgeMappings().get(graph.getEdges().get(i)), second.getEdgeMappings().get(copyEdges.get(i)));
+
+		//returned drawings are copies
+		second.moveBy(100, 100);
+		Drawing<TestVertex, TestEdge> third = layouter.layout();
+		assertEquals(first.getVertexMappings(), third.getVertexMappings());
+		assertEquals(2, cache.getHits());
+	}
+
+	@Test
+	public void testDifferentKeys() throws Exception{
+		LayoutCache cache = new LayoutCache();
+		GraphLayoutProperties properties = new GraphLayoutProperties();
+		Layouter<TestVertex, TestEdge> layouter = new Layouter<TestVertex, TestEdge>(graph.getVertices(), graph.getEdges(), LayoutAlgorithms.FRUCHTERMAN_REINGOLD, properties);
+		layouter.setCache(cache);
+		layouter.layout();
+
+		GraphLayoutProperties otherProperties = new GraphLayoutProperties();
+		otherProperties.setProperty(FruchtermanReingoldProperties.MAXIMUM_ITERATIONS, 10.0);
+		layouter.setLayoutProperties(otherProperties);
+		layouter.layout();
+
+		copyEdges.remove(0);
+		Layouter<TestVertex, TestEdge> copyLayouter = new Layouter<TestVertex, TestEdge>(copyVertices, copyEdges, LayoutAlgorithms.FRUCHTERMAN_REINGOLD, properties);
+		copyLayouter.setCache(cache);
+		copyLayouter.layout();
+
+		assertEquals(0, cache.getHits());
+		assertEquals(3, cache.getMisses());
+		assertEquals(3, cache.size());
+	}
+
+	@Test
+	public void testEviction() throws Exception{
+		Layouter<TestVertex, TestEdge> layouter = new Layouter<TestVertex, TestEdge>(graph.getVertices(), graph.getEdges(), LayoutAlgorithms.FRUCHTERMAN_REINGOLD, new GraphLayoutProperties());
+		layouter.setCache(new LayoutCache());
+		layouter.layout();
+		long weight = layouter.getCache().getWeight();
+
+		LayoutCache cache = new LayoutCache(weight);
+		layouter.setCache(cache);
+		layouter.layout();
+		layouter.setAlgorithm(LayoutAlgorithms.KAMADA_KAWAI);
+		layouter.layout();
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.getEvictions());
+		assertTrue(cache.getWeight() <= weight);
+	}
+
+}
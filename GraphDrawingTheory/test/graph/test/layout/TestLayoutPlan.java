@@ -0,0 +1,142 @@
+package graph.test.layout;
+
+import graph.drawing.Drawing;
+import graph.exception.DSLException;
+import graph.layout.GraphLayoutProperties;
+import graph.layout.LayoutAlgorithms;
+import graph.layout.PropertyEnums.CircleProperties;
+import graph.layout.dsl.DSLLayouter;
+import graph.layout.dsl.LayoutPlan;
+import graph.layout.dsl.LayoutPlanCache;
+import graph.test.algorithms.GraphTestCase;
+import graph.test.elements.TestEdge;
+import graph.test.elements.TestVertex;
+
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class TestLayoutPlan extends GraphTestCase{
+
+	@Override
+	public void setUp(){
+		super.setUp();
+		for (TestVertex v : graph.getVertices())
+			v.setSize(new Dimension(10, 10));
+	}
+
+	@Test
+	public void testCompileAlgorithm() throws Exception{
+		LayoutPlan plan = LayoutPlan.compile("lay out graph algorithm circular (distance = 30)");
+		assertEquals(1, plan.getSteps().size());
+		LayoutPlan.Step step = plan.getSteps().get(0);
+		assertEquals(LayoutPlan.Selector.GRAPH, step.getSelector());
+		assertEquals(LayoutAlgorithms.CIRCLE, step.getAlgorithm());
+
+		//every call creates new properties
+		GraphLayoutProperties properties = step.createLayoutProperties();
+		assertEquals(30, properties.getProperty(CircleProperties.DISTANCE));
+		properties.setProperty(CircleProperties.DISTANCE, 10);
+		assertEquals(30, step.createLayoutProperties().getProperty(CircleProperties.DISTANCE));
+
+		//styles depend on the graph
+		step = LayoutPlan.compile("lay out graph style circular").getSteps().get(0);
+		assertNull(step.getAlgorithm());
+		assertNull(step.createLayoutProperties());
+	}
+
+	@Test
+	public void testCompileSubgraphs() throws Exception{
+		LayoutPlan plan = LayoutPlan.compile("lay out others style circular; subgraph v0, v2 algorithm box (columns = 2); "
+				+ "subgraph '5', '6' style tree");
+		assertEquals(3, plan.getSteps().size());
+		assertEquals(LayoutPlan.Selector.INDICES, plan.getSteps().get(0).getSelector());
+		assertEquals(0, (int) plan.getSteps().get(0).getIndices().get(0));
+		assertEquals(2, (int) plan.getSteps().get(0).getIndices().get(1));
+		assertEquals(LayoutPlan.Selector.CONTENTS, plan.getSteps().get(1).getSelector());
+		assertEquals("6", plan.getSteps().get(1).getContents().get(1));
+		assertEquals(LayoutPlan.Selector.OTHERS, plan.getSteps().get(2).getSelector());
+
+		Drawing<TestVertex, TestEdge> drawing = plan.execute(graph.getVertices(), graph.getEdges());
+		assertEquals(graph.getVertices().size(), drawing.getVertexMappings().size());
+	}
+
+	@Test
+	public void testSyntaxError(){
+		try{
+			LayoutPlan.compile("lay out graph algorithm circular (distance = x)");
+			fail();
+		}
+		catch(DSLException e){
+			assertTrue(e.getMessage().startsWith("Expected INT"));
+		}
+	}
+
+	@Test
+	public void testMixedSelectors(){
+		try{
+			LayoutPlan.compile("lay out subgraph v0, 'a' style circular");
+			fail();
+		}
+		catch(DSLException e){
+			assertEquals("Vertices of subgraph 0,a are given both by index and by content, which can't be mixed", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testCache() throws Exception{
+		LayoutPlanCache cache = new LayoutPlanCache(2);
+		LayoutPlan circular = cache.compile("lay out graph algorithm circular");
+		assertSame(circular, cache.compile("lay out graph algorithm circular"));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+
+		cache.compile("lay out graph style tree");
+		cache.compile("lay out graph algorithm circular");
+		//the least recently used plan is evicted
+		cache.compile("lay out graph style circular");
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictions());
+		assertSame(circular, cache.compile("lay out graph algorithm circular"));
+		assertEquals(3, cache.getHits());
+
+		try{
+			cache.compile("lay out graph");
+			fail();
+		}
+		catch(DSLException e){
+			assertEquals(2, cache.size());
+		}
+	}
+
+	@Test
+	public void testConcurrentExecution() throws Exception{
+		final LayoutPlan plan = LayoutPlan.compile("lay out graph algorithm circular (distance = 30, optimize crossings)");
+		Drawing<TestVertex, TestEdge> expected =
+				new DSLLayouter<TestVertex, TestEdge>(graph.getVertices(), graph.getEdges(), plan).layout();
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try{
+			List<Future<Drawing<TestVertex, TestEdge>>> futures = new ArrayList<Future<Drawing<TestVertex, TestEdge>>>();
+			for (int i = 0; i < 16; i++)
+				futures.add(executor.submit(new Callable<Drawing<TestVertex, TestEdge>>() {
+					@Override
+					public Drawing<TestVertex, TestEdge> call() throws Exception {
+						return plan.execute(graph.getVertices(), graph.getEdges());
+					}
+				}));
+			for (Future<Drawing<TestVertex, TestEdge>> future : futures)
+				assertEquals(expected.getVertexMappings(), future.get().getVertexMappings());
+		}
+		finally{
+			executor.shutdown();
+		}
+	}
+
+}
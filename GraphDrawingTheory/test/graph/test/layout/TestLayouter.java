@@ -0,0 +1,163 @@
+package graph.test.layout;
+
+import graph.drawing.Drawing;
+import graph.elements.Graph;
+import graph.instrumentation.Stopwatch;
+import graph.layout.AbstractLayouter;
+import graph.layout.GraphLayoutProperties;
+import graph.layout.LayoutAlgorithms;
+import graph.layout.Layouter;
+import graph.layout.LayouterFactory;
+import graph.layout.PropertyEnums.CircleProperties;
+import graph.test.algorithms.GraphTestCase;
+import graph.test.elements.TestEdge;
+import graph.test.elements.TestVertex;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+public class TestLayouter extends GraphTestCase{
+
+	private List<TestVertex> vertices;
+	private List<TestEdge> edges;
+
+	@Override
+	public void setUp(){
+		super.setUp();
+		//five components: the test graph and four cycles of different lengths
+		vertices = new ArrayList<TestVertex>(graph.getVertices());
+		edges = new ArrayList<TestEdge>(graph.getEdges());
+		for (int c = 0; c < 4; c++){
+			List<TestVertex> cycle = new ArrayList<TestVertex>();
+			for (int i = 0; i < c + 3; i++)
+				cycle.add(new TestVertex("c" + c + "_" + i));
+			for (int i = 0; i < cycle.size(); i++)
+				edges.add(new TestEdge(cycle.get(i), cycle.get((i + 1) % cycle.size())));
+			vertices.addAll(cycle);
+		}
+		for (TestVertex v : vertices)
+			v.setSize(new Dimension(10, 10));
+	}
+
+	@Test
+	public void testParallelMatchesSequential() throws Exception{
+		GraphLayoutProperties properties = new GraphLayoutProperties();
+		properties.setProperty(CircleProperties.OPTIMIZE_CROSSINGS, false);
+		properties.setProperty(CircleProperties.DISTANCE, 40);
+
+		Layouter<TestVertex, TestEdge> sequential =
+				new Layouter<TestVertex, TestEdge>(vertices, edges, LayoutAlgorithms.CIRCLE, properties);
+		Drawing<TestVertex, TestEdge> expected = sequential.layout();
+		assertEquals(vertices.size(), expected.getVertexMappings().size());
+
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try{
+			Layouter<TestVertex, TestEdge> parallel =
+					new Layouter<TestVertex, TestEdge>(vertices, edges, LayoutAlgorithms.CIRCLE, properties);
+			parallel.setParallel(true);
+			parallel.setExecutor(executor);
+			for (int i = 0; i < 5; i++){
+				Drawing<TestVertex, TestEdge> drawing = parallel.layout();
+				assertEquals(expected.getVertexMappings(), drawing.getVertexMappings());
+				assertEquals(expected.getEdgeMappings(), drawing.getEdgeMappings());
+			}
+		}
+		finally{
+			executor.shutdown();
+		}
+		//the tasks lay out with copies of the properties
+		assertEquals(2, properties.getProperties().size());
+		assertEquals(40, properties.getProperty(CircleProperties.DISTANCE));
+	}
+
+	@Test
+	public void testComponents() throws Exception{
+		TestVertex a = new TestVertex("a"), b = new TestVertex("b"), c = new TestVertex("c"), d = new TestVertex("d"),
+				e = new TestVertex("e"), f = new TestVertex("f"), g = new TestVertex("g"), h = new TestVertex("h"),
+				i = new TestVertex("i"), j = new TestVertex("j");
+		List<TestVertex> componentVertices = Arrays.asList(a, d, g, b, f, h, i, c, e, j);
+		for (TestVertex v : componentVertices)
+			v.setSize(new Dimension(10, 10));
+		TestEdge ab = new TestEdge(a, b), bc = new TestEdge(b, c), ca = new TestEdge(c, a), de = new TestEdge(d, e),
+				ff = new TestEdge(f, f), ij = new TestEdge(i, j), ji = new TestEdge(j, i);
+		List<TestEdge> componentEdges = Arrays.asList(ij, de, ab, ff, bc, ji, ca);
+
+		//every isolated vertex is a component of its own
+		List<Graph<TestVertex, TestEdge>> graphs = formComponents(componentVertices, componentEdges, LayoutAlgorithms.CIRCLE);
+		assertEquals(6, graphs.size());
+		assertComponent(graphs.get(0), Arrays.asList(a, b, c), Arrays.asList(ab, bc, ca));
+		assertComponent(graphs.get(1), Arrays.asList(d, e), Arrays.asList(de));
+		assertComponent(graphs.get(2), Arrays.asList(g), new ArrayList<TestEdge>());
+		assertComponent(graphs.get(3), Arrays.asList(f), Arrays.asList(ff));
+		assertComponent(graphs.get(4), Arrays.asList(h), new ArrayList<TestEdge>());
+		assertComponent(graphs.get(5), Arrays.asList(i, j), Arrays.asList(ij, ji));
+
+		//the automatic layout groups isolated vertices into one last graph
+		graphs = formComponents(componentVertices, componentEdges, LayoutAlgorithms.AUTOMATIC);
+		assertEquals(5, graphs.size());
+		assertComponent(graphs.get(0), Arrays.asList(a, b, c), Arrays.asList(ab, bc, ca));
+		assertComponent(graphs.get(1), Arrays.asList(d, e), Arrays.asList(de));
+		assertComponent(graphs.get(2), Arrays.asList(f), Arrays.asList(ff));
+		assertComponent(graphs.get(3), Arrays.asList(i, j), Arrays.asList(ij, ji));
+		assertComponent(graphs.get(4), Arrays.asList(g, h), new ArrayList<TestEdge>());
+	}
+
+	/**
+	 * Lays out the graph with a layouter which records the components it is given
+	 */
+	private List<Graph<TestVertex, TestEdge>> formComponents(List<TestVertex> componentVertices, List<TestEdge> componentEdges,
+			LayoutAlgorithms algorithm) throws Exception{
+		final List<Graph<TestVertex, TestEdge>> graphs = new ArrayList<Graph<TestVertex, TestEdge>>();
+		Layouter<TestVertex, TestEdge> layouter = new Layouter<TestVertex, TestEdge>(componentVertices, componentEdges, algorithm);
+		layouter.setLayouterFactory(new LayouterFactory<TestVertex, TestEdge>(){
+			@Override
+			public AbstractLayouter<TestVertex, TestEdge> createLayouter(LayoutAlgorithms algorithm) {
+				return new RecordingLayouter(graphs);
+			}
+		});
+		layouter.layout();
+		return graphs;
+	}
+
+	private void assertComponent(Graph<TestVertex, TestEdge> graph, List<TestVertex> componentVertices, List<TestEdge> componentEdges){
+		assertEquals(new HashSet<TestVertex>(componentVertices), new HashSet<TestVertex>(graph.getVertices()));
+		assertEquals(componentVertices.size(), graph.getVertices().size());
+		assertEquals(componentEdges.size(), graph.getEdges().size());
+		for (TestEdge edge : componentEdges){
+			boolean found = false;
+			for (TestEdge other : graph.getEdges())
+				found |= other == edge;
+			assertTrue(found);
+		}
+	}
+
+	private static class RecordingLayouter extends AbstractLayouter<TestVertex, TestEdge>{
+
+		private List<Graph<TestVertex, TestEdge>> graphs;
+
+		public RecordingLayouter(List<Graph<TestVertex, TestEdge>> graphs){
+			this.graphs = graphs;
+			oneGraph = false;
+		}
+
+		@Override
+		protected Drawing<TestVertex, TestEdge> doLayout(Graph<TestVertex, TestEdge> graph,
+				GraphLayoutProperties layoutProperties, Stopwatch stopwatch) {
+			graphs.add(graph);
+			Drawing<TestVertex, TestEdge> drawing = new Drawing<TestVertex, TestEdge>();
+			for (TestVertex v : graph.getVertices())
+				drawing.getVertexMappings().put(v, new Point(0, 0));
+			return drawing;
+		}
+
+	}
+
+}
@@ -0,0 +1,123 @@
+package graph.test.layout;
+
+import graph.algorithms.drawing.TutteEmbedding;
+import graph.elements.Graph;
+import graph.math.CramersRule;
+import graph.test.elements.TestEdge;
+import graph.test.elements.TestVertex;
+
+import java.awt.Dimension;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+public class TestTutteEmbedding extends TestCase{
+
+	private TestVertex[][] vertices;
+
+	/**
+	 * Triangulated grid, with the border of the grid as the outside face
+	 */
+	private Graph<TestVertex, TestEdge> mesh(int width, List<TestVertex> face){
+		Graph<TestVertex, TestEdge> graph = new Graph<TestVertex, TestEdge>(false, true);
+		vertices = new TestVertex[width][width];
+		for (int i = 0; i < width; i++)
+			for (int j = 0; j < width; j++){
+				vertices[i][j] = new TestVertex(i + " " + j);
+				vertices[i][j].setSize(new Dimension(10, 10));
+				graph.addVertex(vertices[i][j]);
+			}
+		for (int i = 0; i < width; i++)
+			for (int j = 0; j < width; j++){
+				if (j + 1 < width)
+					graph.addEdge(new TestEdge(vertices[i][j], vertices[i][j + 1]));
+				if (i + 1 < width)
+					graph.addEdge(new TestEdge(vertices[i][j], vertices[i + 1][j]));
+				if (i + 1 < width && j + 1 < width)
+					graph.addEdge(new TestEdge(vertices[i][j], vertices[i + 1][j + 1]));
+			}
+		for (int j = 0; j < width - 1; j++)
+			face.add(vertices[0][j]);
+		for (int i = 0; i < width - 1; i++)
+			face.add(vertices[i][width - 1]);
+		for (int j = width - 1; j > 0; j--)
+			face.add(vertices[width - 1][j]);
+		for (int i = width - 1; i > 0; i--)
+			face.add(vertices[i][0]);
+		return graph;
+	}
+
+	private double barycenterError(Graph<TestVertex, TestEdge> graph, List<TestVertex> face, Map<TestVertex, Point2D> positions){
+		Set<TestVertex> outside = new HashSet<TestVertex>(face);
+		double error = 0;
+		for (TestVertex v : graph.getVertices()){
+			if (outside.contains(v))
+				continue;
+			List<TestVertex> adjacent = graph.adjacentVertices(v);
+			double x = 0, y = 0;
+			for (TestVertex u : adjacent){
+				x += positions.get(u).getX();
+				y += positions.get(u).getY();
+			}
+			error = Math.max(error, positions.get(v).distance(x / adjacent.size(), y / adjacent.size()));
+		}
+		return error;
+	}
+
+	@Test
+	public void testBarycenters(){
+		List<TestVertex> face = new ArrayList<TestVertex>();
+		Graph<TestVertex, TestEdge> graph = mesh(40, face);
+		TutteEmbedding<TestVertex, TestEdge> tutte = new TutteEmbedding<TestVertex, TestEdge>(graph);
+		Map<TestVertex, Point2D> positions = tutte.execute(face, new Point2D.Double(0, 0), 10);
+		assertEquals(graph.getVertices().size(), positions.size());
+		assertTrue(barycenterError(graph, face, positions) < 1e-6);
+
+		//starting from the solution
+		Map<TestVertex, Point2D> again = tutte.execute(face, new Point2D.Double(0, 0), 10, positions);
+		assertTrue(barycenterError(graph, face, again) < 1e-6);
+	}
+
+	@Test
+	public void testWheel(){
+		//the hub of a wheel is placed in the center of the rim
+		Graph<TestVertex, TestEdge> graph = new Graph<TestVertex, TestEdge>();
+		List<TestVertex> rim = new ArrayList<TestVertex>();
+		TestVertex hub = new TestVertex("hub");
+		graph.addVertex(hub);
+		for (int i = 0; i < 6; i++){
+			TestVertex v = new TestVertex(String.valueOf(i));
+			v.setSize(new Dimension(10, 10));
+			rim.add(v);
+			graph.addVertex(v);
+			graph.addEdge(new TestEdge(hub, v));
+		}
+		for (int i = 0; i < 6; i++)
+			graph.addEdge(new TestEdge(rim.get(i), rim.get((i + 1) % 6)));
+		Map<TestVertex, Point2D> positions = new TutteEmbedding<TestVertex, TestEdge>(graph).execute(rim, new Point2D.Double(0, 0), 10);
+		double x = 0, y = 0;
+		for (TestVertex v : rim){
+			x += positions.get(v).getX();
+			y += positions.get(v).getY();
+		}
+		assertEquals(x / 6, positions.get(hub).getX(), 1e-9);
+		assertEquals(y / 6, positions.get(hub).getY(), 1e-9);
+	}
+
+	@Test
+	public void testCramersRule(){
+		double[][] A = {{2, 1, -1}, {-3, -1, 2}, {-2, 1, 2}};
+		double[] B = {8, -11, -3};
+		double[] x = CramersRule.cramers(A, B);
+		assertEquals(2, x[0], 1e-9);
+		assertEquals(3, x[1], 1e-9);
+		assertEquals(-1, x[2], 1e-9);
+	}
+}
@@ -1,6 +1,7 @@
 package graph.test.planarity;
 
 import graph.algorithms.planarity.BoyerMyrvoldPlanarity;
+import graph.algorithms.planarity.BoyerMyrvoldWorkspace;
 import graph.algorithms.planarity.PlanarityTestingAlgorithm;
 import graph.elements.Graph;
 import graph.test.elements.TestEdge;
@@ -34,5 +35,48 @@ public class BoyerMyrvoldPlanarityTest extends TestCase {
 
 		assertEquals(pt.isPlannar(g), true);
 	}
-	
+
+	@Test
+	public void testBoyerMyrvoldWorkspaceReuse() {
+		BoyerMyrvoldWorkspace workspace = new BoyerMyrvoldWorkspace();
+		BoyerMyrvoldPlanarity<TestVertex, TestEdge> pt = new BoyerMyrvoldPlanarity<TestVertex, TestEdge>(workspace);
+
+		Graph<TestVertex, TestEdge> k5 = new Graph<TestVertex, TestEdge>(true);
+		TestVertex[] V = new TestVertex[5];
+		for (int i = 0; i < 5; i++) {
+			V[i] = new TestVertex(String.valueOf(i));
+			k5.addVertex(V[i]);
+		}
+		for (int i = 0; i < 5; i++)
+			for (int j = i + 1; j < 5; j++)
+				k5.addEdge(new TestEdge(V[i], V[j]));
+		assertFalse(pt.isPlannar(k5));
+		assertTrue(k5.isDirected());
+		assertTrue(pt.getOutsideFace().isEmpty());
+
+		Graph<TestVertex, TestEdge> k33 = new Graph<TestVertex, TestEdge>(false);
+		TestVertex[] U = new TestVertex[6];
+		for (int i = 0; i < 6; i++) {
+			U[i] = new TestVertex(String.valueOf(i));
+			k33.addVertex(U[i]);
+		}
+		for (int i = 0; i < 3; i++)
+			for (int j = 3; j < 6; j++)
+				k33.addEdge(new TestEdge(U[i], U[j]));
+		assertFalse(pt.isPlannar(k33));
+
+		k33.removeEdge(k33.edgeBetween(U[0], U[3]));
+		assertTrue(pt.isPlannar(k33));
+
+		Graph<TestVertex, TestEdge> cycle = new Graph<TestVertex, TestEdge>(false);
+		for (int i = 0; i < 5; i++)
+			cycle.addVertex(V[i]);
+		for (int i = 0; i < 5; i++)
+			cycle.addEdge(new TestEdge(V[i], V[(i + 1) % 5]));
+		assertTrue(pt.isPlannar(cycle));
+		assertEquals(5, pt.getOutsideFace().size());
+		assertEquals(5, pt.getExternalFaceEdges().size());
+		assertSame(workspace, pt.getWorkspace());
+	}
+
 }
@@ -2,11 +2,25 @@ package graph.test.planarity;
 
 import org.junit.Test;
 
+import graph.algorithms.planarity.BlockPlanarityTesting;
+import graph.algorithms.planarity.Embedding;
 import graph.algorithms.planarity.FraysseixMendezPlanarity;
 import graph.algorithms.planarity.MaximumPlanaritySubgraph;
+import graph.algorithms.planarity.PQTreePlanarity;
+import graph.algorithms.planarity.PlanarFaces;
+import graph.algorithms.planarity.PlanarityTestingAlgorithm;
+import graph.exception.CannotBeAppliedException;
 import graph.elements.Graph;
 import graph.test.elements.TestEdge;
 import graph.test.elements.TestVertex;
+import graph.traversal.DFSTreeTraversal;
+import graph.trees.dfs.DFSTree;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
 import junit.framework.TestCase;
 
 public class TestPlanarity extends TestCase{
@@ -99,9 +113,141 @@ public class TestPlanarity extends TestCase{
 			
 		Graph<TestVertex, TestEdge> maxPlanarityGraph = maxPlanarity.calculateMaximumPlanarityGraph();
 		assertEquals(9, maxPlanarityGraph.getEdges().size());
+		//the subgraph is indexed only if the graph is
+		assertFalse(maxPlanarityGraph.isIndexed());
 		
 	}
 	
+	public void testMaximumPlanarityBatches(){
+		//grid with random chords
+		int width = 8;
+		Random random = new Random(5);
+		Graph<TestVertex, TestEdge> graph = new Graph<TestVertex, TestEdge>(false, true);
+		List<TestVertex> vertices = new ArrayList<TestVertex>();
+		for (int i = 0; i < width * width; i++){
+			vertices.add(new TestVertex(String.valueOf(i)));
+			graph.addVertex(vertices.get(i));
+		}
+		for (int i = 0; i < width * width; i++){
+			if ((i + 1) % width != 0)
+				graph.addEdge(new TestEdge(vertices.get(i), vertices.get(i + 1)));
+			if (i + width < width * width)
+				graph.addEdge(new TestEdge(vertices.get(i), vertices.get(i + width)));
+		}
+		for (int i = 0; i < 20; i++)
+			graph.addEdge(new TestEdge(vertices.get(random.nextInt(width * width)), vertices.get(random.nextInt(width * width))));
+
+		//adding edges one by one
+		FraysseixMendezPlanarity<TestVertex, TestEdge> planarityTest = new FraysseixMendezPlanarity<TestVertex, TestEdge>();
+		DFSTree<TestVertex, TestEdge> tree = new DFSTreeTraversal<TestVertex, TestEdge>(graph).formDFSTree();
+		Graph<TestVertex, TestEdge> expected = new Graph<TestVertex, TestEdge>(tree.getVertices(), tree.getTreeEdges());
+		for (TestEdge e : tree.getBackEdges()){
+			expected.addEdge(e);
+			if (!planarityTest.isPlannar(expected))
+				expected.removeEdge(e);
+		}
+
+		MaximumPlanaritySubgraph<TestVertex, TestEdge> maxPlanarity = new MaximumPlanaritySubgraph<>(graph);
+		Graph<TestVertex, TestEdge> maxPlanarityGraph = maxPlanarity.getPlanarSubgraph();
+		assertEquals(new HashSet<TestEdge>(expected.getEdges()), new HashSet<TestEdge>(maxPlanarityGraph.getEdges()));
+		assertEquals(graph.getEdges().size(), maxPlanarityGraph.getEdges().size() + maxPlanarity.getRemainingEdges().size());
+		assertTrue(maxPlanarity.getNumberOfTests() < tree.getBackEdges().size());
+		assertTrue(maxPlanarityGraph.isIndexed());
+	}
+
+	public void testPQTree() throws CannotBeAppliedException{
+		PQTreePlanarity<TestVertex, TestEdge> planarTest = new PQTreePlanarity<TestVertex, TestEdge>();
+		assertEquals(true, planarTest.isPlannar(planarGraph));
+		assertEquals(false, planarTest.isPlannar(nonPlanarGraph));
+
+		//grid with diagonals, the given vertices should be the first and the last in the st-order
+		int width = 12;
+		Graph<TestVertex, TestEdge> graph = new Graph<TestVertex, TestEdge>(false, true);
+		List<TestVertex> vertices = new ArrayList<TestVertex>();
+		for (int i = 0; i < width * width; i++){
+			vertices.add(new TestVertex(String.valueOf(i)));
+			graph.addVertex(vertices.get(i));
+		}
+		for (int i = 0; i < width * width; i++){
+			if ((i + 1) % width != 0)
+				graph.addEdge(new TestEdge(vertices.get(i), vertices.get(i + 1)));
+			if (i + width < width * width)
+				graph.addEdge(new TestEdge(vertices.get(i), vertices.get(i + width)));
+			if ((i + 1) % width != 0 && i + width < width * width)
+				graph.addEdge(new TestEdge(vertices.get(i), vertices.get(i + width + 1)));
+		}
+		TestVertex s = vertices.get(width + 1);
+		TestVertex t = vertices.get(2 * width + 2);
+		planarTest = new PQTreePlanarity<TestVertex, TestEdge>(s, t);
+		assertEquals(true, planarTest.isPlannar(graph));
+		assertEquals(s, planarTest.getStOrder().get(0));
+		assertEquals(t, planarTest.getStOrder().get(width * width - 1));
+		assertEquals(width * width - 1, planarTest.getUpwardsEmbedding().size());
+
+		PlanarFaces<TestVertex, TestEdge> faces = new PlanarFaces<TestVertex, TestEdge>(graph);
+		faces.formFaces(s, t);
+		assertEquals(graph.getEdges().size() - graph.getVertices().size() + 2, faces.getAllFaces().size());
+
+		graph.addEdge(new TestEdge(vertices.get(0), vertices.get(width * width - 1)));
+		graph.addEdge(new TestEdge(vertices.get(width - 1), vertices.get(width * (width - 1))));
+		assertEquals(false, planarTest.isPlannar(graph));
+	}
+
+	public void testBlockPlanarity() throws CannotBeAppliedException{
+		//chain of wheels, each sharing its hub with the rim of the next one
+		Graph<TestVertex, TestEdge> graph = new Graph<TestVertex, TestEdge>(false, true);
+		TestVertex hub = new TestVertex("hub");
+		graph.addVertex(hub);
+		for (int i = 0; i < 30; i++){
+			List<TestVertex> rim = new ArrayList<TestVertex>();
+			rim.add(hub);
+			for (int j = 1; j < 6; j++){
+				rim.add(new TestVertex(i + "." + j));
+				graph.addVertex(rim.get(j));
+			}
+			TestVertex nextHub = new TestVertex(i + ".hub");
+			graph.addVertex(nextHub);
+			for (int j = 0; j < rim.size(); j++){
+				graph.addEdge(new TestEdge(rim.get(j), rim.get((j + 1) % rim.size())));
+				graph.addEdge(new TestEdge(nextHub, rim.get(j)));
+			}
+			hub = nextHub;
+		}
+
+		BlockPlanarityTesting<TestVertex, TestEdge> planarTest = new BlockPlanarityTesting<TestVertex, TestEdge>(
+				new BlockPlanarityTesting.AlgorithmFactory<TestVertex, TestEdge>() {
+
+					@Override
+					public PlanarityTestingAlgorithm<TestVertex, TestEdge> createAlgorithm() {
+						return new PQTreePlanarity<TestVertex, TestEdge>();
+					}
+				});
+		assertEquals(true, planarTest.isPlannar(graph));
+		assertEquals(30, planarTest.getBlocks().size());
+		assertNull(planarTest.getNonPlanarBlock());
+
+		Embedding<TestVertex, TestEdge> embedding = planarTest.embed(graph);
+		for (TestVertex v : graph.getVertices())
+			assertEquals(new HashSet<TestEdge>(graph.adjacentEdges(v)), new HashSet<TestEdge>(embedding.getEmbedding().get(v)));
+
+		//attach the pentatope to the last hub
+		TestVertex[] pentatope = {hub, new TestVertex("p1"), new TestVertex("p2"), new TestVertex("p3"), new TestVertex("p4")};
+		for (int i = 1; i < pentatope.length; i++)
+			graph.addVertex(pentatope[i]);
+		for (int i = 0; i < pentatope.length; i++)
+			for (int j = i + 1; j < pentatope.length; j++)
+				graph.addEdge(new TestEdge(pentatope[i], pentatope[j]));
+		planarTest = new BlockPlanarityTesting<TestVertex, TestEdge>();
+		assertEquals(false, planarTest.isPlannar(graph));
+		assertEquals(10, planarTest.getNonPlanarBlock().getEdges().size());
+		try{
+			planarTest.embed(graph);
+			fail("Non-planar graph was embedded");
+		}
+		catch(CannotBeAppliedException ex){
+		}
+	}
+
 	@Test
 	public void testPlanarity(){
 		testFraysseixMendez();
@@ -0,0 +1,161 @@
+package graph.test.symmetry;
+
+import graph.elements.Graph;
+import graph.symmetry.Permutation;
+import graph.symmetry.PermutationAnalyzator;
+import graph.symmetry.PermutationGroup;
+import graph.symmetry.nauty.BinaryRepresentation;
+import graph.symmetry.nauty.McKayGraphLabelingAlgorithm;
+import graph.test.elements.TestEdge;
+import graph.test.elements.TestVertex;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+public class TestMcKay extends TestCase{
+
+	private Graph<TestVertex, TestEdge> graph(int n, int[][] edges){
+		Graph<TestVertex, TestEdge> graph = new Graph<TestVertex, TestEdge>();
+		List<TestVertex> vertices = new ArrayList<TestVertex>();
+		for (int i = 0; i < n; i++){
+			TestVertex v = new TestVertex(String.valueOf(i));
+			vertices.add(v);
+			graph.addVertex(v);
+		}
+		for (int[] edge : edges)
+			graph.addEdge(new TestEdge(vertices.get(edge[0]), vertices.get(edge[1])));
+		return graph;
+	}
+
+	@Test
+	public void testAutomorphisms(){
+		//cycle with six vertices, the dihedral group has 12 elements
+		int[][] cycle = new int[6][];
+		for (int i = 0; i < 6; i++)
+			cycle[i] = new int[]{i, (i + 1) % 6};
+		List<Permutation> automorphisms = new McKayGraphLabelingAlgorithm<TestVertex, TestEdge>().findAutomorphisms(graph(6, cycle), 100);
+		assertEquals(12, automorphisms.size());
+
+		//Petersen graph, whose automorphism group is S5
+		int[][] petersen = new int[15][];
+		for (int i = 0; i < 5; i++){
+			petersen[3 * i] = new int[]{i, (i + 1) % 5};
+			petersen[3 * i + 1] = new int[]{i, i + 5};
+			petersen[3 * i + 2] = new int[]{i + 5, 5 + (i + 2) % 5};
+		}
+		automorphisms = new McKayGraphLabelingAlgorithm<TestVertex, TestEdge>().findAutomorphisms(graph(10, petersen), 1000);
+		assertEquals(120, automorphisms.size());
+	}
+
+	@Test
+	public void testHypercube(){
+		//four-dimensional hypercube, its automorphism group has 2^4 * 4! elements
+		Graph<TestVertex, TestEdge> hypercube = hypercube(4);
+		McKayGraphLabelingAlgorithm<TestVertex, TestEdge> nauty = new McKayGraphLabelingAlgorithm<TestVertex, TestEdge>();
+		assertTrue(nauty.findGenerators(hypercube).size() <= 16);
+		List<Permutation> automorphisms = nauty.findAutomorphisms(hypercube, 1000);
+		assertEquals(384, automorphisms.size());
+		assertTrue(automorphisms.get(0).isIdentityPermutation());
+
+		//only the requested number of automorphisms is formed
+		automorphisms = nauty.findAutomorphisms(hypercube, 10);
+		assertEquals(10, automorphisms.size());
+		assertTrue(automorphisms.get(0).isIdentityPermutation());
+		assertEquals(10, new HashSet<Permutation>(automorphisms).size());
+	}
+
+	@Test
+	public void testAutomorphismGroup(){
+		//seven-dimensional hypercube, whose automorphism group has 2^7 * 7! elements
+		Graph<TestVertex, TestEdge> hypercube = hypercube(7);
+		McKayGraphLabelingAlgorithm<TestVertex, TestEdge> nauty = new McKayGraphLabelingAlgorithm<TestVertex, TestEdge>();
+		PermutationGroup group = nauty.findAutomorphismGroup(hypercube);
+		assertEquals(645120, group.size());
+		assertEquals(128, group.orbit(0).size());
+		for (Permutation p : nauty.findAutomorphisms(hypercube, 20))
+			assertTrue(group.contains(p));
+
+		//the group of a tree whose branches have different lengths is trivial
+		PermutationGroup trivial = nauty.findAutomorphismGroup(graph(7, new int[][]{{0, 1}, {1, 2}, {2, 3}, {3, 4}, {4, 5}, {2, 6}}));
+		assertEquals(1, trivial.size());
+		assertEquals(1, trivial.getPermutations().size());
+	}
+
+	@Test
+	public void testPermutationAnalyzator(){
+		//the searches over the stabilizer chain find the same groups as checking every automorphism
+		Graph<TestVertex, TestEdge> hypercube = hypercube(4);
+		List<Permutation> automorphisms = new McKayGraphLabelingAlgorithm<TestVertex, TestEdge>().findAutomorphisms(hypercube, 1000);
+		PermutationAnalyzator<TestVertex, TestEdge> analyzator = new PermutationAnalyzator<TestVertex, TestEdge>(hypercube);
+		int reflections = 0, rotations = 0, dihedral = 0;
+		for (Permutation p : automorphisms){
+			if (analyzator.isReflectionGroupGenerator(p) != null)
+				reflections++;
+			if (analyzator.isRotationalGroupGenerator(p) != null){
+				rotations++;
+				for (Permutation axial : automorphisms)
+					if (analyzator.isDehidralGroupGenerator(axial, p) != null && axial.order() == 2)
+						dihedral++;
+			}
+		}
+		assertEquals(reflections, analyzator.findReflectionGroups().size());
+		assertEquals(rotations, analyzator.findRotationGroups().size());
+		List<PermutationGroup> dihedralGroups = analyzator.findDihedralGroups();
+		assertEquals(dihedral, dihedralGroups.size());
+		for (PermutationGroup group : dihedralGroups)
+			assertEquals(2 * group.getGenerators().get(1).order(), group.size());
+
+		//the automorphism group of this tree fixes every vertex, so it has no rotations
+		analyzator = new PermutationAnalyzator<TestVertex, TestEdge>(graph(7, new int[][]{{0, 1}, {1, 2}, {2, 3}, {1, 4}, {4, 5}, {3, 6}}));
+		assertTrue(analyzator.findRotationGroups().isEmpty());
+		assertTrue(analyzator.findDihedralGroups().isEmpty());
+	}
+
+	private Graph<TestVertex, TestEdge> hypercube(int dimension){
+		List<int[]> edges = new ArrayList<int[]>();
+		int n = 1 << dimension;
+		for (int v = 0; v < n; v++)
+			for (int bit = 0; bit < dimension; bit++)
+				if ((v & (1 << bit)) == 0)
+					edges.add(new int[]{v, v | (1 << bit)});
+		return graph(n, edges.toArray(new int[edges.size()][]));
+	}
+
+	@Test
+	public void testCanonicalLabeling(){
+		//the same path, with vertices added in different orders
+		Graph<TestVertex, TestEdge> path1 = graph(5, new int[][]{{0, 1}, {1, 2}, {2, 3}, {3, 4}});
+		Graph<TestVertex, TestEdge> path2 = graph(5, new int[][]{{3, 0}, {0, 4}, {4, 1}, {1, 2}});
+		McKayGraphLabelingAlgorithm<TestVertex, TestEdge> nauty = new McKayGraphLabelingAlgorithm<TestVertex, TestEdge>();
+		String binary1 = new BinaryRepresentation<TestVertex, TestEdge>(path1).binaryRepresenatation(nauty.findCanonicalLabeling(path1));
+		String binary2 = new BinaryRepresentation<TestVertex, TestEdge>(path2).binaryRepresenatation(nauty.findCanonicalLabeling(path2));
+		assertEquals(binary1, binary2);
+	}
+
+	@Test
+	public void testCertificates(){
+		Graph<TestVertex, TestEdge> path = graph(4, new int[][]{{0, 1}, {1, 2}, {2, 3}});
+		BinaryRepresentation<TestVertex, TestEdge> representation = new BinaryRepresentation<TestVertex, TestEdge>(path);
+		int[][] orders = {{0, 1, 2, 3}, {1, 0, 2, 3}, {0, 2, 1, 3}, {3, 2, 1, 0}};
+		for (int[] order1 : orders)
+			for (int[] order2 : orders){
+				String binary1 = representation.binaryRepresenatation(vertices(path, order1));
+				String binary2 = representation.binaryRepresenatation(vertices(path, order2));
+				int expected = Integer.signum(binary1.compareTo(binary2));
+				int actual = Integer.signum(BinaryRepresentation.compare(representation.certificate(order1), representation.certificate(order2)));
+				assertEquals(expected, actual);
+			}
+	}
+
+	private List<TestVertex> vertices(Graph<TestVertex, TestEdge> graph, int[] order){
+		List<TestVertex> ret = new ArrayList<TestVertex>();
+		for (int id : order)
+			ret.add(graph.getVertices().get(id));
+		return ret;
+	}
+}
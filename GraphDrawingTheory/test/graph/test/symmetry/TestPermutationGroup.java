@@ -0,0 +1,82 @@
+package graph.test.symmetry;
+
+import graph.symmetry.Permutation;
+import graph.symmetry.PermutationGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+public class TestPermutationGroup extends TestCase{
+
+	private List<Permutation> cubeGenerators(){
+		//symmetries of the three-dimensional cube, vertices given by their coordinates as bits
+		int[] rotation = new int[8];
+		int[] flip = new int[8];
+		int[] swap = new int[8];
+		for (int v = 0; v < 8; v++){
+			rotation[v] = ((v << 1) | (v >> 2)) & 7;
+			flip[v] = v ^ 1;
+			swap[v] = (v & 4) | ((v & 1) << 1) | ((v & 2) >> 1);
+		}
+		List<Permutation> generators = new ArrayList<Permutation>();
+		generators.add(new Permutation(rotation));
+		generators.add(new Permutation(flip));
+		generators.add(new Permutation(swap));
+		return generators;
+	}
+
+	@Test
+	public void testPermutation(){
+		Permutation p = new Permutation(new int[]{1, 2, 0, 4, 3, 5});
+		assertEquals(6, p.order());
+		assertEquals("[[0, 1, 2], [3, 4], [5]]", p.toString());
+		assertTrue(p.mul(p.inverse()).isIdentityPermutation());
+		assertEquals(p, new Permutation(p.getPermutation()));
+		assertEquals(1, p.fix().size());
+	}
+
+	@Test
+	public void testOrder(){
+		PermutationGroup group = new PermutationGroup(cubeGenerators());
+		assertEquals(48, group.size());
+		assertEquals(48, group.getPermutations().size());
+		assertTrue(group.getPermutations().get(0).isIdentityPermutation());
+		assertEquals(8, group.orbit(0).size());
+		assertEquals(6, group.stabilizer(0).size());
+		assertEquals(6, group.stabilizers(0).size());
+		assertTrue(group.fix().isEmpty());
+		assertFalse(group.isSemiRegular());
+	}
+
+	@Test
+	public void testMembership(){
+		PermutationGroup group = new PermutationGroup(cubeGenerators());
+		//central symmetry is a symmetry of the cube
+		assertTrue(group.contains(new Permutation(new int[]{7, 6, 5, 4, 3, 2, 1, 0})));
+		//a transposition of two vertices is not
+		assertFalse(group.contains(new Permutation(new int[]{1, 0, 2, 3, 4, 5, 6, 7})));
+
+		//the symmetric group on 12 elements is generated by a transposition and a cycle
+		int[] cycle = new int[12];
+		int[] transposition = new int[12];
+		for (int i = 0; i < 12; i++){
+			cycle[i] = (i + 1) % 12;
+			transposition[i] = i;
+		}
+		transposition[0] = 1;
+		transposition[1] = 0;
+		PermutationGroup symmetric = new PermutationGroup(new Permutation(transposition), new Permutation(cycle));
+		assertEquals(479001600L, symmetric.size());
+		assertTrue(symmetric.contains(new Permutation(new int[]{11, 10, 9, 8, 7, 6, 5, 4, 3, 2, 1, 0})));
+		assertEquals(39916800L, symmetric.stabilizer(5).size());
+
+		PermutationGroup rotations = new PermutationGroup(null, new Permutation(cycle));
+		assertEquals(12, rotations.size());
+		assertTrue(rotations.isSemiRegular());
+		assertFalse(rotations.contains(new Permutation(transposition)));
+	}
+}
@@ -4,6 +4,8 @@ import graph.elements.Graph;
 import graph.test.elements.TestEdge;
 import graph.test.elements.TestVertex;
 import graph.tree.bc.BCTree;
+import graph.tree.bc.BCTreeEdge;
+import graph.tree.bc.BCTreeNode;
 import junit.framework.TestCase;
 
 import org.junit.Test;
@@ -52,4 +54,45 @@ public class TestBCTree extends TestCase {
 		System.out.println(tree);
 		
 	}
+
+	@Test
+	public void testStructure(){
+		BCTree<TestVertex, TestEdge> tree = new BCTree<>(graph);
+		assertEquals(4, tree.getcVertices().size());
+		assertEquals(5, tree.getbVertices().size());
+		assertEquals(8, tree.getEdges().size());
+		assertEquals(3, tree.getPendants().size());
+		for (BCTreeNode node : tree.getVertices())
+			if (node != tree.getRoot())
+				assertNotNull(node.getParent());
+
+		//removing the pendant which contains D and F leaves two pendants
+		Graph<TestVertex, TestEdge> pendantDF = null;
+		for (Graph<TestVertex, TestEdge> pendant : tree.getPendants())
+			if (pendant.hasVertex(vertF))
+				pendantDF = pendant;
+		assertNotNull(pendantDF);
+		tree.removeVertex(tree.getVertexByContent(pendantDF));
+		tree.updatePendants();
+		assertEquals(2, tree.getPendants().size());
+		assertFalse(tree.getPendants().contains(pendantDF));
+	}
+
+	@Test
+	public void testAddEdge(){
+		BCTree<TestVertex, TestEdge> tree = new BCTree<>(graph);
+		assertEquals(3, tree.getPendants().size());
+
+		//connecting a pendant to a second cut vertex leaves two pendants
+		Graph<TestVertex, TestEdge> pendant = tree.getPendants().get(0);
+		BCTreeNode pendantNode = tree.getVertexByContent(pendant);
+		BCTreeNode cutVertex = null;
+		for (BCTreeNode node : tree.getcVertices())
+			if (!tree.hasEdge(node, pendantNode))
+				cutVertex = node;
+		tree.addEdge(new BCTreeEdge(cutVertex, pendantNode));
+		tree.updatePendants();
+		assertEquals(2, tree.getPendants().size());
+		assertFalse(tree.getPendants().contains(pendant));
+	}
 }
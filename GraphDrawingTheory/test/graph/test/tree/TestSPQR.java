@@ -4,8 +4,16 @@ import graph.elements.Graph;
 import graph.exception.CannotBeAppliedException;
 import graph.test.elements.TestEdge;
 import graph.test.elements.TestVertex;
+import graph.tree.spqr.NodeType;
 import graph.tree.spqr.ProtoSPQRTree;
 import graph.tree.spqr.SPQRTree;
+import graph.tree.spqr.SPQRTreeConstruction;
+import graph.tree.spqr.SPQRTreeNode;
+import graph.tree.spqr.TreeEdgeWithContent;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import junit.framework.TestCase;
 
 import org.junit.Test;
@@ -91,5 +99,54 @@ public class TestSPQR extends TestCase{
 		}
 	}
 
+	@Test
+	public void testSPQRFromTriconnectedComponents() throws CannotBeAppliedException{
+		SPQRTree<TestVertex, TestEdge> tree = new SPQRTree<TestVertex, TestEdge>(edge1, graph2, SPQRTreeConstruction.TRICONNECTED_COMPONENTS);
+		assertEquals(NodeType.Q, tree.getRoot().getNodeType());
+		SPQRTreeNode<TestVertex, TreeEdgeWithContent<TestVertex, TestEdge>> pNode = tree.getRoot().getChildren().get(0);
+		assertEquals(NodeType.P, pNode.getNodeType());
+		assertEquals(1, pNode.getSkeleton().getVirtualEdges().size());
+		assertEquals(2, pNode.getChildren().size());
+		for (SPQRTreeNode<TestVertex, TreeEdgeWithContent<TestVertex, TestEdge>> sNode : pNode.getChildren()){
+			assertEquals(NodeType.S, sNode.getNodeType());
+			assertEquals(3, sNode.getSkeleton().getEdges().size());
+			assertEquals(2, sNode.getChildren().size());
+			for (SPQRTreeNode<TestVertex, TreeEdgeWithContent<TestVertex, TestEdge>> qNode : sNode.getChildren())
+				assertEquals(NodeType.Q, qNode.getNodeType());
+		}
+	}
+
+	@Test
+	public void testLargeSPQRFromTriconnectedComponents() throws CannotBeAppliedException{
+		int width = 100;
+		Graph<TestVertex, TestEdge> grid = new Graph<TestVertex, TestEdge>(false, true);
+		List<TestVertex> vertices = new ArrayList<TestVertex>();
+		for (int i = 0; i < width * width; i++){
+			TestVertex v = new TestVertex(String.valueOf(i));
+			vertices.add(v);
+			grid.addVertex(v);
+		}
+		for (int i = 0; i < width * width; i++){
+			if ((i + 1) % width != 0)
+				grid.addEdge(new TestEdge(vertices.get(i), vertices.get(i + 1)));
+			if (i + width < width * width)
+				grid.addEdge(new TestEdge(vertices.get(i), vertices.get(i + width)));
+		}
+
+		SPQRTree<TestVertex, TestEdge> tree = new SPQRTree<TestVertex, TestEdge>(grid.getEdges().get(0), grid,
+				SPQRTreeConstruction.TRICONNECTED_COMPONENTS);
+
+		//every edge is represented by exactly one Q node
+		int qNodes = 0;
+		List<SPQRTreeNode<TestVertex, TreeEdgeWithContent<TestVertex, TestEdge>>> nodes = new ArrayList<>();
+		nodes.add(tree.getRoot());
+		while (!nodes.isEmpty()){
+			SPQRTreeNode<TestVertex, TreeEdgeWithContent<TestVertex, TestEdge>> node = nodes.remove(nodes.size() - 1);
+			if (node.getNodeType() == NodeType.Q)
+				qNodes++;
+			nodes.addAll(node.getChildren());
+		}
+		assertEquals(grid.getEdges().size(), qNodes);
+	}
 
 }
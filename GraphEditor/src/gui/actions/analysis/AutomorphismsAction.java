@@ -1,9 +1,9 @@
 package gui.actions.analysis;
 
 import java.awt.event.ActionEvent;
-import java.util.List;
 
 import graph.symmetry.Permutation;
+import graph.symmetry.PermutationGroup;
 import graph.symmetry.nauty.McKayGraphLabelingAlgorithm;
 import gui.model.GraphEdge;
 import gui.model.GraphVertex;
@@ -24,10 +24,13 @@ public class AutomorphismsAction extends AnalysisAction{
 	public void actionPerformed(ActionEvent arg0) {
 		String ret = "";
 		
-		List<Permutation> automorphisms = nauty.findAutomorphisms(getGraph());
-		for (Permutation p : automorphisms){
+		PermutationGroup automorphisms = nauty.findAutomorphismGroup(getGraph());
+		//the group can be too large to list all of its elements
+		for (Permutation p : automorphisms.getPermutations(McKayGraphLabelingAlgorithm.DEFAULT_AUTOMORPHISMS_LIMIT)){
 			ret += p.cyclicRepresenatation() + "\n";
 		}
+		if (automorphisms.size() > McKayGraphLabelingAlgorithm.DEFAULT_AUTOMORPHISMS_LIMIT)
+			ret += "First " + McKayGraphLabelingAlgorithm.DEFAULT_AUTOMORPHISMS_LIMIT + " of " + automorphisms.size() + " automorphisms\n";
 		showScrollableOptionPane("Automorphisms", ret);	
 	}
 }
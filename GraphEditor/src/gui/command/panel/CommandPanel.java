@@ -41,6 +41,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
@@ -136,8 +137,24 @@ public class CommandPanel extends JPanel{
 
 
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * Executes the command and forms the reply, which describes the error
+	 * if the algorithm called by the command fails
+	 * @param command Command
+	 * @return Reply
+	 */
 	private String processCommand(String command){
+		try{
+			return executeCommand(command);
+		}
+		catch(Exception ex){
+			ex.printStackTrace();
+			return "Error: " + ex.getMessage();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private String executeCommand(String command) throws Exception{
 		command = command.trim();
 		allCommands.add(command);
 		currentCommandIndex = allCommands.size();
@@ -171,7 +188,7 @@ public class CommandPanel extends JPanel{
 		if (MainFrame.getInstance().getCurrentView() == null)
 			return "Create or open a graph";
 
-		Graph<GraphVertex, GraphEdge> graph = MainFrame.getInstance().getCurrentView().getModel().getGraph();
+		final Graph<GraphVertex, GraphEdge> graph = MainFrame.getInstance().getCurrentView().getModel().getGraph();
 
 		if (command.startsWith(commands[1])){ //add vertex
 			command = command.substring(commands[1].length()).trim();
@@ -224,21 +241,36 @@ public class CommandPanel extends JPanel{
 
 
 		if (command.trim().equals(commands[3])){
-			ExecuteResult result = AlgorithmExecutor.execute(graph, "isConnected");
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[3], new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					return graph.isConnected();
+				}
+			});
 			return ((Boolean) result.getValue() ? "yes" : "no" )+ " [in " + result.getDuration() + " ms]"; 
 		}
 
 		if (command.trim().equals(commands[4])){
-			ExecuteResult result = AlgorithmExecutor.execute(graph, "isBiconnected");
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[4], new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					return graph.isBiconnected();
+				}
+			});
 			return ((Boolean) result.getValue() ? "yes" : "no" )+ " [in " + result.getDuration() + " ms]";
 		}
 
 		if (command.trim().equals(commands[5])){
-			SeparationPairSplitting<GraphVertex, GraphEdge> separationPairsSplitting =
+			final SeparationPairSplitting<GraphVertex, GraphEdge> separationPairsSplitting =
 					new SeparationPairSplitting<GraphVertex, GraphEdge>();
 
 			String answer = "no";
-			ExecuteResult result = AlgorithmExecutor.execute(separationPairsSplitting, "findSeaparationPairs", graph);
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[5], new Callable<List<SplitPair<GraphVertex, GraphEdge>>>() {
+				@Override
+				public List<SplitPair<GraphVertex, GraphEdge>> call() throws Exception {
+					return separationPairsSplitting.findSeaparationPairs(graph);
+				}
+			});
 			String time =  " [in " + result.getDuration() + " ms]";
 			List<SplitPair<GraphVertex, GraphEdge>> separationPairs = (List<SplitPair<GraphVertex, GraphEdge>>) result.getValue();
 			answer = separationPairs.size() == 0 ? "yes" : "no";
@@ -246,7 +278,12 @@ public class CommandPanel extends JPanel{
 		}
 
 		if (command.trim().equals(commands[6])){
-			ExecuteResult result = AlgorithmExecutor.execute(graph, "isCyclic");
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[6], new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					return graph.isCyclic();
+				}
+			});
 			return ((Boolean) result.getValue() ? "yes" : "no" )+ " [in " + result.getDuration() + " ms]";
 
 		}
@@ -266,12 +303,23 @@ public class CommandPanel extends JPanel{
 				else
 					return "Unknown algorithm specified. Type \"help is planar\" for more details";
 			}
-			ExecuteResult result = AlgorithmExecutor.execute(planarityTest, "isPlannar", graph);
+			final PlanarityTestingAlgorithm<GraphVertex, GraphEdge> algorithm = planarityTest;
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[7], new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					return algorithm.isPlannar(graph);
+				}
+			});
 			return ((Boolean) result.getValue() ? "yes" : "no" )+ " [in " + result.getDuration() + " ms]";
 		}
 
 		if (command.trim().equals(commands[8])){
-			ExecuteResult result = AlgorithmExecutor.execute(graph, "listCutVertices");
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[8], new Callable<List<GraphVertex>>() {
+				@Override
+				public List<GraphVertex> call() throws Exception {
+					return graph.listCutVertices();
+				}
+			});
 			String time =  " [in " + result.getDuration() + " ms]";
 			List<GraphVertex> cutVertices = (List<GraphVertex>) result.getValue();
 			String ret;
@@ -290,7 +338,12 @@ public class CommandPanel extends JPanel{
 				return ret;
 			}
 			else{
-				ExecuteResult result = AlgorithmExecutor.execute(graph, "listBiconnectedComponents");
+				ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[9], new Callable<List<Graph<GraphVertex, GraphEdge>>>() {
+					@Override
+					public List<Graph<GraphVertex, GraphEdge>> call() throws Exception {
+						return graph.listBiconnectedComponents();
+					}
+				});
 				String time =  " [in " + result.getDuration() + " ms]";
 				List<Graph<GraphVertex, GraphEdge>> blocks = (List<Graph<GraphVertex, GraphEdge>>) result.getValue();
 				StringBuilder builder = new StringBuilder();
@@ -305,11 +358,16 @@ public class CommandPanel extends JPanel{
 
 		if (command.trim().equals(commands[10])){
 			String ret = "";
-			SeparationPairSplitting<GraphVertex, GraphEdge> separationPairsSplitting =
+			final SeparationPairSplitting<GraphVertex, GraphEdge> separationPairsSplitting =
 					new SeparationPairSplitting<GraphVertex, GraphEdge>();
 			List<SplitPair<GraphVertex, GraphEdge>> separationPairs;
 
-			ExecuteResult result = AlgorithmExecutor.execute(separationPairsSplitting, "findSeaparationPairs", graph);
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[10], new Callable<List<SplitPair<GraphVertex, GraphEdge>>>() {
+				@Override
+				public List<SplitPair<GraphVertex, GraphEdge>> call() throws Exception {
+					return separationPairsSplitting.findSeaparationPairs(graph);
+				}
+			});
 			String time =  " [in " + result.getDuration() + " ms]";
 			separationPairs = (List<SplitPair<GraphVertex, GraphEdge>>) result.getValue();
 
@@ -324,8 +382,13 @@ public class CommandPanel extends JPanel{
 
 
 		if (command.trim().equals(commands[11])){
-			TriconnectedSplitting<GraphVertex, GraphEdge> splitting = new TriconnectedSplitting<GraphVertex, GraphEdge>(graph);
-			ExecuteResult result = AlgorithmExecutor.execute(splitting, "formTriconnectedComponents");
+			final TriconnectedSplitting<GraphVertex, GraphEdge> splitting = new TriconnectedSplitting<GraphVertex, GraphEdge>(graph);
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[11], new Callable<List<HopcroftTarjanSplitComponent<GraphVertex, GraphEdge>>>() {
+				@Override
+				public List<HopcroftTarjanSplitComponent<GraphVertex, GraphEdge>> call() throws Exception {
+					return splitting.formTriconnectedComponents();
+				}
+			});
 			List<HopcroftTarjanSplitComponent<GraphVertex, GraphEdge>>  components = (List<HopcroftTarjanSplitComponent<GraphVertex, GraphEdge>>) result.getValue();
 			String time =  " [in " + result.getDuration() + " ms]";
 			String ret = "";
@@ -347,18 +410,31 @@ public class CommandPanel extends JPanel{
 		if (command.trim().equals(commands[12])){
 			String ret = "";
 			
-			ExecuteResult result = AlgorithmExecutor.execute(nauty, "findAutomorphisms", graph);
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[12], new Callable<PermutationGroup>() {
+				@Override
+				public PermutationGroup call() throws Exception {
+					return nauty.findAutomorphismGroup(graph);
+				}
+			});
 			String time =  " [in " + result.getDuration() + " ms]";
-			List<Permutation> automorphisms = (List<Permutation>) result.getValue();
-			for (Permutation p : automorphisms){
+			PermutationGroup automorphisms = (PermutationGroup) result.getValue();
+			//the group can be too large to list all of its elements
+			for (Permutation p : automorphisms.getPermutations(McKayGraphLabelingAlgorithm.DEFAULT_AUTOMORPHISMS_LIMIT)){
 				ret += p.cyclicRepresenatation() + "\n";
 			}
+			if (automorphisms.size() > McKayGraphLabelingAlgorithm.DEFAULT_AUTOMORPHISMS_LIMIT)
+				ret += "First " + McKayGraphLabelingAlgorithm.DEFAULT_AUTOMORPHISMS_LIMIT + " of " + automorphisms.size() + " automorphisms\n";
 			return ret + time;
 		}
 
 		if (command.trim().equals(commands[13])){
-			SimpleCyclesFinder<GraphVertex, GraphEdge> cyclesFinder = new SimpleCyclesFinder<GraphVertex,GraphEdge>();
-			ExecuteResult result = AlgorithmExecutor.execute(cyclesFinder, "findCycles", graph);
+			final SimpleCyclesFinder<GraphVertex, GraphEdge> cyclesFinder = new SimpleCyclesFinder<GraphVertex,GraphEdge>();
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[13], new Callable<List<List<GraphVertex>>>() {
+				@Override
+				public List<List<GraphVertex>> call() throws Exception {
+					return cyclesFinder.findCycles(graph);
+				}
+			});
 			String time =  " [in " + result.getDuration() + " ms]";
 			List<List<GraphVertex>> cycles = (List<List<GraphVertex>>) result.getValue();
 			String cyclesStr = "";
@@ -376,9 +452,14 @@ public class CommandPanel extends JPanel{
 		}
 
 		if (command.trim().equals(commands[14])){
-			SimpleUndirectedCyclesFinder<GraphVertex, GraphEdge> cycles = 
+			final SimpleUndirectedCyclesFinder<GraphVertex, GraphEdge> cycles = 
 					new SimpleUndirectedCyclesFinder<GraphVertex, GraphEdge>(graph);
-			ExecuteResult result = AlgorithmExecutor.execute(cycles, "findAllCycles");
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[14], new Callable<List<List<GraphVertex>>>() {
+				@Override
+				public List<List<GraphVertex>> call() throws Exception {
+					return cycles.findAllCycles();
+				}
+			});
 			List<List<GraphVertex>> allCycles = (List<List<GraphVertex>>) result.getValue();
 			String time =  " [in " + result.getDuration() + " ms]";
 			String ret = "\n";
@@ -390,14 +471,29 @@ public class CommandPanel extends JPanel{
 		if (command.trim().equals(commands[15])){
 			String ret = "";
 			long totalTime = 0;
-			PermutationAnalyzator<GraphVertex, GraphEdge> analyzator = new PermutationAnalyzator<GraphVertex,GraphEdge>(graph);
-			ExecuteResult result = AlgorithmExecutor.execute(analyzator, "findReflectionGroups");
+			final PermutationAnalyzator<GraphVertex, GraphEdge> analyzator = new PermutationAnalyzator<GraphVertex,GraphEdge>(graph);
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[15] + " reflections", new Callable<List<PermutationGroup>>() {
+				@Override
+				public List<PermutationGroup> call() throws Exception {
+					return analyzator.findReflectionGroups();
+				}
+			});
 			totalTime += result.getDuration();
 			List<PermutationGroup> groups = (List<PermutationGroup>) result.getValue();
-			result = AlgorithmExecutor.execute(analyzator, "findRotationGroups");
+			result = AlgorithmExecutor.execute("CommandPanel " + commands[15] + " rotations", new Callable<List<PermutationGroup>>() {
+				@Override
+				public List<PermutationGroup> call() throws Exception {
+					return analyzator.findRotationGroups();
+				}
+			});
 			totalTime += result.getDuration();
 			groups.addAll((List<PermutationGroup>) result.getValue());
-			result = AlgorithmExecutor.execute(analyzator, "findDihedralGroups");
+			result = AlgorithmExecutor.execute("CommandPanel " + commands[15] + " dihedral", new Callable<List<PermutationGroup>>() {
+				@Override
+				public List<PermutationGroup> call() throws Exception {
+					return analyzator.findDihedralGroups();
+				}
+			});
 			totalTime += result.getDuration();
 			groups.addAll((List<PermutationGroup>) result.getValue());
 			for (PermutationGroup gr : groups)
@@ -409,36 +505,68 @@ public class CommandPanel extends JPanel{
 		}
 
 		if (command.trim().equals(commands[16])){
-			ExecuteResult result = AlgorithmExecutor.execute(graph, "isTree");
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[16], new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					return graph.isTree();
+				}
+			});
 			return ((Boolean) result.getValue() ? "yes" : "no" )+ " [in " + result.getDuration() + " ms]";
 		}
 
 		if (command.trim().equals(commands[17])){
-			BinaryTree<GraphVertex, GraphEdge> binaryTree = new BinaryTree<GraphVertex,GraphEdge>(graph);
-			ExecuteResult result = AlgorithmExecutor.execute(binaryTree, "execute");
+			final BinaryTree<GraphVertex, GraphEdge> binaryTree = new BinaryTree<GraphVertex,GraphEdge>(graph);
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[17], new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					binaryTree.execute();
+					return null;
+				}
+			});
 			return binaryTree.isCanBeConstructed() ? "yes" : "no" + " [in " + result.getDuration() + " ms]";
 		}
 
 		if (command.trim().equals(commands[18])){
-			BinaryTree<GraphVertex, GraphEdge> binaryTree = new BinaryTree<GraphVertex,GraphEdge>(graph);
-			ExecuteResult result = AlgorithmExecutor.execute(binaryTree, "execute");
+			final BinaryTree<GraphVertex, GraphEdge> binaryTree = new BinaryTree<GraphVertex,GraphEdge>(graph);
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[18] + " binary tree", new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					binaryTree.execute();
+					return null;
+				}
+			});
 			long totalTime = result.getDuration();
 			if (!binaryTree.isCanBeConstructed())
 				return "Not a binary tree" + " [in " + totalTime + " ms]";
-			result = AlgorithmExecutor.execute(binaryTree, "isBalanced");
+			result = AlgorithmExecutor.execute("CommandPanel " + commands[18] + " balance", new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					return binaryTree.isBalanced();
+				}
+			});
 			totalTime += result.getDuration();
 			String answer = binaryTree.isBalanced() ? "yes" : "no";
 			return answer + " [in " + totalTime + " ms]";
 		}
 
 		if (command.trim().equals(commands[19])){
-			ExecuteResult result = AlgorithmExecutor.execute(graph, "isRing");
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[19], new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					return graph.isRing();
+				}
+			});
 			return ((Boolean) result.getValue() ? "yes" : "no" )+ " [in " + result.getDuration() + " ms]";
 		}
 
 		if (command.trim().equals(commands[20])){
-			Bipartite<GraphVertex, GraphEdge> bipartite = new Bipartite<>(graph);
-			ExecuteResult result = AlgorithmExecutor.execute(bipartite, "isBipartite");
+			final Bipartite<GraphVertex, GraphEdge> bipartite = new Bipartite<>(graph);
+			ExecuteResult result = AlgorithmExecutor.execute("CommandPanel " + commands[20], new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					return bipartite.isBipartite();
+				}
+			});
 			return ((Boolean) result.getValue() ? "yes" : "no" )+ " [in " + result.getDuration() + " ms]";
 		}
 
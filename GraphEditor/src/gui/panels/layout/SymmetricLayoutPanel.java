@@ -29,7 +29,7 @@ public class SymmetricLayoutPanel extends LayoutPropertyPanel{
 		McKayGraphLabelingAlgorithm<GraphVertex, GraphEdge> nauty =
 				new McKayGraphLabelingAlgorithm<GraphVertex, GraphEdge>();
 		
-		List<Permutation> permutations = nauty.findAutomorphisms(graph);
+		List<Permutation> permutations = nauty.findAutomorphisms(graph, McKayGraphLabelingAlgorithm.DEFAULT_AUTOMORPHISMS_LIMIT);
 		
 		Permutation[] permutationArray = new Permutation[permutations.size() +1];
 		permutationArray[0] = new Permutation();
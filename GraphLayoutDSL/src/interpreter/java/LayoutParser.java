@@ -0,0 +1,751 @@
+package interpreter.java;
+
+import interfaces.IFactor;
+import interfaces.ILayout;
+import interfaces.ILayoutGraph;
+import interfaces.ITerm;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import models.java.Expression;
+import models.java.Factor;
+import models.java.LayoutGraph;
+import models.java.LayoutSubgraphs;
+import models.java.Term;
+
+/**
+ * Recursive descent parser of the layout language, whose grammar is given in {@code language/layout.tx}.
+ * Each rule of the grammar is matched by a method, except for the rules of layout algorithms and their properties,
+ * which all have the same form and are given as tables.
+ * The parser follows the same rules as the textX parser generated from the grammar did:
+ * alternatives are tried in the order in which they are listed and the first one which matches is taken,
+ * keywords are matched without checking word boundaries, and whitespace and comments are
+ * skipped before each keyword or value.
+ * The results are formed in the same way as the Python interpreter formed them: algorithms and aesthetic
+ * criteria are described by maps of their attributes, with the attributes of algorithm's properties added to
+ * the algorithm's map.
+ * A parser is meant to be used for one input and is not thread safe
+ */
+public class LayoutParser {
+
+	private static final Pattern INT = Pattern.compile("[-+]?[0-9]+\\b");
+	private static final Pattern FLOAT = Pattern.compile("[-+]?[0-9]*\\.?[0-9]+([eE][-+]?[0-9]+)?\\b");
+	private static final Pattern STRING = Pattern.compile("(\"(\\\\\"|[^\"])*\")|('(\\\\'|[^'])*')");
+
+	private static final String[] STYLES = {"automatic", "circular", "tree", "hierarchical", "symmetric", "general"};
+	private static final String[] ORIENTATIONS = {"left", "right", "up", "down"};
+
+	/**
+	 * Types of values of algorithm properties. Properties without a value are flags
+	 */
+	private enum ValueType {INT, FLOAT, ORIENTATION, AUTOMORPHISM};
+
+	/**
+	 * A rule matching a property of a layout algorithm: a sequence of keywords followed by the property's value,
+	 * or a flag, which is set if its keywords are matched. Keywords ending with a question mark are optional
+	 */
+	private static class PropertyRule {
+
+		private String attribute;
+		private String[] keywords;
+		private ValueType type;
+
+		private PropertyRule(String attribute, ValueType type, String... keywords){
+			this.attribute = attribute;
+			this.type = type;
+			this.keywords = keywords;
+		}
+	}
+
+	/**
+	 * A rule matching a layout algorithm: its keywords, the first of which is its name, and a list of properties.
+	 * If the algorithm has a type, it is the first keyword and the name is the second one.
+	 * Properties are enclosed in parentheses, unless stated otherwise
+	 */
+	private static class AlgorithmRule {
+
+		private String[] keywords;
+		private boolean typed;
+		private boolean parenthesized = true;
+		private PropertyRule[] properties;
+
+		private AlgorithmRule(PropertyRule[] properties, String... keywords){
+			this.properties = properties;
+			this.keywords = keywords;
+		}
+	}
+
+	private static PropertyRule value(String attribute, ValueType type, String... keywords){
+		return new PropertyRule(attribute, type, keywords);
+	}
+
+	private static PropertyRule flag(String attribute, String... keywords){
+		return new PropertyRule(attribute, null, keywords);
+	}
+
+	private static PropertyRule[] properties(PropertyRule... properties){
+		return properties;
+	}
+
+	private static final PropertyRule HORIZONTAL_TREE = value("xDist", ValueType.INT, "horizontal", "distance?", "=");
+	private static final PropertyRule VERTICAL_TREE = value("yDist", ValueType.INT, "vertical", "distance?", "=");
+	private static final PropertyRule IS_HORIZONTAL = flag("horizontal", "horizontal");
+	private static final PropertyRule IS_INVERT = flag("invert", "invert");
+	private static final PropertyRule IS_RESIZE_PARENTS = flag("resizeParents", "resize", "parents");
+	//the grammar requires a space at the start of ' distance', which can never be matched after whitespace is skipped
+	private static final PropertyRule LEVEL_DISTANCE = value("levelDistance", ValueType.INT, "level", " distance", "=");
+	private static final PropertyRule NODE_DISTANCE = value("nodeDistance", ValueType.INT, "node", "distance", "=");
+	private static final PropertyRule ORIENTATION = value("orientation", ValueType.ORIENTATION, "orientation", "=");
+	private static final PropertyRule SPACING_SIBLINGS = value("spacingSiblings", ValueType.FLOAT, "spacing", "between?", "siblings", "=");
+	private static final PropertyRule SPACING_SUBTREES = value("spacingSubtrees", ValueType.FLOAT, "spacing", "between?", "subtrees", "=");
+	private static final PropertyRule SPACING_LEVELS = value("spacingLevels", ValueType.FLOAT, "spacing", "between?", "depth?", "levels", "=");
+	private static final PropertyRule OFFSET_FOR_ROOT_NODE = value("offsetRootNode", ValueType.FLOAT, "offset", "for?", "root", "node?", "=");
+	private static final PropertyRule MINIMAL_RADIUS = value("minRadius", ValueType.INT, "minimum", "radius", "=");
+	private static final PropertyRule IS_MOVE_PARENT = flag("moveParent", "move", "parent");
+	private static final PropertyRule PARENT_BORDER = value("parentBorder", ValueType.INT, "parent", "border", "=");
+	private static final PropertyRule INTRA_CELL_SPACING = value("intraCellSpacing", ValueType.FLOAT, "same", "layer", "spacing", "=");
+	private static final PropertyRule INTER_RANK_SPACING = value("interRankSpacing", ValueType.FLOAT, "adjacent", "layers", "spacing", "=");
+	private static final PropertyRule INTER_HIERARCHY_SPACING = value("interHierarchySpacing", ValueType.FLOAT, "hierarchy", "spacing", "=");
+	private static final PropertyRule PARALLEL_EDGES_SPACING = value("parallelEdgesSpacing", ValueType.FLOAT, "parallel", "edges", "spacing", "=");
+	private static final PropertyRule IS_FINE_TUNE = flag("fineTune", "fine", "tune");
+	private static final PropertyRule IS_OPTIMIZE_CROSSING = flag("optimize", "optimize", "crossings");
+	private static final PropertyRule DISTANCE = value("dist", ValueType.INT, "distance", "=");
+	private static final PropertyRule AUTOMORPHISM = value("automorphism", ValueType.AUTOMORPHISM, "automorphism", "=");
+	private static final PropertyRule DISCONNECTED_DISTANCE_MULTIPLIER = value("distanceMultiplier", ValueType.FLOAT, "disconnected?", "distance", "multiplier", "=");
+	private static final PropertyRule LENGTH_FACTOR = value("lengthFactor", ValueType.FLOAT, "length", "factor", "=");
+	private static final PropertyRule MAX_ITERATIONS = value("maxIterations", ValueType.INT, "maximum", "iterations", "=");
+	private static final PropertyRule ATTRACTION_MULTIPLIER = value("attractionMultiplier", ValueType.FLOAT, "attraction", "multiplier", "=");
+	private static final PropertyRule RESOLUTION_MULTIPLIER = value("resolutionMultiplier", ValueType.FLOAT, "resolution", "multiplier", "=");
+	private static final PropertyRule STRETCH = value("stretch", ValueType.FLOAT, "stretch", "=");
+	private static final PropertyRule REPULSION_RANGE = value("resolutionRange", ValueType.INT, "repulsion", "range", "=");
+	private static final PropertyRule FORCE_MULTIPLIER = value("forceMultiplier", ValueType.FLOAT, "force", "multiplier", "=");
+	private static final PropertyRule FORCE_CONSTANT = value("forceConstant", ValueType.FLOAT, "force", "constant", "=");
+	private static final PropertyRule MINIMAL_DISTANCE_LIMIT = value("minimalDistanceLimit", ValueType.FLOAT, "minimal", "distance", "limit", "=");
+	private static final PropertyRule INITIAL_TEMPERATURE = value("initialTemperature", ValueType.FLOAT, "initial", "temperature", "=");
+	private static final PropertyRule IS_OPTIMIZE_EDGE_CROSSINGS = flag("optimizeEdgeCrossings", "optimize", "edge", "crossings");
+	private static final PropertyRule EDGE_CROSSING_FACTOR = value("edgeCrossingFactor", ValueType.FLOAT, "edge", "crossing", "factor", "=");
+	private static final PropertyRule IS_OPTIMIZE_EDGE_DISTANCE = flag("optimizeEdgeDistance", "optimize", "edge", "distance");
+	private static final PropertyRule EDGE_DISTANCE_FACTOR = value("edgeDistanceFactor", ValueType.FLOAT, "edge", "distance", "factor", "=");
+	private static final PropertyRule IS_OPTIMIZE_BORDER_LINE = flag("optimizeBorderLine", "optimize", "border", "line");
+	private static final PropertyRule BORDER_LINE_FACTOR = value("borderLineFactor", ValueType.FLOAT, "border", "line", "factor", "=");
+	private static final PropertyRule IS_OPTIMIZE_NODE_DISTRIBUTION = flag("optimizeNodeDistribution", "optimize", "node", "distribution");
+	private static final PropertyRule NODE_DISTRIBUTION_FACTOR = value("nodeDistributionFactor", ValueType.FLOAT, "node", "distribution", "factor", "=");
+	private static final PropertyRule FINE_TUNING_RADIUS = value("fineTuningRadius", ValueType.FLOAT, "fine", "tuning", "radius", "=");
+	private static final PropertyRule AVERAGE_NODE_AREA = value("averageNodeArea", ValueType.FLOAT, "average", "node", "area", "=");
+	private static final PropertyRule AVERAGE_SCALE_FACTOR = value("averageScaleFactor", ValueType.FLOAT, "average", "scale", "factor", "=");
+	private static final PropertyRule COLUMNS = value("numOfColumns", ValueType.INT, "columns", "=");
+	private static final PropertyRule RECTANGULAR = flag("rectangular", "rectangular");
+
+	/**
+	 * Layout algorithms, in the order in which they are tried
+	 */
+	private static final AlgorithmRule[] ALGORITHMS = {
+		//tree algorithms
+		new AlgorithmRule(properties(HORIZONTAL_TREE, VERTICAL_TREE), "radial", "tree"),
+		new AlgorithmRule(properties(HORIZONTAL_TREE, VERTICAL_TREE), "level", "based", "tree"),
+		new AlgorithmRule(properties(IS_HORIZONTAL, IS_INVERT, IS_RESIZE_PARENTS, LEVEL_DISTANCE, NODE_DISTANCE),
+				"compact", "tree"),
+		new AlgorithmRule(properties(ORIENTATION, SPACING_SIBLINGS, SPACING_SUBTREES, SPACING_LEVELS, OFFSET_FOR_ROOT_NODE),
+				"node", "link", "tree"),
+		new AlgorithmRule(properties(MINIMAL_RADIUS), "balloon", "tree"),
+		//straight-line algorithms
+		new AlgorithmRule(properties(DISTANCE), "Tutte", "embedding?"),
+		new AlgorithmRule(properties(DISTANCE), "convex"),
+		orthogonal(),
+		new AlgorithmRule(properties(IS_RESIZE_PARENTS, PARENT_BORDER, IS_MOVE_PARENT, INTRA_CELL_SPACING, INTER_RANK_SPACING,
+				INTER_HIERARCHY_SPACING, PARALLEL_EDGES_SPACING, ORIENTATION, IS_FINE_TUNE), "hierarchical"),
+		new AlgorithmRule(properties(IS_OPTIMIZE_CROSSING, DISTANCE), "circular"),
+		new AlgorithmRule(properties(AUTOMORPHISM), "concentric", "symmetric"),
+		//force-directed algorithms
+		new AlgorithmRule(properties(DISCONNECTED_DISTANCE_MULTIPLIER, LENGTH_FACTOR, MAX_ITERATIONS), "Kamada", "-", "Kawai"),
+		new AlgorithmRule(properties(ATTRACTION_MULTIPLIER, RESOLUTION_MULTIPLIER, MAX_ITERATIONS), "Fruchterman", "-", "Reingold"),
+		new AlgorithmRule(properties(STRETCH, REPULSION_RANGE, FORCE_MULTIPLIER), "spring"),
+		fastOrganic(),
+		new AlgorithmRule(properties(EDGE_CROSSING_FACTOR, IS_OPTIMIZE_EDGE_CROSSINGS, EDGE_DISTANCE_FACTOR, IS_OPTIMIZE_EDGE_DISTANCE,
+				BORDER_LINE_FACTOR, IS_OPTIMIZE_BORDER_LINE, NODE_DISTRIBUTION_FACTOR, IS_OPTIMIZE_NODE_DISTRIBUTION,
+				FINE_TUNING_RADIUS, IS_FINE_TUNE, AVERAGE_NODE_AREA, AVERAGE_SCALE_FACTOR, MAX_ITERATIONS), "organic"),
+		new AlgorithmRule(properties(COLUMNS), "box")
+	};
+
+	private static AlgorithmRule orthogonal(){
+		AlgorithmRule rule = new AlgorithmRule(properties(RECTANGULAR), "orthogonal");
+		rule.parenthesized = false;
+		return rule;
+	}
+
+	private static AlgorithmRule fastOrganic(){
+		AlgorithmRule rule = new AlgorithmRule(properties(FORCE_CONSTANT, MINIMAL_DISTANCE_LIMIT, INITIAL_TEMPERATURE, MAX_ITERATIONS),
+				"fast", "organic");
+		rule.typed = true;
+		return rule;
+	}
+
+
+	private String input;
+	private int position;
+	private Matcher intMatcher, floatMatcher, stringMatcher;
+	/**
+	 * The furthest position at which matching failed, and what was expected there
+	 */
+	private int errorPosition = -1;
+	private Set<String> expected = new LinkedHashSet<String>();
+
+	/**
+	 * @param input Description of a layout in the layout language
+	 */
+	public LayoutParser(String input){
+		this.input = input;
+		intMatcher = INT.matcher(input);
+		floatMatcher = FLOAT.matcher(input);
+		stringMatcher = STRING.matcher(input);
+	}
+
+	/**
+	 * Parses the input
+	 * @return Layout instructions, either for the whole graph or for its subgraphs
+	 * @throws ParseException If the input doesn't conform to the grammar. The message states
+	 * what was expected at the position where the input stopped conforming
+	 */
+	public ILayout parse() throws ParseException{
+		position = 0;
+		ILayout layout = layoutGraph();
+		if (layout == null)
+			layout = layoutSubgraphs();
+		if (layout != null){
+			skip();
+			if (position == input.length())
+				return layout;
+			fail("EOF");
+		}
+		throw error();
+	}
+
+	private LayoutGraph layoutGraph(){
+		int start = position;
+		if (keywords("lay", "out", "graph")){
+			LayoutGraph layoutGraph = layoutType("graph", false);
+			if (layoutGraph != null)
+				return layoutGraph;
+		}
+		position = start;
+		return null;
+	}
+
+	private LayoutSubgraphs layoutSubgraphs(){
+		int start = position;
+		if (!keywords("lay", "out"))
+			return null;
+		List<ILayoutGraph> subgraphs = new ArrayList<ILayoutGraph>();
+		LayoutGraph subgraph = layoutSubgraph();
+		if (subgraph == null){
+			position = start;
+			return null;
+		}
+		while (subgraph != null){
+			subgraphs.add(subgraph);
+			int separator = position;
+			subgraph = null;
+			if (keyword(";")){
+				subgraph = layoutSubgraph();
+				if (subgraph == null)
+					position = separator;
+			}
+		}
+		return new LayoutSubgraphs(subgraphs);
+	}
+
+	/**
+	 * Matches a subgraph, given by its vertices or as 'others', and how it should be laid out.
+	 * The subgraph is described by a comma separated list of indexes and contents of its vertices,
+	 * and it is given by content if none of the vertices is given by index
+	 */
+	private LayoutGraph layoutSubgraph(){
+		int start = position;
+		String graph = null;
+		boolean graphContent = true;
+		List<Object> vertices = subgraph();
+		if (vertices != null){
+			StringBuilder builder = new StringBuilder();
+			for (Object vertex : vertices){
+				if (builder.length() > 0)
+					builder.append(",");
+				builder.append(vertex);
+				if (vertex instanceof Number)
+					graphContent = false;
+			}
+			graph = builder.toString();
+		}
+		else if (keyword("others")){
+			graph = "others";
+			graphContent = false;
+		}
+		if (graph != null){
+			LayoutGraph layoutGraph = layoutType(graph, graphContent);
+			if (layoutGraph != null)
+				return layoutGraph;
+		}
+		position = start;
+		return null;
+	}
+
+	private List<Object> subgraph(){
+		int start = position;
+		if (keyword("subgraph")){
+			keyword("containing");
+			List<Object> vertices = vertices();
+			if (vertices != null)
+				return vertices;
+		}
+		position = start;
+		return null;
+	}
+
+	/**
+	 * Matches one or more comma separated vertices
+	 * @return Indexes and contents of the vertices, or {@code null} if there are none
+	 */
+	private List<Object> vertices(){
+		Object vertex = vertex();
+		if (vertex == null)
+			return null;
+		List<Object> vertices = new ArrayList<Object>();
+		while (vertex != null){
+			vertices.add(vertex);
+			int separator = position;
+			vertex = null;
+			if (keyword(",")){
+				vertex = vertex();
+				if (vertex == null)
+					position = separator;
+			}
+		}
+		return vertices;
+	}
+
+	/**
+	 * @return Vertex index as a number or vertex content as a string
+	 */
+	private Object vertex(){
+		int start = position;
+		if (keyword("v")){
+			Object index = integer();
+			if (index != null)
+				return index;
+			position = start;
+		}
+		return string();
+	}
+
+	private List<Object> automorphism(){
+		int start = position;
+		if (keyword("(")){
+			List<Object> vertices = vertices();
+			if (vertices != null && keyword(")"))
+				return vertices;
+		}
+		position = start;
+		return null;
+	}
+
+	private LayoutGraph layoutType(String graph, boolean graphContent){
+		String style = layoutStyle();
+		if (style != null)
+			return new LayoutGraph(graph, "style", style, null, null, null, graphContent);
+		Expression expression = criteriaExpression();
+		if (expression != null)
+			return new LayoutGraph(graph, "mathCriteria", "", null, null, expression, graphContent);
+		List<Map<String, Object>> criteria = aestheticCriteria();
+		if (criteria != null)
+			return new LayoutGraph(graph, "criteria", "", criteria, null, null, graphContent);
+		Map<String, Object> algorithm = layoutAlgorithm();
+		if (algorithm != null)
+			return new LayoutGraph(graph, "algorithm", "", null, algorithm, null, graphContent);
+		return null;
+	}
+
+	private String layoutStyle(){
+		int start = position;
+		keyword("using");
+		if (keyword("style")){
+			String style = oneOf(STYLES);
+			if (style != null)
+				return style;
+		}
+		position = start;
+		return null;
+	}
+
+	private List<Map<String, Object>> aestheticCriteria(){
+		int start = position;
+		keywords("conforming", "to");
+		keyword("criteria");
+		Map<String, Object> criterion = aestheticCriterion();
+		if (criterion == null){
+			position = start;
+			return null;
+		}
+		List<Map<String, Object>> criteria = new ArrayList<Map<String, Object>>();
+		while (criterion != null){
+			criteria.add(criterion);
+			int separator = position;
+			criterion = null;
+			if (keyword(",")){
+				criterion = aestheticCriterion();
+				if (criterion == null)
+					position = separator;
+			}
+		}
+		return criteria;
+	}
+
+	private Expression criteriaExpression(){
+		List<ITerm> terms = new ArrayList<ITerm>();
+		Term term = criteriaTerm();
+		if (term == null)
+			return null;
+		while (term != null){
+			terms.add(term);
+			int separator = position;
+			term = null;
+			if (keyword("or")){
+				term = criteriaTerm();
+				if (term == null)
+					position = separator;
+			}
+		}
+		return new Expression(terms);
+	}
+
+	private Term criteriaTerm(){
+		List<IFactor> factors = new ArrayList<IFactor>();
+		Factor factor = criteriaFactor();
+		if (factor == null)
+			return null;
+		while (factor != null){
+			factors.add(factor);
+			int separator = position;
+			factor = null;
+			if (keyword("and")){
+				factor = criteriaFactor();
+				if (factor == null)
+					position = separator;
+			}
+		}
+		return new Term(factors);
+	}
+
+	private Factor criteriaFactor(){
+		int start = position;
+		boolean negative = keyword("not");
+		Map<String, Object> criterion = aestheticCriterion();
+		if (criterion != null)
+			return new Factor(negative, criterion, null);
+		int parenthesis = position;
+		if (keyword("(")){
+			Expression expression = criteriaExpression();
+			if (expression != null && keyword(")"))
+				return new Factor(negative, null, expression);
+			position = parenthesis;
+		}
+		position = start;
+		return null;
+	}
+
+	/**
+	 * Matches an aesthetic criterion. Its map contains the {@code criterion} attribute
+	 * and other attributes the criterion can have, which are set to their default values if not given
+	 */
+	private Map<String, Object> aestheticCriterion(){
+		int start = position;
+		Map<String, Object> criterion = new HashMap<String, Object>();
+
+		//edge crossings
+		keywords("minimization", "of");
+		if (keywords("edge", "crossings"))
+			return criterion(criterion, "crossings");
+		position = start;
+		if (keyword("planarity"))
+			return criterion(criterion, "planarity");
+
+		//minimum angles
+		keywords("maximization", "of", "minimum");
+		if (keyword("angle")){
+			criterion.put("threshold", 0);
+			int threshold = position;
+			if (keywords("threshold", "=")){
+				Object value = integer();
+				if (value != null)
+					criterion.put("threshold", value);
+				else
+					position = threshold;
+			}
+			return criterion(criterion, "angle");
+		}
+		position = start;
+
+		//minimum bands
+		keywords("minimization", "of");
+		if (keyword("bands"))
+			return criterion(criterion, "bands");
+		position = start;
+
+		//uniform flow
+		keyword("uniform");
+		if (keyword("flow")){
+			criterion.put("direction", null);
+			int direction = position;
+			if (keywords("direction", "=")){
+				String value = oneOf(ORIENTATIONS);
+				if (value != null)
+					criterion.put("direction", value);
+				else
+					position = direction;
+			}
+			return criterion(criterion, "flow");
+		}
+		position = start;
+
+		if (keyword("symmetry")){
+			criterion.put("automorphism", null);
+			int automorphism = position;
+			if (keyword("automorphism")){
+				List<Object> value = automorphism();
+				if (value != null)
+					criterion.put("automorphism", value);
+				else
+					position = automorphism;
+			}
+			return criterion(criterion, "symmetry");
+		}
+
+		if (keywords("even", "nodes", "distribution"))
+			return criterion(criterion, "distribution");
+		if (keywords("optimization", "of", "edges", "lengths"))
+			return criterion(criterion, "optimization");
+		if (keywords("similar", "edges", "lengths"))
+			return criterion(criterion, "similar");
+		return null;
+	}
+
+	private Map<String, Object> criterion(Map<String, Object> criterion, String name){
+		criterion.put("criterion", name);
+		return criterion;
+	}
+
+	private Map<String, Object> layoutAlgorithm(){
+		int start = position;
+		keyword("using");
+		keyword("algorithm");
+		for (AlgorithmRule rule : ALGORITHMS){
+			Map<String, Object> algorithm = algorithm(rule);
+			if (algorithm != null)
+				return algorithm;
+		}
+		position = start;
+		return null;
+	}
+
+	private Map<String, Object> algorithm(AlgorithmRule rule){
+		if (!keywords(rule.keywords))
+			return null;
+		Map<String, Object> algorithm = new HashMap<String, Object>();
+		if (rule.typed){
+			algorithm.put("type", rule.keywords[0]);
+			algorithm.put("name", rule.keywords[1]);
+		}
+		else
+			algorithm.put("name", rule.keywords[0]);
+
+		if (!rule.parenthesized){
+			propertyList(rule.properties, algorithm);
+			return algorithm;
+		}
+		int start = position;
+		if (keyword("(")){
+			Map<String, Object> properties = new HashMap<String, Object>();
+			propertyList(rule.properties, properties);
+			if (keyword(")"))
+				algorithm.putAll(properties);
+			else
+				position = start;
+		}
+		return algorithm;
+	}
+
+	/**
+	 * Matches zero or more comma separated properties and puts their values into the map
+	 */
+	private void propertyList(PropertyRule[] rules, Map<String, Object> properties){
+		if (!property(rules, properties))
+			return;
+		while (true){
+			int separator = position;
+			if (!keyword(",") || !property(rules, properties)){
+				position = separator;
+				return;
+			}
+		}
+	}
+
+	private boolean property(PropertyRule[] rules, Map<String, Object> properties){
+		for (PropertyRule rule : rules){
+			int start = position;
+			if (!keywords(rule.keywords))
+				continue;
+			Object value;
+			if (rule.type == null)
+				value = true;
+			else if (rule.type == ValueType.INT)
+				value = integer();
+			else if (rule.type == ValueType.FLOAT)
+				value = decimal();
+			else if (rule.type == ValueType.ORIENTATION)
+				value = oneOf(ORIENTATIONS);
+			else
+				value = automorphism();
+			if (value != null){
+				properties.put(rule.attribute, value);
+				return true;
+			}
+			position = start;
+		}
+		return false;
+	}
+
+	/**
+	 * Matches a sequence of keywords, where keywords ending with a question mark are optional.
+	 * The position is not changed if the sequence is not matched
+	 */
+	private boolean keywords(String... keywords){
+		int start = position;
+		for (String keyword : keywords){
+			if (keyword.length() > 1 && keyword.endsWith("?"))
+				keyword(keyword.substring(0, keyword.length() - 1));
+			else if (!keyword(keyword)){
+				position = start;
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean keyword(String keyword){
+		int start = position;
+		skip();
+		if (input.startsWith(keyword, position)){
+			position += keyword.length();
+			return true;
+		}
+		fail("'" + keyword + "'");
+		position = start;
+		return false;
+	}
+
+	/**
+	 * @return The first of the given keywords which is matched, or {@code null}
+	 */
+	private String oneOf(String[] keywords){
+		for (String keyword : keywords)
+			if (keyword(keyword))
+				return keyword;
+		return null;
+	}
+
+	/**
+	 * @return Matched integer, as an {@code Integer} if it is small enough, or {@code null}
+	 */
+	private Object integer(){
+		String match = match(intMatcher, "INT");
+		if (match == null)
+			return null;
+		long value = Long.parseLong(match.startsWith("+") ? match.substring(1) : match);
+		if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE)
+			return (int) value;
+		return value;
+	}
+
+	private Double decimal(){
+		String match = match(floatMatcher, "FLOAT");
+		return match == null ? null : Double.valueOf(match);
+	}
+
+	/**
+	 * @return Matched string without quotes, or {@code null}
+	 */
+	private String string(){
+		String match = match(stringMatcher, "STRING");
+		if (match == null)
+			return null;
+		return match.substring(1, match.length() - 1).replace("\\\"", "\"").replace("\\'", "'");
+	}
+
+	private String match(Matcher matcher, String name){
+		int start = position;
+		skip();
+		matcher.region(position, input.length());
+		if (matcher.lookingAt()){
+			position = matcher.end();
+			return matcher.group();
+		}
+		fail(name);
+		position = start;
+		return null;
+	}
+
+	/**
+	 * Skips whitespace and comments, which last until the end of the line
+	 */
+	private void skip(){
+		while (position < input.length()){
+			char c = input.charAt(position);
+			if (c == ' ' || c == '\t' || c == '\n' || c == '\r')
+				position++;
+			else if (input.startsWith("//", position)){
+				while (position < input.length() && input.charAt(position) != '\n')
+					position++;
+			}
+			else
+				break;
+		}
+	}
+
+	private void fail(String what){
+		if (position > errorPosition){
+			errorPosition = position;
+			expected.clear();
+		}
+		if (position == errorPosition)
+			expected.add(what);
+	}
+
+	private ParseException error(){
+		StringBuilder message = new StringBuilder("Expected ");
+		boolean first = true;
+		for (String what : expected){
+			if (!first)
+				message.append(" or ");
+			message.append(what);
+			first = false;
+		}
+		int line = 1;
+		int lineStart = 0;
+		for (int i = 0; i < errorPosition; i++)
+			if (input.charAt(i) == '\n'){
+				line++;
+				lineStart = i + 1;
+			}
+		message.append(" at position (").append(line).append(", ").append(errorPosition - lineStart + 1).append(") => '");
+		message.append(input.substring(Math.max(errorPosition - 10, 0), errorPosition)).append("*");
+		message.append(input.substring(errorPosition, Math.min(errorPosition + 10, input.length()))).append("'.");
+		return new ParseException(message.toString(), errorPosition);
+	}
+
+}
@@ -1,7 +1,13 @@
 package dsl.test;
 
+import interfaces.IExpression;
+import interfaces.IFactor;
+import interfaces.ITerm;
 import interpreter.java.Interpreter;
 import models.java.LayoutGraph;
+import models.java.LayoutSubgraphs;
+
+import java.util.Arrays;
 
 import org.junit.Test;
 
@@ -10,43 +16,43 @@ import junit.framework.TestCase;
 public class TestLanguageAndInterpreter extends TestCase{
 
 	private Interpreter interpreter;
-	
+
 	@Override
 	public void setUp(){
 		interpreter = Interpreter.getInstance();
 	}
-	
+
 	@Test
 	public void testAlgorithms(){
-		
+
 		LayoutGraph result;
-		result = (LayoutGraph) interpreter.execute("layout graph algorithm level based tree  horizontal = 5, vertical = 10");
+		result = (LayoutGraph) interpreter.execute("layout graph algorithm level based tree (horizontal = 5, vertical = 10)");
 		assertEquals("level", result.getAlgorithm().get("name"));
 		assertEquals(5, result.getAlgorithm().get("xDist"));
 		assertEquals(10, result.getAlgorithm().get("yDist"));
-		
-		result = (LayoutGraph) interpreter.execute("layout graph algorithm node link tree orientation = left");
+
+		result = (LayoutGraph) interpreter.execute("layout graph algorithm node link tree (orientation = left)");
 		assertEquals("node", result.getAlgorithm().get("name"));
 		assertEquals("left", result.getAlgorithm().get("orientation"));
-		
-		result = (LayoutGraph) interpreter.execute("layout graph algorithm hierarchical same "
-				+ "layer spacing = 10,  parent border = 10, move parent, hierarchy spacing = 3, fine tune ");
+
+		result = (LayoutGraph) interpreter.execute("layout graph algorithm hierarchical (same "
+				+ "layer spacing = 10,  parent border = 10, move parent, hierarchy spacing = 3, fine tune) ");
 		assertEquals("hierarchical", result.getAlgorithm().get("name"));
 		assertEquals(10.0, result.getAlgorithm().get("intraCellSpacing"));
 		assertEquals(10, result.getAlgorithm().get("parentBorder"));
 		assertEquals(true, result.getAlgorithm().get("moveParent"));
 		assertEquals(3.0, result.getAlgorithm().get("interHierarchySpacing"));
 		assertEquals(true, result.getAlgorithm().get("fineTune"));
-		
+
 		result = (LayoutGraph) interpreter.execute("layout graph algorithm circular");
 		assertEquals("circular", result.getAlgorithm().get("name"));
-		
-		result = (LayoutGraph) interpreter.execute("layout graph algorithm Kamada Kawai distance multiplier = 23.2, length factor = 4");
+
+		result = (LayoutGraph) interpreter.execute("layout graph algorithm Kamada-Kawai (distance multiplier = 23.2, length factor = 4)");
 		assertEquals("Kamada", result.getAlgorithm().get("name"));
 		assertEquals(23.2, result.getAlgorithm().get("distanceMultiplier"));
 		assertEquals(4.0, result.getAlgorithm().get("lengthFactor"));
-		
-		result = (LayoutGraph) interpreter.execute("layout graph algorithm organic fine tune, fine tuning radius = 12.2, optimize edge crossings, edge crossing factor = 12, optimize node distribution, average scale factor = 23, optimize border line,  border line factor = 12");
+
+		result = (LayoutGraph) interpreter.execute("layout graph algorithm organic (fine tune, fine tuning radius = 12.2, optimize edge crossings, edge crossing factor = 12, optimize node distribution, average scale factor = 23, optimize border line,  border line factor = 12)");
 		assertEquals("organic", result.getAlgorithm().get("name"));
 		assertEquals(true, result.getAlgorithm().get("fineTune"));
 		assertEquals(12.2, result.getAlgorithm().get("fineTuningRadius"));
@@ -56,21 +62,68 @@ public class TestLanguageAndInterpreter extends TestCase{
 		assertEquals(23.0, result.getAlgorithm().get("averageScaleFactor"));
 		assertEquals(true, result.getAlgorithm().get("optimizeBorderLine"));
 		assertEquals(12.0, result.getAlgorithm().get("borderLineFactor"));
-		
+
+		result = (LayoutGraph) interpreter.execute("lay out graph using fast organic (force constant = 2)");
+		assertEquals("algorithm", result.getType());
+		assertEquals("organic", result.getAlgorithm().get("name"));
+		assertEquals("fast", result.getAlgorithm().get("type"));
+		assertEquals(2.0, result.getAlgorithm().get("forceConstant"));
+
 	}
-	
+
 	@Test
 	public void testAestheticCriteria(){
 		LayoutGraph result;
-		result = (LayoutGraph) interpreter.execute("layout graph criteria maximize minimal angle threshold=5, uniform flow direction = left, distribute nodes evenly ");
+		result = (LayoutGraph) interpreter.execute("layout graph criteria maximization of minimum angle threshold=5, uniform flow direction = left, even nodes distribution ");
 		assertNotNull(result);
 		assertEquals(3, result.getAestheticCriteria().size());
 		assertEquals(5, result.getAestheticCriteria().get(0).get("threshold"));
 		assertEquals("angle", result.getAestheticCriteria().get(0).get("criterion"));
 		assertEquals("flow", result.getAestheticCriteria().get(1).get("criterion"));
 		assertEquals("left", result.getAestheticCriteria().get(1).get("direction"));
-		assertEquals("distribute", result.getAestheticCriteria().get(2).get("criterion"));
-		
+		assertEquals("distribution", result.getAestheticCriteria().get(2).get("criterion"));
+
+	}
+
+	@Test
+	public void testCriteriaExpression(){
+		LayoutGraph result = (LayoutGraph) interpreter.execute("lay out graph not flow and planarity or (symmetry or edge crossings)");
+		assertEquals("mathCriteria", result.getType());
+		IExpression expression = result.getCriteriaExpression();
+		assertEquals(2, expression.getTerms().size());
+		ITerm first = expression.getTerms().get(0);
+		assertEquals(2, first.getFactors().size());
+		assertTrue(first.getFactors().get(0).isNegative());
+		assertEquals("flow", first.getFactors().get(0).getAestheticCriterion().get("criterion"));
+		assertEquals("planarity", first.getFactors().get(1).getAestheticCriterion().get("criterion"));
+		IFactor nested = expression.getTerms().get(1).getFactors().get(0);
+		assertNull(nested.getAestheticCriterion());
+		assertEquals(2, nested.getExpression().getTerms().size());
+		assertEquals("crossings", nested.getExpression().getTerms().get(1).getFactors().get(0).getAestheticCriterion().get("criterion"));
+	}
+
+	@Test
+	public void testSubgraphs(){
+		LayoutSubgraphs result = (LayoutSubgraphs) interpreter.execute("lay out subgraph containing v1, v2, v3 style circular; "
+				+ "subgraph 'a', 'b' algorithm box (columns = 3);\n others criteria symmetry automorphism (v1, v2) // comment");
+		assertEquals(3, result.getSubgraphs().size());
+		assertEquals("1,2,3", result.getSubgraphs().get(0).getGraph());
+		assertFalse(result.getSubgraphs().get(0).isGraphContent());
+		assertEquals("circular", result.getSubgraphs().get(0).getStyle());
+		assertEquals("a,b", result.getSubgraphs().get(1).getGraph());
+		assertTrue(result.getSubgraphs().get(1).isGraphContent());
+		assertEquals(3, result.getSubgraphs().get(1).getAlgorithm().get("numOfColumns"));
+		assertEquals("others", result.getSubgraphs().get(2).getGraph());
+		assertEquals(Arrays.asList(1, 2), result.getSubgraphs().get(2).getAestheticCriteria().get(0).get("automorphism"));
+	}
+
+	@Test
+	public void testSyntaxError(){
+		LayoutGraph result = (LayoutGraph) interpreter.execute("lay out graph algorithm circular (distance = x)");
+		assertNotNull(result.getException());
+		assertTrue(result.getException().startsWith("Expected INT at position (1, 46)"));
+		result = (LayoutGraph) interpreter.execute("lay out graph style circular, tree");
+		assertTrue(result.getException().contains("EOF"));
 	}
 
 }